@@ -0,0 +1,70 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark du noyau de mixage : un frame complet (reset, addSource pour chaque source, mix).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioMixerBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int sourceCount;
+
+    @Param({"100", "50"})
+    public int volume;
+
+    // Fondu en cours : le gain varie sur le frame au lieu d'être constant
+    @Param({"false", "true"})
+    public boolean fading;
+
+    private AudioMixer mixer;
+    private ByteBuffer[] frames;
+    private float gain;
+
+    @Setup
+    public void setUp() {
+        mixer = new AudioMixer();
+        frames = new ByteBuffer[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            frames[i] = BenchmarkFrames.toneFrame(i);
+        }
+        gain = volume / 100.0f;
+    }
+
+    @Benchmark
+    public ByteBuffer mixFrame() {
+        mixer.reset();
+        for (ByteBuffer frame : frames) {
+            if (fading) {
+                mixer.addSource(frame, gain, gain * 0.9f);
+            } else {
+                mixer.addSource(frame, gain);
+            }
+        }
+        return mixer.mix();
+    }
+
+    @Benchmark
+    public int peak() {
+        return AudioMixer.peak(frames[0]);
+    }
+}
@@ -0,0 +1,73 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.audio.simulation.SimulatedGuild;
+import fr.farmvivi.discordbot.core.event.SimpleEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark d'un frame du pipeline tel que JDA le demande
+ * ({@code canProvide}, {@code provide20MsAudio}, {@code isOpus}).
+ * Une source : mode bypass ; plusieurs sources : mode mixage.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioPipelineBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int sourceCount;
+
+    @Param({"100", "50"})
+    public int volume;
+
+    // La première source est prioritaire et atténue les autres
+    @Param({"false", "true"})
+    public boolean ducking;
+
+    private SimpleEventManager eventManager;
+    private AudioPipeline pipeline;
+
+    @Setup
+    public void setUp() {
+        eventManager = new SimpleEventManager();
+        pipeline = new AudioPipeline(new SimulatedGuild(1L).getGuild(), eventManager);
+        for (int i = 0; i < sourceCount; i++) {
+            int priority = ducking && i == 0 ? 80 : 50;
+            pipeline.registerSendHandler(BenchmarkFrames.plugin("Plugin" + i),
+                    new BenchmarkFrames.ConstantSendHandler(BenchmarkFrames.toneFrame(i)), volume, priority);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+        eventManager.shutdown();
+    }
+
+    @Benchmark
+    public ByteBuffer provideFrame() {
+        if (!pipeline.canProvide()) {
+            return null;
+        }
+        ByteBuffer frame = pipeline.provide20MsAudio();
+        pipeline.isOpus();
+        return frame;
+    }
+}
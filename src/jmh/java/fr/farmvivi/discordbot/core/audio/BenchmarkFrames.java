@@ -0,0 +1,81 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+
+/**
+ * Données communes aux benchmarks audio : frames PCM de test, source constante et plugin factice.
+ */
+final class BenchmarkFrames {
+    // Frame PCM 48kHz 16-bit stéréo de 20 ms
+    static final int FRAME_SIZE = 3840;
+
+    private BenchmarkFrames() {
+    }
+
+    /**
+     * Crée un frame PCM contenant une tonalité, différente pour chaque graine.
+     *
+     * @param seed la graine (décale la fréquence)
+     * @return le frame, prêt à être lu
+     */
+    static ByteBuffer toneFrame(int seed) {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+        double frequency = 220 + 110 * seed;
+        for (int i = 0; i < FRAME_SIZE / 4; i++) {
+            short sample = (short) (Math.sin(2 * Math.PI * frequency * i / 48000.0) * 8000);
+            frame.putShort(sample);
+            frame.putShort(sample);
+        }
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Crée un plugin factice qui ne répond qu'à {@link Plugin#getName()}.
+     *
+     * @param name le nom du plugin
+     * @return le plugin
+     */
+    static Plugin plugin(String name) {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Source qui renvoie toujours le même frame, sans coût de production.
+     */
+    static final class ConstantSendHandler implements AudioSendHandler {
+        private final ByteBuffer frame;
+
+        ConstantSendHandler(ByteBuffer frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public boolean canProvide() {
+            return true;
+        }
+
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            frame.rewind();
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la mise à jour des fondus, appelée pour chaque source à chaque frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityManagerBenchmark {
+    // Même durée de fondu que le pipeline (200 ms en frames de 20 ms)
+    private static final int FADE_STEPS = 10;
+
+    @Param({"1", "4", "8"})
+    public int sourceCount;
+
+    // Fondu en cours ou sources stables
+    @Param({"false", "true"})
+    public boolean fading;
+
+    private PriorityManager priorityManager;
+    private SourceHandler[] sources;
+
+    @Setup
+    public void setUp() {
+        priorityManager = new PriorityManager(FADE_STEPS);
+        sources = new SourceHandler[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            sources[i] = new SourceHandler("Plugin" + i,
+                    new BenchmarkFrames.ConstantSendHandler(BenchmarkFrames.toneFrame(i)), 100, 50);
+            if (fading) {
+                priorityManager.startFadeOut(sources[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public float updateFades() {
+        float total = 0;
+        for (SourceHandler source : sources) {
+            priorityManager.updateFade(source);
+            float multiplier = source.getFadeMultiplier();
+            if (fading && source.getFadeIncrement() == 0.0f) {
+                // Fondu terminé : repart dans l'autre sens pour rester en fondu
+                if (multiplier <= 0.0f) {
+                    priorityManager.startFadeIn(source);
+                } else {
+                    priorityManager.startFadeOut(source);
+                }
+            }
+            total += multiplier;
+        }
+        return total;
+    }
+}
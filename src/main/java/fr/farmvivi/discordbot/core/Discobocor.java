@@ -12,6 +12,7 @@ import fr.farmvivi.discordbot.core.audio.AudioServiceImpl;
 import fr.farmvivi.discordbot.core.command.SimpleCommandService;
 import fr.farmvivi.discordbot.core.config.EnvAwareYamlConfiguration;
 import fr.farmvivi.discordbot.core.discord.JDADiscordAPI;
+import fr.farmvivi.discordbot.core.event.AsyncOverflowPolicy;
 import fr.farmvivi.discordbot.core.event.SimpleEventManager;
 import fr.farmvivi.discordbot.core.language.LanguageFileLoader;
 import fr.farmvivi.discordbot.core.language.SimpleLanguageManager;
@@ -49,7 +50,7 @@ public class Discobocor {
     private static DataStorageManager dataStorageManager;
     private static BinaryStorageManager binaryStorageManager;
     private static SimplePermissionManager permissionManager;
-    private static AudioService audioService;
+    private static AudioServiceImpl audioService;
     private static CommandService commandService;
 
     static {
@@ -194,15 +195,62 @@ public class Discobocor {
     }
 
     private static void createEventAndDiscord(String token) {
-        eventManager = new SimpleEventManager();
+        eventManager = createEventManager();
         discordAPI = new JDADiscordAPI(token);
     }
 
+    private static SimpleEventManager createEventManager() {
+        int workers = coreConfig.getInt("events.async.workers", Runtime.getRuntime().availableProcessors());
+        int shards = coreConfig.getInt("events.async.shards", 1);
+        int queueCapacity = coreConfig.getInt("events.async.queue_capacity",
+                SimpleEventManager.DEFAULT_ASYNC_QUEUE_CAPACITY);
+        String policyName = coreConfig.getString("events.async.overflow_policy", "DROP");
+
+        AsyncOverflowPolicy overflowPolicy;
+        try {
+            overflowPolicy = AsyncOverflowPolicy.valueOf(policyName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid async overflow policy '{}', falling back to DROP", policyName);
+            overflowPolicy = AsyncOverflowPolicy.DROP;
+        }
+
+        SimpleEventManager manager;
+        try {
+            manager = new SimpleEventManager(workers, shards, queueCapacity, overflowPolicy);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid async event settings ({}), using defaults", e.getMessage());
+            manager = new SimpleEventManager();
+        }
+
+        int slowHandlerMs = coreConfig.getInt("events.profiling.slow_handler_ms", 0);
+        if (slowHandlerMs >= 0) {
+            manager.setSlowHandlerThreshold(slowHandlerMs);
+        } else {
+            logger.warn("Invalid slow handler threshold {}, slow handlers will not be logged", slowHandlerMs);
+        }
+        if (coreConfig.getBoolean("events.profiling.enabled", false)) {
+            manager.setProfilingEnabled(true);
+        }
+        return manager;
+    }
+
     private static void createStorageManagers() {
         dataStorageManager = StorageFactory.createStorageManager(coreConfig, eventManager);
         binaryStorageManager = BinaryStorageFactory.createBinaryStorageManager(coreConfig, eventManager);
         permissionManager = new SimplePermissionManager(eventManager, dataStorageManager);
-        audioService = new AudioServiceImpl(eventManager);
+        int receiveThreads = coreConfig.getInt("audio.receive_threads", AudioServiceImpl.DEFAULT_RECEIVE_THREADS);
+        if (receiveThreads < 1) {
+            logger.warn("Invalid audio receive thread count {}, using {}",
+                    receiveThreads, AudioServiceImpl.DEFAULT_RECEIVE_THREADS);
+            receiveThreads = AudioServiceImpl.DEFAULT_RECEIVE_THREADS;
+        }
+        int ioThreads = coreConfig.getInt("audio.io_threads", AudioServiceImpl.DEFAULT_IO_THREADS);
+        if (ioThreads < 1) {
+            logger.warn("Invalid audio I/O thread count {}, using {}", ioThreads, AudioServiceImpl.DEFAULT_IO_THREADS);
+            ioThreads = AudioServiceImpl.DEFAULT_IO_THREADS;
+        }
+        audioService = new AudioServiceImpl(eventManager, binaryStorageManager.getStorage(), receiveThreads,
+                ioThreads);
     }
 
     private static void createCommandAndPluginManagers(File pluginsFolder) {
@@ -247,6 +295,17 @@ public class Discobocor {
                             "  enabled: true  # Enable or disable the command system globally\n" +
                             "  default-prefix: !  # Default prefix for text commands\n" +
                             "  cooldown: 3  # Global default cooldown in seconds\n" +
+                            "# Event system settings\n" +
+                            "events:\n" +
+                            "  async:\n" +
+                            "    # Threads delivering async events (defaults to one per processor)\n" +
+                            "    # workers: 4\n" +
+                            "    shards: 1  # Parallel lanes per plugin for guild-scoped events, 1 to keep strict order\n" +
+                            "    queue_capacity: 1024  # Pending async events per lane\n" +
+                            "    overflow_policy: DROP  # Options: BLOCK, DROP, CALLER_RUNS (runs plugin handlers on the firing thread)\n" +
+                            "  profiling:\n" +
+                            "    enabled: false  # Time every event handler call\n" +
+                            "    slow_handler_ms: 0  # Log profiled calls slower than this, 0 to disable\n" +
                             "# Data storage settings\n" +
                             "data:\n" +
                             "  storage:\n" +
@@ -272,7 +331,11 @@ public class Discobocor {
                             "# Audio settings\n" +
                             "audio:\n" +
                             "  # Default speaking mode (VOICE, SOUNDSHARE, PRIORITY_SPEAKER)\n" +
-                            "  speaking_mode: VOICE\n"
+                            "  speaking_mode: VOICE\n" +
+                            "  # Threads calling plugin receive handlers (defaults to one per processor, at least 2)\n" +
+                            "  # receive_threads: 4\n" +
+                            "  # Threads reading and decoding played tracks (defaults to half the processors, at least 2)\n" +
+                            "  # io_threads: 2\n"
             );
             logger.info("Created default config.yml");
             logger.info("Please edit config.yml and restart the bot");
@@ -354,6 +417,10 @@ public class Discobocor {
         }
 
         // Shutdown other services
+        if (audioService != null) {
+            audioService.shutdown();
+        }
+
         if (eventManager != null) {
             eventManager.shutdown();
         }
@@ -0,0 +1,44 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+/**
+ * Source audio diffusée dans plusieurs guildes.
+ * <p>
+ * Chaque frame de 20 ms est demandé une seule fois à la source, puis conservé
+ * dans un petit anneau partagé indexé par une horloge de frames globale.
+ * Chaque guilde abonnée lit le même frame, PCM ou Opus, sans copie : le coût
+ * de décodage ne dépend pas du nombre d'auditeurs.
+ * <p>
+ * Le volume d'une guilde ne s'applique que lorsque son pipeline mixe plusieurs
+ * sources ; en mode bypass, le frame diffusé est transmis tel quel.
+ */
+public interface AudioBroadcast {
+    /**
+     * Crée un abonnement à la diffusion, à enregistrer dans une guilde avec
+     * {@link AudioService#registerSendHandler}. L'abonné lit le flux à partir
+     * du frame courant.
+     *
+     * @return un nouveau handler d'envoi audio
+     */
+    AudioSendHandler subscribe();
+
+    /**
+     * Obtient l'horloge de la diffusion.
+     *
+     * @return le numéro du dernier frame produit, ou -1 si aucun frame n'a été produit
+     */
+    long getFrameClock();
+
+    /**
+     * Vérifie si la diffusion est en cours.
+     *
+     * @return true si la diffusion n'a pas été fermée
+     */
+    boolean isOpen();
+
+    /**
+     * Arrête la diffusion. Les abonnés cessent de fournir de l'audio.
+     */
+    void close();
+}
@@ -0,0 +1,73 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+/**
+ * Clip audio décodé une seule fois et partagé entre toutes les guildes.
+ * <p>
+ * Le PCM 48kHz 16-bit stéréo du clip est conservé hors du tas, dans un seul
+ * buffer. Chaque lecteur obtenu par {@link #createPlayer()} n'est qu'un curseur
+ * sur ce buffer : ses frames sont des vues en lecture seule, sans copie.
+ * <p>
+ * Chaque clip obtenu par {@link AudioService#loadClip(BinaryStorageKey)} doit
+ * être libéré par {@link #release()}. Un clip qui n'est plus référencé reste en
+ * cache jusqu'à ce que le budget mémoire du service impose son éviction.
+ */
+public interface AudioClip {
+    /**
+     * Obtient la clé de stockage du clip.
+     *
+     * @return la clé de stockage
+     */
+    BinaryStorageKey getKey();
+
+    /**
+     * Obtient le nombre de frames de 20 ms du clip (le dernier peut être incomplet).
+     *
+     * @return le nombre de frames
+     */
+    int getFrameCount();
+
+    /**
+     * Obtient la durée du clip.
+     *
+     * @return la durée en millisecondes
+     */
+    long getDurationMs();
+
+    /**
+     * Obtient la taille du PCM décodé.
+     *
+     * @return la taille en octets
+     */
+    long getSizeBytes();
+
+    /**
+     * Crée un lecteur qui joue le clip une fois depuis le début.
+     * Le lecteur reste utilisable même après la libération du clip.
+     *
+     * @return un nouveau handler d'envoi audio (PCM)
+     */
+    AudioSendHandler createPlayer();
+
+    /**
+     * Crée un lecteur qui joue le clip une fois sous forme de paquets Opus.
+     * Le clip est encodé en Opus une seule fois, au premier appel, puis les
+     * paquets sont partagés par tous les lecteurs : en mode bypass, ils sont
+     * transmis à Discord sans aucun encodage. Un lecteur Opus ne peut pas être
+     * mixé avec d'autres sources.
+     * <p>
+     * Si l'encodeur Opus n'est pas disponible, un lecteur PCM est renvoyé.
+     *
+     * @return un nouveau handler d'envoi audio (Opus si possible)
+     */
+    AudioSendHandler createOpusPlayer();
+
+    /**
+     * Libère une référence sur ce clip.
+     *
+     * @throws IllegalStateException si le clip n'est plus référencé
+     */
+    void release();
+}
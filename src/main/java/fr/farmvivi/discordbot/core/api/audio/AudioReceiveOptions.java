@@ -0,0 +1,120 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+/**
+ * Options d'enregistrement d'un handler de réception audio.
+ * Par défaut, l'audio reçu est placé dans une file bornée propre au handler
+ * et traité par un thread de travail, afin qu'un handler lent (enregistrement,
+ * reconnaissance vocale) ne bloque pas la réception de toute la guilde.
+ * Les paquets Opus reçus ainsi ne doivent pas être décodés par le handler
+ * ({@code OpusPacket.decode()}) : seul {@code getOpusAudio()} est sûr.
+ */
+public final class AudioReceiveOptions {
+    /**
+     * Taille maximum de la file d'un handler (paquets).
+     */
+    public static final int MAX_QUEUE_CAPACITY = 5000;
+
+    /**
+     * Taille par défaut de la file d'un handler (environ 5 secondes pour un utilisateur).
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 250;
+
+    /**
+     * Options par défaut : file de {@link #DEFAULT_QUEUE_CAPACITY} paquets, les plus anciens sont abandonnés.
+     */
+    public static final AudioReceiveOptions DEFAULT = builder().build();
+
+    private final int queueCapacity;
+    private final ReceiveOverflowPolicy overflowPolicy;
+
+    private AudioReceiveOptions(Builder builder) {
+        this.queueCapacity = builder.queueCapacity;
+        this.overflowPolicy = builder.overflowPolicy;
+    }
+
+    /**
+     * Crée un nouveau builder d'options.
+     *
+     * @return un nouveau builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtient la taille de la file du handler.
+     *
+     * @return le nombre maximum de paquets en attente (0 = appel direct sur le thread de réception)
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Vérifie si l'audio est transmis de façon asynchrone.
+     *
+     * @return true si le handler est appelé par un thread de travail
+     */
+    public boolean isAsync() {
+        return queueCapacity > 0;
+    }
+
+    /**
+     * Obtient le comportement lorsque la file est pleine.
+     *
+     * @return la politique de débordement
+     */
+    public ReceiveOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Builder pour les options de réception audio.
+     */
+    public static final class Builder {
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private ReceiveOverflowPolicy overflowPolicy = ReceiveOverflowPolicy.DROP_OLDEST;
+
+        private Builder() {
+        }
+
+        /**
+         * Définit la taille de la file du handler.
+         *
+         * @param queueCapacity le nombre maximum de paquets en attente
+         *                      (0 pour appeler le handler directement sur le thread de réception)
+         * @return ce builder
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Définit le comportement lorsque la file est pleine.
+         *
+         * @param overflowPolicy la politique de débordement
+         * @return ce builder
+         */
+        public Builder overflowPolicy(ReceiveOverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Construit les options.
+         *
+         * @return les options
+         * @throws IllegalArgumentException si les paramètres sont invalides
+         */
+        public AudioReceiveOptions build() {
+            if (queueCapacity < 0 || queueCapacity > MAX_QUEUE_CAPACITY) {
+                throw new IllegalArgumentException("Queue capacity must be between 0 and " + MAX_QUEUE_CAPACITY);
+            }
+            if (overflowPolicy == null) {
+                throw new IllegalArgumentException("Overflow policy cannot be null");
+            }
+            return new AudioReceiveOptions(this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+/**
+ * Codage des échantillons PCM fournis par une source audio.
+ */
+public enum AudioSampleEncoding {
+    /**
+     * Entiers signés 16 bits big-endian, le codage attendu par JDA.
+     */
+    PCM_16_BIG_ENDIAN(2),
+
+    /**
+     * Entiers signés 16 bits little-endian (WAV, la plupart des décodeurs natifs).
+     */
+    PCM_16_LITTLE_ENDIAN(2),
+
+    /**
+     * Flottants 32 bits big-endian, entre -1.0 et 1.0.
+     */
+    PCM_FLOAT_BIG_ENDIAN(4),
+
+    /**
+     * Flottants 32 bits little-endian, entre -1.0 et 1.0.
+     */
+    PCM_FLOAT_LITTLE_ENDIAN(4);
+
+    private final int bytesPerSample;
+
+    AudioSampleEncoding(int bytesPerSample) {
+        this.bytesPerSample = bytesPerSample;
+    }
+
+    /**
+     * Obtient la taille d'un échantillon d'une voie.
+     *
+     * @return la taille en octets
+     */
+    public int getBytesPerSample() {
+        return bytesPerSample;
+    }
+}
@@ -1,10 +1,14 @@
 package fr.farmvivi.discordbot.core.api.audio;
 
 import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
 import net.dv8tion.jda.api.audio.AudioReceiveHandler;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 import net.dv8tion.jda.api.entities.Guild;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Service principal pour la gestion audio.
  * Permet l'enregistrement de handlers audio par plugin et par guilde,
@@ -47,6 +51,83 @@ public interface AudioService {
      * lorsqu'une source de priorité supérieure sera active.
      */
     int DEFAULT_PRIORITY_THRESHOLD = 70;
+    
+    /**
+     * Valeur de seuil désactivant la détection de silence.
+     */
+    int SILENCE_DETECTION_DISABLED = -1;
+    
+    /**
+     * Valeur maximum pour le seuil de silence (amplitude crête PCM 16-bit).
+     */
+    int MAX_SILENCE_THRESHOLD = Short.MAX_VALUE;
+    
+    /**
+     * Seuil de silence par défaut.
+     * Seuls les frames numériquement silencieux (crête nulle) sont considérés silencieux.
+     */
+    int DEFAULT_SILENCE_THRESHOLD = 0;
+    
+    /**
+     * Durée de maintien par défaut (ms) avant de suspendre l'envoi d'un flux silencieux.
+     */
+    int DEFAULT_SILENCE_HANGOVER_MS = 200;
+    
+    /**
+     * Valeur de seuil désactivant la détection d'activité vocale.
+     */
+    int VOICE_ACTIVITY_DISABLED = -1;
+    
+    /**
+     * Seuil d'activité vocale par défaut (amplitude moyenne PCM 16-bit),
+     * au-dessus du bruit de fond d'un micro ordinaire.
+     */
+    int DEFAULT_VOICE_ACTIVITY_THRESHOLD = 500;
+    
+    /**
+     * Durée de maintien par défaut (ms) avant de considérer qu'un utilisateur a cessé de parler.
+     */
+    int DEFAULT_VOICE_ACTIVITY_HANGOVER_MS = 300;
+    
+    /**
+     * Budget mémoire par défaut (octets) des clips partagés, soit environ 6 minutes de PCM.
+     */
+    long DEFAULT_CLIP_CACHE_BUDGET = 64L * 1024 * 1024;
+    
+    /**
+     * Délai d'inactivité désactivé : le pipeline reste attaché à JDA.
+     */
+    int IDLE_TIMEOUT_DISABLED = 0;
+    
+    /**
+     * Délai d'inactivité d'une guilde qui suit celui de ses plugins.
+     */
+    int IDLE_TIMEOUT_FROM_PLUGINS = -1;
+    
+    /**
+     * Délai d'inactivité par défaut d'un plugin (secondes) : la mise en veille est désactivée.
+     */
+    int DEFAULT_IDLE_TIMEOUT = IDLE_TIMEOUT_DISABLED;
+    
+    /**
+     * Durée minimum (ms) d'audio décodée d'avance par un lecteur de pistes : un frame.
+     */
+    int MIN_READ_AHEAD_MS = 20;
+    
+    /**
+     * Durée maximum (ms) d'audio décodée d'avance par un lecteur de pistes.
+     */
+    int MAX_READ_AHEAD_MS = 30000;
+    
+    /**
+     * Durée par défaut (ms) d'audio décodée d'avance par un lecteur de pistes.
+     */
+    int DEFAULT_READ_AHEAD_MS = 2000;
+    
+    /**
+     * Intervalle d'export désactivé : la télémétrie n'est lue qu'à la demande.
+     */
+    int TELEMETRY_EXPORT_DISABLED = 0;
 
     /**
      * Enregistre un handler d'envoi audio pour une guilde et un plugin spécifiques.
@@ -60,6 +141,37 @@ public interface AudioService {
      */
     void registerSendHandler(Guild guild, Plugin plugin, AudioSendHandler handler, int initialVolume, int priority);
 
+    /**
+     * Enregistre un handler d'envoi audio pour une guilde et un plugin spécifiques,
+     * avec des options de source (préchargement, échéance, sous-alimentation, format).
+     *
+     * @param guild         la guilde où l'audio sera envoyé
+     * @param plugin        le plugin qui enregistre le handler
+     * @param handler       le handler d'envoi audio
+     * @param initialVolume volume initial (0-100)
+     * @param priority      niveau de priorité (0-100, plus élevé = plus important)
+     * @param options       les options de la source
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    void registerSendHandler(Guild guild, Plugin plugin, AudioSendHandler handler, int initialVolume, int priority,
+                             AudioSourceOptions options);
+
+    /**
+     * Enregistre un handler d'envoi audio qui fournit des frames dans un autre format
+     * que celui de JDA (mono, autre fréquence, little-endian, flottants).
+     * Le pipeline convertit les frames ; le handler n'a pas à le faire lui-même.
+     *
+     * @param guild         la guilde où l'audio sera envoyé
+     * @param plugin        le plugin qui enregistre le handler
+     * @param handler       le handler d'envoi audio
+     * @param initialVolume volume initial (0-100)
+     * @param priority      niveau de priorité (0-100, plus élevé = plus important)
+     * @param format        le format des frames fournis par le handler
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    void registerSendHandler(Guild guild, Plugin plugin, AudioSendHandler handler, int initialVolume, int priority,
+                             AudioSourceFormat format);
+
     /**
      * Désenregistre un handler d'envoi audio pour une guilde et un plugin spécifiques.
      *
@@ -87,6 +199,20 @@ public interface AudioService {
      */
     void registerReceiveHandler(Guild guild, Plugin plugin, AudioReceiveHandler handler);
 
+    /**
+     * Enregistre un handler de réception audio avec des options de réception
+     * (taille de la file du handler, comportement lorsqu'elle est pleine).
+     * <p>
+     * Un handler asynchrone qui reçoit l'audio encodé ne doit pas appeler
+     * {@code OpusPacket.decode()} : le décodeur appartient au thread de réception de JDA.
+     *
+     * @param guild   la guilde
+     * @param plugin  le plugin
+     * @param handler le handler de réception audio
+     * @param options les options de réception
+     */
+    void registerReceiveHandler(Guild guild, Plugin plugin, AudioReceiveHandler handler, AudioReceiveOptions options);
+
     /**
      * Désenregistre un handler de réception audio pour une guilde et un plugin spécifiques.
      *
@@ -106,6 +232,153 @@ public interface AudioService {
      */
     void setPriorityThreshold(Guild guild, int threshold);
 
+    /**
+     * Configure la détection de silence pour une guilde.
+     * Lorsque le flux envoyé (mixé ou en bypass) reste sous le seuil plus longtemps
+     * que la durée de maintien, aucun audio n'est fourni à JDA : le bot arrête de
+     * parler et l'encodage Opus est évité.
+     *
+     * @param guild      la guilde
+     * @param threshold  l'amplitude crête (0-32767) en dessous de laquelle un frame est
+     *                   considéré silencieux, ou {@link #SILENCE_DETECTION_DISABLED}
+     * @param hangoverMs la durée de silence tolérée avant de suspendre l'envoi (ms, positive)
+     * @throws IllegalArgumentException si les paramètres sont hors limites
+     */
+    void setSilenceDetection(Guild guild, int threshold, int hangoverMs);
+
+    /**
+     * Configure la détection d'activité vocale pour une guilde.
+     * L'audio reçu de chaque utilisateur est analysé par le pipeline, et seuls
+     * les changements d'état sont émis, de façon asynchrone :
+     * {@link fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStartedEvent} et
+     * {@link fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStoppedEvent}.
+     * Aucun handler de réception n'est nécessaire ; le pipeline de la guilde est créé
+     * si besoin, mais le bot doit être connecté au salon vocal.
+     * <p>
+     * Un utilisateur cesse de parler lorsque son audio reste sous la moitié du seuil,
+     * ou n'est plus reçu, plus longtemps que la durée de maintien.
+     *
+     * @param guild      la guilde
+     * @param threshold  l'amplitude moyenne (0-32767) à partir de laquelle un frame
+     *                   contient de la voix, ou {@link #VOICE_ACTIVITY_DISABLED}
+     * @param hangoverMs la durée tolérée sous le seuil avant la fin de parole (ms, positive)
+     * @throws IllegalArgumentException si les paramètres sont hors limites
+     */
+    void setVoiceActivityDetection(Guild guild, int threshold, int hangoverMs);
+
+    /**
+     * Définit le délai d'inactivité d'une guilde.
+     * Sans audio envoyé ni reçu pendant ce délai, le pipeline de la guilde est mis en
+     * veille : il se détache de JDA et la connexion vocale est fermée. Il se rattache
+     * au même salon vocal au prochain appel d'un plugin sur cette guilde, ou dès
+     * qu'une source a de nouveau de l'audio à fournir. Tant que le bot n'est connecté
+     * à aucun salon (connexion ou reconnexion en cours), le pipeline n'est pas mis en veille.
+     *
+     * @param guild   la guilde
+     * @param seconds le délai en secondes, {@link #IDLE_TIMEOUT_DISABLED} ou
+     *                {@link #IDLE_TIMEOUT_FROM_PLUGINS} pour suivre le délai des plugins
+     * @throws IllegalArgumentException si le délai est négatif
+     */
+    void setGuildIdleTimeout(Guild guild, int seconds);
+
+    /**
+     * Définit le délai d'inactivité souhaité par un plugin, appliqué aux guildes sans
+     * délai propre. Lorsque plusieurs plugins sont présents dans une guilde, le délai
+     * le plus long l'emporte et un plugin qui désactive la mise en veille la bloque.
+     *
+     * @param plugin  le plugin
+     * @param seconds le délai en secondes, ou {@link #IDLE_TIMEOUT_DISABLED}
+     * @throws IllegalArgumentException si le délai est négatif
+     */
+    void setPluginIdleTimeout(Plugin plugin, int seconds);
+
+    /**
+     * Charge un clip audio partagé depuis le stockage binaire.
+     * Le fichier (WAV, AIFF ou AU) n'est lu et décodé qu'une seule fois pour
+     * toutes les guildes ; chaque guilde le joue avec {@link AudioClip#createPlayer()}.
+     * Chaque clip obtenu doit être libéré par {@link AudioClip#release()}.
+     *
+     * @param key la clé de stockage du fichier audio
+     * @return le clip, ou un Optional vide si le fichier est absent ou illisible
+     */
+    Optional<AudioClip> loadClip(BinaryStorageKey key);
+
+    /**
+     * Modifie le budget mémoire des clips partagés.
+     * Les clips qui ne sont plus référencés sont évincés, du moins récemment
+     * utilisé au plus récent, tant que le budget est dépassé.
+     *
+     * @param budgetBytes la mémoire maximale occupée par les clips en cache, PCM et paquets Opus (octets, positive)
+     * @throws IllegalArgumentException si le budget est négatif
+     */
+    void setClipCacheBudget(long budgetBytes);
+
+    /**
+     * Crée une diffusion d'une source audio vers plusieurs guildes.
+     * Chaque frame est demandé une seule fois à la source par un thread de
+     * travail ; chaque guilde s'y abonne avec {@link AudioBroadcast#subscribe()}.
+     * La diffusion est arrêtée par {@link AudioBroadcast#close()} ou à la
+     * désactivation du plugin.
+     *
+     * @param plugin le plugin qui crée la diffusion
+     * @param source le handler d'envoi diffusé
+     * @return la diffusion, déjà démarrée
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    AudioBroadcast createBroadcast(Plugin plugin, AudioSendHandler source);
+
+    /**
+     * Crée un lecteur de pistes longues lues en flux depuis le stockage binaire,
+     * avec la durée de décodage d'avance par défaut.
+     *
+     * @param plugin le plugin qui crée le lecteur
+     * @return le lecteur, à enregistrer avec {@link #registerSendHandler}
+     * @throws IllegalArgumentException si le plugin est null
+     * @see #createTrackPlayer(Plugin, int)
+     */
+    AudioTrackPlayer createTrackPlayer(Plugin plugin);
+
+    /**
+     * Crée un lecteur de pistes longues lues en flux depuis le stockage binaire.
+     * Les pistes sont lues et décodées par un thread d'entrées/sorties, jamais par
+     * le thread d'envoi. Le lecteur est fermé par {@link AudioTrackPlayer#close()}
+     * ou à la désactivation du plugin.
+     *
+     * @param plugin      le plugin qui crée le lecteur
+     * @param readAheadMs la durée d'audio décodée d'avance, gardée hors tas (20-30000 ms)
+     * @return le lecteur, à enregistrer avec {@link #registerSendHandler}
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    AudioTrackPlayer createTrackPlayer(Plugin plugin, int readAheadMs);
+
+    /**
+     * Relève la télémétrie du pipeline audio d'une guilde : frames fournis,
+     * silencieux, mixés ou transmis tels quels, fondus, écrêtages, et pour chaque
+     * source la durée de ses appels et ses sous-alimentations. Les compteurs sont
+     * tenus sans verrou par le thread d'envoi et cumulés depuis la création du pipeline.
+     *
+     * @param guild la guilde
+     * @return le relevé, ou un Optional vide si la guilde n'a pas de pipeline
+     */
+    Optional<AudioTelemetry> getTelemetry(Guild guild);
+
+    /**
+     * Relève la télémétrie des pipelines audio de toutes les guildes.
+     *
+     * @return les relevés, un par pipeline
+     */
+    List<AudioTelemetry> getAllTelemetry();
+
+    /**
+     * Configure l'export périodique de la télémétrie. À chaque intervalle, un
+     * {@link fr.farmvivi.discordbot.core.api.audio.events.AudioTelemetryEvent} est
+     * émis de façon asynchrone pour chaque pipeline, si un listener est enregistré.
+     *
+     * @param seconds l'intervalle en secondes, ou {@link #TELEMETRY_EXPORT_DISABLED}
+     * @throws IllegalArgumentException si l'intervalle est négatif
+     */
+    void setTelemetryExportInterval(int seconds);
+
     /**
      * Vérifie si un plugin a un handler d'envoi actif pour une guilde.
      *
@@ -0,0 +1,118 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Format PCM des frames fournis par une source audio.
+ * <p>
+ * Une source dont le format diffère de {@link #DISCORD} est convertie par le
+ * pipeline : rééchantillonnage à 48 kHz, passage en stéréo et en entiers
+ * 16 bits big-endian. Les frames fournis peuvent avoir une taille quelconque ;
+ * ils sont regroupés en frames de 20 ms après conversion.
+ */
+public final class AudioSourceFormat {
+    /**
+     * Fréquences d'échantillonnage supportées (Hz).
+     */
+    public static final Set<Integer> SUPPORTED_SAMPLE_RATES =
+            Set.of(8000, 11025, 12000, 16000, 22050, 24000, 32000, 44100, 48000);
+
+    /**
+     * Format natif de JDA : 48 kHz, stéréo, 16 bits big-endian. Aucune conversion n'a lieu.
+     */
+    public static final AudioSourceFormat DISCORD = new AudioSourceFormat(48000, 2, AudioSampleEncoding.PCM_16_BIG_ENDIAN);
+
+    private final int sampleRate;
+    private final int channels;
+    private final AudioSampleEncoding encoding;
+
+    /**
+     * Crée un nouveau format de source.
+     *
+     * @param sampleRate la fréquence d'échantillonnage (Hz), parmi {@link #SUPPORTED_SAMPLE_RATES}
+     * @param channels   le nombre de voies (1 ou 2)
+     * @param encoding   le codage des échantillons
+     * @throws IllegalArgumentException si le format n'est pas supporté
+     */
+    public AudioSourceFormat(int sampleRate, int channels, AudioSampleEncoding encoding) {
+        if (!SUPPORTED_SAMPLE_RATES.contains(sampleRate)) {
+            throw new IllegalArgumentException("Unsupported sample rate: " + sampleRate);
+        }
+        if (channels != 1 && channels != 2) {
+            throw new IllegalArgumentException("Channels must be 1 or 2");
+        }
+        if (encoding == null) {
+            throw new IllegalArgumentException("Encoding cannot be null");
+        }
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Obtient la fréquence d'échantillonnage.
+     *
+     * @return la fréquence en Hz
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Obtient le nombre de voies.
+     *
+     * @return 1 (mono) ou 2 (stéréo)
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Obtient le codage des échantillons.
+     *
+     * @return le codage
+     */
+    public AudioSampleEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Obtient la taille d'un frame de 20 ms dans ce format.
+     *
+     * @return la taille en octets, arrondie à l'échantillon inférieur
+     */
+    public int getFrameSize() {
+        return sampleRate / 50 * channels * encoding.getBytesPerSample();
+    }
+
+    /**
+     * Vérifie si ce format est celui de JDA.
+     *
+     * @return true si aucune conversion n'est nécessaire
+     */
+    public boolean isNative() {
+        return equals(DISCORD);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AudioSourceFormat that)) {
+            return false;
+        }
+        return sampleRate == that.sampleRate && channels == that.channels && encoding == that.encoding;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sampleRate, channels, encoding);
+    }
+
+    @Override
+    public String toString() {
+        return sampleRate + " Hz, " + channels + (channels == 1 ? " channel, " : " channels, ") + encoding;
+    }
+}
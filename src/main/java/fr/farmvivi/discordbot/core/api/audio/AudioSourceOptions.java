@@ -0,0 +1,176 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+/**
+ * Options d'enregistrement d'une source audio.
+ * Permet notamment d'activer un tampon de préchargement (jitter buffer)
+ * rempli par un thread de travail, afin qu'une source lente ne fasse pas
+ * manquer l'échéance de 20 ms de toute la guilde, ou de déclarer le format
+ * PCM de la source pour que le pipeline le convertisse.
+ */
+public final class AudioSourceOptions {
+    /**
+     * Nombre maximum de frames préchargés (1 seconde).
+     */
+    public static final int MAX_PREFETCH_FRAMES = 50;
+
+    /**
+     * Échéance maximum, en millisecondes, pendant laquelle le thread d'envoi
+     * peut attendre un frame (la durée d'un frame).
+     */
+    public static final int MAX_DEADLINE_MS = 20;
+
+    /**
+     * Options par défaut : la source est appelée directement par le thread d'envoi.
+     */
+    public static final AudioSourceOptions DEFAULT = builder().build();
+
+    private final int prefetchFrames;
+    private final int deadlineMs;
+    private final UnderrunPolicy underrunPolicy;
+    private final AudioSourceFormat format;
+
+    private AudioSourceOptions(Builder builder) {
+        this.prefetchFrames = builder.prefetchFrames;
+        this.deadlineMs = builder.deadlineMs;
+        this.underrunPolicy = builder.underrunPolicy;
+        this.format = builder.format;
+    }
+
+    /**
+     * Crée un nouveau builder d'options.
+     *
+     * @return un nouveau builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtient le nombre de frames préchargés.
+     *
+     * @return le nombre de frames préchargés (0 = préchargement désactivé)
+     */
+    public int getPrefetchFrames() {
+        return prefetchFrames;
+    }
+
+    /**
+     * Vérifie si le préchargement est activé.
+     *
+     * @return true si la source est préchargée par un thread de travail
+     */
+    public boolean isPrefetchEnabled() {
+        return prefetchFrames > 0;
+    }
+
+    /**
+     * Obtient l'échéance d'attente du thread d'envoi.
+     *
+     * @return l'échéance en millisecondes (0 = jamais d'attente)
+     */
+    public int getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    /**
+     * Obtient le comportement en cas de sous-alimentation.
+     *
+     * @return la politique de sous-alimentation
+     */
+    public UnderrunPolicy getUnderrunPolicy() {
+        return underrunPolicy;
+    }
+
+    /**
+     * Obtient le format PCM des frames fournis par la source.
+     *
+     * @return le format de la source
+     */
+    public AudioSourceFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Builder pour les options de source audio.
+     */
+    public static final class Builder {
+        private int prefetchFrames = 0;
+        private int deadlineMs = 0;
+        private UnderrunPolicy underrunPolicy = UnderrunPolicy.DROP;
+        private AudioSourceFormat format = AudioSourceFormat.DISCORD;
+
+        private Builder() {
+        }
+
+        /**
+         * Définit le nombre de frames de 20 ms à précharger.
+         *
+         * @param prefetchFrames le nombre de frames (0 pour désactiver)
+         * @return ce builder
+         */
+        public Builder prefetch(int prefetchFrames) {
+            this.prefetchFrames = prefetchFrames;
+            return this;
+        }
+
+        /**
+         * Définit le temps maximum pendant lequel le thread d'envoi attend un
+         * frame en retard avant d'appliquer la politique de sous-alimentation.
+         * L'échéance est comptée depuis le début du frame, commun à toutes les
+         * sources mixées : une source lue après l'échéance n'attend pas.
+         *
+         * @param deadlineMs l'échéance en millisecondes
+         * @return ce builder
+         */
+        public Builder deadline(int deadlineMs) {
+            this.deadlineMs = deadlineMs;
+            return this;
+        }
+
+        /**
+         * Définit le comportement en cas de sous-alimentation.
+         *
+         * @param underrunPolicy la politique de sous-alimentation
+         * @return ce builder
+         */
+        public Builder underrunPolicy(UnderrunPolicy underrunPolicy) {
+            this.underrunPolicy = underrunPolicy;
+            return this;
+        }
+
+        /**
+         * Déclare le format PCM des frames fournis par la source. Un format autre que
+         * {@link AudioSourceFormat#DISCORD} est converti par le pipeline dans des tampons
+         * réutilisés ; les paquets Opus sont transmis sans conversion.
+         *
+         * @param format le format de la source
+         * @return ce builder
+         */
+        public Builder format(AudioSourceFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Construit les options.
+         *
+         * @return les options
+         * @throws IllegalArgumentException si les paramètres sont invalides
+         */
+        public AudioSourceOptions build() {
+            if (prefetchFrames < 0 || prefetchFrames > MAX_PREFETCH_FRAMES) {
+                throw new IllegalArgumentException("Prefetch frames must be between 0 and " + MAX_PREFETCH_FRAMES);
+            }
+            if (deadlineMs < 0 || deadlineMs > MAX_DEADLINE_MS) {
+                throw new IllegalArgumentException("Deadline must be between 0 and " + MAX_DEADLINE_MS + " ms");
+            }
+            if (underrunPolicy == null) {
+                throw new IllegalArgumentException("Underrun policy cannot be null");
+            }
+            if (format == null) {
+                throw new IllegalArgumentException("Format cannot be null");
+            }
+            return new AudioSourceOptions(this);
+        }
+    }
+}
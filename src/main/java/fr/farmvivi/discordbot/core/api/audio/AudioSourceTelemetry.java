@@ -0,0 +1,112 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+/**
+ * Télémétrie d'une source audio d'un pipeline, relevée à un instant donné.
+ * Les compteurs sont cumulés depuis l'enregistrement de la source.
+ */
+public final class AudioSourceTelemetry {
+    private final String pluginName;
+    private final long providedFrames;
+    private final long underrunCount;
+    private final long meanProvideMicros;
+    private final long p50ProvideMicros;
+    private final long p99ProvideMicros;
+    private final long maxProvideMicros;
+
+    /**
+     * Crée un relevé de télémétrie d'une source.
+     *
+     * @param pluginName        le nom du plugin propriétaire de la source
+     * @param providedFrames    le nombre de frames demandés à la source par le thread d'envoi
+     * @param underrunCount     le nombre de sous-alimentations (source préchargée ou lecteur de pistes)
+     * @param meanProvideMicros la durée moyenne d'un appel à la source (µs)
+     * @param p50ProvideMicros  la durée médiane d'un appel à la source (µs)
+     * @param p99ProvideMicros  le 99e percentile de la durée d'un appel à la source (µs)
+     * @param maxProvideMicros  la durée maximum d'un appel à la source (µs)
+     */
+    public AudioSourceTelemetry(String pluginName, long providedFrames, long underrunCount, long meanProvideMicros,
+                                long p50ProvideMicros, long p99ProvideMicros, long maxProvideMicros) {
+        this.pluginName = pluginName;
+        this.providedFrames = providedFrames;
+        this.underrunCount = underrunCount;
+        this.meanProvideMicros = meanProvideMicros;
+        this.p50ProvideMicros = p50ProvideMicros;
+        this.p99ProvideMicros = p99ProvideMicros;
+        this.maxProvideMicros = maxProvideMicros;
+    }
+
+    /**
+     * Obtient le nom du plugin propriétaire de la source.
+     *
+     * @return le nom du plugin
+     */
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    /**
+     * Obtient le nombre de frames demandés à la source par le thread d'envoi.
+     *
+     * @return le nombre de frames
+     */
+    public long getProvidedFrames() {
+        return providedFrames;
+    }
+
+    /**
+     * Obtient le nombre de sous-alimentations de la source.
+     *
+     * @return le nombre de frames manquants, ou 0 si la source n'en compte pas
+     */
+    public long getUnderrunCount() {
+        return underrunCount;
+    }
+
+    /**
+     * Obtient la durée moyenne d'un appel à la source.
+     *
+     * @return la durée en microsecondes
+     */
+    public long getMeanProvideMicros() {
+        return meanProvideMicros;
+    }
+
+    /**
+     * Obtient la durée médiane d'un appel à la source.
+     *
+     * @return la durée en microsecondes
+     */
+    public long getP50ProvideMicros() {
+        return p50ProvideMicros;
+    }
+
+    /**
+     * Obtient le 99e percentile de la durée d'un appel à la source.
+     *
+     * @return la durée en microsecondes
+     */
+    public long getP99ProvideMicros() {
+        return p99ProvideMicros;
+    }
+
+    /**
+     * Obtient la durée maximum d'un appel à la source.
+     *
+     * @return la durée en microsecondes
+     */
+    public long getMaxProvideMicros() {
+        return maxProvideMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "AudioSourceTelemetry{" +
+                "pluginName='" + pluginName + '\'' +
+                ", providedFrames=" + providedFrames +
+                ", underrunCount=" + underrunCount +
+                ", p50ProvideMicros=" + p50ProvideMicros +
+                ", p99ProvideMicros=" + p99ProvideMicros +
+                ", maxProvideMicros=" + maxProvideMicros +
+                '}';
+    }
+}
@@ -0,0 +1,304 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+import java.util.List;
+
+/**
+ * Télémétrie du pipeline audio d'une guilde, relevée à un instant donné.
+ * <p>
+ * Les compteurs sont cumulés depuis la création du pipeline : deux relevés
+ * successifs permettent d'en déduire des débits. Ils sont tenus sans verrou
+ * par le thread d'envoi, et un relevé n'est donc pas forcément cohérent
+ * entre deux compteurs à un frame près.
+ */
+public final class AudioTelemetry {
+    private final String guildId;
+    private final long framesProvided;
+    private final long audioFrames;
+    private final long silentFrames;
+    private final long mixedFrames;
+    private final long bypassFrames;
+    private final long fadeTransitions;
+    private final long clippedFrames;
+    private final long skippedOpusFrames;
+    private final boolean detached;
+    private final List<AudioSourceTelemetry> sources;
+
+    private AudioTelemetry(Builder builder) {
+        this.guildId = builder.guildId;
+        this.framesProvided = builder.framesProvided;
+        this.audioFrames = builder.audioFrames;
+        this.silentFrames = builder.silentFrames;
+        this.mixedFrames = builder.mixedFrames;
+        this.bypassFrames = builder.bypassFrames;
+        this.fadeTransitions = builder.fadeTransitions;
+        this.clippedFrames = builder.clippedFrames;
+        this.skippedOpusFrames = builder.skippedOpusFrames;
+        this.detached = builder.detached;
+        this.sources = List.copyOf(builder.sources);
+    }
+
+    /**
+     * Crée un nouveau builder de relevé.
+     *
+     * @param guildId l'identifiant de la guilde
+     * @return un nouveau builder
+     */
+    public static Builder builder(String guildId) {
+        return new Builder(guildId);
+    }
+
+    /**
+     * Obtient l'identifiant de la guilde.
+     *
+     * @return l'identifiant de la guilde
+     */
+    public String getGuildId() {
+        return guildId;
+    }
+
+    /**
+     * Obtient le nombre de frames demandés au pipeline par JDA.
+     *
+     * @return le nombre de frames
+     */
+    public long getFramesProvided() {
+        return framesProvided;
+    }
+
+    /**
+     * Obtient le nombre de frames transmis à JDA avec de l'audio.
+     *
+     * @return le nombre de frames audio
+     */
+    public long getAudioFrames() {
+        return audioFrames;
+    }
+
+    /**
+     * Obtient le nombre de frames jugés silencieux par la détection de silence.
+     *
+     * @return le nombre de frames silencieux
+     */
+    public long getSilentFrames() {
+        return silentFrames;
+    }
+
+    /**
+     * Obtient le nombre de frames produits par le mixeur.
+     *
+     * @return le nombre de frames mixés
+     */
+    public long getMixedFrames() {
+        return mixedFrames;
+    }
+
+    /**
+     * Obtient le nombre de frames transmis tels quels (une seule source audible).
+     *
+     * @return le nombre de frames en bypass
+     */
+    public long getBypassFrames() {
+        return bypassFrames;
+    }
+
+    /**
+     * Obtient la part des frames audio produits par le mixeur.
+     *
+     * @return le ratio de mixage (0.0-1.0), 0 sans frame audio
+     */
+    public double getMixingRatio() {
+        long total = mixedFrames + bypassFrames;
+        return total == 0 ? 0.0 : (double) mixedFrames / total;
+    }
+
+    /**
+     * Obtient le nombre de fondus déclenchés par la gestion des priorités
+     * (atténuation des autres sources ou retour à leur volume).
+     *
+     * @return le nombre de transitions
+     */
+    public long getFadeTransitions() {
+        return fadeTransitions;
+    }
+
+    /**
+     * Obtient le nombre de frames mixés dont au moins un échantillon a été écrêté.
+     *
+     * @return le nombre de frames écrêtés
+     */
+    public long getClippedFrames() {
+        return clippedFrames;
+    }
+
+    /**
+     * Obtient le nombre de frames de sources Opus écartés du mixage, faute de
+     * pouvoir les décoder (source atténuée ou mixée avec d'autres).
+     *
+     * @return le nombre de frames Opus écartés
+     */
+    public long getSkippedOpusFrames() {
+        return skippedOpusFrames;
+    }
+
+    /**
+     * Obtient le nombre total de sous-alimentations des sources.
+     *
+     * @return la somme des sous-alimentations
+     */
+    public long getUnderrunCount() {
+        long total = 0;
+        for (AudioSourceTelemetry source : sources) {
+            total += source.getUnderrunCount();
+        }
+        return total;
+    }
+
+    /**
+     * Vérifie si le pipeline était en veille lors du relevé.
+     *
+     * @return true si le pipeline était détaché de JDA
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * Obtient la télémétrie de chaque source enregistrée.
+     *
+     * @return la liste non modifiable des sources
+     */
+    public List<AudioSourceTelemetry> getSources() {
+        return sources;
+    }
+
+    /**
+     * Builder pour {@link AudioTelemetry}.
+     */
+    public static final class Builder {
+        private final String guildId;
+        private long framesProvided = 0;
+        private long audioFrames = 0;
+        private long silentFrames = 0;
+        private long mixedFrames = 0;
+        private long bypassFrames = 0;
+        private long fadeTransitions = 0;
+        private long clippedFrames = 0;
+        private long skippedOpusFrames = 0;
+        private boolean detached = false;
+        private List<AudioSourceTelemetry> sources = List.of();
+
+        private Builder(String guildId) {
+            this.guildId = guildId;
+        }
+
+        /**
+         * Définit le nombre de frames demandés au pipeline.
+         *
+         * @param framesProvided le nombre de frames
+         * @return ce builder
+         */
+        public Builder framesProvided(long framesProvided) {
+            this.framesProvided = framesProvided;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de frames transmis avec de l'audio.
+         *
+         * @param audioFrames le nombre de frames audio
+         * @return ce builder
+         */
+        public Builder audioFrames(long audioFrames) {
+            this.audioFrames = audioFrames;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de frames silencieux.
+         *
+         * @param silentFrames le nombre de frames silencieux
+         * @return ce builder
+         */
+        public Builder silentFrames(long silentFrames) {
+            this.silentFrames = silentFrames;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de frames mixés et transmis tels quels.
+         *
+         * @param mixedFrames  le nombre de frames mixés
+         * @param bypassFrames le nombre de frames en bypass
+         * @return ce builder
+         */
+        public Builder strategyFrames(long mixedFrames, long bypassFrames) {
+            this.mixedFrames = mixedFrames;
+            this.bypassFrames = bypassFrames;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de fondus déclenchés.
+         *
+         * @param fadeTransitions le nombre de transitions
+         * @return ce builder
+         */
+        public Builder fadeTransitions(long fadeTransitions) {
+            this.fadeTransitions = fadeTransitions;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de frames écrêtés.
+         *
+         * @param clippedFrames le nombre de frames écrêtés
+         * @return ce builder
+         */
+        public Builder clippedFrames(long clippedFrames) {
+            this.clippedFrames = clippedFrames;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de frames Opus écartés du mixage.
+         *
+         * @param skippedOpusFrames le nombre de frames Opus écartés
+         * @return ce builder
+         */
+        public Builder skippedOpusFrames(long skippedOpusFrames) {
+            this.skippedOpusFrames = skippedOpusFrames;
+            return this;
+        }
+
+        /**
+         * Définit si le pipeline est en veille.
+         *
+         * @param detached true si le pipeline est détaché de JDA
+         * @return ce builder
+         */
+        public Builder detached(boolean detached) {
+            this.detached = detached;
+            return this;
+        }
+
+        /**
+         * Définit la télémétrie des sources.
+         *
+         * @param sources les relevés des sources
+         * @return ce builder
+         */
+        public Builder sources(List<AudioSourceTelemetry> sources) {
+            this.sources = sources;
+            return this;
+        }
+
+        /**
+         * Construit le relevé.
+         *
+         * @return le relevé de télémétrie
+         */
+        public AudioTelemetry build() {
+            return new AudioTelemetry(this);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.util.Optional;
+
+/**
+ * Lecteur de pistes longues lues en flux depuis le stockage binaire.
+ * <p>
+ * Les pistes (WAV, AIFF ou AU) sont lues et décodées en PCM 48kHz 16-bit
+ * stéréo par un thread d'entrées/sorties, qui garde d'avance un nombre
+ * borné de frames dans un anneau hors tas. Le thread d'envoi ne fait que
+ * défiler cet anneau : il n'accède jamais au disque ni au réseau.
+ * <p>
+ * Le lecteur est un handler d'envoi à enregistrer dans une guilde avec
+ * {@link AudioService#registerSendHandler}. Il est fermé par {@link #close()}
+ * ou à la désactivation du plugin.
+ */
+public interface AudioTrackPlayer extends AudioSendHandler {
+    /**
+     * Ajoute une piste à la file de lecture. La lecture commence aussitôt
+     * si aucune piste n'est en cours.
+     *
+     * @param key la clé de stockage du fichier audio
+     * @throws IllegalArgumentException si la clé est null
+     * @throws IllegalStateException    si le lecteur est fermé
+     */
+    void queue(BinaryStorageKey key);
+
+    /**
+     * Passe à la piste suivante de la file.
+     */
+    void skip();
+
+    /**
+     * Arrête la piste en cours et vide la file de lecture.
+     */
+    void stop();
+
+    /**
+     * Met la lecture en pause. Le préchargement continue jusqu'à remplir l'anneau.
+     */
+    void pause();
+
+    /**
+     * Reprend la lecture après une pause.
+     */
+    void resume();
+
+    /**
+     * Vérifie si la lecture est en pause.
+     *
+     * @return true si la lecture est en pause
+     */
+    boolean isPaused();
+
+    /**
+     * Déplace la lecture de la piste en cours.
+     * Une position au-delà de la fin de la piste passe à la piste suivante.
+     *
+     * @param positionMs la position depuis le début de la piste (ms, positive)
+     * @throws IllegalArgumentException si la position est négative
+     */
+    void seek(long positionMs);
+
+    /**
+     * Obtient la position de lecture dans la piste en cours.
+     *
+     * @return la position du dernier frame envoyé (ms)
+     */
+    long getPositionMs();
+
+    /**
+     * Obtient la piste en cours de lecture.
+     *
+     * @return la clé de la piste, ou un Optional vide si aucune piste n'est jouée
+     */
+    Optional<BinaryStorageKey> getCurrentTrack();
+
+    /**
+     * Obtient le nombre de pistes en attente dans la file de lecture.
+     *
+     * @return le nombre de pistes en attente, sans la piste en cours
+     */
+    int getQueueSize();
+
+    /**
+     * Obtient le nombre de frames manquants parce que le stockage n'a pas suivi.
+     *
+     * @return le nombre de sous-alimentations
+     */
+    long getUnderrunCount();
+
+    /**
+     * Vérifie si le lecteur est utilisable.
+     *
+     * @return true si le lecteur n'a pas été fermé
+     */
+    boolean isOpen();
+
+    /**
+     * Ferme le lecteur : la lecture s'arrête et le flux en cours est fermé.
+     */
+    void close();
+}
@@ -0,0 +1,17 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+/**
+ * Comportement de la file d'un handler de réception lorsqu'elle est pleine
+ * (le handler ne traite pas l'audio reçu assez vite).
+ */
+public enum ReceiveOverflowPolicy {
+    /**
+     * Le paquet le plus ancien de la file est abandonné au profit du nouveau.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Le paquet reçu est abandonné, la file est conservée.
+     */
+    DROP_NEWEST
+}
@@ -0,0 +1,17 @@
+package fr.farmvivi.discordbot.core.api.audio;
+
+/**
+ * Comportement d'une source préchargée lorsqu'aucun frame n'est prêt
+ * à l'échéance du thread d'envoi (sous-alimentation).
+ */
+public enum UnderrunPolicy {
+    /**
+     * La source ne contribue pas au frame courant.
+     */
+    DROP,
+
+    /**
+     * La source fournit un frame de silence pour le frame courant.
+     */
+    SILENCE
+}
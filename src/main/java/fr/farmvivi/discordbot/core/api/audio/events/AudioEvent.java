@@ -1,13 +1,15 @@
 package fr.farmvivi.discordbot.core.api.audio.events;
 
 import fr.farmvivi.discordbot.core.api.event.Event;
+import fr.farmvivi.discordbot.core.api.event.Shardable;
 import fr.farmvivi.discordbot.core.api.plugin.Plugin;
 import net.dv8tion.jda.api.entities.Guild;
 
 /**
  * Événement de base pour tous les événements audio.
+ * Les événements asynchrones d'une même guilde sont livrés dans l'ordre.
  */
-public abstract class AudioEvent implements Event {
+public abstract class AudioEvent implements Event, Shardable {
     private final Guild guild;
 
     /**
@@ -27,4 +29,14 @@ public abstract class AudioEvent implements Event {
     public Guild getGuild() {
         return guild;
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtient l'identifiant de la guilde, clé d'ordonnancement des événements asynchrones.
+     *
+     * @return l'identifiant de la guilde, ou null si l'événement n'a pas de guilde
+     */
+    @Override
+    public Object getShardKey() {
+        return guild != null ? guild.getIdLong() : null;
+    }
+}
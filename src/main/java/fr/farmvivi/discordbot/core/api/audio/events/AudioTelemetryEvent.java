@@ -0,0 +1,34 @@
+package fr.farmvivi.discordbot.core.api.audio.events;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioTelemetry;
+import net.dv8tion.jda.api.entities.Guild;
+
+/**
+ * Événement émis périodiquement avec la télémétrie du pipeline audio d'une guilde.
+ * Il n'est émis que si un export est configuré et qu'un listener est enregistré.
+ *
+ * @see fr.farmvivi.discordbot.core.api.audio.AudioService#setTelemetryExportInterval(int)
+ */
+public class AudioTelemetryEvent extends AudioEvent {
+    private final AudioTelemetry telemetry;
+
+    /**
+     * Crée un nouvel événement de télémétrie.
+     *
+     * @param guild     la guilde
+     * @param telemetry le relevé de télémétrie du pipeline
+     */
+    public AudioTelemetryEvent(Guild guild, AudioTelemetry telemetry) {
+        super(guild);
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Obtient le relevé de télémétrie du pipeline.
+     *
+     * @return le relevé de télémétrie
+     */
+    public AudioTelemetry getTelemetry() {
+        return telemetry;
+    }
+}
@@ -0,0 +1,34 @@
+package fr.farmvivi.discordbot.core.api.audio.events;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+
+/**
+ * Événement émis lorsqu'un utilisateur commence à parler dans le salon vocal
+ * d'une guilde, selon la détection d'activité vocale du pipeline.
+ *
+ * @see fr.farmvivi.discordbot.core.api.audio.AudioService#setVoiceActivityDetection(Guild, int, int)
+ */
+public class UserSpeakingStartedEvent extends AudioEvent {
+    private final User user;
+
+    /**
+     * Crée un nouvel événement de début de parole.
+     *
+     * @param guild la guilde
+     * @param user  l'utilisateur qui parle
+     */
+    public UserSpeakingStartedEvent(Guild guild, User user) {
+        super(guild);
+        this.user = user;
+    }
+
+    /**
+     * Obtient l'utilisateur qui parle.
+     *
+     * @return l'utilisateur
+     */
+    public User getUser() {
+        return user;
+    }
+}
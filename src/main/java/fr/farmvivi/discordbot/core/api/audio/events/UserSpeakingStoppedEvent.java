@@ -0,0 +1,47 @@
+package fr.farmvivi.discordbot.core.api.audio.events;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+
+/**
+ * Événement émis lorsqu'un utilisateur cesse de parler dans le salon vocal
+ * d'une guilde, une fois la durée de maintien de la détection écoulée.
+ *
+ * @see fr.farmvivi.discordbot.core.api.audio.AudioService#setVoiceActivityDetection(Guild, int, int)
+ */
+public class UserSpeakingStoppedEvent extends AudioEvent {
+    private final User user;
+    private final long durationMs;
+
+    /**
+     * Crée un nouvel événement de fin de parole.
+     *
+     * @param guild      la guilde
+     * @param user       l'utilisateur qui a cessé de parler
+     * @param durationMs la durée de la prise de parole (ms)
+     */
+    public UserSpeakingStoppedEvent(Guild guild, User user, long durationMs) {
+        super(guild);
+        this.user = user;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Obtient l'utilisateur qui a cessé de parler.
+     *
+     * @return l'utilisateur
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Obtient la durée de la prise de parole, du premier frame détecté au
+     * dernier frame au-dessus du seuil de relâchement.
+     *
+     * @return la durée en millisecondes
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+}
@@ -0,0 +1,112 @@
+package fr.farmvivi.discordbot.core.api.event;
+
+/**
+ * Options of a batched or coalesced event subscription.
+ * Events are collected for a time window and delivered together, or earlier
+ * once the batch reaches its maximum size.
+ */
+public final class EventBatchOptions {
+    /**
+     * Maximum length of a time window (one hour), in milliseconds.
+     */
+    public static final long MAX_WINDOW_MS = 3_600_000;
+
+    /**
+     * Default length of a time window, in milliseconds.
+     */
+    public static final long DEFAULT_WINDOW_MS = 1000;
+
+    /**
+     * Default maximum number of events in a batch.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    /**
+     * Default options: one-second windows of at most {@link #DEFAULT_MAX_SIZE} events.
+     */
+    public static final EventBatchOptions DEFAULT = builder().build();
+
+    private final long windowMs;
+    private final int maxSize;
+
+    private EventBatchOptions(Builder builder) {
+        this.windowMs = builder.windowMs;
+        this.maxSize = builder.maxSize;
+    }
+
+    /**
+     * Creates a new options builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the length of a time window.
+     *
+     * @return the window length, in milliseconds
+     */
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Gets the maximum number of events in a batch (distinct keys when coalescing).
+     *
+     * @return the maximum batch size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Builder for event batch options.
+     */
+    public static final class Builder {
+        private long windowMs = DEFAULT_WINDOW_MS;
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the length of a time window.
+         *
+         * @param windowMs the window length, in milliseconds
+         * @return this builder
+         */
+        public Builder window(long windowMs) {
+            this.windowMs = windowMs;
+            return this;
+        }
+
+        /**
+         * Sets the number of events that delivers a batch before the end of its window.
+         *
+         * @param maxSize the maximum batch size
+         * @return this builder
+         */
+        public Builder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return the options
+         * @throws IllegalArgumentException if a setting is invalid
+         */
+        public EventBatchOptions build() {
+            if (windowMs < 1 || windowMs > MAX_WINDOW_MS) {
+                throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_MS + " ms");
+            }
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("Max batch size must be at least 1");
+            }
+            return new EventBatchOptions(this);
+        }
+    }
+}
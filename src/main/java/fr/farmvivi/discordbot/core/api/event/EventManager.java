@@ -2,7 +2,11 @@ package fr.farmvivi.discordbot.core.api.event;
 
 import fr.farmvivi.discordbot.core.api.plugin.Plugin;
 
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Interface for the event management system.
@@ -37,19 +41,80 @@ public interface EventManager extends EventRegistry {
 
     /**
      * Fires an event synchronously.
+     * Handlers declared for a supertype or an interface of the event's class receive it too.
      *
      * @param event the event to fire
      * @return the event that was fired (may have been modified by listeners)
      */
     <T extends Event> T fireEvent(T event);
 
+    /**
+     * Fires an event synchronously, building it only if a handler would receive it.
+     * Hot paths use this to avoid allocating events nobody listens to.
+     * The factory may build a subtype of the declared type: the event is built
+     * whenever a handler is registered for the type, one of its supertypes or
+     * one of its subtypes, and is then dispatched like {@link #fireEvent(Event)}.
+     *
+     * @param eventType    the declared class of the event that will be built
+     * @param eventFactory builds the event, called at most once
+     * @return the event that was fired, or null if no handler could receive an event of the declared type
+     */
+    <T extends Event> T fireEvent(Class<T> eventType, Supplier<? extends T> eventFactory);
+
     /**
      * Fires an event asynchronously.
+     * Each plugin receives the event on its own queue, in priority order among
+     * its handlers, so handlers of different plugins may run concurrently and
+     * in any order. A {@link Cancellable} event is delivered instead to all
+     * handlers as one chain in priority order, like {@link #fireEvent(Event)}.
      *
      * @param event the event to fire
      */
     void fireEventAsync(Event event);
 
+    /**
+     * Subscribes to an event type with batched delivery.
+     * Events are collected for a time window, then the batch is delivered
+     * asynchronously, in firing order, on the plugin's async lane. Cancelled
+     * events are not collected.
+     * The subscription ends when the returned handle is passed to
+     * {@link #unregisterListener(Object)} or when the plugin's listeners are unregistered.
+     *
+     * @param eventType the event type, supertypes included
+     * @param plugin    the plugin that owns this subscription
+     * @param options   the batch window and size
+     * @param handler   receives each non-empty batch
+     * @return a handle identifying the subscription
+     */
+    <T extends Event> Object subscribeBatched(Class<T> eventType, Plugin plugin, EventBatchOptions options,
+                                              Consumer<List<T>> handler);
+
+    /**
+     * Subscribes to an event type with coalesced delivery.
+     * Like {@link #subscribeBatched}, but within a window only the last event
+     * of each key is kept, so the batch holds one event per key, in the order
+     * keys were first seen.
+     *
+     * @param eventType    the event type, supertypes included
+     * @param plugin       the plugin that owns this subscription
+     * @param options      the batch window and size (the size counts distinct keys)
+     * @param keyExtractor gives the key of an event, for example its guild ID
+     * @param handler      receives each non-empty batch
+     * @return a handle identifying the subscription
+     */
+    <T extends Event> Object subscribeCoalesced(Class<T> eventType, Plugin plugin, EventBatchOptions options,
+                                                Function<? super T, ?> keyExtractor, Consumer<List<T>> handler);
+
+    /**
+     * Checks if at least one handler would receive an event of a specific type,
+     * counting handlers declared for its supertypes and interfaces.
+     * Lets high-frequency emitters skip building events nobody listens to.
+     *
+     * @param eventType the event type
+     * @return true if a handler is registered for the event type or one of its supertypes
+     */
+    boolean hasListeners(Class<? extends Event> eventType);
+
     /**
      * Gets a set of all registered listeners for a specific plugin.
      *
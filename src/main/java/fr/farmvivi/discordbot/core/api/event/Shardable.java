@@ -0,0 +1,16 @@
+package fr.farmvivi.discordbot.core.api.event;
+
+/**
+ * Interface for events scoped to a key, such as a guild or a user.
+ * When fired asynchronously, events with the same key reach each plugin in the
+ * order they were fired, while events with different keys may be delivered in parallel.
+ */
+public interface Shardable {
+    /**
+     * Gets the key whose events must be delivered in order.
+     * Keys are compared with {@link Object#equals(Object)}, so a guild or user ID is a good fit.
+     *
+     * @return the shard key, or null to deliver the event like an unkeyed event
+     */
+    Object getShardKey();
+}
@@ -21,6 +21,15 @@ public class BinaryStorageManager {
         this.storage = storage;
     }
 
+    /**
+     * Gets the underlying storage implementation.
+     *
+     * @return the storage implementation
+     */
+    public BinaryStorage getStorage() {
+        return storage;
+    }
+
     /**
      * Gets the global binary storage.
      *
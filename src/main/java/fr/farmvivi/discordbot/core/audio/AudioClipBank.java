@@ -0,0 +1,204 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioClip;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorage;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Banque de clips audio partagés entre les guildes.
+ * <p>
+ * Un clip est lu depuis le stockage binaire et décodé une seule fois en PCM
+ * 48kHz 16-bit stéréo big-endian, dans un buffer hors tas. Les paquets Opus
+ * d'un clip, encodés à la demande, sont comptés dans le même budget. Les clips sont
+ * comptés par référence ; ceux qui ne sont plus référencés sont évincés du
+ * moins récemment utilisé au plus récent dès que le budget mémoire est dépassé.
+ * Un clip référencé n'est jamais évincé, le budget peut donc être dépassé
+ * temporairement.
+ */
+public class AudioClipBank {
+    private static final Logger logger = LoggerFactory.getLogger(AudioClipBank.class);
+
+    // Format de sortie attendu par JDA
+    private static final AudioFormat PCM_FORMAT = new AudioFormat(48000f, 16, 2, true, true);
+
+    private final BinaryStorage storage;
+
+    // Clips en cache, dans l'ordre d'accès (LRU)
+    private final Map<BinaryStorageKey, SharedAudioClip> clips = new LinkedHashMap<>(16, 0.75f, true);
+    private long budgetBytes;
+    private long cachedBytes = 0;
+
+    /**
+     * Crée une nouvelle banque de clips.
+     *
+     * @param storage     le stockage binaire d'où les clips sont lus, ou null si indisponible
+     * @param budgetBytes la mémoire maximale occupée par les clips en cache (octets)
+     */
+    public AudioClipBank(BinaryStorage storage, long budgetBytes) {
+        this.storage = storage;
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Obtient un clip, en le chargeant s'il n'est pas en cache.
+     * Chaque clip obtenu doit être libéré par {@link AudioClip#release()}.
+     *
+     * @param key la clé de stockage du fichier audio
+     * @return le clip, ou un Optional vide si le fichier est absent ou illisible
+     */
+    public Optional<AudioClip> acquire(BinaryStorageKey key) {
+        synchronized (this) {
+            SharedAudioClip clip = clips.get(key);
+            if (clip != null) {
+                clip.refCount++;
+                return Optional.of(clip);
+            }
+        }
+
+        // Décodage hors verrou : les autres clips restent accessibles pendant le chargement
+        ByteBuffer pcm = load(key);
+        if (pcm == null) {
+            return Optional.empty();
+        }
+
+        synchronized (this) {
+            // Un chargement concurrent du même clip a pu aboutir entre-temps
+            SharedAudioClip clip = clips.get(key);
+            if (clip == null) {
+                clip = new SharedAudioClip(this, key, pcm);
+                clips.put(key, clip);
+                cachedBytes += clip.getSizeBytes();
+                logger.debug("Loaded audio clip {} ({} bytes)", key, clip.getSizeBytes());
+            }
+            clip.refCount++;
+            evict();
+            return Optional.of(clip);
+        }
+    }
+
+    /**
+     * Libère une référence sur un clip.
+     *
+     * @param clip le clip
+     * @throws IllegalStateException si le clip n'est plus référencé
+     */
+    synchronized void release(SharedAudioClip clip) {
+        if (clip.refCount <= 0) {
+            throw new IllegalStateException("Audio clip " + clip.getKey() + " is not referenced");
+        }
+        clip.refCount--;
+        evict();
+    }
+
+    /**
+     * Publie les paquets Opus d'un clip et les compte dans le budget s'il est encore en cache.
+     *
+     * @param clip    le clip
+     * @param packets les paquets Opus du clip
+     */
+    synchronized void attachOpus(SharedAudioClip clip, OpusPackets packets) {
+        clip.setOpusPackets(packets);
+        if (clips.get(clip.getKey()) == clip) {
+            cachedBytes += packets.getSizeBytes();
+            evict();
+        }
+    }
+
+    /**
+     * Modifie le budget mémoire de la banque et évince les clips en trop.
+     *
+     * @param budgetBytes la mémoire maximale occupée par les clips en cache (octets)
+     */
+    public synchronized void setBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    /**
+     * Obtient la mémoire occupée par les clips en cache (PCM et paquets Opus).
+     *
+     * @return la taille en octets
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Obtient le nombre de clips en cache.
+     *
+     * @return le nombre de clips
+     */
+    public synchronized int getClipCount() {
+        return clips.size();
+    }
+
+    /**
+     * Vide la banque. Les lecteurs existants restent utilisables.
+     */
+    public synchronized void clear() {
+        clips.clear();
+        cachedBytes = 0;
+    }
+
+    /**
+     * Évince les clips non référencés les moins récemment utilisés
+     * tant que le budget est dépassé.
+     */
+    private void evict() {
+        Iterator<SharedAudioClip> iterator = clips.values().iterator();
+        while (cachedBytes > budgetBytes && iterator.hasNext()) {
+            SharedAudioClip clip = iterator.next();
+            if (clip.refCount == 0) {
+                iterator.remove();
+                cachedBytes -= clip.getCachedBytes();
+                logger.debug("Evicted audio clip {} ({} bytes)", clip.getKey(), clip.getCachedBytes());
+            }
+        }
+    }
+
+    /**
+     * Lit et décode un fichier audio (WAV, AIFF, AU) dans un buffer hors tas.
+     *
+     * @param key la clé de stockage du fichier audio
+     * @return le PCM décodé en lecture seule, ou null en cas d'échec
+     */
+    private ByteBuffer load(BinaryStorageKey key) {
+        if (storage == null) {
+            logger.warn("No binary storage available, cannot load audio clip {}", key);
+            return null;
+        }
+
+        Optional<InputStream> input = storage.getInputStream(key);
+        if (input.isEmpty()) {
+            logger.warn("Audio clip {} not found", key);
+            return null;
+        }
+
+        try (InputStream in = new BufferedInputStream(input.get());
+             AudioInputStream source = AudioSystem.getAudioInputStream(in);
+             AudioInputStream converted = AudioSystem.getAudioInputStream(PCM_FORMAT, source)) {
+            byte[] bytes = converted.readAllBytes();
+            ByteBuffer pcm = ByteBuffer.allocateDirect(bytes.length);
+            pcm.put(bytes).flip();
+            return pcm.asReadOnlyBuffer();
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            logger.error("Failed to decode audio clip {}", key, e);
+            return null;
+        }
+    }
+}
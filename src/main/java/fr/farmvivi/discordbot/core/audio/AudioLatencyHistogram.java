@@ -0,0 +1,122 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de latences sans verrou, à un seul écrivain (le thread d'envoi).
+ * <p>
+ * Les latences sont rangées dans des seaux de puissances de deux en
+ * microsecondes : l'enregistrement ne coûte qu'un calcul de bit de poids fort
+ * et quelques écritures ordonnées, sans allocation. Les lectures peuvent avoir
+ * lieu depuis n'importe quel thread ; elles reflètent un état récent, pas
+ * forcément cohérent entre deux compteurs.
+ */
+public class AudioLatencyHistogram {
+    // Seau i : latences de [2^(i-1), 2^i[ µs ; le dernier seau regroupe tout au-delà d'une seconde
+    private static final int BUCKET_COUNT = 22;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Enregistre une latence. Ne doit être appelé que par un seul thread.
+     *
+     * @param nanos la latence en nanosecondes
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+
+        // Un seul écrivain : une écriture ordonnée suffit, sans instruction atomique
+        buckets.lazySet(bucket, buckets.get(bucket) + 1);
+        totalNanos.lazySet(totalNanos.get() + nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.lazySet(nanos);
+        }
+        count.lazySet(count.get() + 1);
+    }
+
+    /**
+     * Ajoute les mesures d'un autre histogramme, par exemple pour regrouper ceux
+     * de plusieurs threads d'envoi. Comme {@link #record}, ne doit être appelé que
+     * par l'écrivain de cet histogramme.
+     *
+     * @param other l'histogramme à ajouter
+     */
+    public void merge(AudioLatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.lazySet(i, buckets.get(i) + other.buckets.get(i));
+        }
+        totalNanos.lazySet(totalNanos.get() + other.totalNanos.get());
+        long otherMax = other.maxNanos.get();
+        if (otherMax > maxNanos.get()) {
+            maxNanos.lazySet(otherMax);
+        }
+        count.lazySet(count.get() + other.count.get());
+    }
+
+    /**
+     * Obtient le nombre de latences enregistrées.
+     *
+     * @return le nombre de mesures
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Obtient la latence moyenne.
+     *
+     * @return la moyenne en microsecondes, ou 0 sans mesure
+     */
+    public long getMeanMicros() {
+        long samples = count.get();
+        return samples == 0 ? 0 : totalNanos.get() / samples / 1000;
+    }
+
+    /**
+     * Obtient la latence maximum.
+     *
+     * @return le maximum en microsecondes
+     */
+    public long getMaxMicros() {
+        return maxNanos.get() / 1000;
+    }
+
+    /**
+     * Obtient un percentile des latences, arrondi à la borne supérieure de son seau
+     * et plafonné au maximum observé.
+     *
+     * @param percentile le percentile (0-100)
+     * @return la latence en microsecondes, ou 0 sans mesure
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                if (i == BUCKET_COUNT - 1) {
+                    // Dernier seau sans borne supérieure
+                    return getMaxMicros();
+                }
+                long upperBound = i == 0 ? 0 : (1L << i) - 1;
+                return Math.min(upperBound, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+}
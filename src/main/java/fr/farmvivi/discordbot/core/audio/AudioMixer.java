@@ -2,12 +2,18 @@ package fr.farmvivi.discordbot.core.audio;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Mixeur audio qui combine plusieurs sources en une seule.
  * Gère le décodage, le mixage et la normalisation des flux audio.
+ * <p>
+ * Le mixeur travaille entièrement sur des tableaux primitifs réutilisés :
+ * chaque source est décodée en bloc dans une voie {@code short[]}, puis
+ * accumulée dans une voie {@code int[]}. Aucune allocation n'est faite
+ * pendant un frame de 20 ms. Les boucles sont volontairement simples
+ * (bornes comptées, pas de branche interne) pour que le JIT puisse les
+ * dérouler et les vectoriser automatiquement (SuperWord).
  */
 public class AudioMixer {
     // Format d'un frame audio : PCM 48kHz 16-bit stéréo (2 octets par échantillon, 2 canaux)
@@ -16,127 +22,254 @@ public class AudioMixer {
     private static final int BYTES_PER_SAMPLE = 2;  // 16-bit = 2 bytes
     private static final int CHANNELS = 2;          // Stéréo = 2 canaux
     private static final int FRAME_SIZE = SAMPLE_RATE * FRAME_TIME * BYTES_PER_SAMPLE * CHANNELS / 1000;
-    
+    private static final int FRAME_SAMPLES = FRAME_SIZE / BYTES_PER_SAMPLE;
+    private static final int FRAME_PAIRS = FRAME_SAMPLES / CHANNELS;
+
     // Seuil pour le hard clipping
     private static final int MAX_VALUE = Short.MAX_VALUE;
     private static final int MIN_VALUE = Short.MIN_VALUE;
-    
-    // Buffer de sortie
-    private final short[] mixBuffer = new short[FRAME_SIZE / BYTES_PER_SAMPLE];
-    private final ByteBuffer outputBuffer = ByteBuffer.allocate(FRAME_SIZE).order(ByteOrder.BIG_ENDIAN);
-    
-    // Liste des sources pour ce frame
-    private final List<SourceFrame> sources = new ArrayList<>();
-    
+
+    // Voies de travail réutilisées d'un frame à l'autre
+    private final short[] sourceLane = new short[FRAME_SAMPLES];
+    private final int[] accumulator = new int[FRAME_SAMPLES];
+
+    // Buffer de sortie (tableau sous-jacent écrit directement)
+    private final byte[] outputBytes = new byte[FRAME_SIZE];
+    private final ByteBuffer outputBuffer = ByteBuffer.wrap(outputBytes).order(ByteOrder.BIG_ENDIAN);
+
+    // Nombre de sources ajoutées pour ce frame
+    private int sourceCount = 0;
+
+    // Amplitude crête du dernier frame mixé (détection de silence)
+    private int peak = 0;
+
+    // Écrêtage d'au moins un échantillon du dernier frame mixé
+    private boolean clipped = false;
+
     /**
      * Réinitialise le mixeur pour un nouveau frame.
      */
     public void reset() {
-        sources.clear();
-        for (int i = 0; i < mixBuffer.length; i++) {
-            mixBuffer[i] = 0;
-        }
+        sourceCount = 0;
+        peak = 0;
+        clipped = false;
+        Arrays.fill(accumulator, 0);
         outputBuffer.clear();
     }
-    
+
     /**
      * Ajoute une source audio au mixage.
+     * La source est décodée et accumulée immédiatement ; la position du buffer
+     * n'est pas modifiée.
      *
-     * @param buffer le buffer audio de la source (PCM 16-bit ou Opus)
+     * @param buffer le buffer audio de la source (PCM 16-bit big-endian)
      * @param volume le volume de la source (0.0-1.0)
      */
     public void addSource(ByteBuffer buffer, float volume) {
+        addSource(buffer, volume, volume);
+    }
+
+    /**
+     * Ajoute une source audio au mixage avec une rampe de gain linéaire.
+     * Le gain passe de {@code startVolume} au premier échantillon à
+     * {@code endVolume} à la fin du frame, ce qui évite les paliers audibles
+     * pendant les fondus.
+     *
+     * @param buffer      le buffer audio de la source (PCM 16-bit big-endian)
+     * @param startVolume le volume au début du frame (0.0-1.0)
+     * @param endVolume   le volume à la fin du frame (0.0-1.0)
+     */
+    public void addSource(ByteBuffer buffer, float startVolume, float endVolume) {
         if (buffer == null) return;
-        
-        // Crée un wrapper pour la source
-        SourceFrame source = new SourceFrame(buffer, volume);
-        sources.add(source);
+
+        sourceCount++;
+
+        // Une source muette compte comme active mais n'a rien à accumuler
+        if (startVolume <= 0.0f && endVolume <= 0.0f) {
+            return;
+        }
+
+        int samples = decode(buffer, sourceLane);
+        if (startVolume != endVolume) {
+            accumulate(sourceLane, samples, startVolume, (endVolume - startVolume) / FRAME_PAIRS);
+        } else if (startVolume == 1.0f) {
+            accumulate(sourceLane, samples);
+        } else {
+            accumulate(sourceLane, samples, startVolume);
+        }
     }
-    
+
     /**
      * Mixe toutes les sources et produit un frame audio PCM.
      *
      * @return le buffer audio mixé, ou null si aucune source n'a fourni d'audio
      */
     public ByteBuffer mix() {
-        if (sources.isEmpty()) {
+        if (sourceCount == 0) {
             return null;
         }
-        
-        // Réinitialise les positions des buffers
-        for (SourceFrame source : sources) {
-            source.getBuffer().rewind();
-        }
-        
-        // Mixe toutes les sources
-        for (int i = 0; i < mixBuffer.length; i++) {
-            // Additionne les échantillons de chaque source
-            int sum = 0;
-            for (SourceFrame source : sources) {
-                ByteBuffer buffer = source.getBuffer();
-                if (buffer.remaining() >= BYTES_PER_SAMPLE) {
-                    short sample = buffer.getShort();
-                    // Applique le volume
-                    sample = (short) (sample * source.getVolume());
-                    sum += sample;
-                }
-            }
-            
-            // Hard clipping
-            if (sum > MAX_VALUE) sum = MAX_VALUE;
-            if (sum < MIN_VALUE) sum = MIN_VALUE;
-            
-            // Stocke l'échantillon dans le buffer de mixage
-            mixBuffer[i] = (short) sum;
-        }
-        
-        // Remplit le buffer de sortie
-        outputBuffer.clear();
-        for (short sample : mixBuffer) {
-            outputBuffer.putShort(sample);
+
+        // Hard clipping, extrêmes avant écrêtage et encodage big-endian directement dans le tableau de sortie
+        int[] acc = accumulator;
+        byte[] out = outputBytes;
+        int rawMax = 0;
+        int rawMin = 0;
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            int value = acc[i];
+            rawMax = Math.max(rawMax, value);
+            rawMin = Math.min(rawMin, value);
+            int sample = Math.max(MIN_VALUE, Math.min(MAX_VALUE, value));
+            out[i << 1] = (byte) (sample >> 8);
+            out[(i << 1) + 1] = (byte) sample;
         }
-        
+        // La crête et l'écrêtage se déduisent des extrêmes, sans calcul par échantillon
+        peak = Math.max(Math.min(rawMax, MAX_VALUE), -Math.max(rawMin, MIN_VALUE));
+        clipped = rawMax > MAX_VALUE || rawMin < MIN_VALUE;
+
         // Prépare le buffer pour la lecture
-        outputBuffer.flip();
-        
+        outputBuffer.clear();
+
         return outputBuffer;
     }
-    
+
+    /**
+     * Obtient l'amplitude crête du dernier frame mixé.
+     *
+     * @return l'amplitude crête (0-32768), 0 pour un silence numérique
+     */
+    public int getPeak() {
+        return peak;
+    }
+
+    /**
+     * Vérifie si le dernier frame mixé a été écrêté.
+     *
+     * @return true si au moins un échantillon dépassait la plage 16-bit
+     */
+    public boolean isClipped() {
+        return clipped;
+    }
+
     /**
-     * Classe interne représentant une source audio pour un frame.
+     * Calcule l'amplitude crête d'un frame PCM 16-bit big-endian sans le décoder
+     * dans une voie ni modifier sa position.
+     *
+     * @param buffer le frame PCM
+     * @return l'amplitude crête (0-32768)
      */
-    private static class SourceFrame {
-        private final ByteBuffer buffer;
-        private final float volume;
-        
-        /**
-         * Crée une nouvelle source audio.
-         *
-         * @param buffer le buffer audio de la source
-         * @param volume le volume de la source (0.0-1.0)
-         */
-        public SourceFrame(ByteBuffer buffer, float volume) {
-            // Crée une copie du buffer pour pouvoir le modifier sans affecter l'original
-            this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
-            this.volume = volume;
+    public static int peak(ByteBuffer buffer) {
+        int position = buffer.position();
+        int samples = buffer.remaining() / BYTES_PER_SAMPLE;
+        int framePeak = 0;
+
+        if (buffer.hasArray()) {
+            byte[] src = buffer.array();
+            int offset = buffer.arrayOffset() + position;
+            for (int i = 0; i < samples; i++) {
+                int index = offset + (i << 1);
+                int sample = (short) ((src[index] << 8) | (src[index + 1] & 0xFF));
+                framePeak = Math.max(framePeak, Math.abs(sample));
+            }
+        } else {
+            ByteBuffer source = bigEndian(buffer);
+            int start = source == buffer ? position : 0;
+            for (int i = 0; i < samples; i++) {
+                framePeak = Math.max(framePeak, Math.abs(source.getShort(start + (i << 1))));
+            }
         }
-        
-        /**
-         * Obtient le buffer audio de la source.
-         *
-         * @return le buffer audio
-         */
-        public ByteBuffer getBuffer() {
+
+        return framePeak;
+    }
+
+    /**
+     * Décode en bloc les échantillons PCM 16-bit big-endian d'un buffer dans une voie.
+     * Lit depuis la position courante sans la modifier.
+     *
+     * @param buffer le buffer source
+     * @param lane   la voie de destination
+     * @return le nombre d'échantillons décodés
+     */
+    private static int decode(ByteBuffer buffer, short[] lane) {
+        int position = buffer.position();
+        int samples = Math.min(buffer.remaining() / BYTES_PER_SAMPLE, lane.length);
+
+        if (buffer.hasArray()) {
+            // Accès direct au tableau : évite les vérifications de bornes de ByteBuffer
+            byte[] src = buffer.array();
+            int offset = buffer.arrayOffset() + position;
+            for (int i = 0; i < samples; i++) {
+                int index = offset + (i << 1);
+                lane[i] = (short) ((src[index] << 8) | (src[index + 1] & 0xFF));
+            }
+        } else if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+            // Buffer direct ou en lecture seule (banque de clips, diffusion, streaming) :
+            // lecture absolue d'un short, sans allocation
+            for (int i = 0; i < samples; i++) {
+                lane[i] = buffer.getShort(position + (i << 1));
+            }
+        } else {
+            // Ordre déclaré little-endian : copie en bloc par une vue big-endian
+            bigEndian(buffer).asShortBuffer().get(lane, 0, samples);
+        }
+
+        return samples;
+    }
+
+    /**
+     * Obtient une vue big-endian d'un buffer, commençant à sa position courante.
+     * Le buffer lui-même est renvoyé s'il est déjà big-endian.
+     *
+     * @param buffer le buffer source
+     * @return le buffer, ou une vue big-endian partageant son contenu
+     */
+    private static ByteBuffer bigEndian(ByteBuffer buffer) {
+        if (buffer.order() == ByteOrder.BIG_ENDIAN) {
             return buffer;
         }
-        
-        /**
-         * Obtient le volume de la source.
-         *
-         * @return le volume (0.0-1.0)
-         */
-        public float getVolume() {
-            return volume;
+        return buffer.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Accumule une voie à gain unitaire.
+     *
+     * @param lane    la voie décodée
+     * @param samples le nombre d'échantillons valides
+     */
+    private void accumulate(short[] lane, int samples) {
+        int[] acc = accumulator;
+        for (int i = 0; i < samples; i++) {
+            acc[i] += lane[i];
+        }
+    }
+
+    /**
+     * Accumule une voie avec un gain constant.
+     * La conversion tronque vers zéro, comme l'ancien {@code (short) (sample * volume)}.
+     *
+     * @param lane    la voie décodée
+     * @param samples le nombre d'échantillons valides
+     * @param volume  le gain à appliquer (0.0-1.0)
+     */
+    private void accumulate(short[] lane, int samples, float volume) {
+        int[] acc = accumulator;
+        for (int i = 0; i < samples; i++) {
+            acc[i] += (int) (lane[i] * volume);
+        }
+    }
+
+    /**
+     * Accumule une voie avec une rampe de gain linéaire.
+     * Les deux canaux d'une même paire stéréo reçoivent le même gain.
+     *
+     * @param lane        la voie décodée
+     * @param samples     le nombre d'échantillons valides
+     * @param startVolume le gain du premier échantillon
+     * @param step        l'incrément de gain par paire stéréo
+     */
+    private void accumulate(short[] lane, int samples, float startVolume, float step) {
+        int[] acc = accumulator;
+        for (int i = 0; i < samples; i++) {
+            acc[i] += (int) (lane[i] * (startVolume + step * (i >> 1)));
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package fr.farmvivi.discordbot.core.audio;
 
+import fr.farmvivi.discordbot.core.api.audio.AudioReceiveOptions;
 import fr.farmvivi.discordbot.core.api.audio.AudioService;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceOptions;
+import fr.farmvivi.discordbot.core.api.audio.AudioTelemetry;
 import fr.farmvivi.discordbot.core.api.audio.events.AudioFrameMixedEvent;
 import fr.farmvivi.discordbot.core.api.audio.events.AudioVolumeChangedEvent;
 import fr.farmvivi.discordbot.core.api.event.EventManager;
@@ -8,19 +11,57 @@ import fr.farmvivi.discordbot.core.api.plugin.Plugin;
 import net.dv8tion.jda.api.audio.AudioReceiveHandler;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 import net.dv8tion.jda.api.audio.CombinedAudio;
+import net.dv8tion.jda.api.audio.OpusPacket;
 import net.dv8tion.jda.api.audio.UserAudio;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+import net.dv8tion.jda.api.managers.AudioManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Pipeline audio pour une guilde spécifique.
  * Gère le mixage de plusieurs sources audio et la réception audio.
+ * <p>
+ * Les enregistrements de sources publient un instantané immuable
+ * ({@link SourceHandler}[]) par copie sur écriture. Le thread d'envoi de JDA
+ * (50 Hz) ne lit que cet instantané : aucun verrou, itérateur ou accès à une
+ * map n'a lieu pendant un frame.
+ * <p>
+ * Côté réception, chaque handler de plugin dispose de sa propre file bornée,
+ * vidée par un thread de travail : le thread de réception de JDA ne fait que
+ * déposer l'audio, et un handler lent ne retarde pas les autres.
+ * <p>
+ * La détection d'activité vocale ({@link #setVoiceActivityDetection}) suit
+ * l'état de parole de chaque utilisateur à partir de l'audio reçu, sans handler
+ * de plugin : seuls les débuts et fins de parole sont émis sur le bus d'événements.
+ * <p>
+ * Un pipeline inactif peut être mis en veille ({@link #detachIfIdle}) : il se
+ * détache de JDA, ferme la connexion vocale et libère son mixeur, puis se
+ * rattache au même salon vocal lors du prochain appel d'un plugin ou dès
+ * qu'une source a de nouveau de l'audio.
+ * <p>
+ * En mode mixage, lorsqu'une seule source est audible à gain unitaire (les
+ * autres ne fournissent rien ou sont atténuées à zéro), son frame est transmis
+ * tel quel : une source Opus évite ainsi tout réencodage par JDA, qui reprend
+ * l'encodage PCM dès le frame mixé suivant. Les paquets Opus ne pouvant pas être
+ * décodés ici, une source Opus atténuée ou accompagnée d'une autre source audible
+ * est écartée du mixage ; ses frames sont comptés dans la télémétrie.
+ * <p>
+ * Le thread d'envoi tient des compteurs de télémétrie sans verrou
+ * ({@link #getTelemetry()}) ; l'événement {@link AudioFrameMixedEvent} n'est
+ * construit et émis que si un listener est enregistré.
  */
 public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
     private static final Logger logger = LoggerFactory.getLogger(AudioPipeline.class);
@@ -30,6 +71,9 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
     private static final int FRAME_DURATION_MS = 20;
     private static final int FADE_STEPS = FADE_DURATION_MS / FRAME_DURATION_MS;
     
+    private static final SourceHandler[] NO_SOURCES = new SourceHandler[0];
+    private static final ReceiveHandlerQueue[] NO_RECEIVERS = new ReceiveHandlerQueue[0];
+    
     // Stratégies de traitement audio
     private enum Strategy {
         DIRECT_BYPASS,  // Une seule source, transmission directe
@@ -38,32 +82,92 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
     
     private final Guild guild;
     private final EventManager eventManager;
+    private final ScheduledExecutorService workerExecutor;
+    private final Executor receiveExecutor;
     
     // Gestionnaires pour les handlers et les priorités
     private final Map<String, SourceHandler> sendHandlers = new ConcurrentHashMap<>();
-    private final Map<String, AudioReceiveHandler> receiveHandlers = new ConcurrentHashMap<>();
+    private final Map<String, ReceiveHandlerQueue> receiveHandlers = new ConcurrentHashMap<>();
     private final PriorityManager priorityManager;
     
-    // Mixeur et état
-    private final AudioMixer mixer;
-    private Strategy currentStrategy = Strategy.DIRECT_BYPASS;
-    private final ReentrantLock strategyLock = new ReentrantLock();
-    private int priorityThreshold = AudioService.DEFAULT_PRIORITY_THRESHOLD;
+    // Instantané des sources lu par le thread d'envoi (copie sur écriture)
+    private volatile SourceHandler[] sources = NO_SOURCES;
+    
+    // Instantané des handlers de réception et capacités agrégées, lus par le thread de réception
+    private volatile ReceiveHandlerQueue[] receivers = NO_RECEIVERS;
+    private volatile boolean receiveCombined = false;
+    private volatile boolean receiveUser = false;
+    private volatile boolean receiveEncoded = false;
+    
+    // Mixeur et état (mixeur créé au premier mixage, libéré en veille)
+    private volatile AudioMixer mixer;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile int priorityThreshold = AudioService.DEFAULT_PRIORITY_THRESHOLD;
+    
+    // Détection de silence
+    private volatile int silenceThreshold = AudioService.DEFAULT_SILENCE_THRESHOLD;
+    private volatile int silenceHangoverFrames = AudioService.DEFAULT_SILENCE_HANGOVER_MS / FRAME_DURATION_MS;
+    private int silentFrameRun = 0;
+    
+    // Détection d'activité vocale côté réception, null si désactivée
+    private volatile VoiceActivityDetector voiceActivity;
+    
+    // Frames collectés pendant un frame de mixage (thread d'envoi uniquement)
+    private ByteBuffer[] frameAudio = new ByteBuffer[0];
+    private float[] frameStartVolumes = new float[0];
+    private float[] frameEndVolumes = new float[0];
     
     // État cache
-    private String lastActivePluginName = null;
+    private volatile String lastActivePluginName = null;
     private boolean providedAudioLastFrame = false;
+    private boolean providedOpusLastFrame = false;
+    
+    // Télémétrie tenue par le thread d'envoi
+    private final PipelineTelemetry telemetry = new PipelineTelemetry();
+    
+    // Mise en veille : dernière activité (audio envoyé ou reçu, appel d'un plugin)
+    private volatile long lastActivityNanos = System.nanoTime();
+    private volatile boolean detached = false;
+    // Salon vocal à rejoindre au réveil, protégé par snapshotLock
+    private AudioChannel detachedChannel;
 
     /**
-     * Crée un nouveau pipeline audio pour une guilde.
+     * Crée un nouveau pipeline audio pour une guilde, sans thread de travail.
+     * Les sources sont alors toujours lues directement par le thread d'envoi.
      *
      * @param guild        la guilde
      * @param eventManager le gestionnaire d'événements
      */
     public AudioPipeline(Guild guild, EventManager eventManager) {
+        this(guild, eventManager, null);
+    }
+
+    /**
+     * Crée un nouveau pipeline audio pour une guilde.
+     *
+     * @param guild          la guilde
+     * @param eventManager   le gestionnaire d'événements
+     * @param workerExecutor l'exécuteur des threads de travail audio (préchargement), ou null
+     */
+    public AudioPipeline(Guild guild, EventManager eventManager, ScheduledExecutorService workerExecutor) {
+        this(guild, eventManager, workerExecutor, null);
+    }
+
+    /**
+     * Crée un nouveau pipeline audio pour une guilde.
+     *
+     * @param guild           la guilde
+     * @param eventManager    le gestionnaire d'événements
+     * @param workerExecutor  l'exécuteur des threads de travail audio (préchargement), ou null
+     * @param receiveExecutor l'exécuteur des handlers de réception, ou null pour les appeler
+     *                        directement sur le thread de réception
+     */
+    public AudioPipeline(Guild guild, EventManager eventManager, ScheduledExecutorService workerExecutor,
+                         Executor receiveExecutor) {
         this.guild = guild;
         this.eventManager = eventManager;
-        this.mixer = new AudioMixer();
+        this.workerExecutor = workerExecutor;
+        this.receiveExecutor = receiveExecutor;
         this.priorityManager = new PriorityManager(FADE_STEPS);
         
         // Connecte ce pipeline au AudioManager de la guilde
@@ -82,12 +186,54 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
      * @param priority la priorité (0-100)
      */
     public void registerSendHandler(Plugin plugin, AudioSendHandler handler, int volume, int priority) {
+        registerSendHandler(plugin, handler, volume, priority, AudioSourceOptions.DEFAULT);
+    }
+
+    /**
+     * Enregistre un handler d'envoi audio pour un plugin avec des options de source.
+     *
+     * @param plugin   le plugin
+     * @param handler  le handler d'envoi audio
+     * @param volume   le volume initial (0-100)
+     * @param priority la priorité (0-100)
+     * @param options  les options de la source
+     */
+    public void registerSendHandler(Plugin plugin, AudioSendHandler handler, int volume, int priority,
+                                    AudioSourceOptions options) {
         String pluginName = plugin.getName();
-        SourceHandler sourceHandler = new SourceHandler(handler, volume, priority);
-        sendHandlers.put(pluginName, sourceHandler);
         
-        // Met à jour la stratégie si nécessaire
-        updateStrategy();
+        // Conversion du format déclaré, faite par le thread de préchargement s'il y en a un
+        AudioSendHandler source = options.getFormat().isNative()
+                ? handler
+                : new FormatAdaptingSendHandler(handler, options.getFormat());
+        
+        SourceHandler sourceHandler;
+        if (options.isPrefetchEnabled() && workerExecutor != null) {
+            // Le handler du plugin est lu par un thread de travail, le thread d'envoi ne fait que défiler
+            PrefetchingSendHandler prefetcher = new PrefetchingSendHandler(source, options);
+            prefetcher.start(workerExecutor);
+            sourceHandler = new SourceHandler(pluginName, handler, prefetcher, volume, priority);
+        } else {
+            if (options.isPrefetchEnabled()) {
+                logger.warn("Prefetch requested by plugin {} but no audio worker is available in guild {}",
+                        pluginName, guild.getName());
+            }
+            sourceHandler = new SourceHandler(pluginName, handler, source, volume, priority);
+        }
+        
+        SourceHandler previous;
+        snapshotLock.lock();
+        try {
+            previous = sendHandlers.put(pluginName, sourceHandler);
+            publishSources();
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        // Libère l'ancienne source remplacée
+        if (previous != null) {
+            previous.close();
+        }
         
         logger.debug("Registered send handler for plugin {} in guild {}", pluginName, guild.getName());
     }
@@ -99,16 +245,25 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
      */
     public void deregisterSendHandler(Plugin plugin) {
         String pluginName = plugin.getName();
-        sendHandlers.remove(pluginName);
+        
+        SourceHandler removed;
+        snapshotLock.lock();
+        try {
+            removed = sendHandlers.remove(pluginName);
+            publishSources();
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        if (removed != null) {
+            removed.close();
+        }
         
         // Réinitialise l'état du dernier plugin actif si nécessaire
         if (pluginName.equals(lastActivePluginName)) {
             lastActivePluginName = null;
         }
         
-        // Met à jour la stratégie si nécessaire
-        updateStrategy();
-        
         logger.debug("Deregistered send handler for plugin {} in guild {}", pluginName, guild.getName());
     }
 
@@ -119,8 +274,34 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
      * @param handler le handler de réception audio
      */
     public void registerReceiveHandler(Plugin plugin, AudioReceiveHandler handler) {
+        registerReceiveHandler(plugin, handler, AudioReceiveOptions.DEFAULT);
+    }
+
+    /**
+     * Enregistre un handler de réception audio pour un plugin avec des options de réception.
+     * Les capacités du handler ({@code canReceive*}) sont lues à l'enregistrement.
+     *
+     * @param plugin  le plugin
+     * @param handler le handler de réception audio
+     * @param options les options de réception
+     */
+    public void registerReceiveHandler(Plugin plugin, AudioReceiveHandler handler, AudioReceiveOptions options) {
         String pluginName = plugin.getName();
-        receiveHandlers.put(pluginName, handler);
+        ReceiveHandlerQueue receiver = new ReceiveHandlerQueue(handler, options, receiveExecutor);
+        
+        ReceiveHandlerQueue previous;
+        snapshotLock.lock();
+        try {
+            previous = receiveHandlers.put(pluginName, receiver);
+            publishReceivers();
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        if (previous != null) {
+            previous.close();
+        }
+        
         logger.debug("Registered receive handler for plugin {} in guild {}", pluginName, guild.getName());
     }
 
@@ -131,7 +312,20 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
      */
     public void deregisterReceiveHandler(Plugin plugin) {
         String pluginName = plugin.getName();
-        receiveHandlers.remove(pluginName);
+        
+        ReceiveHandlerQueue removed;
+        snapshotLock.lock();
+        try {
+            removed = receiveHandlers.remove(pluginName);
+            publishReceivers();
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        if (removed != null) {
+            removed.close();
+        }
+        
         logger.debug("Deregistered receive handler for plugin {} in guild {}", pluginName, guild.getName());
     }
 
@@ -166,6 +360,75 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
         logger.debug("Set priority threshold to {} for guild {}", threshold, guild.getName());
     }
 
+    /**
+     * Configure la détection de silence pour ce pipeline.
+     *
+     * @param threshold  l'amplitude crête (0-32767) en dessous de laquelle un frame est
+     *                   considéré silencieux, ou {@link AudioService#SILENCE_DETECTION_DISABLED}
+     * @param hangoverMs la durée de silence tolérée avant de suspendre l'envoi (ms)
+     */
+    public void setSilenceDetection(int threshold, int hangoverMs) {
+        this.silenceThreshold = threshold;
+        this.silenceHangoverFrames = hangoverMs / FRAME_DURATION_MS;
+        logger.debug("Set silence threshold to {} with {} ms hangover for guild {}",
+                threshold, hangoverMs, guild.getName());
+    }
+
+    /**
+     * Configure la détection d'activité vocale pour ce pipeline.
+     * Sa désactivation termine la parole des utilisateurs en cours.
+     *
+     * @param threshold  l'amplitude moyenne (0-32767) à partir de laquelle un frame reçu
+     *                   contient de la voix, ou {@link AudioService#VOICE_ACTIVITY_DISABLED}
+     * @param hangoverMs la durée sous le seuil de relâchement avant la fin de parole (ms)
+     */
+    public void setVoiceActivityDetection(int threshold, int hangoverMs) {
+        VoiceActivityDetector disabled = null;
+        snapshotLock.lock();
+        try {
+            if (threshold == AudioService.VOICE_ACTIVITY_DISABLED) {
+                disabled = voiceActivity;
+                voiceActivity = null;
+            } else if (voiceActivity != null) {
+                voiceActivity.configure(threshold, hangoverMs);
+            } else {
+                voiceActivity = new VoiceActivityDetector(guild, eventManager, threshold, hangoverMs);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        if (disabled != null) {
+            disabled.stopAll();
+        }
+        logger.debug("Set voice activity threshold to {} with {} ms hangover for guild {}",
+                threshold, hangoverMs, guild.getName());
+    }
+
+    /**
+     * Termine la parole des utilisateurs dont l'audio n'est plus reçu.
+     * Appelé périodiquement par un thread de travail.
+     *
+     * @param nowNanos l'instant de référence ({@link System#nanoTime()})
+     */
+    public void expireSpeakers(long nowNanos) {
+        VoiceActivityDetector detector = voiceActivity;
+        if (detector != null) {
+            detector.expire(nowNanos);
+        }
+    }
+
+    /**
+     * Vérifie si un utilisateur parle, selon la détection d'activité vocale.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @return true si l'utilisateur parle, false si la détection est désactivée
+     */
+    public boolean isUserSpeaking(long userId) {
+        VoiceActivityDetector detector = voiceActivity;
+        return detector != null && detector.isSpeaking(userId);
+    }
+
     /**
      * Vérifie si un plugin a un handler d'envoi actif.
      *
@@ -204,16 +467,174 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
      * @return le handler de réception audio, ou null s'il n'existe pas
      */
     public AudioReceiveHandler getReceiveHandler(Plugin plugin) {
-        return receiveHandlers.get(plugin.getName());
+        ReceiveHandlerQueue receiver = receiveHandlers.get(plugin.getName());
+        return receiver != null ? receiver.getHandler() : null;
+    }
+
+    /**
+     * Obtient le nombre de sous-alimentations de la source d'un plugin.
+     *
+     * @param plugin le plugin
+     * @return le nombre de frames manquants de la source préchargée ou du lecteur de pistes, sinon 0
+     */
+    public long getUnderrunCount(Plugin plugin) {
+        SourceHandler handler = sendHandlers.get(plugin.getName());
+        return handler != null ? handler.getUnderrunCount() : 0;
+    }
+    
+    /**
+     * Obtient la guilde du pipeline.
+     *
+     * @return la guilde
+     */
+    public Guild getGuild() {
+        return guild;
+    }
+    
+    /**
+     * Relève la télémétrie du pipeline et de ses sources.
+     * Peut être appelé depuis n'importe quel thread, sans bloquer le thread d'envoi.
+     *
+     * @return le relevé de télémétrie
+     */
+    public AudioTelemetry getTelemetry() {
+        return telemetry.snapshot(guild.getId(), sources, detached);
+    }
+
+    /**
+     * Obtient le nombre de paquets reçus abandonnés pour le handler de réception d'un plugin.
+     *
+     * @param plugin le plugin
+     * @return le nombre de paquets abandonnés parce que la file du handler était pleine
+     */
+    public long getDroppedReceiveCount(Plugin plugin) {
+        ReceiveHandlerQueue receiver = receiveHandlers.get(plugin.getName());
+        return receiver != null ? receiver.getDroppedCount() : 0;
+    }
+
+    /**
+     * Obtient les noms des plugins ayant un handler d'envoi ou de réception dans ce pipeline.
+     *
+     * @return les noms des plugins
+     */
+    public Set<String> getPluginNames() {
+        Set<String> pluginNames = new HashSet<>(sendHandlers.keySet());
+        pluginNames.addAll(receiveHandlers.keySet());
+        return pluginNames;
+    }
+
+    /**
+     * Obtient la durée écoulée depuis la dernière activité (audio envoyé ou reçu, appel d'un plugin).
+     *
+     * @param nowNanos l'instant de référence ({@link System#nanoTime()})
+     * @return la durée d'inactivité en millisecondes
+     */
+    public long getIdleMillis(long nowNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nowNanos - lastActivityNanos);
+    }
+
+    /**
+     * Vérifie si le pipeline est en veille (détaché de JDA).
+     *
+     * @return true si le pipeline est en veille
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * Met le pipeline en veille s'il est inactif depuis au moins le délai donné :
+     * il se détache de l'AudioManager, ferme la connexion vocale et libère son mixeur.
+     * Le pipeline ne se met pas en veille tant qu'aucun salon n'est connecté
+     * (JDA pas encore connecté ou en reconnexion) : il ne saurait pas quel salon
+     * rejoindre au réveil.
+     *
+     * @param nowNanos      l'instant de référence ({@link System#nanoTime()})
+     * @param idleTimeoutMs le délai d'inactivité en millisecondes
+     * @return true si le pipeline a été mis en veille
+     */
+    public boolean detachIfIdle(long nowNanos, long idleTimeoutMs) {
+        snapshotLock.lock();
+        try {
+            // Vérifié sous le verrou : un appel de plugin concurrent réveille le pipeline
+            if (detached || getIdleMillis(nowNanos) < idleTimeoutMs) {
+                return false;
+            }
+            
+            AudioManager audioManager = guild.getAudioManager();
+            AudioChannel channel = audioManager.getConnectedChannel();
+            if (channel == null) {
+                return false;
+            }
+            
+            detachedChannel = channel;
+            audioManager.setSendingHandler(null);
+            audioManager.setReceivingHandler(null);
+            audioManager.closeAudioConnection();
+            mixer = null;
+            detached = true;
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        // Plus aucun audio n'est reçu pendant la veille
+        stopAllSpeakers();
+        
+        logger.debug("Detached idle audio pipeline for guild {}", guild.getName());
+        return true;
+    }
+
+    /**
+     * Signale une activité d'un plugin : remet à zéro la durée d'inactivité et,
+     * si le pipeline est en veille, le rattache à JDA et rejoint le salon vocal quitté.
+     */
+    public void resume() {
+        boolean resumed;
+        snapshotLock.lock();
+        try {
+            lastActivityNanos = System.nanoTime();
+            resumed = detached;
+            if (detached) {
+                AudioManager audioManager = guild.getAudioManager();
+                audioManager.setSendingHandler(this);
+                audioManager.setReceivingHandler(this);
+                if (detachedChannel != null) {
+                    audioManager.openAudioConnection(detachedChannel);
+                    detachedChannel = null;
+                }
+                detached = false;
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        if (resumed) {
+            logger.debug("Resumed audio pipeline for guild {}", guild.getName());
+        }
+    }
+
+    /**
+     * Vérifie si une source a de nouveau de l'audio à fournir.
+     * Appelé par le thread de travail pendant la veille, lorsque JDA n'interroge plus le pipeline.
+     *
+     * @return true si au moins une source peut fournir de l'audio
+     */
+    public boolean hasPendingAudio() {
+        for (SourceHandler sourceHandler : sources) {
+            if (sourceHandler.getSource().canProvide()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Vérifie si le pipeline est vide (aucun handler actif).
+     * Vérifie si le pipeline est vide (aucun handler actif ni détection d'activité vocale).
      *
      * @return true si le pipeline est vide
      */
     public boolean isEmpty() {
-        return sendHandlers.isEmpty() && receiveHandlers.isEmpty();
+        return sendHandlers.isEmpty() && receiveHandlers.isEmpty() && voiceActivity == null;
     }
 
     /**
@@ -226,28 +647,81 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
         guild.getAudioManager().closeAudioConnection();
         
         // Vide les collections
-        sendHandlers.clear();
-        receiveHandlers.clear();
+        snapshotLock.lock();
+        try {
+            for (SourceHandler sourceHandler : sendHandlers.values()) {
+                sourceHandler.close();
+            }
+            sendHandlers.clear();
+            publishSources();
+            
+            for (ReceiveHandlerQueue receiver : receiveHandlers.values()) {
+                receiver.close();
+            }
+            receiveHandlers.clear();
+            publishReceivers();
+            
+            mixer = null;
+            detachedChannel = null;
+        } finally {
+            snapshotLock.unlock();
+        }
+        
+        stopAllSpeakers();
+        voiceActivity = null;
         
         logger.debug("Closed audio pipeline for guild {}", guild.getName());
     }
     
     /**
-     * Met à jour la stratégie de traitement audio en fonction du nombre de sources.
+     * Termine la parole de tous les utilisateurs suivis par la détection d'activité vocale.
      */
-    private void updateStrategy() {
-        strategyLock.lock();
-        try {
-            Strategy newStrategy = sendHandlers.size() <= 1 ? Strategy.DIRECT_BYPASS : Strategy.MIXING;
-            if (newStrategy != currentStrategy) {
-                currentStrategy = newStrategy;
-                logger.debug("Switched to {} strategy for guild {}", 
-                        currentStrategy == Strategy.DIRECT_BYPASS ? "direct bypass" : "mixing",
-                        guild.getName());
-            }
-        } finally {
-            strategyLock.unlock();
+    private void stopAllSpeakers() {
+        VoiceActivityDetector detector = voiceActivity;
+        if (detector != null) {
+            detector.stopAll();
+        }
+    }
+    
+    /**
+     * Publie un nouvel instantané des sources. La stratégie de traitement en
+     * découle à chaque frame ({@link #strategyFor}).
+     * Doit être appelé avec {@code snapshotLock} détenu.
+     */
+    private void publishSources() {
+        sources = sendHandlers.values().toArray(NO_SOURCES);
+    }
+    
+    /**
+     * Publie un nouvel instantané des handlers de réception et recalcule les
+     * capacités agrégées annoncées à JDA.
+     * Doit être appelé avec {@code snapshotLock} détenu.
+     */
+    private void publishReceivers() {
+        ReceiveHandlerQueue[] snapshot = receiveHandlers.values().toArray(NO_RECEIVERS);
+        boolean combined = false;
+        boolean user = false;
+        boolean encoded = false;
+        for (ReceiveHandlerQueue receiver : snapshot) {
+            combined |= receiver.canReceiveCombined();
+            user |= receiver.canReceiveUser();
+            encoded |= receiver.canReceiveEncoded();
         }
+        
+        receivers = snapshot;
+        receiveCombined = combined;
+        receiveUser = user;
+        receiveEncoded = encoded;
+    }
+    
+    /**
+     * Détermine la stratégie de traitement pour un instantané de sources.
+     *
+     * @param snapshot l'instantané des sources
+     * @return la stratégie à appliquer
+     */
+    private static Strategy strategyFor(SourceHandler[] snapshot) {
+        return snapshot.length <= 1 ? Strategy.DIRECT_BYPASS : Strategy.MIXING;
     }
     
     //
@@ -256,145 +730,210 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
     
     @Override
     public boolean canProvide() {
-        strategyLock.lock();
-        try {
-            // Détermine si une source fournit de l'audio
-            if (currentStrategy == Strategy.DIRECT_BYPASS) {
-                // Mode bypass : une seule source
-                if (sendHandlers.isEmpty()) {
-                    return false;
-                }
-                
-                // La seule source existante
-                SourceHandler sourceHandler = sendHandlers.values().iterator().next();
-                return sourceHandler.getHandler().canProvide();
-            } else {
-                // Mode mixage : plusieurs sources
-                boolean canProvide = false;
-                
-                // Préparation pour la détection de sources prioritaires
-                boolean highPriorityActive = false;
-                String highPriorityPluginName = null;
+        SourceHandler[] snapshot = sources;
+        
+        // Détermine si une source fournit de l'audio
+        if (strategyFor(snapshot) == Strategy.DIRECT_BYPASS) {
+            // Mode bypass : une seule source
+            if (snapshot.length == 0) {
+                return false;
+            }
+            
+            // La seule source existante
+            return snapshot[0].getSource().canProvide();
+        }
+        
+        // Mode mixage : plusieurs sources
+        boolean canProvide = false;
+        
+        // Préparation pour la détection de sources prioritaires
+        boolean highPriorityActive = false;
+        String highPriorityPluginName = null;
+        int threshold = priorityThreshold;
+        
+        // Vérifie chaque source
+        for (SourceHandler sourceHandler : snapshot) {
+            // Vérifie si ce handler peut fournir de l'audio
+            if (sourceHandler.getSource().canProvide()) {
+                canProvide = true;
                 
-                // Vérifie chaque source
-                for (Map.Entry<String, SourceHandler> entry : sendHandlers.entrySet()) {
-                    String pluginName = entry.getKey();
-                    SourceHandler sourceHandler = entry.getValue();
-                    AudioSendHandler handler = sourceHandler.getHandler();
+                // Détecte les sources de haute priorité
+                if (sourceHandler.getPriority() >= threshold) {
+                    String pluginName = sourceHandler.getPluginName();
+                    highPriorityActive = true;
+                    highPriorityPluginName = pluginName;
                     
-                    // Vérifie si ce handler peut fournir de l'audio
-                    if (handler.canProvide()) {
-                        canProvide = true;
-                        
-                        // Détecte les sources de haute priorité
-                        int priority = sourceHandler.getPriority();
-                        if (priority >= priorityThreshold) {
-                            highPriorityActive = true;
-                            highPriorityPluginName = pluginName;
-                            
-                            // Si un plugin de haute priorité devient actif, démarre le fade out des autres
-                            if (lastActivePluginName == null || !lastActivePluginName.equals(pluginName)) {
-                                startFade(pluginName);
-                            }
-                            break;
-                        }
+                    // Si un plugin de haute priorité devient actif, démarre le fade out des autres
+                    if (lastActivePluginName == null || !lastActivePluginName.equals(pluginName)) {
+                        startFade(snapshot, pluginName);
                     }
+                    break;
                 }
-                
-                // Si aucune source de haute priorité n'est active et qu'il y en avait une avant,
-                // démarre le fade in pour toutes les sources
-                if (!highPriorityActive && lastActivePluginName != null) {
-                    startFadeIn();
-                }
-                
-                // Met à jour l'état du dernier plugin actif
-                lastActivePluginName = highPriorityActive ? highPriorityPluginName : null;
-                
-                return canProvide;
             }
-        } finally {
-            strategyLock.unlock();
         }
+        
+        // Si aucune source de haute priorité n'est active et qu'il y en avait une avant,
+        // démarre le fade in pour toutes les sources
+        if (!highPriorityActive && lastActivePluginName != null) {
+            startFadeIn(snapshot);
+        }
+        
+        // Met à jour l'état du dernier plugin actif
+        lastActivePluginName = highPriorityActive ? highPriorityPluginName : null;
+        
+        return canProvide;
     }
     
     @Override
     public ByteBuffer provide20MsAudio() {
-        strategyLock.lock();
-        try {
-            ByteBuffer audio;
-            int activeSourceCount = 0;
-            boolean bypassMode = currentStrategy == Strategy.DIRECT_BYPASS;
-            
-            if (bypassMode) {
-                // Mode bypass : transmet directement l'audio d'une seule source
-                if (sendHandlers.isEmpty()) {
-                    audio = null;
-                } else {
-                    SourceHandler sourceHandler = sendHandlers.values().iterator().next();
-                    AudioSendHandler handler = sourceHandler.getHandler();
-                    
-                    if (handler.canProvide()) {
-                        audio = handler.provide20MsAudio();
-                        activeSourceCount = 1;
-                    } else {
+        SourceHandler[] snapshot = sources;
+        // Début du frame : les échéances des sources préchargées en partent toutes
+        long frameStart = System.nanoTime();
+        
+        ByteBuffer audio;
+        int activeSourceCount = 0;
+        boolean bypassMode = strategyFor(snapshot) == Strategy.DIRECT_BYPASS;
+        boolean opus = false;
+        int threshold = silenceThreshold;
+        boolean silent = false;
+        boolean mixed = false;
+        
+        if (bypassMode) {
+            // Mode bypass : transmet directement l'audio d'une seule source
+            if (snapshot.length == 0) {
+                audio = null;
+            } else {
+                SourceHandler sourceHandler = snapshot[0];
+                AudioSendHandler handler = sourceHandler.getSource();
+                
+                if (handler.canProvide()) {
+                    audio = provideTimed(sourceHandler, frameStart);
+                    activeSourceCount = 1;
+                    if (sourceHandler.getBaseVolume() == 0) {
+                        // Le bypass n'applique pas le volume : une source muette n'envoie rien, sans maintien
                         audio = null;
+                    } else {
+                        opus = handler.isOpus();
+                        
+                        // Détection de silence : l'Opus n'est pas analysé
+                        if (audio != null && threshold != AudioService.SILENCE_DETECTION_DISABLED) {
+                            silent = !opus && AudioMixer.peak(audio) <= threshold;
+                        }
                     }
+                } else {
+                    audio = null;
                 }
+            }
+        } else {
+            // Mode mixage : collecte d'abord le frame de chaque source
+            if (frameAudio.length < snapshot.length) {
+                frameAudio = new ByteBuffer[snapshot.length];
+                frameStartVolumes = new float[snapshot.length];
+                frameEndVolumes = new float[snapshot.length];
+            }
+            
+            int audibleCount = 0;
+            int audibleIndex = -1;
+            for (int i = 0; i < snapshot.length; i++) {
+                SourceHandler sourceHandler = snapshot[i];
+                AudioSendHandler handler = sourceHandler.getSource();
+                
+                // Calcule le volume effectif en début et en fin de frame en faisant avancer le fondu
+                float baseVolume = sourceHandler.getBaseVolume() / 100.0f;
+                float startVolume = baseVolume * sourceHandler.getFadeMultiplier();
+                priorityManager.updateFade(sourceHandler);
+                float endVolume = baseVolume * sourceHandler.getFadeMultiplier();
+                
+                ByteBuffer sourceAudio = handler.canProvide() ? provideTimed(sourceHandler, frameStart) : null;
+                frameAudio[i] = sourceAudio;
+                frameStartVolumes[i] = startVolume;
+                frameEndVolumes[i] = endVolume;
+                
+                if (sourceAudio != null) {
+                    activeSourceCount++;
+                    if (startVolume > 0.0f || endVolume > 0.0f) {
+                        audibleCount++;
+                        audibleIndex = i;
+                    }
+                }
+            }
+            
+            // Une seule source audible à gain unitaire : son frame est transmis tel quel
+            boolean unity = audibleCount == 1
+                    && frameStartVolumes[audibleIndex] == 1.0f && frameEndVolumes[audibleIndex] == 1.0f;
+            if (unity) {
+                // Passage direct : ni mixage, ni décodage, ni réencodage pour une source Opus
+                audio = frameAudio[audibleIndex];
+                opus = snapshot[audibleIndex].getSource().isOpus();
+                bypassMode = true;
+                silent = !opus && threshold != AudioService.SILENCE_DETECTION_DISABLED
+                        && AudioMixer.peak(audio) <= threshold;
             } else {
-                // Mode mixage : mixe plusieurs sources
-                mixer.reset();
+                AudioMixer activeMixer = mixer;
+                if (activeMixer == null) {
+                    activeMixer = new AudioMixer();
+                    mixer = activeMixer;
+                }
                 
-                // Traite chaque source
-                for (Map.Entry<String, SourceHandler> entry : sendHandlers.entrySet()) {
-                    String pluginName = entry.getKey();
-                    SourceHandler sourceHandler = entry.getValue();
-                    AudioSendHandler handler = sourceHandler.getHandler();
-                    
-                    // Ajoute l'audio de cette source si disponible
-                    if (handler.canProvide()) {
-                        ByteBuffer sourceAudio = handler.provide20MsAudio();
-                        if (sourceAudio != null) {
-                            // Calcule le volume effectif en tenant compte des fades
-                            float effectiveVolume = calculateEffectiveVolume(pluginName, sourceHandler);
-                            
-                            // Ajoute au mixeur
-                            mixer.addSource(sourceAudio, effectiveVolume);
-                            activeSourceCount++;
-                        }
+                activeMixer.reset();
+                for (int i = 0; i < snapshot.length; i++) {
+                    if (frameAudio[i] == null) {
+                        continue;
+                    }
+                    // Les paquets Opus ne peuvent pas être décodés ici : seules les sources PCM sont mixées
+                    if (snapshot[i].getSource().isOpus()) {
+                        skipOpusFrame(snapshot[i]);
+                    } else {
+                        activeMixer.addSource(frameAudio[i], frameStartVolumes[i], frameEndVolumes[i]);
                     }
-                    
-                    // Mets à jour l'état des fades
-                    priorityManager.updateFade(pluginName);
                 }
                 
-                // Obtient l'audio mixé
-                audio = mixer.mix();
+                // Obtient l'audio mixé (la crête est calculée pendant le mixage)
+                audio = activeMixer.mix();
+                silent = audio != null && threshold != AudioService.SILENCE_DETECTION_DISABLED
+                        && activeMixer.getPeak() <= threshold;
+                mixed = audio != null;
+                if (mixed && activeMixer.isClipped()) {
+                    telemetry.recordClipped();
+                }
             }
             
-            // Émet un événement de mixage
-            boolean containsAudio = audio != null;
-            AudioFrameMixedEvent event = new AudioFrameMixedEvent(guild, activeSourceCount, bypassMode, containsAudio);
-            eventManager.fireEvent(event);
-            
-            // Met à jour l'état
-            providedAudioLastFrame = containsAudio;
-            
-            return audio;
-        } finally {
-            strategyLock.unlock();
+            // Ne retient pas les buffers des sources au-delà du frame
+            Arrays.fill(frameAudio, 0, snapshot.length, null);
+        }
+        
+        // Suspend l'envoi après la période de maintien : JDA arrête alors de parler et d'encoder
+        if (silent) {
+            if (++silentFrameRun > silenceHangoverFrames) {
+                audio = null;
+            }
+        } else {
+            silentFrameRun = 0;
+        }
+        
+        boolean containsAudio = audio != null;
+        telemetry.recordFrame(containsAudio, mixed, bypassMode && activeSourceCount > 0, silent);
+        
+        // Émet un événement de mixage, seulement s'il est écouté
+        if (eventManager.hasListeners(AudioFrameMixedEvent.class)) {
+            eventManager.fireEvent(new AudioFrameMixedEvent(guild, activeSourceCount, bypassMode, containsAudio));
+        }
+        
+        // Met à jour l'état
+        if (containsAudio) {
+            lastActivityNanos = System.nanoTime();
         }
+        providedAudioLastFrame = containsAudio;
+        providedOpusLastFrame = opus;
+        
+        return audio;
     }
     
     @Override
     public boolean isOpus() {
-        // En mode bypass, utilise le format d'origine
-        if (currentStrategy == Strategy.DIRECT_BYPASS && !sendHandlers.isEmpty()) {
-            SourceHandler sourceHandler = sendHandlers.values().iterator().next();
-            return sourceHandler.getHandler().isOpus();
-        }
-        
-        // En mode mixage, utilise toujours PCM (JDA se chargera de l'encodage)
-        return false;
+        // JDA interroge le format après chaque frame : il dépend de ce qui vient d'être fourni
+        // (source transmise directement ou mixage PCM)
+        return providedOpusLastFrame;
     }
     
     //
@@ -403,67 +942,93 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
     
     @Override
     public boolean canReceiveCombined() {
-        // Vérifie si au moins un handler peut recevoir l'audio combiné
-        for (AudioReceiveHandler handler : receiveHandlers.values()) {
-            if (handler.canReceiveCombined()) {
-                return true;
-            }
-        }
-        return false;
+        return receiveCombined;
     }
     
     @Override
     public boolean canReceiveUser() {
-        // Vérifie si au moins un handler peut recevoir l'audio par utilisateur
-        for (AudioReceiveHandler handler : receiveHandlers.values()) {
-            if (handler.canReceiveUser()) {
-                return true;
-            }
-        }
-        return false;
+        // La détection d'activité vocale a besoin de l'audio décodé de chaque utilisateur
+        return receiveUser || voiceActivity != null;
     }
     
     @Override
     public boolean canReceiveEncoded() {
-        // Vérifie si au moins un handler peut recevoir l'audio encodé
-        for (AudioReceiveHandler handler : receiveHandlers.values()) {
-            if (handler.canReceiveEncoded()) {
-                return true;
-            }
-        }
-        return false;
+        return receiveEncoded;
     }
     
     @Override
     public void handleCombinedAudio(CombinedAudio combinedAudio) {
-        // Propage l'audio combiné à tous les handlers intéressés
-        for (AudioReceiveHandler handler : receiveHandlers.values()) {
-            if (handler.canReceiveCombined()) {
-                handler.handleCombinedAudio(combinedAudio);
+        // Dépose l'audio combiné dans la file de chaque handler intéressé
+        lastActivityNanos = System.nanoTime();
+        for (ReceiveHandlerQueue receiver : receivers) {
+            if (receiver.canReceiveCombined()) {
+                receiver.submit(combinedAudio);
             }
         }
     }
     
     @Override
     public void handleUserAudio(UserAudio userAudio) {
-        // Propage l'audio par utilisateur à tous les handlers intéressés
-        for (AudioReceiveHandler handler : receiveHandlers.values()) {
-            if (handler.canReceiveUser()) {
-                handler.handleUserAudio(userAudio);
+        long now = System.nanoTime();
+        lastActivityNanos = now;
+        
+        VoiceActivityDetector detector = voiceActivity;
+        if (detector != null) {
+            detector.process(userAudio.getUser(), userAudio.getAudioData(1.0), now);
+        }
+        
+        // Dépose l'audio par utilisateur dans la file de chaque handler intéressé
+        for (ReceiveHandlerQueue receiver : receivers) {
+            if (receiver.canReceiveUser()) {
+                receiver.submit(userAudio);
             }
         }
     }
     
     @Override
-    public void handleEncodedAudio(net.dv8tion.jda.api.audio.OpusPacket opusPacket) {
-        // Propage l'audio encodé à tous les handlers intéressés
-        for (AudioReceiveHandler handler : receiveHandlers.values()) {
-            if (handler.canReceiveEncoded()) {
-                handler.handleEncodedAudio(opusPacket);
+    public void handleEncodedAudio(OpusPacket opusPacket) {
+        // Dépose l'audio encodé dans la file de chaque handler intéressé
+        lastActivityNanos = System.nanoTime();
+        for (ReceiveHandlerQueue receiver : receivers) {
+            if (receiver.canReceiveEncoded()) {
+                receiver.submit(opusPacket);
             }
         }
     }
     
+    /**
+     * Demande un frame à une source en mesurant la durée de l'appel.
+     * Une source préchargée attend au plus jusqu'à son échéance comptée depuis
+     * le début du frame, si bien que les attentes des sources ne s'additionnent pas.
+     *
+     * @param sourceHandler la source
+     * @param frameStart    le début du frame ({@link System#nanoTime()})
+     * @return le frame de la source, ou null
+     */
+    private static ByteBuffer provideTimed(SourceHandler sourceHandler, long frameStart) {
+        long start = System.nanoTime();
+        AudioSendHandler source = sourceHandler.getSource();
+        ByteBuffer audio = source instanceof PrefetchingSendHandler prefetcher
+                ? prefetcher.provide20MsAudio(frameStart)
+                : source.provide20MsAudio();
+        sourceHandler.getProvideLatency().record(System.nanoTime() - start);
+        return audio;
+    }
+    
+    /**
+     * Compte un frame Opus écarté du mixage, en le journalisant de temps en temps.
+     *
+     * @param sourceHandler la source Opus
+     */
+    private void skipOpusFrame(SourceHandler sourceHandler) {
+        long skipped = telemetry.recordSkippedOpus();
+        // Journalise le premier frame écarté, puis de temps en temps
+        if (skipped == 1 || skipped % 1000 == 0) {
+            logger.warn("Opus source of plugin {} cannot be mixed at non-unity gain in guild {}, {} frames skipped so far",
+                    sourceHandler.getPluginName(), guild.getName(), skipped);
+        }
+    }
+    
     //
     // Méthodes de gestion des fades
     //
@@ -471,35 +1036,27 @@ public class AudioPipeline implements AudioSendHandler, AudioReceiveHandler {
     /**
      * Démarre un fondu sortant (fade out) pour toutes les sources sauf celle spécifiée.
      *
+     * @param snapshot     l'instantané des sources
      * @param activePlugin le plugin qui reste à volume normal
      */
-    private void startFade(String activePlugin) {
-        for (String pluginName : sendHandlers.keySet()) {
-            if (!pluginName.equals(activePlugin)) {
-                priorityManager.startFadeOut(pluginName);
+    private void startFade(SourceHandler[] snapshot, String activePlugin) {
+        telemetry.recordFade();
+        for (SourceHandler sourceHandler : snapshot) {
+            if (!sourceHandler.getPluginName().equals(activePlugin)) {
+                priorityManager.startFadeOut(sourceHandler);
             }
         }
     }
     
     /**
      * Démarre un fondu entrant (fade in) pour toutes les sources.
-     */
-    private void startFadeIn() {
-        for (String pluginName : sendHandlers.keySet()) {
-            priorityManager.startFadeIn(pluginName);
-        }
-    }
-    
-    /**
-     * Calcule le volume effectif pour une source, en tenant compte des fades.
      *
-     * @param pluginName    le nom du plugin
-     * @param sourceHandler le handler de source
-     * @return le volume effectif (0.0-1.0)
+     * @param snapshot l'instantané des sources
      */
-    private float calculateEffectiveVolume(String pluginName, SourceHandler sourceHandler) {
-        float baseVolume = sourceHandler.getBaseVolume() / 100.0f;
-        float fadeMultiplier = priorityManager.getFadeMultiplier(pluginName);
-        return baseVolume * fadeMultiplier;
+    private void startFadeIn(SourceHandler[] snapshot) {
+        telemetry.recordFade();
+        for (SourceHandler sourceHandler : snapshot) {
+            priorityManager.startFadeIn(sourceHandler);
+        }
     }
 }
\ No newline at end of file
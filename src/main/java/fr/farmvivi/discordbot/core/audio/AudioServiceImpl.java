@@ -1,18 +1,37 @@
 package fr.farmvivi.discordbot.core.audio;
 
+import fr.farmvivi.discordbot.core.api.audio.AudioBroadcast;
+import fr.farmvivi.discordbot.core.api.audio.AudioClip;
+import fr.farmvivi.discordbot.core.api.audio.AudioReceiveOptions;
 import fr.farmvivi.discordbot.core.api.audio.AudioService;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceFormat;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceOptions;
+import fr.farmvivi.discordbot.core.api.audio.AudioTelemetry;
+import fr.farmvivi.discordbot.core.api.audio.AudioTrackPlayer;
 import fr.farmvivi.discordbot.core.api.audio.events.*;
 import fr.farmvivi.discordbot.core.api.event.EventManager;
 import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorage;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
 import net.dv8tion.jda.api.audio.AudioReceiveHandler;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 import net.dv8tion.jda.api.entities.Guild;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implémentation du service audio principal.
@@ -20,24 +39,152 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class AudioServiceImpl implements AudioService {
     private static final Logger logger = LoggerFactory.getLogger(AudioServiceImpl.class);
+    
+    // Nombre de threads de travail audio (préchargement des sources)
+    private static final int WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    
+    /**
+     * Nombre par défaut de threads appelant les handlers de réception des plugins.
+     */
+    public static final int DEFAULT_RECEIVE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Nombre par défaut de threads lisant et décodant les pistes des lecteurs.
+     */
+    public static final int DEFAULT_IO_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    
+    // Durée de vie d'un thread de réception ou d'entrées/sorties inactif
+    private static final long THREAD_KEEP_ALIVE_MS = 60_000;
+    
+    // Intervalle de recherche des pipelines inactifs (et des pipelines en veille à réveiller)
+    private static final long IDLE_CHECK_INTERVAL_MS = 1000;
+    
+    // Intervalle de recherche des utilisateurs dont l'audio n'est plus reçu
+    private static final long SPEAKING_CHECK_INTERVAL_MS = 100;
 
     private final EventManager eventManager;
     private final Map<String, AudioPipeline> pipelines = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> pluginGuilds = new ConcurrentHashMap<>();
+    private final Map<String, List<BroadcastSource>> pluginBroadcasts = new ConcurrentHashMap<>();
+    private final Map<String, List<StreamingTrackPlayer>> pluginTrackPlayers = new ConcurrentHashMap<>();
+    
+    // Délais d'inactivité (secondes) par guilde et par plugin
+    private final Map<String, Integer> guildIdleTimeouts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pluginIdleTimeouts = new ConcurrentHashMap<>();
+    
+    // Threads de travail audio partagés par tous les pipelines
+    private final ScheduledThreadPoolExecutor workerExecutor;
+    
+    // Threads qui appellent les handlers de réception des plugins (nombre borné)
+    private final ThreadPoolExecutor receiveExecutor;
+    
+    // Threads qui lisent et décodent les pistes des lecteurs (nombre borné)
+    private final ThreadPoolExecutor ioExecutor;
+    
+    // Stockage d'où sont lus les clips et les pistes
+    private final BinaryStorage binaryStorage;
+    
+    // Clips décodés partagés par toutes les guildes
+    private final AudioClipBank clipBank;
+    
+    // Export périodique de la télémétrie
+    private ScheduledFuture<?> telemetryExportTask;
     
     /**
-     * Crée un nouveau service audio.
+     * Crée un nouveau service audio sans stockage binaire.
+     * Les clips partagés ne peuvent alors pas être chargés.
      *
      * @param eventManager le gestionnaire d'événements
      */
     public AudioServiceImpl(EventManager eventManager) {
+        this(eventManager, null);
+    }
+    
+    /**
+     * Crée un nouveau service audio.
+     *
+     * @param eventManager  le gestionnaire d'événements
+     * @param binaryStorage le stockage binaire d'où sont lus les clips partagés et les pistes
+     */
+    public AudioServiceImpl(EventManager eventManager, BinaryStorage binaryStorage) {
+        this(eventManager, binaryStorage, DEFAULT_RECEIVE_THREADS, DEFAULT_IO_THREADS);
+    }
+    
+    /**
+     * Crée un nouveau service audio.
+     *
+     * @param eventManager   le gestionnaire d'événements
+     * @param binaryStorage  le stockage binaire d'où sont lus les clips partagés et les pistes
+     * @param receiveThreads le nombre maximum de threads appelant les handlers de réception
+     * @param ioThreads      le nombre maximum de threads lisant les pistes des lecteurs
+     * @throws IllegalArgumentException si un nombre de threads est inférieur à 1
+     */
+    public AudioServiceImpl(EventManager eventManager, BinaryStorage binaryStorage, int receiveThreads,
+                            int ioThreads) {
+        if (receiveThreads < 1) {
+            throw new IllegalArgumentException("Receive thread count must be at least 1");
+        }
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("I/O thread count must be at least 1");
+        }
         this.eventManager = eventManager;
+        this.binaryStorage = binaryStorage;
+        this.clipBank = new AudioClipBank(binaryStorage, DEFAULT_CLIP_CACHE_BUDGET);
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workerExecutor = new ScheduledThreadPoolExecutor(WORKER_THREADS, r -> {
+            Thread thread = new Thread(r, "AudioService-Worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workerExecutor.setRemoveOnCancelPolicy(true);
+        
+        AtomicInteger receiveThreadCount = new AtomicInteger();
+        // Les files de réception ne planifient qu'une tâche chacune : la file d'attente est bornée par les handlers
+        this.receiveExecutor = new ThreadPoolExecutor(receiveThreads, receiveThreads,
+                THREAD_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "AudioService-Receive-" + receiveThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.receiveExecutor.allowCoreThreadTimeOut(true);
+        
+        AtomicInteger ioThreadCount = new AtomicInteger();
+        // Un lecteur ne planifie qu'une tâche à la fois et la termine dès que son anneau est plein
+        this.ioExecutor = new ThreadPoolExecutor(ioThreads, ioThreads,
+                THREAD_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "AudioService-IO-" + ioThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ioExecutor.allowCoreThreadTimeOut(true);
+        
+        // Mise en veille des pipelines inactifs
+        this.workerExecutor.scheduleWithFixedDelay(this::checkIdlePipelines,
+                IDLE_CHECK_INTERVAL_MS, IDLE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        
+        // Fin de parole des utilisateurs qui n'envoient plus d'audio
+        this.workerExecutor.scheduleWithFixedDelay(this::checkSpeakingUsers,
+                SPEAKING_CHECK_INTERVAL_MS, SPEAKING_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void registerSendHandler(Guild guild, Plugin plugin, AudioSendHandler handler, int initialVolume, int priority) {
-        if (guild == null || plugin == null || handler == null) {
-            throw new IllegalArgumentException("Guild, plugin and handler cannot be null");
+        registerSendHandler(guild, plugin, handler, initialVolume, priority, AudioSourceOptions.DEFAULT);
+    }
+
+    @Override
+    public void registerSendHandler(Guild guild, Plugin plugin, AudioSendHandler handler, int initialVolume, int priority,
+                                    AudioSourceFormat format) {
+        registerSendHandler(guild, plugin, handler, initialVolume, priority,
+                AudioSourceOptions.builder().format(format).build());
+    }
+
+    @Override
+    public void registerSendHandler(Guild guild, Plugin plugin, AudioSendHandler handler, int initialVolume, int priority,
+                                    AudioSourceOptions options) {
+        if (guild == null || plugin == null || handler == null || options == null) {
+            throw new IllegalArgumentException("Guild, plugin, handler and options cannot be null");
         }
         
         if (initialVolume < MIN_VOLUME || initialVolume > MAX_VOLUME) {
@@ -52,7 +199,7 @@ public class AudioServiceImpl implements AudioService {
         AudioPipeline pipeline = getOrCreatePipeline(guild);
         
         // Enregistrement du handler
-        pipeline.registerSendHandler(plugin, handler, initialVolume, priority);
+        pipeline.registerSendHandler(plugin, handler, initialVolume, priority, options);
         
         // Tracking des guildes par plugin
         pluginGuilds.computeIfAbsent(plugin.getName(), k -> ConcurrentHashMap.newKeySet()).add(guildId);
@@ -112,21 +259,28 @@ public class AudioServiceImpl implements AudioService {
         
         AudioPipeline pipeline = pipelines.get(guild.getId());
         if (pipeline != null) {
+            pipeline.resume();
             pipeline.setVolume(plugin, volume);
         }
     }
 
     @Override
     public void registerReceiveHandler(Guild guild, Plugin plugin, AudioReceiveHandler handler) {
-        if (guild == null || plugin == null || handler == null) {
-            throw new IllegalArgumentException("Guild, plugin and handler cannot be null");
+        registerReceiveHandler(guild, plugin, handler, AudioReceiveOptions.DEFAULT);
+    }
+
+    @Override
+    public void registerReceiveHandler(Guild guild, Plugin plugin, AudioReceiveHandler handler,
+                                       AudioReceiveOptions options) {
+        if (guild == null || plugin == null || handler == null || options == null) {
+            throw new IllegalArgumentException("Guild, plugin, handler and options cannot be null");
         }
         
         String guildId = guild.getId();
         AudioPipeline pipeline = getOrCreatePipeline(guild);
         
         // Enregistrement du handler
-        pipeline.registerReceiveHandler(plugin, handler);
+        pipeline.registerReceiveHandler(plugin, handler, options);
         
         // Tracking des guildes par plugin
         pluginGuilds.computeIfAbsent(plugin.getName(), k -> ConcurrentHashMap.newKeySet()).add(guildId);
@@ -186,10 +340,186 @@ public class AudioServiceImpl implements AudioService {
         
         AudioPipeline pipeline = pipelines.get(guild.getId());
         if (pipeline != null) {
+            pipeline.resume();
             pipeline.setPriorityThreshold(threshold);
         }
     }
 
+    @Override
+    public void setSilenceDetection(Guild guild, int threshold, int hangoverMs) {
+        if (guild == null) {
+            return;
+        }
+        
+        if (threshold < SILENCE_DETECTION_DISABLED || threshold > MAX_SILENCE_THRESHOLD) {
+            throw new IllegalArgumentException("Silence threshold must be between " + SILENCE_DETECTION_DISABLED
+                    + " and " + MAX_SILENCE_THRESHOLD);
+        }
+        
+        if (hangoverMs < 0) {
+            throw new IllegalArgumentException("Silence hangover cannot be negative");
+        }
+        
+        AudioPipeline pipeline = pipelines.get(guild.getId());
+        if (pipeline != null) {
+            pipeline.resume();
+            pipeline.setSilenceDetection(threshold, hangoverMs);
+        }
+    }
+
+    @Override
+    public void setVoiceActivityDetection(Guild guild, int threshold, int hangoverMs) {
+        if (guild == null) {
+            return;
+        }
+        
+        if (threshold < VOICE_ACTIVITY_DISABLED || threshold > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Voice activity threshold must be between " + VOICE_ACTIVITY_DISABLED
+                    + " and " + Short.MAX_VALUE);
+        }
+        
+        if (hangoverMs < 0) {
+            throw new IllegalArgumentException("Voice activity hangover cannot be negative");
+        }
+        
+        if (threshold == VOICE_ACTIVITY_DISABLED) {
+            AudioPipeline pipeline = pipelines.get(guild.getId());
+            if (pipeline != null) {
+                pipeline.setVoiceActivityDetection(threshold, hangoverMs);
+                cleanupPipeline(guild, pipeline);
+            }
+        } else {
+            getOrCreatePipeline(guild).setVoiceActivityDetection(threshold, hangoverMs);
+        }
+    }
+
+    @Override
+    public void setGuildIdleTimeout(Guild guild, int seconds) {
+        if (guild == null) {
+            return;
+        }
+        
+        if (seconds < IDLE_TIMEOUT_FROM_PLUGINS) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative");
+        }
+        
+        if (seconds == IDLE_TIMEOUT_FROM_PLUGINS) {
+            guildIdleTimeouts.remove(guild.getId());
+        } else {
+            guildIdleTimeouts.put(guild.getId(), seconds);
+        }
+    }
+
+    @Override
+    public void setPluginIdleTimeout(Plugin plugin, int seconds) {
+        if (plugin == null) {
+            return;
+        }
+        
+        if (seconds < IDLE_TIMEOUT_DISABLED) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative");
+        }
+        
+        pluginIdleTimeouts.put(plugin.getName(), seconds);
+    }
+
+    @Override
+    public Optional<AudioClip> loadClip(BinaryStorageKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        
+        return clipBank.acquire(key);
+    }
+
+    @Override
+    public void setClipCacheBudget(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("Clip cache budget cannot be negative");
+        }
+        
+        clipBank.setBudget(budgetBytes);
+    }
+
+    @Override
+    public AudioBroadcast createBroadcast(Plugin plugin, AudioSendHandler source) {
+        if (plugin == null || source == null) {
+            throw new IllegalArgumentException("Plugin and source cannot be null");
+        }
+        
+        BroadcastSource broadcast = new BroadcastSource(source);
+        broadcast.start(workerExecutor);
+        
+        // Tracking des diffusions par plugin (les diffusions déjà fermées sont oubliées)
+        List<BroadcastSource> broadcasts = pluginBroadcasts.computeIfAbsent(plugin.getName(), k -> new CopyOnWriteArrayList<>());
+        broadcasts.removeIf(existing -> !existing.isOpen());
+        broadcasts.add(broadcast);
+        
+        logger.debug("Created audio broadcast for plugin {}", plugin.getName());
+        return broadcast;
+    }
+
+    @Override
+    public AudioTrackPlayer createTrackPlayer(Plugin plugin) {
+        return createTrackPlayer(plugin, DEFAULT_READ_AHEAD_MS);
+    }
+
+    @Override
+    public AudioTrackPlayer createTrackPlayer(Plugin plugin, int readAheadMs) {
+        if (plugin == null) {
+            throw new IllegalArgumentException("Plugin cannot be null");
+        }
+        if (readAheadMs < MIN_READ_AHEAD_MS || readAheadMs > MAX_READ_AHEAD_MS) {
+            throw new IllegalArgumentException("Read-ahead must be between " + MIN_READ_AHEAD_MS +
+                    " and " + MAX_READ_AHEAD_MS + " ms");
+        }
+        
+        StreamingTrackPlayer player = new StreamingTrackPlayer(binaryStorage, ioExecutor, readAheadMs);
+        
+        // Tracking des lecteurs par plugin (les lecteurs déjà fermés sont oubliés)
+        List<StreamingTrackPlayer> players = pluginTrackPlayers.computeIfAbsent(plugin.getName(), k -> new CopyOnWriteArrayList<>());
+        players.removeIf(existing -> !existing.isOpen());
+        players.add(player);
+        
+        logger.debug("Created audio track player for plugin {}", plugin.getName());
+        return player;
+    }
+
+    @Override
+    public Optional<AudioTelemetry> getTelemetry(Guild guild) {
+        if (guild == null) {
+            return Optional.empty();
+        }
+        
+        AudioPipeline pipeline = pipelines.get(guild.getId());
+        return pipeline != null ? Optional.of(pipeline.getTelemetry()) : Optional.empty();
+    }
+
+    @Override
+    public List<AudioTelemetry> getAllTelemetry() {
+        List<AudioTelemetry> telemetry = new ArrayList<>(pipelines.size());
+        for (AudioPipeline pipeline : pipelines.values()) {
+            telemetry.add(pipeline.getTelemetry());
+        }
+        return telemetry;
+    }
+
+    @Override
+    public synchronized void setTelemetryExportInterval(int seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("Telemetry export interval cannot be negative");
+        }
+        
+        if (telemetryExportTask != null) {
+            telemetryExportTask.cancel(false);
+            telemetryExportTask = null;
+        }
+        if (seconds != TELEMETRY_EXPORT_DISABLED) {
+            telemetryExportTask = workerExecutor.scheduleWithFixedDelay(this::exportTelemetry,
+                    seconds, seconds, TimeUnit.SECONDS);
+        }
+    }
+
     @Override
     public boolean hasActiveSendHandler(Guild guild, Plugin plugin) {
         if (guild == null || plugin == null) {
@@ -238,6 +568,24 @@ public class AudioServiceImpl implements AudioService {
             return;
         }
         
+        pluginIdleTimeouts.remove(plugin.getName());
+        
+        // Arrêt des diffusions du plugin
+        List<BroadcastSource> broadcasts = pluginBroadcasts.remove(plugin.getName());
+        if (broadcasts != null) {
+            for (BroadcastSource broadcast : broadcasts) {
+                broadcast.close();
+            }
+        }
+        
+        // Fermeture des lecteurs de pistes du plugin
+        List<StreamingTrackPlayer> players = pluginTrackPlayers.remove(plugin.getName());
+        if (players != null) {
+            for (StreamingTrackPlayer player : players) {
+                player.close();
+            }
+        }
+        
         Set<String> guildIds = pluginGuilds.remove(plugin.getName());
         if (guildIds != null) {
             for (String guildId : guildIds) {
@@ -265,7 +613,143 @@ public class AudioServiceImpl implements AudioService {
      * @return le pipeline audio
      */
     private AudioPipeline getOrCreatePipeline(Guild guild) {
-        return pipelines.computeIfAbsent(guild.getId(), k -> new AudioPipeline(guild, eventManager));
+        AudioPipeline pipeline = pipelines.computeIfAbsent(guild.getId(),
+                k -> new AudioPipeline(guild, eventManager, workerExecutor, receiveExecutor));
+        pipeline.resume();
+        return pipeline;
+    }
+    
+    /**
+     * Met en veille les pipelines inactifs et réveille les pipelines en veille
+     * dont une source a de nouveau de l'audio. Exécuté périodiquement par un thread de travail.
+     */
+    void checkIdlePipelines() {
+        checkIdlePipelines(System.nanoTime());
+    }
+    
+    /**
+     * Met en veille les pipelines inactifs à un instant donné et réveille les
+     * pipelines en veille dont une source a de nouveau de l'audio.
+     *
+     * @param nowNanos l'instant de référence ({@link System#nanoTime()})
+     */
+    void checkIdlePipelines(long nowNanos) {
+        for (Map.Entry<String, AudioPipeline> entry : pipelines.entrySet()) {
+            AudioPipeline pipeline = entry.getValue();
+            try {
+                if (pipeline.isDetached()) {
+                    if (pipeline.hasPendingAudio()) {
+                        pipeline.resume();
+                    }
+                } else {
+                    int timeout = getIdleTimeout(entry.getKey(), pipeline);
+                    if (timeout != IDLE_TIMEOUT_DISABLED) {
+                        pipeline.detachIfIdle(nowNanos, TimeUnit.SECONDS.toMillis(timeout));
+                    }
+                }
+            } catch (Throwable t) {
+                // Une exception annulerait la tâche périodique : on la journalise seulement
+                logger.error("Error while checking idle audio pipeline for guild {}", entry.getKey(), t);
+            }
+        }
+    }
+    
+    /**
+     * Termine la parole des utilisateurs dont l'audio n'est plus reçu.
+     * Exécuté périodiquement par un thread de travail.
+     */
+    void checkSpeakingUsers() {
+        checkSpeakingUsers(System.nanoTime());
+    }
+    
+    /**
+     * Termine la parole des utilisateurs dont l'audio n'est plus reçu à un instant donné.
+     *
+     * @param nowNanos l'instant de référence ({@link System#nanoTime()})
+     */
+    void checkSpeakingUsers(long nowNanos) {
+        for (Map.Entry<String, AudioPipeline> entry : pipelines.entrySet()) {
+            try {
+                entry.getValue().expireSpeakers(nowNanos);
+            } catch (Throwable t) {
+                // Une exception annulerait la tâche périodique : on la journalise seulement
+                logger.error("Error while checking speaking users for guild {}", entry.getKey(), t);
+            }
+        }
+    }
+    
+    /**
+     * Émet la télémétrie de chaque pipeline, si elle est écoutée.
+     * Exécuté périodiquement par un thread de travail ; les listeners sont appelés de façon asynchrone.
+     */
+    void exportTelemetry() {
+        if (!eventManager.hasListeners(AudioTelemetryEvent.class)) {
+            return;
+        }
+        
+        for (AudioPipeline pipeline : pipelines.values()) {
+            try {
+                eventManager.fireEventAsync(new AudioTelemetryEvent(pipeline.getGuild(), pipeline.getTelemetry()));
+            } catch (Throwable t) {
+                // Une exception annulerait la tâche périodique : on la journalise seulement
+                logger.error("Error while exporting audio telemetry for guild {}", pipeline.getGuild().getId(), t);
+            }
+        }
+    }
+    
+    /**
+     * Détermine le délai d'inactivité d'un pipeline : celui de la guilde s'il est défini,
+     * sinon le plus long de ses plugins (désactivé si l'un d'eux le désactive).
+     *
+     * @param guildId  l'identifiant de la guilde
+     * @param pipeline le pipeline audio
+     * @return le délai en secondes, ou {@link #IDLE_TIMEOUT_DISABLED}
+     */
+    private int getIdleTimeout(String guildId, AudioPipeline pipeline) {
+        Integer guildTimeout = guildIdleTimeouts.get(guildId);
+        if (guildTimeout != null) {
+            return guildTimeout;
+        }
+        
+        int timeout = IDLE_TIMEOUT_DISABLED;
+        for (String pluginName : pipeline.getPluginNames()) {
+            int pluginTimeout = pluginIdleTimeouts.getOrDefault(pluginName, DEFAULT_IDLE_TIMEOUT);
+            if (pluginTimeout == IDLE_TIMEOUT_DISABLED) {
+                return IDLE_TIMEOUT_DISABLED;
+            }
+            timeout = Math.max(timeout, pluginTimeout);
+        }
+        return timeout;
+    }
+    
+    /**
+     * Ferme tous les pipelines, les diffusions et les lecteurs de pistes, vide la banque de clips
+     * et arrête les threads de travail, de réception et d'entrées/sorties audio.
+     */
+    public void shutdown() {
+        for (AudioPipeline pipeline : pipelines.values()) {
+            pipeline.close();
+        }
+        pipelines.clear();
+        pluginGuilds.clear();
+        for (List<BroadcastSource> broadcasts : pluginBroadcasts.values()) {
+            for (BroadcastSource broadcast : broadcasts) {
+                broadcast.close();
+            }
+        }
+        pluginBroadcasts.clear();
+        for (List<StreamingTrackPlayer> players : pluginTrackPlayers.values()) {
+            for (StreamingTrackPlayer player : players) {
+                player.close();
+            }
+        }
+        pluginTrackPlayers.clear();
+        guildIdleTimeouts.clear();
+        pluginIdleTimeouts.clear();
+        clipBank.clear();
+        workerExecutor.shutdownNow();
+        receiveExecutor.shutdownNow();
+        ioExecutor.shutdownNow();
     }
     
     /**
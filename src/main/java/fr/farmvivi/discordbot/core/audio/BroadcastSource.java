@@ -0,0 +1,166 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioBroadcast;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffusion d'une source audio vers plusieurs pipelines.
+ * <p>
+ * Un thread de travail demande un frame à la source toutes les 20 ms et le
+ * copie dans un anneau de tampons préalloués, puis avance l'horloge de frames.
+ * Les abonnés ({@link BroadcastSubscriber}) lisent l'anneau en lecture seule
+ * depuis le thread d'envoi de leur guilde ; la source n'est jamais appelée par
+ * un thread d'envoi.
+ * <p>
+ * Un emplacement n'est réécrit qu'après {@link #RING_SIZE} frames. Un abonné
+ * qui a plus de {@link #MAX_LAG} frames de retard est recalé sur le frame
+ * courant, ce qui garantit qu'un frame n'est jamais modifié pendant sa lecture.
+ */
+public class BroadcastSource implements AudioBroadcast {
+    private static final Logger logger = LoggerFactory.getLogger(BroadcastSource.class);
+
+    // Taille d'un frame PCM 48kHz 16-bit stéréo de 20 ms
+    private static final int FRAME_SIZE = 3840;
+    private static final long FRAME_DURATION_MS = 20;
+
+    // Anneau de frames (320 ms) et retard maximum d'un abonné
+    static final int RING_SIZE = 16;
+    static final int MAX_LAG = RING_SIZE / 2;
+
+    private final AudioSendHandler source;
+
+    // Anneau de frames ; une longueur négative marque un frame sans audio
+    private final byte[][] slots = new byte[RING_SIZE][FRAME_SIZE];
+    private final int[] lengths = new int[RING_SIZE];
+    private final boolean[] opus = new boolean[RING_SIZE];
+
+    // Dernier frame publié ; son écriture publie aussi le contenu de l'emplacement
+    private volatile long frameClock = -1;
+    private volatile boolean open = true;
+
+    private ScheduledFuture<?> produceTask;
+
+    /**
+     * Crée une nouvelle diffusion.
+     *
+     * @param source le handler d'envoi diffusé
+     */
+    public BroadcastSource(AudioSendHandler source) {
+        this.source = source;
+    }
+
+    /**
+     * Démarre la production des frames.
+     *
+     * @param executor l'exécuteur des threads de travail audio
+     */
+    public synchronized void start(ScheduledExecutorService executor) {
+        if (open && produceTask == null) {
+            produceTask = executor.scheduleAtFixedRate(this::produce, 0, FRAME_DURATION_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Produit le frame suivant. Exécuté sur un thread de travail, jamais en
+     * parallèle avec lui-même.
+     */
+    void produce() {
+        long tick = frameClock + 1;
+        int slot = (int) (tick % RING_SIZE);
+        int length = -1;
+
+        try {
+            if (source.canProvide()) {
+                ByteBuffer frame = source.provide20MsAudio();
+                if (frame != null) {
+                    length = frame.remaining();
+                    if (length > FRAME_SIZE) {
+                        logger.warn("Dropping oversized broadcast frame ({} bytes) from {}", length, source.getClass().getName());
+                        length = -1;
+                    } else {
+                        frame.get(frame.position(), slots[slot], 0, length);
+                        opus[slot] = source.isOpus();
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            // Une exception annulerait la tâche périodique : on la journalise seulement
+            logger.error("Error while producing broadcast audio from {}", source.getClass().getName(), t);
+            length = -1;
+        }
+
+        lengths[slot] = length;
+        frameClock = tick;
+    }
+
+    /**
+     * Obtient le tampon d'un emplacement de l'anneau.
+     *
+     * @param slot l'emplacement
+     * @return le tampon de l'emplacement
+     */
+    byte[] getSlot(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Obtient la longueur du frame d'un emplacement.
+     * À lire après {@link #getFrameClock()} pour voir le frame publié.
+     *
+     * @param slot l'emplacement
+     * @return la longueur du frame, ou -1 si le frame ne contient pas d'audio
+     */
+    int getLength(int slot) {
+        return lengths[slot];
+    }
+
+    /**
+     * Vérifie si le frame d'un emplacement est un paquet Opus.
+     *
+     * @param slot l'emplacement
+     * @return true si le frame est un paquet Opus
+     */
+    boolean isOpus(int slot) {
+        return opus[slot];
+    }
+
+    /**
+     * Obtient le handler d'envoi diffusé.
+     *
+     * @return le handler d'envoi diffusé
+     */
+    public AudioSendHandler getSource() {
+        return source;
+    }
+
+    @Override
+    public AudioSendHandler subscribe() {
+        return new BroadcastSubscriber(this);
+    }
+
+    @Override
+    public long getFrameClock() {
+        return frameClock;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() {
+        open = false;
+        if (produceTask != null) {
+            produceTask.cancel(false);
+            produceTask = null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Abonnement d'une guilde à une diffusion.
+ * Lit les frames de l'anneau partagé à son propre rythme, avec un frame
+ * d'avance pour absorber le décalage entre l'horloge de la diffusion et le
+ * thread d'envoi de la guilde. Les frames sont des vues en lecture seule.
+ */
+class BroadcastSubscriber implements AudioSendHandler {
+    private final BroadcastSource broadcast;
+
+    // Vues en lecture seule propres à cet abonné, une par emplacement de l'anneau
+    private final ByteBuffer[] views = new ByteBuffer[BroadcastSource.RING_SIZE];
+
+    // Prochain frame à lire
+    private long nextFrame;
+    private boolean opus = false;
+
+    /**
+     * Crée un nouvel abonnement, à partir du frame précédant le frame courant.
+     *
+     * @param broadcast la diffusion
+     */
+    BroadcastSubscriber(BroadcastSource broadcast) {
+        this.broadcast = broadcast;
+        for (int i = 0; i < views.length; i++) {
+            views[i] = ByteBuffer.wrap(broadcast.getSlot(i)).asReadOnlyBuffer();
+        }
+        this.nextFrame = Math.max(0, broadcast.getFrameClock() - 1);
+    }
+
+    @Override
+    public boolean canProvide() {
+        return broadcast.isOpen() && nextFrame <= broadcast.getFrameClock();
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        long latest = broadcast.getFrameClock();
+        if (!broadcast.isOpen() || nextFrame > latest) {
+            return null;
+        }
+
+        // Trop de retard : l'emplacement pourrait être réécrit, on se recale sur le frame courant
+        if (latest - nextFrame > BroadcastSource.MAX_LAG) {
+            nextFrame = Math.max(0, latest - 1);
+        }
+
+        int slot = (int) (nextFrame % BroadcastSource.RING_SIZE);
+        nextFrame++;
+
+        int length = broadcast.getLength(slot);
+        if (length < 0) {
+            return null;
+        }
+
+        opus = broadcast.isOpus(slot);
+        ByteBuffer view = views[slot];
+        view.clear().limit(length);
+        return view;
+    }
+
+    @Override
+    public boolean isOpus() {
+        return opus;
+    }
+}
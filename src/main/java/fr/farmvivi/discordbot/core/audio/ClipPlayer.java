@@ -0,0 +1,73 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lecteur d'un clip partagé.
+ * Curseur sur le PCM du clip : chaque frame est une fenêtre de la même vue en
+ * lecture seule, aucune donnée n'est copiée ni allouée pendant la lecture.
+ * Le dernier frame incomplet est complété par du silence, dans un tampon
+ * préparé à la création du lecteur.
+ */
+class ClipPlayer implements AudioSendHandler {
+    // Taille d'un frame PCM 48kHz 16-bit stéréo de 20 ms
+    private static final int FRAME_SIZE = 3840;
+
+    // Vue propre à ce lecteur sur le PCM partagé
+    private final ByteBuffer frame;
+    private final int length;
+    // Dernier frame complété par du silence, ou null si le clip tombe juste
+    private final ByteBuffer tail;
+    private final int tailStart;
+    private int position = 0;
+
+    /**
+     * Crée un nouveau lecteur.
+     *
+     * @param pcm le PCM partagé du clip (en lecture seule)
+     */
+    ClipPlayer(ByteBuffer pcm) {
+        this.frame = pcm.duplicate();
+        this.length = frame.capacity();
+
+        int remainder = length % FRAME_SIZE;
+        this.tailStart = length - remainder;
+        if (remainder == 0) {
+            this.tail = null;
+        } else {
+            byte[] padded = new byte[FRAME_SIZE];
+            frame.get(tailStart, padded, 0, remainder);
+            this.tail = ByteBuffer.wrap(padded).asReadOnlyBuffer();
+        }
+    }
+
+    @Override
+    public boolean canProvide() {
+        return position < length;
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        if (position >= length) {
+            return null;
+        }
+
+        if (position == tailStart) {
+            position = length;
+            return tail.clear();
+        }
+
+        int end = position + FRAME_SIZE;
+        frame.clear();
+        frame.position(position).limit(end);
+        position = end;
+        return frame;
+    }
+
+    @Override
+    public boolean isOpus() {
+        return false;
+    }
+}
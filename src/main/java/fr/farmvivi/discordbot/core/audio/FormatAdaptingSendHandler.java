@@ -0,0 +1,238 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioSampleEncoding;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceFormat;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Adaptateur qui convertit une source audio dans le format de JDA.
+ * <p>
+ * Les frames du handler du plugin sont décodés selon leur format déclaré,
+ * rééchantillonnés à 48 kHz par un {@link PolyphaseResampler}, dupliqués sur
+ * les deux voies pour une source mono, puis regroupés en frames de 20 ms PCM
+ * 16-bit big-endian stéréo. Tous les tampons sont réutilisés d'un frame à
+ * l'autre : la conversion n'alloue rien en régime établi.
+ * <p>
+ * Un frame n'est émis que lorsque 960 échantillons sont en attente : une source
+ * momentanément en retard, ou un rééchantillonnage qui rend un échantillon de
+ * moins, retarde le frame sans y insérer de silence. Le reste n'est complété
+ * par du silence qu'en fin de flux, lorsque la source n'a plus rien fourni
+ * pendant {@value #END_OF_STREAM_FRAMES} frames.
+ * <p>
+ * Les paquets Opus sont transmis tels quels. L'adaptateur est appelé par un
+ * seul thread à la fois (le thread d'envoi, ou le thread de préchargement).
+ */
+public class FormatAdaptingSendHandler implements AudioSendHandler {
+    private static final int OUTPUT_RATE = 48000;
+    // Échantillons par voie d'un frame de 20 ms à 48 kHz
+    private static final int FRAME_SAMPLES = 960;
+    private static final int FRAME_SIZE = FRAME_SAMPLES * 4;
+    // Appels au handler du plugin au maximum pour compléter un frame
+    private static final int MAX_PULLS_PER_FRAME = 8;
+    // Frames sans nouvel échantillon après lesquels le reste est considéré comme la fin du flux
+    private static final int END_OF_STREAM_FRAMES = 3;
+
+    private final AudioSendHandler delegate;
+    private final AudioSourceFormat format;
+    private final int channels;
+    // Null si la source est déjà à 48 kHz
+    private final PolyphaseResampler resampler;
+
+    // Tampons de conversion réutilisés
+    private float[][] decoded;
+    private float[][] resampled;
+    private float[][] pending;
+    private int pendingSamples = 0;
+    // Frames consécutifs sans nouvel échantillon alors qu'un reste est en attente
+    private int idleFrames = 0;
+    private final byte[] frame = new byte[FRAME_SIZE];
+    private final ByteBuffer frameView = ByteBuffer.wrap(frame);
+
+    private boolean lastFrameOpus = false;
+
+    /**
+     * Crée un nouvel adaptateur de format.
+     *
+     * @param delegate le handler d'envoi du plugin
+     * @param format   le format des frames fournis par le handler
+     */
+    public FormatAdaptingSendHandler(AudioSendHandler delegate, AudioSourceFormat format) {
+        this.delegate = delegate;
+        this.format = format;
+        this.channels = format.getChannels();
+        this.resampler = format.getSampleRate() == OUTPUT_RATE
+                ? null
+                : new PolyphaseResampler(format.getSampleRate(), OUTPUT_RATE, channels);
+
+        int initialSamples = Math.max(format.getSampleRate() / 50, FRAME_SAMPLES);
+        this.decoded = new float[channels][initialSamples];
+        this.resampled = new float[channels][initialSamples * 2];
+        this.pending = new float[channels][FRAME_SAMPLES * 2];
+    }
+
+    /**
+     * Obtient le handler d'envoi du plugin.
+     *
+     * @return le handler d'envoi du plugin
+     */
+    public AudioSendHandler getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Obtient le format des frames fournis par le handler du plugin.
+     *
+     * @return le format de la source
+     */
+    public AudioSourceFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean canProvide() {
+        return pendingSamples > 0 || delegate.canProvide();
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        int pulls = 0;
+        boolean pulled = false;
+        while (pendingSamples < FRAME_SAMPLES && pulls++ < MAX_PULLS_PER_FRAME && delegate.canProvide()) {
+            ByteBuffer audio = delegate.provide20MsAudio();
+            if (audio == null) {
+                break;
+            }
+            if (delegate.isOpus()) {
+                // Un paquet Opus ne peut pas être converti : il est transmis tel quel
+                lastFrameOpus = true;
+                return audio;
+            }
+            append(audio);
+            pulled = true;
+        }
+
+        lastFrameOpus = false;
+        if (pendingSamples >= FRAME_SAMPLES) {
+            idleFrames = 0;
+            return drainFrame();
+        }
+        if (pendingSamples == 0 || pulled) {
+            // Source en retard : le reste attend le prochain frame
+            idleFrames = 0;
+            return null;
+        }
+        if (++idleFrames < END_OF_STREAM_FRAMES) {
+            return null;
+        }
+        // Fin de flux : le dernier frame est complété par du silence
+        idleFrames = 0;
+        return drainFrame();
+    }
+
+    @Override
+    public boolean isOpus() {
+        return lastFrameOpus;
+    }
+
+    /**
+     * Décode, rééchantillonne et met en attente les échantillons d'un frame du plugin.
+     *
+     * @param audio le frame fourni par le handler du plugin
+     */
+    private void append(ByteBuffer audio) {
+        AudioSampleEncoding encoding = format.getEncoding();
+        int samples = audio.remaining() / (encoding.getBytesPerSample() * channels);
+        if (samples == 0) {
+            return;
+        }
+
+        if (decoded[0].length < samples) {
+            decoded = new float[channels][samples];
+        }
+        decode(audio, encoding, samples);
+
+        float[][] converted = decoded;
+        int convertedSamples = samples;
+        if (resampler != null) {
+            int capacity = resampler.maxOutputSamples(samples);
+            if (resampled[0].length < capacity) {
+                resampled = new float[channels][capacity];
+            }
+            convertedSamples = resampler.process(decoded, samples, resampled);
+            converted = resampled;
+        }
+
+        int required = pendingSamples + convertedSamples;
+        if (pending[0].length < required) {
+            for (int ch = 0; ch < channels; ch++) {
+                pending[ch] = Arrays.copyOf(pending[ch], Math.max(required, pending[ch].length * 2));
+            }
+        }
+        for (int ch = 0; ch < channels; ch++) {
+            System.arraycopy(converted[ch], 0, pending[ch], pendingSamples, convertedSamples);
+        }
+        pendingSamples = required;
+    }
+
+    /**
+     * Décode des échantillons entrelacés dans une voie par canal, à l'échelle d'un entier 16 bits.
+     *
+     * @param audio    le frame du plugin
+     * @param encoding le codage des échantillons
+     * @param samples  le nombre d'échantillons par voie
+     */
+    private void decode(ByteBuffer audio, AudioSampleEncoding encoding, int samples) {
+        int position = audio.position();
+        int bytesPerSample = encoding.getBytesPerSample();
+        for (int i = 0; i < samples; i++) {
+            for (int ch = 0; ch < channels; ch++) {
+                int index = position + (i * channels + ch) * bytesPerSample;
+                decoded[ch][i] = switch (encoding) {
+                    case PCM_16_BIG_ENDIAN -> (short) ((audio.get(index) << 8) | (audio.get(index + 1) & 0xFF));
+                    case PCM_16_LITTLE_ENDIAN -> (short) ((audio.get(index + 1) << 8) | (audio.get(index) & 0xFF));
+                    case PCM_FLOAT_BIG_ENDIAN -> Float.intBitsToFloat(
+                            (audio.get(index) << 24) | ((audio.get(index + 1) & 0xFF) << 16)
+                                    | ((audio.get(index + 2) & 0xFF) << 8) | (audio.get(index + 3) & 0xFF)) * 32768f;
+                    case PCM_FLOAT_LITTLE_ENDIAN -> Float.intBitsToFloat(
+                            (audio.get(index + 3) << 24) | ((audio.get(index + 2) & 0xFF) << 16)
+                                    | ((audio.get(index + 1) & 0xFF) << 8) | (audio.get(index) & 0xFF)) * 32768f;
+                };
+            }
+        }
+    }
+
+    /**
+     * Écrit un frame de 20 ms stéréo 16-bit big-endian à partir des échantillons en attente.
+     *
+     * @return le frame, prêt à être lu
+     */
+    private ByteBuffer drainFrame() {
+        int available = Math.min(pendingSamples, FRAME_SAMPLES);
+        float[] left = pending[0];
+        float[] right = pending[channels - 1];
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            int l = i < available ? clamp(left[i]) : 0;
+            int r = i < available ? clamp(right[i]) : 0;
+            int offset = i << 2;
+            frame[offset] = (byte) (l >> 8);
+            frame[offset + 1] = (byte) l;
+            frame[offset + 2] = (byte) (r >> 8);
+            frame[offset + 3] = (byte) r;
+        }
+
+        pendingSamples -= available;
+        for (int ch = 0; ch < channels; ch++) {
+            System.arraycopy(pending[ch], available, pending[ch], 0, pendingSamples);
+        }
+
+        frameView.clear();
+        return frameView;
+    }
+
+    private static int clamp(float sample) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample)));
+    }
+}
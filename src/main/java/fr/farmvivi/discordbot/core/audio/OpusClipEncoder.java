@@ -0,0 +1,103 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import com.sun.jna.ptr.PointerByReference;
+import net.dv8tion.jda.api.audio.AudioNatives;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tomp2p.opuswrapper.Opus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Encode le PCM d'un clip en paquets Opus de 20 ms.
+ * Utilise les bibliothèques natives Opus fournies avec JDA, avec les mêmes
+ * paramètres que l'encodeur de JDA.
+ */
+final class OpusClipEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(OpusClipEncoder.class);
+
+    // Paramètres de l'encodeur de JDA
+    private static final int SAMPLE_RATE = 48000;
+    private static final int CHANNELS = 2;
+    private static final int FRAME_SAMPLES_PER_CHANNEL = 960;
+    private static final int FRAME_SIZE = FRAME_SAMPLES_PER_CHANNEL * CHANNELS * 2;
+    private static final int MAX_PACKET_SIZE = 4096;
+
+    private OpusClipEncoder() {
+    }
+
+    /**
+     * Encode un clip. Le dernier frame incomplet est complété par du silence.
+     *
+     * @param pcm le PCM 48kHz 16-bit stéréo big-endian du clip
+     * @return les paquets Opus, ou null si l'encodeur Opus n'est pas disponible
+     */
+    static OpusPackets encode(ByteBuffer pcm) {
+        if (!AudioNatives.ensureOpus()) {
+            logger.warn("Opus natives are not available, audio clips cannot be pre-encoded");
+            return null;
+        }
+        return encode(pcm, Opus.INSTANCE);
+    }
+
+    /**
+     * Encode un clip avec la bibliothèque Opus donnée.
+     *
+     * @param pcm  le PCM 48kHz 16-bit stéréo big-endian du clip
+     * @param opus la bibliothèque Opus chargée
+     * @return les paquets Opus, ou null si l'encodeur n'a pas pu être créé ou si l'encodage a échoué
+     */
+    static OpusPackets encode(ByteBuffer pcm, Opus opus) {
+        IntBuffer error = IntBuffer.allocate(1);
+        PointerByReference encoder = opus.opus_encoder_create(SAMPLE_RATE, CHANNELS, Opus.OPUS_APPLICATION_AUDIO, error);
+        if (error.get(0) != Opus.OPUS_OK || encoder == null) {
+            logger.error("Failed to create Opus encoder, error code {}", error.get(0));
+            if (encoder != null) {
+                opus.opus_encoder_destroy(encoder);
+            }
+            return null;
+        }
+
+        try {
+            int length = pcm.capacity();
+            int packetCount = (length + FRAME_SIZE - 1) / FRAME_SIZE;
+            int[] offsets = new int[packetCount + 1];
+            ByteArrayOutputStream output = new ByteArrayOutputStream(packetCount * 160);
+
+            ShortBuffer samples = ShortBuffer.allocate(FRAME_SIZE / 2);
+            ByteBuffer packet = ByteBuffer.allocate(MAX_PACKET_SIZE);
+            for (int i = 0; i < packetCount; i++) {
+                // Décode un frame big-endian, complété par du silence en fin de clip
+                samples.clear();
+                int start = i * FRAME_SIZE;
+                int end = Math.min(start + FRAME_SIZE, length);
+                for (int index = start; index + 1 < end; index += 2) {
+                    samples.put((short) ((pcm.get(index) << 8) | (pcm.get(index + 1) & 0xFF)));
+                }
+                while (samples.hasRemaining()) {
+                    samples.put((short) 0);
+                }
+                samples.flip();
+
+                packet.clear();
+                int result = opus.opus_encode(encoder, samples, FRAME_SAMPLES_PER_CHANNEL, packet, packet.capacity());
+                if (result <= 0) {
+                    logger.error("Failed to encode audio clip frame {}, error code {}", i, result);
+                    return null;
+                }
+                output.write(packet.array(), 0, result);
+                offsets[i + 1] = offsets[i] + result;
+            }
+
+            byte[] bytes = output.toByteArray();
+            ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+            data.put(bytes).flip();
+            return new OpusPackets(data.asReadOnlyBuffer(), offsets);
+        } finally {
+            opus.opus_encoder_destroy(encoder);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lecteur des paquets Opus pré-encodés d'un clip partagé.
+ * Comme {@link ClipPlayer}, chaque paquet est une fenêtre de la même vue en
+ * lecture seule : rien n'est copié, décodé ni réencodé pendant la lecture.
+ */
+class OpusClipPlayer implements AudioSendHandler {
+    // Vue propre à ce lecteur sur les paquets partagés
+    private final ByteBuffer packet;
+    private final int[] offsets;
+    private final int packetCount;
+    private int index = 0;
+
+    /**
+     * Crée un nouveau lecteur.
+     *
+     * @param packets les paquets Opus partagés du clip
+     */
+    OpusClipPlayer(OpusPackets packets) {
+        this.packet = packets.getData().duplicate();
+        this.offsets = packets.getOffsets();
+        this.packetCount = packets.getPacketCount();
+    }
+
+    @Override
+    public boolean canProvide() {
+        return index < packetCount;
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        if (index >= packetCount) {
+            return null;
+        }
+
+        packet.clear();
+        packet.position(offsets[index]).limit(offsets[index + 1]);
+        index++;
+        return packet;
+    }
+
+    @Override
+    public boolean isOpus() {
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Suite de paquets Opus de 20 ms stockés bout à bout dans un seul buffer.
+ * Le paquet {@code i} occupe les octets {@code offsets[i]} à {@code offsets[i + 1]}.
+ */
+class OpusPackets {
+    private final ByteBuffer data;
+    private final int[] offsets;
+
+    /**
+     * Crée une nouvelle suite de paquets.
+     *
+     * @param data    les paquets concaténés (en lecture seule)
+     * @param offsets les positions de début de chaque paquet, suivies de la taille totale
+     */
+    OpusPackets(ByteBuffer data, int[] offsets) {
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Obtient les paquets concaténés.
+     *
+     * @return le buffer des paquets (en lecture seule)
+     */
+    ByteBuffer getData() {
+        return data;
+    }
+
+    /**
+     * Obtient les positions des paquets.
+     *
+     * @return les positions de début de chaque paquet, suivies de la taille totale
+     */
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Obtient le nombre de paquets.
+     *
+     * @return le nombre de paquets
+     */
+    int getPacketCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Obtient la taille totale des paquets.
+     *
+     * @return la taille en octets
+     */
+    long getSizeBytes() {
+        return data.capacity();
+    }
+}
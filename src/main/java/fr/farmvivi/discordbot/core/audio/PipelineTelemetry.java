@@ -0,0 +1,108 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceTelemetry;
+import fr.farmvivi.discordbot.core.api.audio.AudioTelemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs de télémétrie d'un pipeline audio.
+ * <p>
+ * Les compteurs n'ont qu'un seul écrivain, le thread d'envoi : ils sont
+ * incrémentés par des écritures ordonnées, sans verrou ni instruction
+ * atomique, et peuvent être relevés à tout moment depuis un autre thread.
+ */
+public class PipelineTelemetry {
+    private final AtomicLong framesProvided = new AtomicLong();
+    private final AtomicLong audioFrames = new AtomicLong();
+    private final AtomicLong silentFrames = new AtomicLong();
+    private final AtomicLong mixedFrames = new AtomicLong();
+    private final AtomicLong bypassFrames = new AtomicLong();
+    private final AtomicLong fadeTransitions = new AtomicLong();
+    private final AtomicLong clippedFrames = new AtomicLong();
+    private final AtomicLong skippedOpusFrames = new AtomicLong();
+
+    /**
+     * Enregistre un frame fourni à JDA.
+     *
+     * @param containsAudio true si le frame contient de l'audio
+     * @param mixed         true si le frame a été produit par le mixeur
+     * @param bypass        true si le frame d'une source a été transmis tel quel
+     * @param silent        true si le frame a été jugé silencieux
+     */
+    public void recordFrame(boolean containsAudio, boolean mixed, boolean bypass, boolean silent) {
+        increment(framesProvided);
+        if (containsAudio) {
+            increment(audioFrames);
+        }
+        if (mixed) {
+            increment(mixedFrames);
+        } else if (bypass) {
+            increment(bypassFrames);
+        }
+        if (silent) {
+            increment(silentFrames);
+        }
+    }
+
+    /**
+     * Enregistre le déclenchement d'un fondu par la gestion des priorités.
+     */
+    public void recordFade() {
+        increment(fadeTransitions);
+    }
+
+    /**
+     * Enregistre un frame mixé écrêté.
+     */
+    public void recordClipped() {
+        increment(clippedFrames);
+    }
+
+    /**
+     * Enregistre un frame Opus écarté du mixage.
+     *
+     * @return le nombre de frames Opus écartés depuis la création du pipeline
+     */
+    public long recordSkippedOpus() {
+        increment(skippedOpusFrames);
+        return skippedOpusFrames.get();
+    }
+
+    /**
+     * Relève les compteurs du pipeline et de ses sources.
+     *
+     * @param guildId  l'identifiant de la guilde
+     * @param sources  l'instantané des sources du pipeline
+     * @param detached true si le pipeline est en veille
+     * @return le relevé de télémétrie
+     */
+    public AudioTelemetry snapshot(String guildId, SourceHandler[] sources, boolean detached) {
+        List<AudioSourceTelemetry> sourceTelemetry = new ArrayList<>(sources.length);
+        for (SourceHandler source : sources) {
+            AudioLatencyHistogram latency = source.getProvideLatency();
+            sourceTelemetry.add(new AudioSourceTelemetry(source.getPluginName(), latency.getCount(),
+                    source.getUnderrunCount(), latency.getMeanMicros(), latency.getPercentileMicros(50),
+                    latency.getPercentileMicros(99), latency.getMaxMicros()));
+        }
+
+        return AudioTelemetry.builder(guildId)
+                .framesProvided(framesProvided.get())
+                .audioFrames(audioFrames.get())
+                .silentFrames(silentFrames.get())
+                .strategyFrames(mixedFrames.get(), bypassFrames.get())
+                .fadeTransitions(fadeTransitions.get())
+                .clippedFrames(clippedFrames.get())
+                .skippedOpusFrames(skippedOpusFrames.get())
+                .detached(detached)
+                .sources(sourceTelemetry)
+                .build();
+    }
+
+    // Un seul écrivain : une écriture ordonnée suffit
+    private static void increment(AtomicLong counter) {
+        counter.lazySet(counter.get() + 1);
+    }
+}
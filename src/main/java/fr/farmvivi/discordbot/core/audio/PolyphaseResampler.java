@@ -0,0 +1,164 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rééchantillonneur polyphase à rapport rationnel, pour un flux continu.
+ * <p>
+ * Le filtre passe-bas (sinus cardinal fenêtré de Blackman) est calculé une
+ * seule fois par rapport de fréquences et partagé entre toutes les sources ;
+ * chaque échantillon produit ne coûte qu'un produit scalaire de
+ * {@value #TAPS} coefficients par voie. L'historique de chaque voie est
+ * conservé d'un bloc à l'autre, ce qui évite toute discontinuité entre frames.
+ * <p>
+ * Une instance n'est pas thread-safe : elle appartient à une seule source.
+ */
+class PolyphaseResampler {
+    // Coefficients par phase : compromis entre réjection des images et coût par échantillon
+    static final int TAPS = 16;
+    // Fréquence de coupure, en fraction de la fréquence de Nyquist de l'entrée
+    private static final double CUTOFF = 0.95;
+
+    // Filtres partagés, indexés par rapport réduit (interpolation << 32 | décimation)
+    private static final Map<Long, float[][]> FILTERS = new ConcurrentHashMap<>();
+
+    private final int interpolation;
+    private final int decimation;
+    // Coefficients de chaque phase, dans l'ordre des échantillons d'entrée
+    private final float[][] coefficients;
+    private final int channels;
+
+    // Historique des voies suivi du bloc courant, réutilisé d'un appel à l'autre
+    private float[][] buffers;
+    private int phase = 0;
+    // Avance de la position d'entrée au-delà de la fin du bloc précédent
+    private int offset = 0;
+
+    /**
+     * Crée un nouveau rééchantillonneur.
+     *
+     * @param inputRate  la fréquence d'entrée (Hz)
+     * @param outputRate la fréquence de sortie (Hz)
+     * @param channels   le nombre de voies
+     */
+    PolyphaseResampler(int inputRate, int outputRate, int channels) {
+        int gcd = gcd(inputRate, outputRate);
+        this.interpolation = outputRate / gcd;
+        this.decimation = inputRate / gcd;
+        this.coefficients = FILTERS.computeIfAbsent(((long) interpolation << 32) | decimation,
+                k -> design(interpolation));
+        this.channels = channels;
+        this.buffers = new float[channels][TAPS - 1];
+    }
+
+    /**
+     * Obtient le nombre maximum d'échantillons produits par voie pour un bloc d'entrée.
+     *
+     * @param inputSamples le nombre d'échantillons d'entrée par voie
+     * @return la taille de sortie à prévoir par voie
+     */
+    int maxOutputSamples(int inputSamples) {
+        return (int) ((long) (inputSamples + 1) * interpolation / decimation) + 1;
+    }
+
+    /**
+     * Rééchantillonne un bloc d'entrée.
+     *
+     * @param input        les échantillons d'entrée, par voie
+     * @param inputSamples le nombre d'échantillons d'entrée par voie
+     * @param output       les tableaux de sortie, par voie, d'au moins {@link #maxOutputSamples(int)} échantillons
+     * @return le nombre d'échantillons produits par voie
+     */
+    int process(float[][] input, int inputSamples, float[][] output) {
+        int history = TAPS - 1;
+        int length = history + inputSamples;
+        if (buffers[0].length < length) {
+            for (int ch = 0; ch < channels; ch++) {
+                float[] grown = new float[length];
+                System.arraycopy(buffers[ch], 0, grown, 0, history);
+                buffers[ch] = grown;
+            }
+        }
+        for (int ch = 0; ch < channels; ch++) {
+            System.arraycopy(input[ch], 0, buffers[ch], history, inputSamples);
+        }
+
+        int produced = 0;
+        int index = history + offset;
+        int p = phase;
+        while (index < length) {
+            float[] taps = coefficients[p];
+            int start = index - history;
+            for (int ch = 0; ch < channels; ch++) {
+                float[] buffer = buffers[ch];
+                float sum = 0f;
+                for (int k = 0; k < TAPS; k++) {
+                    sum += taps[k] * buffer[start + k];
+                }
+                output[ch][produced] = sum;
+            }
+            produced++;
+
+            p += decimation;
+            index += p / interpolation;
+            p %= interpolation;
+        }
+        phase = p;
+        offset = index - length;
+
+        // Conserve la fin du bloc comme historique du suivant
+        for (int ch = 0; ch < channels; ch++) {
+            System.arraycopy(buffers[ch], length - history, buffers[ch], 0, history);
+        }
+        return produced;
+    }
+
+    /**
+     * Calcule les coefficients de chaque phase du filtre prototype.
+     *
+     * @param interpolation le facteur d'interpolation (nombre de phases)
+     * @return les coefficients, par phase
+     */
+    private static float[][] design(int interpolation) {
+        int length = TAPS * interpolation;
+        double center = (length - 1) / 2.0;
+        float[][] phases = new float[interpolation][TAPS];
+
+        for (int p = 0; p < interpolation; p++) {
+            double sum = 0;
+            double[] taps = new double[TAPS];
+            for (int k = 0; k < TAPS; k++) {
+                int j = p + k * interpolation;
+                double x = (j - center) / interpolation;
+                double window = 0.42 - 0.5 * Math.cos(2 * Math.PI * (j + 0.5) / length)
+                        + 0.08 * Math.cos(4 * Math.PI * (j + 0.5) / length);
+                taps[k] = sinc(CUTOFF * x) * window;
+                sum += taps[k];
+            }
+            // Gain unitaire pour chaque phase : un signal continu traverse le filtre inchangé
+            for (int k = 0; k < TAPS; k++) {
+                // Le coefficient k s'applique à l'échantillon d'entrée index - k : ordre inversé
+                phases[p][TAPS - 1 - k] = (float) (taps[k] / sum);
+            }
+        }
+        return phases;
+    }
+
+    private static double sinc(double x) {
+        if (x == 0) {
+            return 1.0;
+        }
+        double pix = Math.PI * x;
+        return Math.sin(pix) / pix;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,245 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceOptions;
+import fr.farmvivi.discordbot.core.api.audio.UnderrunPolicy;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tampon de préchargement (jitter buffer) pour une source audio.
+ * <p>
+ * Un thread de travail appelle le handler du plugin et copie ses frames dans
+ * un anneau borné de tampons préalloués. Le thread d'envoi se contente de
+ * défiler : il n'appelle jamais le handler du plugin. Si aucun frame n'est
+ * prêt à l'échéance, la politique de sous-alimentation s'applique et la
+ * sous-alimentation est comptabilisée.
+ * <p>
+ * L'échéance court depuis le début du frame fixé par le pipeline
+ * ({@link #provide20MsAudio(long)}) : en mode mixage, les sources lues les unes
+ * après les autres partagent la même échéance au lieu d'additionner leurs attentes.
+ * <p>
+ * L'anneau est mono-producteur (la tâche de remplissage, jamais exécutée en
+ * parallèle avec elle-même) et mono-consommateur (le thread d'envoi).
+ */
+public class PrefetchingSendHandler implements AudioSendHandler {
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchingSendHandler.class);
+
+    // Taille d'un frame PCM 48kHz 16-bit stéréo de 20 ms
+    private static final int FRAME_SIZE = 3840;
+
+    // Période de remplissage : deux fois par frame pour absorber la gigue
+    private static final long REFILL_PERIOD_MS = 10;
+
+    // Pas d'attente du thread d'envoi lorsqu'une échéance est configurée
+    private static final long PARK_NANOS = 100_000;
+
+    // Frame de silence Opus
+    private static final byte[] OPUS_SILENCE = {(byte) 0xF8, (byte) 0xFF, (byte) 0xFE};
+
+    private final AudioSendHandler delegate;
+    private final UnderrunPolicy underrunPolicy;
+    private final long deadlineNanos;
+
+    // Anneau de frames ; un emplacement reste réservé au frame détenu par le consommateur
+    private final int capacity;
+    private final byte[][] slots;
+    private final int[] lengths;
+    private final ByteBuffer[] views;
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+
+    private final ByteBuffer pcmSilence = ByteBuffer.wrap(new byte[FRAME_SIZE]);
+    private final ByteBuffer opusSilence = ByteBuffer.wrap(OPUS_SILENCE);
+
+    // Dernier état connu du handler du plugin, mis à jour par le thread de travail
+    private volatile boolean delegateActive = false;
+
+    // Statistiques
+    private final AtomicLong underrunCount = new AtomicLong();
+
+    private ScheduledFuture<?> refillTask;
+
+    /**
+     * Crée un nouveau tampon de préchargement.
+     *
+     * @param delegate le handler d'envoi du plugin
+     * @param options  les options de la source (préchargement activé)
+     */
+    public PrefetchingSendHandler(AudioSendHandler delegate, AudioSourceOptions options) {
+        this.delegate = delegate;
+        this.underrunPolicy = options.getUnderrunPolicy();
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(options.getDeadlineMs());
+        this.capacity = options.getPrefetchFrames() + 1;
+        this.slots = new byte[capacity][FRAME_SIZE];
+        this.lengths = new int[capacity];
+        this.views = new ByteBuffer[capacity];
+        for (int i = 0; i < capacity; i++) {
+            views[i] = ByteBuffer.wrap(slots[i]);
+        }
+    }
+
+    /**
+     * Démarre le remplissage périodique du tampon.
+     *
+     * @param executor l'exécuteur des threads de travail audio
+     */
+    public synchronized void start(ScheduledExecutorService executor) {
+        if (refillTask == null) {
+            refillTask = executor.scheduleAtFixedRate(this::refill, 0, REFILL_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Arrête le remplissage du tampon.
+     */
+    public synchronized void stop() {
+        if (refillTask != null) {
+            refillTask.cancel(false);
+            refillTask = null;
+        }
+        delegateActive = false;
+    }
+
+    /**
+     * Obtient le handler d'envoi du plugin.
+     *
+     * @return le handler d'envoi du plugin
+     */
+    public AudioSendHandler getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Obtient le nombre de frames actuellement préchargés.
+     *
+     * @return le nombre de frames prêts
+     */
+    public int getBufferedFrames() {
+        return (int) (writeIndex.get() - readIndex.get());
+    }
+
+    /**
+     * Obtient le nombre de sous-alimentations depuis l'enregistrement.
+     *
+     * @return le nombre de frames manquants à l'échéance
+     */
+    public long getUnderrunCount() {
+        return underrunCount.get();
+    }
+
+    /**
+     * Remplit l'anneau jusqu'à ce qu'il soit plein ou que le handler du plugin
+     * n'ait plus d'audio. Exécuté sur un thread de travail.
+     */
+    private void refill() {
+        try {
+            long write = writeIndex.get();
+            while (write - readIndex.get() < capacity - 1) {
+                if (!delegate.canProvide()) {
+                    delegateActive = false;
+                    return;
+                }
+                delegateActive = true;
+
+                ByteBuffer frame = delegate.provide20MsAudio();
+                if (frame == null) {
+                    return;
+                }
+
+                int slot = (int) (write % capacity);
+                int length = frame.remaining();
+                if (length > slots[slot].length) {
+                    // Paquet plus grand qu'un frame PCM (rare) : agrandit l'emplacement
+                    slots[slot] = new byte[length];
+                    views[slot] = ByteBuffer.wrap(slots[slot]);
+                }
+                frame.get(frame.position(), slots[slot], 0, length);
+                lengths[slot] = length;
+
+                // Publie le frame pour le thread d'envoi
+                writeIndex.set(++write);
+            }
+        } catch (Throwable t) {
+            // Une exception annulerait la tâche périodique : on la journalise seulement
+            logger.error("Error while prefetching audio from {}", delegate.getClass().getName(), t);
+        }
+    }
+
+    /**
+     * Attend un frame au plus jusqu'à l'échéance, comptée depuis le début du frame.
+     *
+     * @param read            l'index du frame attendu
+     * @param frameStartNanos le début du frame ({@link System#nanoTime()})
+     * @return true si le frame est arrivé avant l'échéance
+     */
+    private boolean awaitFrame(long read, long frameStartNanos) {
+        if (deadlineNanos <= 0) {
+            return false;
+        }
+
+        long deadline = frameStartNanos + deadlineNanos;
+        while (System.nanoTime() - deadline < 0) {
+            if (writeIndex.get() > read) {
+                return true;
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return writeIndex.get() > read;
+    }
+
+    /**
+     * Défile un frame, en attendant au plus jusqu'à l'échéance comptée depuis le
+     * début du frame. Une échéance déjà dépassée, par exemple après l'attente d'une
+     * autre source, applique aussitôt la politique de sous-alimentation.
+     *
+     * @param frameStartNanos le début du frame ({@link System#nanoTime()}), commun à toutes les sources
+     * @return le frame, du silence ou null selon la politique de sous-alimentation
+     */
+    public ByteBuffer provide20MsAudio(long frameStartNanos) {
+        long read = readIndex.get();
+        if (read >= writeIndex.get() && !awaitFrame(read, frameStartNanos)) {
+            underrunCount.incrementAndGet();
+            if (underrunPolicy == UnderrunPolicy.SILENCE) {
+                ByteBuffer silence = delegate.isOpus() ? opusSilence : pcmSilence;
+                silence.clear();
+                return silence;
+            }
+            return null;
+        }
+
+        int slot = (int) (read % capacity);
+        ByteBuffer view = views[slot];
+        view.clear().limit(lengths[slot]);
+
+        // Libère l'emplacement précédent ; celui-ci reste réservé jusqu'au prochain frame
+        readIndex.set(read + 1);
+        return view;
+    }
+
+    //
+    // Implémentation de AudioSendHandler (thread d'envoi)
+    //
+
+    @Override
+    public boolean canProvide() {
+        return delegateActive || readIndex.get() < writeIndex.get();
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        return provide20MsAudio(System.nanoTime());
+    }
+
+    @Override
+    public boolean isOpus() {
+        return delegate.isOpus();
+    }
+}
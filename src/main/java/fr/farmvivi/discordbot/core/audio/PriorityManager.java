@@ -1,19 +1,16 @@
 package fr.farmvivi.discordbot.core.audio;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Gère les priorités et les fondus (fades) pour l'audio.
+ * <p>
+ * L'état des fondus est stocké dans des champs primitifs de chaque
+ * {@link SourceHandler} : aucune recherche par nom ni boxing n'a lieu
+ * sur le thread d'envoi audio.
  */
 public class PriorityManager {
     private static final float FADE_MIN = 0.0f;
     private static final float FADE_MAX = 1.0f;
     
-    // Cartes de l'état des fondus
-    private final Map<String, Float> fadeMultipliers = new ConcurrentHashMap<>();
-    private final Map<String, Float> fadeIncrements = new ConcurrentHashMap<>();
-    
     // Nombre de pas pour un fondu complet
     private final int fadeSteps;
     private final float fadeStepSize;
@@ -31,87 +28,84 @@ public class PriorityManager {
     /**
      * Démarre un fondu sortant (fade out) pour une source.
      *
-     * @param sourceName le nom de la source
+     * @param source la source
      */
-    public void startFadeOut(String sourceName) {
+    public void startFadeOut(SourceHandler source) {
         // Initialise le multiplicateur de fondu s'il n'existe pas
-        fadeMultipliers.putIfAbsent(sourceName, FADE_MAX);
+        float multiplier = source.isFadeTracked() ? source.getFadeMultiplier() : FADE_MAX;
         
         // Calcule le pas de diminution pour atteindre 0 en fadeSteps pas
-        float increment = -fadeStepSize;
-        fadeIncrements.put(sourceName, increment);
+        source.setFadeState(multiplier, -fadeStepSize);
     }
     
     /**
      * Démarre un fondu entrant (fade in) pour une source.
      *
-     * @param sourceName le nom de la source
+     * @param source la source
      */
-    public void startFadeIn(String sourceName) {
+    public void startFadeIn(SourceHandler source) {
         // Initialise le multiplicateur de fondu s'il n'existe pas
-        fadeMultipliers.putIfAbsent(sourceName, FADE_MIN);
+        float multiplier = source.isFadeTracked() ? source.getFadeMultiplier() : FADE_MIN;
         
         // Calcule le pas d'augmentation pour atteindre 1 en fadeSteps pas
-        float increment = fadeStepSize;
-        fadeIncrements.put(sourceName, increment);
+        source.setFadeState(multiplier, fadeStepSize);
     }
     
     /**
      * Met à jour l'état de fondu pour une source.
      *
-     * @param sourceName le nom de la source
+     * @param source la source
      */
-    public void updateFade(String sourceName) {
+    public void updateFade(SourceHandler source) {
         // Si pas d'incrément, rien à faire
-        Float increment = fadeIncrements.get(sourceName);
-        if (increment == null) {
+        float increment = source.getFadeIncrement();
+        if (increment == 0.0f) {
             return;
         }
         
-        // Obtient le multiplicateur actuel
-        float multiplier = fadeMultipliers.getOrDefault(sourceName, FADE_MAX);
-        
         // Applique l'incrément
-        multiplier += increment;
+        float multiplier = source.getFadeMultiplier() + increment;
         
-        // Limite le multiplicateur
+        // Limite le multiplicateur et arrête le fondu aux bornes
         if (multiplier <= FADE_MIN) {
             multiplier = FADE_MIN;
-            fadeIncrements.remove(sourceName);  // Arrête le fondu
+            increment = 0.0f;
         } else if (multiplier >= FADE_MAX) {
             multiplier = FADE_MAX;
-            fadeIncrements.remove(sourceName);  // Arrête le fondu
+            increment = 0.0f;
         }
         
         // Stocke le nouveau multiplicateur
-        fadeMultipliers.put(sourceName, multiplier);
+        source.setFadeState(multiplier, increment);
     }
     
     /**
      * Obtient le multiplicateur de fondu pour une source.
      *
-     * @param sourceName le nom de la source
+     * @param source la source
      * @return le multiplicateur de fondu (0.0-1.0)
      */
-    public float getFadeMultiplier(String sourceName) {
-        return fadeMultipliers.getOrDefault(sourceName, FADE_MAX);
+    public float getFadeMultiplier(SourceHandler source) {
+        return source.getFadeMultiplier();
     }
     
     /**
      * Réinitialise l'état de fondu pour une source.
      *
-     * @param sourceName le nom de la source
+     * @param source la source
      */
-    public void resetFade(String sourceName) {
-        fadeMultipliers.put(sourceName, FADE_MAX);
-        fadeIncrements.remove(sourceName);
+    public void resetFade(SourceHandler source) {
+        source.setFadeState(FADE_MAX, 0.0f);
     }
     
     /**
-     * Réinitialise l'état de fondu pour toutes les sources.
+     * Réinitialise l'état de fondu pour toutes les sources données.
+     *
+     * @param sources les sources
      */
-    public void resetAllFades() {
-        fadeMultipliers.clear();
-        fadeIncrements.clear();
+    public void resetAllFades(SourceHandler... sources) {
+        for (SourceHandler source : sources) {
+            source.clearFadeState();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioReceiveOptions;
+import fr.farmvivi.discordbot.core.api.audio.ReceiveOverflowPolicy;
+import net.dv8tion.jda.api.audio.AudioReceiveHandler;
+import net.dv8tion.jda.api.audio.CombinedAudio;
+import net.dv8tion.jda.api.audio.OpusPacket;
+import net.dv8tion.jda.api.audio.UserAudio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File de réception d'un handler de plugin.
+ * <p>
+ * Le thread de réception de JDA ne fait que déposer l'audio dans une file
+ * bornée ; une seule tâche à la fois vide la file sur un thread de travail,
+ * ce qui préserve l'ordre des paquets. Lorsque la file est pleine, la
+ * politique de débordement s'applique et l'abandon est comptabilisé.
+ * <p>
+ * Les threads de réception sont en nombre fixe et partagés par tous les
+ * handlers : la tâche de vidage rend son thread après quelques paquets pour
+ * qu'un handler toujours alimenté n'accapare pas un thread.
+ * <p>
+ * Les {@link OpusPacket} transmis à un thread de travail appartiennent encore
+ * à JDA : leur décodage passe par le décodeur de l'utilisateur, utilisé en
+ * même temps par le thread de réception de JDA. Un handler asynchrone ne doit
+ * lire que {@link OpusPacket#getOpusAudio()} et jamais appeler
+ * {@link OpusPacket#decode()} ; l'audio décodé est transmis par
+ * {@link AudioReceiveHandler#handleUserAudio}.
+ * <p>
+ * Les capacités du handler ({@code canReceive*}) sont lues une seule fois,
+ * à l'enregistrement.
+ */
+class ReceiveHandlerQueue {
+    private static final Logger logger = LoggerFactory.getLogger(ReceiveHandlerQueue.class);
+
+    // Paquets traités avant de rendre le thread de travail
+    private static final int PACKETS_PER_TURN = 50;
+
+    private final AudioReceiveHandler handler;
+    private final boolean receiveCombined;
+    private final boolean receiveUser;
+    private final boolean receiveEncoded;
+
+    // Thread de travail qui appelle le handler, ou null pour un appel direct
+    private final Executor executor;
+    private final BlockingQueue<Object> queue;
+    private final ReceiveOverflowPolicy overflowPolicy;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private volatile boolean closed = false;
+
+    // Statistiques
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Crée une nouvelle file de réception.
+     *
+     * @param handler  le handler de réception du plugin
+     * @param options  les options de réception
+     * @param executor l'exécuteur des threads de réception, ou null pour appeler le handler directement
+     */
+    ReceiveHandlerQueue(AudioReceiveHandler handler, AudioReceiveOptions options, Executor executor) {
+        this.handler = handler;
+        this.receiveCombined = handler.canReceiveCombined();
+        this.receiveUser = handler.canReceiveUser();
+        this.receiveEncoded = handler.canReceiveEncoded();
+        this.executor = options.isAsync() ? executor : null;
+        this.queue = this.executor != null ? new ArrayBlockingQueue<>(options.getQueueCapacity()) : null;
+        this.overflowPolicy = options.getOverflowPolicy();
+    }
+
+    /**
+     * Obtient le handler de réception du plugin.
+     *
+     * @return le handler de réception du plugin
+     */
+    AudioReceiveHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Vérifie si le handler reçoit l'audio combiné (lu à l'enregistrement).
+     *
+     * @return true si le handler reçoit l'audio combiné
+     */
+    boolean canReceiveCombined() {
+        return receiveCombined;
+    }
+
+    /**
+     * Vérifie si le handler reçoit l'audio par utilisateur (lu à l'enregistrement).
+     *
+     * @return true si le handler reçoit l'audio par utilisateur
+     */
+    boolean canReceiveUser() {
+        return receiveUser;
+    }
+
+    /**
+     * Vérifie si le handler reçoit l'audio encodé (lu à l'enregistrement).
+     *
+     * @return true si le handler reçoit l'audio encodé
+     */
+    boolean canReceiveEncoded() {
+        return receiveEncoded;
+    }
+
+    /**
+     * Obtient le nombre de paquets abandonnés parce que la file était pleine.
+     *
+     * @return le nombre de paquets abandonnés
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Transmet un paquet audio au handler (audio combiné, par utilisateur ou encodé).
+     * Appelé par le thread de réception de JDA.
+     *
+     * @param audio le paquet audio
+     */
+    void submit(Object audio) {
+        if (closed) {
+            return;
+        }
+
+        if (executor == null) {
+            deliver(audio);
+            return;
+        }
+
+        if (!queue.offer(audio)) {
+            droppedCount.incrementAndGet();
+            if (overflowPolicy == ReceiveOverflowPolicy.DROP_OLDEST) {
+                queue.poll();
+                queue.offer(audio);
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Arrête la transmission et vide la file.
+     */
+    void close() {
+        closed = true;
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Planifie une tâche de vidage si aucune n'est en cours.
+     */
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Service audio arrêté : les paquets restent dans la file jusqu'à sa fermeture
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Vide la file en appelant le handler. Exécuté sur un thread de travail.
+     */
+    private void drain() {
+        Object audio;
+        for (int i = 0; i < PACKETS_PER_TURN && !closed && (audio = queue.poll()) != null; i++) {
+            deliver(audio);
+        }
+        draining.set(false);
+
+        // Paquets restants, ou arrivés entre le dernier poll et la fin du vidage : nouveau tour
+        if (!closed && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Appelle le handler pour un paquet.
+     *
+     * @param audio le paquet audio
+     */
+    private void deliver(Object audio) {
+        try {
+            if (audio instanceof UserAudio userAudio) {
+                handler.handleUserAudio(userAudio);
+            } else if (audio instanceof CombinedAudio combinedAudio) {
+                handler.handleCombinedAudio(combinedAudio);
+            } else if (audio instanceof OpusPacket opusPacket) {
+                handler.handleEncodedAudio(opusPacket);
+            }
+        } catch (Throwable t) {
+            logger.error("Error in audio receive handler {}", handler.getClass().getName(), t);
+        }
+    }
+}
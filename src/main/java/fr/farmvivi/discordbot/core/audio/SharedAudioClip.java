@@ -0,0 +1,116 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioClip;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Clip conservé par la banque de clips.
+ * Le compteur de références est protégé par le verrou de la banque.
+ */
+class SharedAudioClip implements AudioClip {
+    // Taille d'un frame PCM 48kHz 16-bit stéréo de 20 ms
+    private static final int FRAME_SIZE = 3840;
+    private static final int FRAME_DURATION_MS = 20;
+
+    private final AudioClipBank bank;
+    private final BinaryStorageKey key;
+    private final ByteBuffer pcm;
+
+    // Références détenues par les plugins (verrou de la banque)
+    int refCount = 0;
+
+    // Paquets Opus encodés au premier lecteur Opus (publiés sous le verrou de la banque)
+    private volatile OpusPackets opusPackets;
+    private boolean opusUnavailable = false;
+
+    /**
+     * Crée un nouveau clip partagé.
+     *
+     * @param bank la banque propriétaire
+     * @param key  la clé de stockage
+     * @param pcm  le PCM décodé, hors tas et en lecture seule
+     */
+    SharedAudioClip(AudioClipBank bank, BinaryStorageKey key, ByteBuffer pcm) {
+        this.bank = bank;
+        this.key = key;
+        this.pcm = pcm;
+    }
+
+    @Override
+    public BinaryStorageKey getKey() {
+        return key;
+    }
+
+    @Override
+    public int getFrameCount() {
+        return (pcm.capacity() + FRAME_SIZE - 1) / FRAME_SIZE;
+    }
+
+    @Override
+    public long getDurationMs() {
+        return (long) pcm.capacity() * FRAME_DURATION_MS / FRAME_SIZE;
+    }
+
+    @Override
+    public long getSizeBytes() {
+        return pcm.capacity();
+    }
+
+    @Override
+    public AudioSendHandler createPlayer() {
+        return new ClipPlayer(pcm);
+    }
+
+    @Override
+    public AudioSendHandler createOpusPlayer() {
+        OpusPackets packets = opusPackets;
+        if (packets == null) {
+            packets = encodeOpus();
+        }
+        return packets != null ? new OpusClipPlayer(packets) : createPlayer();
+    }
+
+    /**
+     * Encode le clip en Opus une seule fois, même si plusieurs guildes le demandent en même temps.
+     *
+     * @return les paquets Opus, ou null si l'encodeur n'est pas disponible
+     */
+    private synchronized OpusPackets encodeOpus() {
+        if (opusPackets == null && !opusUnavailable) {
+            OpusPackets packets = OpusClipEncoder.encode(pcm);
+            if (packets == null) {
+                opusUnavailable = true;
+            } else {
+                bank.attachOpus(this, packets);
+            }
+        }
+        return opusPackets;
+    }
+
+    /**
+     * Publie les paquets Opus du clip. Appelé sous le verrou de la banque.
+     *
+     * @param packets les paquets Opus
+     */
+    void setOpusPackets(OpusPackets packets) {
+        this.opusPackets = packets;
+    }
+
+    /**
+     * Obtient la mémoire occupée par le clip (PCM et paquets Opus).
+     *
+     * @return la taille en octets
+     */
+    long getCachedBytes() {
+        OpusPackets packets = opusPackets;
+        return pcm.capacity() + (packets != null ? packets.getSizeBytes() : 0);
+    }
+
+    @Override
+    public void release() {
+        bank.release(this);
+    }
+}
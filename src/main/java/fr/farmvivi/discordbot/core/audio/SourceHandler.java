@@ -1,5 +1,6 @@
 package fr.farmvivi.discordbot.core.audio;
 
+import fr.farmvivi.discordbot.core.api.audio.AudioTrackPlayer;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 
 /**
@@ -7,23 +8,62 @@ import net.dv8tion.jda.api.audio.AudioSendHandler;
  * (volume et priorité).
  */
 public class SourceHandler {
+    private final String pluginName;
     private final AudioSendHandler handler;
-    private int baseVolume;
+    // Handler réellement lu par le thread d'envoi (le handler du plugin, son adaptateur de format
+    // ou son tampon de préchargement)
+    private final AudioSendHandler source;
+    // Modifié depuis les threads de commande, lu par le thread d'envoi audio
+    private volatile int baseVolume;
     private final int priority;
 
+    // Durée des appels à la source, enregistrée par le thread d'envoi audio
+    private final AudioLatencyHistogram provideLatency = new AudioLatencyHistogram();
+
+    // État du fondu, modifié uniquement par le thread d'envoi audio
+    private float fadeMultiplier = 1.0f;
+    private float fadeIncrement = 0.0f;
+    private boolean fadeTracked = false;
+
     /**
      * Crée un nouveau wrapper de handler d'envoi audio.
      *
+     * @param pluginName le nom du plugin propriétaire
      * @param handler    le handler d'envoi audio
      * @param baseVolume le volume de base (0-100)
      * @param priority   la priorité (0-100)
      */
-    public SourceHandler(AudioSendHandler handler, int baseVolume, int priority) {
+    public SourceHandler(String pluginName, AudioSendHandler handler, int baseVolume, int priority) {
+        this(pluginName, handler, handler, baseVolume, priority);
+    }
+
+    /**
+     * Crée un nouveau wrapper de handler d'envoi audio lu à travers une autre source,
+     * par exemple un tampon de préchargement ou un adaptateur de format.
+     *
+     * @param pluginName le nom du plugin propriétaire
+     * @param handler    le handler d'envoi audio du plugin
+     * @param source     le handler lu par le thread d'envoi
+     * @param baseVolume le volume de base (0-100)
+     * @param priority   la priorité (0-100)
+     */
+    public SourceHandler(String pluginName, AudioSendHandler handler, AudioSendHandler source, int baseVolume, int priority) {
+        this.pluginName = pluginName;
         this.handler = handler;
+        this.source = source;
         this.baseVolume = baseVolume;
         this.priority = priority;
     }
 
+    /**
+     * Obtient le nom du plugin propriétaire.
+     *
+     * @return le nom du plugin
+     */
+    public String getPluginName() {
+        return pluginName;
+    }
+
     /**
      * Obtient le handler d'envoi audio.
      *
@@ -33,6 +73,48 @@ public class SourceHandler {
         return handler;
     }
 
+    /**
+     * Obtient le handler lu par le thread d'envoi.
+     *
+     * @return le handler du plugin, son adaptateur de format ou son tampon de préchargement
+     */
+    public AudioSendHandler getSource() {
+        return source;
+    }
+
+    /**
+     * Obtient l'histogramme de durée des appels à la source par le thread d'envoi.
+     *
+     * @return l'histogramme des durées
+     */
+    public AudioLatencyHistogram getProvideLatency() {
+        return provideLatency;
+    }
+
+    /**
+     * Obtient le nombre de sous-alimentations de la source.
+     *
+     * @return le nombre de frames manquants du tampon de préchargement ou du lecteur de pistes, sinon 0
+     */
+    public long getUnderrunCount() {
+        if (source instanceof PrefetchingSendHandler prefetcher) {
+            return prefetcher.getUnderrunCount();
+        }
+        if (handler instanceof AudioTrackPlayer player) {
+            return player.getUnderrunCount();
+        }
+        return 0;
+    }
+
+    /**
+     * Libère les ressources associées à la source (arrêt du préchargement).
+     */
+    public void close() {
+        if (source instanceof PrefetchingSendHandler prefetcher) {
+            prefetcher.stop();
+        }
+    }
+
     /**
      * Obtient le volume de base.
      *
@@ -59,4 +141,33 @@ public class SourceHandler {
     public int getPriority() {
         return priority;
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtient le multiplicateur de fondu courant.
+     *
+     * @return le multiplicateur de fondu (0.0-1.0)
+     */
+    public float getFadeMultiplier() {
+        return fadeMultiplier;
+    }
+
+    float getFadeIncrement() {
+        return fadeIncrement;
+    }
+
+    boolean isFadeTracked() {
+        return fadeTracked;
+    }
+
+    void setFadeState(float fadeMultiplier, float fadeIncrement) {
+        this.fadeMultiplier = fadeMultiplier;
+        this.fadeIncrement = fadeIncrement;
+        this.fadeTracked = true;
+    }
+
+    void clearFadeState() {
+        this.fadeMultiplier = 1.0f;
+        this.fadeIncrement = 0.0f;
+        this.fadeTracked = false;
+    }
+}
@@ -0,0 +1,599 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioTrackPlayer;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorage;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lecteur de pistes lues en flux depuis le stockage binaire.
+ * <p>
+ * Une tâche d'entrées/sorties ouvre la piste, la décode en PCM 48kHz 16-bit
+ * stéréo big-endian et copie ses frames dans un anneau borné de tampons hors
+ * tas. Le thread d'envoi se contente de défiler l'anneau ; il n'appelle jamais
+ * le stockage ni le décodeur. La tâche rend son thread à l'exécuteur dès
+ * qu'il n'y a plus rien à lire, ou que l'anneau est plein : le thread d'envoi
+ * la replanifie lorsque l'anneau redescend à la moitié de sa capacité. Un
+ * lecteur n'occupe donc un thread d'entrées/sorties que pendant le décodage.
+ * <p>
+ * L'anneau est mono-producteur (la tâche d'entrées/sorties, jamais exécutée en
+ * parallèle avec elle-même) et mono-consommateur (le thread d'envoi). Les
+ * commandes (saut, arrêt, déplacement) incrémentent une génération : les frames
+ * d'une génération antérieure encore dans l'anneau sont ignorés par le
+ * consommateur, puis la tâche applique la commande et reprend le décodage.
+ * <p>
+ * Le stockage binaire ne permet pas de lire une plage d'octets : un
+ * déplacement vers l'avant saute les frames dans le flux ouvert, un
+ * déplacement vers l'arrière rouvre la piste et saute jusqu'à la position.
+ */
+public class StreamingTrackPlayer implements AudioTrackPlayer {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingTrackPlayer.class);
+
+    // Format de sortie attendu par JDA
+    private static final AudioFormat PCM_FORMAT = new AudioFormat(48000f, 16, 2, true, true);
+
+    // Taille d'un frame PCM 48kHz 16-bit stéréo de 20 ms
+    private static final int FRAME_SIZE = 3840;
+    private static final long FRAME_DURATION_MS = 20;
+    private static final int BYTES_PER_MS = (int) (FRAME_SIZE / FRAME_DURATION_MS);
+
+    private final BinaryStorage storage;
+    private final Executor ioExecutor;
+
+    // Anneau de frames ; un emplacement reste réservé au frame détenu par le consommateur
+    private final int capacity;
+    // Nombre de frames prêts à partir duquel la tâche suspendue est replanifiée
+    private final int lowWatermark;
+    private final ByteBuffer[] slots;
+    private final ByteBuffer[] views;
+    private final int[] generations;
+    private final int[] serials;
+    private final long[] positions;
+    private final BinaryStorageKey[] tracks;
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+
+    private final ByteBuffer pcmSilence = ByteBuffer.wrap(new byte[FRAME_SIZE]).asReadOnlyBuffer();
+
+    private final Deque<BinaryStorageKey> trackQueue = new ConcurrentLinkedDeque<>();
+
+    // Commandes en attente, appliquées par la tâche d'entrées/sorties
+    private volatile int generation = 0;
+    private long pendingSeekMs = -1;
+    private boolean pendingSkip = false;
+    private boolean pendingStop = false;
+
+    private volatile boolean open = true;
+    private volatile boolean paused = false;
+
+    // État du consommateur, mis à jour par le thread d'envoi
+    private volatile long positionMs = 0;
+    private volatile BinaryStorageKey currentTrack;
+    private volatile int currentSerial = -1;
+    private final AtomicLong underrunCount = new AtomicLong();
+
+    // Tâche d'entrées/sorties en cours
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // Tâche terminée sur un anneau plein, à replanifier par le thread d'envoi
+    private volatile boolean awaitingRoom = false;
+
+    // État du producteur, possédé par la tâche d'entrées/sorties
+    private final byte[] frameBuffer = new byte[FRAME_SIZE];
+    private int producerGeneration = 0;
+    private int nextSerial = 0;
+    private AudioInputStream stream;
+    private BinaryStorageKey streamKey;
+    private int streamSerial;
+    private long streamPositionMs;
+    // Piste entièrement décodée que le consommateur joue peut-être encore
+    private BinaryStorageKey previousKey;
+    private int previousSerial;
+
+    /**
+     * Crée un nouveau lecteur de pistes.
+     *
+     * @param storage     le stockage binaire d'où les pistes sont lues, ou null si indisponible
+     * @param ioExecutor  l'exécuteur des tâches d'entrées/sorties audio
+     * @param readAheadMs la durée d'audio décodée d'avance (ms, au moins un frame)
+     */
+    public StreamingTrackPlayer(BinaryStorage storage, Executor ioExecutor, int readAheadMs) {
+        this.storage = storage;
+        this.ioExecutor = ioExecutor;
+        this.capacity = (int) Math.max(1, readAheadMs / FRAME_DURATION_MS) + 1;
+        this.lowWatermark = (capacity - 1) / 2;
+
+        ByteBuffer ring = ByteBuffer.allocateDirect(capacity * FRAME_SIZE);
+        this.slots = new ByteBuffer[capacity];
+        this.views = new ByteBuffer[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = ring.slice(i * FRAME_SIZE, FRAME_SIZE);
+            views[i] = slots[i].asReadOnlyBuffer();
+        }
+        this.generations = new int[capacity];
+        this.serials = new int[capacity];
+        this.positions = new long[capacity];
+        this.tracks = new BinaryStorageKey[capacity];
+    }
+
+    @Override
+    public void queue(BinaryStorageKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (!open) {
+            throw new IllegalStateException("Track player is closed");
+        }
+
+        trackQueue.offer(key);
+        schedule();
+    }
+
+    @Override
+    public void skip() {
+        synchronized (this) {
+            pendingSkip = true;
+            generation++;
+        }
+        schedule();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            trackQueue.clear();
+            pendingStop = true;
+            pendingSeekMs = -1;
+            generation++;
+        }
+        schedule();
+    }
+
+    @Override
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void seek(long positionMs) {
+        if (positionMs < 0) {
+            throw new IllegalArgumentException("Position cannot be negative");
+        }
+
+        // Position alignée sur un frame
+        long aligned = positionMs - positionMs % FRAME_DURATION_MS;
+        synchronized (this) {
+            pendingSeekMs = aligned;
+            generation++;
+        }
+        this.positionMs = aligned;
+        schedule();
+    }
+
+    @Override
+    public long getPositionMs() {
+        return positionMs;
+    }
+
+    @Override
+    public Optional<BinaryStorageKey> getCurrentTrack() {
+        return Optional.ofNullable(currentTrack);
+    }
+
+    @Override
+    public int getQueueSize() {
+        return trackQueue.size();
+    }
+
+    @Override
+    public long getUnderrunCount() {
+        return underrunCount.get();
+    }
+
+    /**
+     * Obtient le nombre de frames actuellement décodés d'avance.
+     *
+     * @return le nombre de frames prêts, y compris ceux d'une génération antérieure
+     */
+    public int getBufferedFrames() {
+        return (int) (writeIndex.get() - readIndex.get());
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            trackQueue.clear();
+            generation++;
+        }
+        // La tâche en cours ferme le flux en se terminant ; sinon une dernière tâche le ferme
+        awaitingRoom = false;
+        if (running.compareAndSet(false, true)) {
+            try {
+                ioExecutor.execute(this::stream);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }
+    }
+
+    //
+    // Tâche d'entrées/sorties
+    //
+
+    /**
+     * Démarre la tâche d'entrées/sorties si elle ne tourne pas. Une tâche en
+     * cours voit les nouvelles pistes et commandes à son prochain passage.
+     */
+    private void schedule() {
+        if (!open) {
+            return;
+        }
+
+        if (running.compareAndSet(false, true)) {
+            awaitingRoom = false;
+            try {
+                ioExecutor.execute(this::stream);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+                logger.warn("Audio I/O executor rejected track streaming task");
+            }
+        }
+    }
+
+    /**
+     * Lit les pistes jusqu'à ce qu'il n'y ait plus rien à lire, que l'anneau soit
+     * plein ou que le lecteur soit fermé. Exécuté sur un thread d'entrées/sorties,
+     * jamais en parallèle avec lui-même.
+     */
+    private void stream() {
+        boolean full = false;
+        try {
+            while (open) {
+                applyCommands();
+                if (stream == null && !openNextTrack()) {
+                    // Plus rien à lire : le thread est rendu à l'exécuteur
+                    break;
+                }
+
+                if (getBufferedFrames() >= capacity - 1) {
+                    // Anneau plein : le thread est rendu, le thread d'envoi replanifiera la tâche
+                    full = true;
+                    awaitingRoom = true;
+                    break;
+                }
+                readFrame();
+            }
+        } catch (Throwable t) {
+            logger.error("Error while streaming audio track {}", streamKey, t);
+            closeStream();
+        } finally {
+            if (!open) {
+                closeStream();
+                previousKey = null;
+            }
+            running.set(false);
+        }
+
+        // Une piste, une commande ou de la place a pu arriver pendant l'arrêt de la tâche
+        if (open && (!trackQueue.isEmpty() || generation != producerGeneration
+                || (full && getBufferedFrames() <= lowWatermark))) {
+            schedule();
+        }
+    }
+
+    /**
+     * Applique les commandes reçues depuis le dernier passage.
+     */
+    private void applyCommands() {
+        if (generation == producerGeneration) {
+            return;
+        }
+
+        long seekMs;
+        boolean skip;
+        boolean stop;
+        synchronized (this) {
+            seekMs = pendingSeekMs;
+            skip = pendingSkip;
+            stop = pendingStop;
+            pendingSeekMs = -1;
+            pendingSkip = false;
+            pendingStop = false;
+            producerGeneration = generation;
+        }
+
+        if (stop) {
+            closeStream();
+            previousKey = null;
+            return;
+        }
+
+        // Le consommateur joue encore la piste précédente si le décodage a pris de l'avance
+        boolean ahead = previousKey != null && previousSerial == currentSerial;
+        BinaryStorageKey targetKey = ahead ? previousKey : streamKey;
+        int targetSerial = ahead ? previousSerial : streamSerial;
+        previousKey = null;
+
+        if (skip) {
+            if (ahead && stream != null) {
+                // La piste suivante, déjà entamée, repart du début
+                reopen(streamKey, streamSerial, 0);
+            } else {
+                closeStream();
+            }
+        } else if (seekMs >= 0 && targetKey != null) {
+            if (ahead) {
+                // La piste suivante, déjà entamée, retourne en tête de file
+                if (stream != null) {
+                    trackQueue.offerFirst(streamKey);
+                }
+                reopen(targetKey, targetSerial, seekMs);
+            } else if (stream != null && seekMs >= streamPositionMs) {
+                skipFully((seekMs - streamPositionMs) * BYTES_PER_MS);
+                streamPositionMs = seekMs;
+            } else {
+                reopen(targetKey, targetSerial, seekMs);
+            }
+        } else if (ahead && stream != null) {
+            // Les frames de la piste suivante ont été ignorés : elle repart du début
+            reopen(streamKey, streamSerial, 0);
+        }
+    }
+
+    /**
+     * Ouvre la prochaine piste lisible de la file.
+     *
+     * @return true si une piste a été ouverte
+     */
+    private boolean openNextTrack() {
+        BinaryStorageKey key;
+        while ((key = trackQueue.poll()) != null) {
+            if (openTrack(key, nextSerial++, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ferme le flux en cours et rouvre une piste à une position donnée.
+     *
+     * @param key        la clé de la piste
+     * @param serial     le numéro de la piste
+     * @param positionMs la position de départ (ms)
+     */
+    private void reopen(BinaryStorageKey key, int serial, long positionMs) {
+        closeStream();
+        openTrack(key, serial, positionMs);
+    }
+
+    /**
+     * Ouvre une piste et la positionne.
+     *
+     * @param key        la clé de la piste
+     * @param serial     le numéro de la piste
+     * @param positionMs la position de départ (ms)
+     * @return true si la piste a été ouverte
+     */
+    private boolean openTrack(BinaryStorageKey key, int serial, long positionMs) {
+        if (storage == null) {
+            logger.warn("No binary storage available, cannot stream audio track {}", key);
+            return false;
+        }
+
+        Optional<InputStream> input = storage.getInputStream(key);
+        if (input.isEmpty()) {
+            logger.warn("Audio track {} not found", key);
+            return false;
+        }
+
+        InputStream in = new BufferedInputStream(input.get());
+        try {
+            AudioInputStream source = AudioSystem.getAudioInputStream(in);
+            stream = AudioSystem.getAudioInputStream(PCM_FORMAT, source);
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            logger.error("Failed to decode audio track {}", key, e);
+            closeQuietly(in);
+            return false;
+        }
+
+        streamKey = key;
+        streamSerial = serial;
+        streamPositionMs = positionMs;
+        skipFully(positionMs * BYTES_PER_MS);
+        logger.debug("Streaming audio track {} from {} ms", key, positionMs);
+        return true;
+    }
+
+    /**
+     * Saute des octets décodés du flux en cours. Au-delà de la fin de la piste,
+     * la prochaine lecture termine la piste.
+     *
+     * @param bytes le nombre d'octets à sauter, multiple de la taille d'un échantillon
+     */
+    private void skipFully(long bytes) {
+        try {
+            long remaining = bytes;
+            while (remaining > 0) {
+                long skipped = stream.skip(remaining);
+                if (skipped <= 0) {
+                    // Certains flux convertis ne savent pas sauter : lecture à vide
+                    int read = stream.read(frameBuffer, 0, (int) Math.min(remaining, FRAME_SIZE));
+                    if (read < 0) {
+                        return;
+                    }
+                    skipped = read;
+                }
+                remaining -= skipped;
+            }
+        } catch (IOException e) {
+            logger.error("Failed to seek in audio track {}", streamKey, e);
+            closeStream();
+        }
+    }
+
+    /**
+     * Décode un frame de la piste en cours et le publie dans l'anneau.
+     * À la fin de la piste, le flux est fermé pour passer à la suivante.
+     */
+    private void readFrame() {
+        int length;
+        try {
+            length = stream.readNBytes(frameBuffer, 0, FRAME_SIZE);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to read audio track {}", streamKey, e);
+            length = 0;
+        }
+
+        if (length <= 0) {
+            // Fin de piste : le consommateur en joue encore les derniers frames
+            previousKey = streamKey;
+            previousSerial = streamSerial;
+            closeStream();
+            return;
+        }
+        if (length < FRAME_SIZE) {
+            // Dernier frame incomplet : complété par du silence
+            Arrays.fill(frameBuffer, length, FRAME_SIZE, (byte) 0);
+        }
+
+        long write = writeIndex.get();
+        int slot = (int) (write % capacity);
+        slots[slot].put(0, frameBuffer, 0, FRAME_SIZE);
+        generations[slot] = producerGeneration;
+        serials[slot] = streamSerial;
+        positions[slot] = streamPositionMs;
+        tracks[slot] = streamKey;
+        streamPositionMs += FRAME_DURATION_MS;
+
+        // Publie le frame pour le thread d'envoi
+        writeIndex.set(write + 1);
+    }
+
+    /**
+     * Ferme le flux en cours, s'il existe.
+     */
+    private void closeStream() {
+        if (stream != null) {
+            closeQuietly(stream);
+            stream = null;
+            streamKey = null;
+        }
+    }
+
+    private void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close audio track stream", e);
+        }
+    }
+
+    //
+    // Implémentation de AudioSendHandler (thread d'envoi)
+    //
+
+    /**
+     * Ignore les frames d'une génération antérieure en tête de l'anneau.
+     *
+     * @return l'index du prochain frame à lire
+     */
+    private long discardStale() {
+        long read = readIndex.get();
+        long write = writeIndex.get();
+        int current = generation;
+        while (read < write && generations[(int) (read % capacity)] != current) {
+            read++;
+        }
+        readIndex.set(read);
+        return read;
+    }
+
+    @Override
+    public boolean canProvide() {
+        if (!open || paused) {
+            return false;
+        }
+
+        if (discardStale() < writeIndex.get()) {
+            return true;
+        }
+        if (running.get()) {
+            // Piste en cours d'ouverture ou stockage en retard
+            return true;
+        }
+
+        // Plus rien à jouer
+        currentTrack = null;
+        currentSerial = -1;
+        return false;
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        long read = discardStale();
+        if (read >= writeIndex.get()) {
+            underrunCount.incrementAndGet();
+            pcmSilence.clear();
+            return pcmSilence;
+        }
+
+        int slot = (int) (read % capacity);
+        currentTrack = tracks[slot];
+        currentSerial = serials[slot];
+        positionMs = positions[slot];
+
+        ByteBuffer view = views[slot];
+        view.clear();
+
+        // Libère l'emplacement précédent ; celui-ci reste réservé jusqu'au prochain frame
+        readIndex.set(read + 1);
+
+        // L'anneau s'est vidé de moitié : la tâche suspendue reprend le décodage
+        if (awaitingRoom && writeIndex.get() - (read + 1) <= lowWatermark) {
+            schedule();
+        }
+        return view;
+    }
+
+    @Override
+    public boolean isOpus() {
+        return false;
+    }
+}
@@ -0,0 +1,251 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStartedEvent;
+import fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStoppedEvent;
+import fr.farmvivi.discordbot.core.api.event.EventManager;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Détection d'activité vocale côté réception.
+ * <p>
+ * L'énergie de chaque frame reçu est son amplitude moyenne, calculée en une
+ * seule boucle de réduction sur les échantillons. Un utilisateur commence à
+ * parler après quelques frames au-dessus du seuil, et cesse de parler lorsque
+ * l'énergie reste sous la moitié du seuil (hystérésis) plus longtemps que la
+ * durée de maintien, ou lorsque JDA ne transmet plus ses paquets. Seuls ces
+ * changements d'état sont émis sur le bus d'événements, de façon asynchrone.
+ * <p>
+ * Les frames sont traités par le thread de réception de JDA ; l'expiration
+ * des utilisateurs muets ({@link #expire(long)}) a lieu sur un thread de travail.
+ * Un état n'est retiré de la map que sous son moniteur, et marqué comme retiré :
+ * un frame qui l'aurait obtenu juste avant repart d'un nouvel état, si bien
+ * qu'aucun début ni aucune fin de parole n'est perdu ou émis en double.
+ */
+class VoiceActivityDetector {
+    // Frames consécutifs au-dessus du seuil avant de considérer qu'un utilisateur parle
+    private static final int ATTACK_FRAMES = 2;
+    private static final int FRAME_DURATION_MS = 20;
+    private static final int BYTES_PER_SAMPLE = 2;
+
+    private final Guild guild;
+    private final EventManager eventManager;
+    private final Map<Long, SpeakerState> speakers = new ConcurrentHashMap<>();
+
+    private volatile int threshold;
+    private volatile int hangoverMs;
+
+    /**
+     * Crée un nouveau détecteur d'activité vocale.
+     *
+     * @param guild        la guilde
+     * @param eventManager le gestionnaire d'événements
+     * @param threshold    l'amplitude moyenne à partir de laquelle un frame contient de la voix
+     * @param hangoverMs   la durée sous le seuil de relâchement avant la fin de parole (ms)
+     */
+    VoiceActivityDetector(Guild guild, EventManager eventManager, int threshold, int hangoverMs) {
+        this.guild = guild;
+        this.eventManager = eventManager;
+        configure(threshold, hangoverMs);
+    }
+
+    /**
+     * Modifie les paramètres de détection. Les états de parole en cours sont conservés.
+     *
+     * @param threshold  l'amplitude moyenne à partir de laquelle un frame contient de la voix
+     * @param hangoverMs la durée sous le seuil de relâchement avant la fin de parole (ms)
+     */
+    void configure(int threshold, int hangoverMs) {
+        this.threshold = threshold;
+        this.hangoverMs = hangoverMs;
+    }
+
+    /**
+     * Traite un frame reçu d'un utilisateur.
+     *
+     * @param user     l'utilisateur
+     * @param pcm      le frame PCM 16-bit big-endian
+     * @param nowNanos l'instant de réception ({@link System#nanoTime()})
+     */
+    void process(User user, byte[] pcm, long nowNanos) {
+        int energy = meanAmplitude(pcm);
+        int startThreshold = threshold;
+        int hangoverFrames = hangoverMs / FRAME_DURATION_MS;
+
+        boolean started = false;
+        long stoppedDurationMs = -1;
+
+        while (true) {
+            SpeakerState state = speakers.get(user.getIdLong());
+            if (state == null) {
+                state = speakers.computeIfAbsent(user.getIdLong(), id -> new SpeakerState(user));
+            }
+
+            synchronized (state) {
+                if (state.removed) {
+                    // Expiré entre la lecture de la map et le verrou : repart d'un nouvel état
+                    continue;
+                }
+                state.lastFrameNanos = nowNanos;
+                if (!state.speaking) {
+                    if (energy >= startThreshold) {
+                        if (state.loudRun == 0) {
+                            state.startedNanos = nowNanos;
+                        }
+                        if (++state.loudRun >= ATTACK_FRAMES) {
+                            state.speaking = true;
+                            state.quietRun = 0;
+                            state.lastVoiceNanos = nowNanos;
+                            started = true;
+                        }
+                    } else {
+                        state.loudRun = 0;
+                    }
+                } else if (energy >= startThreshold / 2) {
+                    state.quietRun = 0;
+                    state.lastVoiceNanos = nowNanos;
+                } else if (++state.quietRun > hangoverFrames) {
+                    stoppedDurationMs = state.stop();
+                }
+            }
+            break;
+        }
+
+        if (started) {
+            eventManager.fireEventAsync(new UserSpeakingStartedEvent(guild, user));
+        } else if (stoppedDurationMs >= 0) {
+            eventManager.fireEventAsync(new UserSpeakingStoppedEvent(guild, user, stoppedDurationMs));
+        }
+    }
+
+    /**
+     * Termine la parole des utilisateurs dont aucun paquet n'a été reçu depuis
+     * la durée de maintien, et oublie les utilisateurs silencieux.
+     *
+     * @param nowNanos l'instant de référence ({@link System#nanoTime()})
+     */
+    void expire(long nowNanos) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(hangoverMs, FRAME_DURATION_MS));
+        for (Map.Entry<Long, SpeakerState> entry : speakers.entrySet()) {
+            SpeakerState state = entry.getValue();
+            long stoppedDurationMs = -1;
+            synchronized (state) {
+                if (nowNanos - state.lastFrameNanos <= timeoutNanos) {
+                    continue;
+                }
+                if (state.speaking) {
+                    stoppedDurationMs = state.stop();
+                }
+                remove(entry.getKey(), state);
+            }
+
+            if (stoppedDurationMs >= 0) {
+                eventManager.fireEventAsync(new UserSpeakingStoppedEvent(guild, state.user, stoppedDurationMs));
+            }
+        }
+    }
+
+    /**
+     * Termine la parole de tous les utilisateurs et oublie leur état,
+     * par exemple lorsque le pipeline cesse de recevoir l'audio.
+     */
+    void stopAll() {
+        for (Map.Entry<Long, SpeakerState> entry : speakers.entrySet()) {
+            SpeakerState state = entry.getValue();
+            long stoppedDurationMs = -1;
+            synchronized (state) {
+                if (state.speaking) {
+                    stoppedDurationMs = state.stop();
+                }
+                remove(entry.getKey(), state);
+            }
+
+            if (stoppedDurationMs >= 0) {
+                eventManager.fireEventAsync(new UserSpeakingStoppedEvent(guild, state.user, stoppedDurationMs));
+            }
+        }
+    }
+
+    /**
+     * Vérifie si un utilisateur est en train de parler.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @return true si l'utilisateur parle
+     */
+    boolean isSpeaking(long userId) {
+        SpeakerState state = speakers.get(userId);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.speaking;
+        }
+    }
+
+    /**
+     * Retire l'état d'un utilisateur, s'il est toujours celui de la map.
+     * Doit être appelé avec le moniteur de l'état détenu.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @param state  l'état à retirer
+     */
+    private void remove(Long userId, SpeakerState state) {
+        state.removed = true;
+        speakers.remove(userId, state);
+    }
+
+    /**
+     * Calcule l'amplitude moyenne d'un frame PCM 16-bit big-endian.
+     * <p>
+     * Une seule boucle comptée, sans branchement ni appel, que le compilateur
+     * JIT peut vectoriser.
+     *
+     * @param pcm le frame PCM
+     * @return l'amplitude moyenne (0-32768), 0 pour un frame vide
+     */
+    static int meanAmplitude(byte[] pcm) {
+        int samples = pcm.length / BYTES_PER_SAMPLE;
+        if (samples == 0) {
+            return 0;
+        }
+
+        long sum = 0;
+        for (int i = 0; i < samples; i++) {
+            int index = i << 1;
+            int sample = (short) ((pcm[index] << 8) | (pcm[index + 1] & 0xFF));
+            sum += Math.abs(sample);
+        }
+        return (int) (sum / samples);
+    }
+
+    /**
+     * État de parole d'un utilisateur, protégé par son propre moniteur.
+     */
+    private static final class SpeakerState {
+        private final User user;
+        private boolean speaking = false;
+        // Retiré de la map : un nouvel état doit être créé
+        private boolean removed = false;
+        private int loudRun = 0;
+        private int quietRun = 0;
+        private long startedNanos;
+        private long lastVoiceNanos;
+        private long lastFrameNanos;
+
+        private SpeakerState(User user) {
+            this.user = user;
+        }
+
+        // Réinitialise l'état et renvoie la durée de la prise de parole
+        private long stop() {
+            speaking = false;
+            loudRun = 0;
+            quietRun = 0;
+            return TimeUnit.NANOSECONDS.toMillis(lastVoiceNanos - startedNanos);
+        }
+    }
+}
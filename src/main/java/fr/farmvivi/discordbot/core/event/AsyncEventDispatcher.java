@@ -0,0 +1,325 @@
+package fr.farmvivi.discordbot.core.event;
+
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bounded executor for asynchronous event delivery.
+ * <p>
+ * Each plugin gets its own lane: a bounded queue drained by at most one worker
+ * at a time, in submission order. Workers come from a fixed pool and give up a
+ * lane after a few tasks, so a plugin with slow handlers holds a single worker
+ * and cannot starve the others. When a lane is full, the configured
+ * {@link AsyncOverflowPolicy} applies.
+ * <p>
+ * With more than one shard, tasks submitted with a key go to one of the
+ * plugin's shard lanes, chosen by the key's hash: tasks with the same key keep
+ * their order, and tasks with different keys run in parallel. Tasks without a
+ * key stay on the plugin's main lane.
+ * <p>
+ * Lanes are only created for plugins that still have listeners, and a removed
+ * lane never runs another task, so nothing reaches a plugin after it is unloaded.
+ */
+class AsyncEventDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+    // Tasks run from a lane before its worker is handed back to the pool
+    private static final int TASKS_PER_TURN = 16;
+
+    // Main lane of a plugin, for tasks without a key
+    private static final int MAIN_LANE = -1;
+
+    private final int queueCapacity;
+    private final int shardCount;
+    private final AsyncOverflowPolicy overflowPolicy;
+    private final ExecutorService workers;
+    private final Set<Thread> workerThreads = ConcurrentHashMap.newKeySet();
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+    // Tells whether a plugin still has listeners, checked before creating its lanes
+    private final Predicate<Plugin> activePlugins;
+    // Guards lane creation against a concurrent removal
+    private final Object laneLock = new Object();
+
+    // Statistics
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong callerRunTasks = new AtomicLong();
+
+    /**
+     * Creates a new async event dispatcher.
+     *
+     * @param workerCount    the number of worker threads
+     * @param queueCapacity  the maximum number of pending tasks per lane
+     * @param shardCount     the number of lanes per plugin for keyed tasks (1 keeps them on the main lane)
+     * @param overflowPolicy what to do when a lane is full
+     * @param activePlugins  tells whether a plugin still has listeners
+     */
+    AsyncEventDispatcher(int workerCount, int queueCapacity, int shardCount, AsyncOverflowPolicy overflowPolicy,
+                         Predicate<Plugin> activePlugins) {
+        this.queueCapacity = queueCapacity;
+        this.shardCount = shardCount;
+        this.overflowPolicy = overflowPolicy;
+        this.activePlugins = activePlugins;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        // Lanes are scheduled at most once each, so this queue is bounded by the number of plugins
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(() -> {
+                workerThreads.add(Thread.currentThread());
+                try {
+                    r.run();
+                } finally {
+                    workerThreads.remove(Thread.currentThread());
+                }
+            }, "EventManager-AsyncWorker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a task to a plugin's lane.
+     * The task is discarded if the plugin no longer has listeners.
+     *
+     * @param plugin   the plugin whose handlers the task runs
+     * @param shardKey the key whose tasks must run in order, or null
+     * @param task     the task
+     */
+    void submit(Plugin plugin, Object shardKey, Runnable task) {
+        submittedTasks.incrementAndGet();
+        int shard = MAIN_LANE;
+        if (shardKey != null && shardCount > 1) {
+            // Spread the hash so that sequential IDs do not favour some shards
+            int hash = shardKey.hashCode();
+            shard = Math.floorMod(hash ^ (hash >>> 16), shardCount);
+        }
+        LaneKey key = new LaneKey(plugin, shard);
+        Lane lane = lanes.get(key);
+        if (lane == null) {
+            lane = openLane(key);
+            if (lane == null) {
+                logger.debug("Discarded async event task of unloaded plugin {}", plugin.getName());
+                return;
+            }
+        }
+
+        if (lane.queue.offer(task)) {
+            lane.schedule();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP -> {
+                long rejected = rejectedTasks.incrementAndGet();
+                // Log the first rejection, then once in a while during a storm
+                if (rejected == 1 || rejected % 1000 == 0) {
+                    logger.warn("Async event queue of plugin {} is full, {} tasks rejected so far",
+                            plugin.getName(), rejected);
+                }
+            }
+            case BLOCK -> {
+                if (workerThreads.contains(Thread.currentThread())) {
+                    // A worker waiting on a lane could wait on itself: run the task instead
+                    runInCaller(task);
+                    return;
+                }
+                try {
+                    lane.queue.put(task);
+                    lane.schedule();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejectedTasks.incrementAndGet();
+                    logger.warn("Interrupted while waiting for the async event queue of plugin {}",
+                            plugin.getName());
+                }
+            }
+            case CALLER_RUNS -> runInCaller(task);
+        }
+    }
+
+    /**
+     * Removes a plugin's lanes, discarding the tasks they have not started yet.
+     *
+     * @param plugin the plugin
+     * @return the number of discarded tasks
+     */
+    int removeLanes(Plugin plugin) {
+        int discarded = 0;
+        synchronized (laneLock) {
+            for (Map.Entry<LaneKey, Lane> entry : lanes.entrySet()) {
+                if (entry.getKey().plugin() == plugin && lanes.remove(entry.getKey(), entry.getValue())) {
+                    Lane lane = entry.getValue();
+                    // A submitter holding the lane may still add a task: the worker drops it
+                    lane.closed = true;
+                    discarded += lane.queue.size();
+                    lane.queue.clear();
+                }
+            }
+        }
+        return discarded;
+    }
+
+    /**
+     * Gets the number of tasks waiting in all lanes.
+     *
+     * @return the total queue depth
+     */
+    int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes.values()) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the number of tasks waiting in each plugin's lanes.
+     *
+     * @return a map of plugins to queue depths
+     */
+    Map<Plugin, Integer> getQueueDepths() {
+        Map<Plugin, Integer> result = new HashMap<>();
+        for (Lane lane : lanes.values()) {
+            result.merge(lane.key.plugin(), lane.queue.size(), Integer::sum);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of tasks submitted since startup.
+     *
+     * @return the number of submitted tasks
+     */
+    long getSubmittedCount() {
+        return submittedTasks.get();
+    }
+
+    /**
+     * Gets the number of tasks discarded because a queue was full.
+     *
+     * @return the number of rejected tasks
+     */
+    long getRejectedCount() {
+        return rejectedTasks.get();
+    }
+
+    /**
+     * Gets the number of tasks run on the calling thread because a queue was full.
+     *
+     * @return the number of tasks run by callers
+     */
+    long getCallerRunCount() {
+        return callerRunTasks.get();
+    }
+
+    /**
+     * Stops the workers and discards pending tasks.
+     */
+    void shutdown() {
+        workers.shutdownNow();
+        lanes.clear();
+    }
+
+    /**
+     * Creates a lane, unless its plugin has been unloaded. The check holds the
+     * lock of {@link #removeLanes}, so removed lanes cannot be created again.
+     *
+     * @param key the lane key
+     * @return the lane, or null if the plugin no longer has listeners
+     */
+    private Lane openLane(LaneKey key) {
+        synchronized (laneLock) {
+            if (!activePlugins.test(key.plugin())) {
+                return null;
+            }
+            return lanes.computeIfAbsent(key, Lane::new);
+        }
+    }
+
+    private void runInCaller(Runnable task) {
+        callerRunTasks.incrementAndGet();
+        task.run();
+    }
+
+    /**
+     * Identifies a lane: a plugin and one of its shards, or its main lane.
+     *
+     * @param plugin the plugin
+     * @param shard  the shard index, or {@link #MAIN_LANE}
+     */
+    private record LaneKey(Plugin plugin, int shard) {
+    }
+
+    /**
+     * Pending tasks of one plugin, or of one of its shards.
+     */
+    private class Lane implements Runnable {
+        private final LaneKey key;
+        // Linked rather than array-backed: most shard lanes stay nearly empty
+        private final BlockingQueue<Runnable> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        // Set when the lane is removed, guarded by laneLock for writes
+        private volatile boolean closed = false;
+
+        Lane(LaneKey key) {
+            this.key = key;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+
+        /**
+         * Hands the lane to a worker unless one already owns it.
+         */
+        void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < TASKS_PER_TURN; i++) {
+                if (closed) {
+                    queue.clear();
+                    break;
+                }
+                Runnable task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    logger.error("Error in async event task of plugin {}", key.plugin().getName(), t);
+                }
+            }
+
+            // Back to the end of the pool queue, so that other lanes get their turn
+            scheduled.set(false);
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
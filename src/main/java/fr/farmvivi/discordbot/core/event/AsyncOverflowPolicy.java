@@ -0,0 +1,24 @@
+package fr.farmvivi.discordbot.core.event;
+
+/**
+ * What {@link SimpleEventManager#fireEventAsync} does when a plugin's async queue is full.
+ */
+public enum AsyncOverflowPolicy {
+    /**
+     * Waits for room in the queue. Worker threads never wait on a queue:
+     * they run the handlers themselves, as with {@link #CALLER_RUNS}.
+     */
+    BLOCK,
+
+    /**
+     * Discards the event for that plugin and counts it as rejected. The default.
+     */
+    DROP,
+
+    /**
+     * Runs the plugin's handlers synchronously on the calling thread,
+     * slowing the producer down to the plugin's pace. Plugin code then runs
+     * on threads that must not be held up, such as the JDA audio threads.
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,195 @@
+package fr.farmvivi.discordbot.core.event;
+
+import fr.farmvivi.discordbot.core.api.event.Event;
+import fr.farmvivi.discordbot.core.api.event.EventBatchOptions;
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collects the events of a batched or coalesced subscription.
+ * <p>
+ * Registered like any listener, with a single handler that only appends the
+ * event to the current batch. A flusher task hands the batch over at the end
+ * of each window, or the firing thread does as soon as it is full; either way
+ * the subscriber is called on its plugin's async lane. Batches are submitted
+ * to the lane while holding the batcher's lock, so they are delivered in the
+ * order they were taken.
+ *
+ * @param <T> the event type
+ */
+class EventBatcher<T extends Event> {
+    /**
+     * The handler method, reported by {@link SimpleEventManager#getEventHandlers}.
+     */
+    static final Method COLLECT_METHOD;
+
+    static {
+        try {
+            COLLECT_METHOD = EventBatcher.class.getDeclaredMethod("collect", Event.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<T> eventType;
+    private final Plugin plugin;
+    private final int maxSize;
+    // Null for a batched subscription
+    private final Function<? super T, ?> keyExtractor;
+    private final Consumer<List<T>> handler;
+    private final AsyncEventDispatcher dispatcher;
+
+    // Current batch, guarded by this
+    private List<T> batch = new ArrayList<>();
+    private Map<Object, T> coalesced = new LinkedHashMap<>();
+    private boolean closed = false;
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Creates a new event batcher.
+     *
+     * @param eventType    the event type
+     * @param plugin       the plugin owning the subscription
+     * @param options      the batch window and size
+     * @param keyExtractor gives the key of an event, or null to keep every event
+     * @param handler      receives the batches
+     * @param dispatcher   the async dispatcher delivering the batches
+     */
+    EventBatcher(Class<T> eventType, Plugin plugin, EventBatchOptions options,
+                 Function<? super T, ?> keyExtractor, Consumer<List<T>> handler,
+                 AsyncEventDispatcher dispatcher) {
+        this.eventType = eventType;
+        this.plugin = plugin;
+        this.maxSize = options.getMaxSize();
+        this.keyExtractor = keyExtractor;
+        this.handler = handler;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Adds an event to the current batch, delivering the batch if it is full.
+     *
+     * @param event the event, an instance of the subscribed type
+     */
+    void collect(Event event) {
+        T typed = eventType.cast(event);
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            int size;
+            if (keyExtractor == null) {
+                batch.add(typed);
+                size = batch.size();
+            } else {
+                // Last event wins, at the position where its key was first seen
+                coalesced.put(keyExtractor.apply(typed), typed);
+                size = coalesced.size();
+            }
+            if (size >= maxSize) {
+                deliver(takeBatch());
+            }
+        }
+    }
+
+    /**
+     * Delivers the current batch, if it is not empty. Called at the end of each window.
+     */
+    void flush() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            List<T> events = takeBatch();
+            if (events != null) {
+                deliver(events);
+            }
+        }
+    }
+
+    /**
+     * Stops the subscription, discarding the current batch.
+     */
+    void close() {
+        ScheduledFuture<?> task;
+        synchronized (this) {
+            closed = true;
+            batch = new ArrayList<>();
+            coalesced = new LinkedHashMap<>();
+            task = flushTask;
+        }
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Sets the task ending each window. If the subscription was closed in the
+     * meantime, the task is cancelled right away.
+     *
+     * @param flushTask the periodic flush task
+     */
+    void setFlushTask(ScheduledFuture<?> flushTask) {
+        boolean cancel;
+        synchronized (this) {
+            this.flushTask = flushTask;
+            cancel = closed;
+        }
+        if (cancel) {
+            flushTask.cancel(false);
+        }
+    }
+
+    Class<T> getEventType() {
+        return eventType;
+    }
+
+    Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Takes the current batch and starts a new one. Must hold the lock.
+     *
+     * @return the events of the batch, or null if it is empty
+     */
+    private List<T> takeBatch() {
+        if (keyExtractor == null) {
+            if (batch.isEmpty()) {
+                return null;
+            }
+            List<T> events = batch;
+            batch = new ArrayList<>(Math.min(events.size(), maxSize));
+            return events;
+        }
+
+        if (coalesced.isEmpty()) {
+            return null;
+        }
+        List<T> events = new ArrayList<>(coalesced.values());
+        coalesced = new LinkedHashMap<>();
+        return events;
+    }
+
+    /**
+     * Submits a batch to the subscriber's lane. Must hold the lock.
+     *
+     * @param events the events of the batch
+     */
+    private void deliver(List<T> events) {
+        dispatcher.submit(plugin, null, () -> handler.accept(events));
+    }
+
+    @Override
+    public String toString() {
+        return (keyExtractor == null ? "EventBatcher[" : "EventCoalescer[") + eventType.getSimpleName() + "]";
+    }
+}
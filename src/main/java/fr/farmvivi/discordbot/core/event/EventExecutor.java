@@ -0,0 +1,70 @@
+package fr.farmvivi.discordbot.core.event;
+
+import fr.farmvivi.discordbot.core.api.event.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Direct invoker for an {@link fr.farmvivi.discordbot.core.api.event.EventHandler} method.
+ * <p>
+ * Executors are generated once, when a listener is registered, so that dispatching
+ * an event is a plain interface call with no reflection, argument array or access check.
+ * This interface is public only because the generated classes live in the listener's
+ * own package (and class loader) and must be able to implement it.
+ */
+@FunctionalInterface
+public interface EventExecutor {
+    /**
+     * Calls the handler method on a listener.
+     *
+     * @param listener the listener instance
+     * @param event    the event
+     * @throws Throwable anything thrown by the handler method
+     */
+    void execute(Object listener, Event event) throws Throwable;
+
+    /**
+     * Creates an executor for an event handler method.
+     * <p>
+     * When the method's declaring class shares the core's module, a class is spun with
+     * {@link LambdaMetafactory} in its lookup context. Classes loaded by a plugin class
+     * loader live in another unnamed module, where no full-privilege lookup can be
+     * obtained: they get an exact {@link MethodHandle} invocation instead, which still
+     * avoids the reflective argument array and access checks.
+     *
+     * @param method the handler method, taking a single event parameter
+     * @return the executor
+     * @throws IllegalAccessException if the method cannot be accessed at all
+     */
+    static EventExecutor create(Method method) throws IllegalAccessException {
+        Class<?> owner = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+
+        if (lookup.hasFullPrivilegeAccess()) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "execute",
+                        MethodType.methodType(EventExecutor.class),
+                        MethodType.methodType(void.class, Object.class, Event.class),
+                        target,
+                        MethodType.methodType(void.class, owner, method.getParameterTypes()[0]));
+                return (EventExecutor) site.getTarget().invokeExact();
+            } catch (Throwable t) {
+                Logger logger = LoggerFactory.getLogger(EventExecutor.class);
+                logger.debug("Falling back to a method handle for {}#{}", owner.getName(), method.getName(), t);
+            }
+        }
+
+        MethodHandle handle = target.asType(MethodType.methodType(void.class, Object.class, Event.class));
+        return (listener, event) -> {
+            handle.invokeExact(listener, event);
+        };
+    }
+}
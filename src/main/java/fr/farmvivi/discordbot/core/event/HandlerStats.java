@@ -0,0 +1,37 @@
+package fr.farmvivi.discordbot.core.event;
+
+import fr.farmvivi.discordbot.core.api.event.Event;
+
+/**
+ * Snapshot of the dispatch statistics of one event handler.
+ * Timings are only collected while profiling is enabled on the event manager;
+ * exceptions are always counted.
+ *
+ * @param pluginName    the name of the plugin owning the handler
+ * @param listenerClass the name of the listener class
+ * @param methodName    the name of the handler method
+ * @param eventType     the event type the handler was declared for
+ * @param invocations   the number of profiled calls
+ * @param totalNanos    the cumulative duration of the profiled calls, in nanoseconds
+ * @param maxNanos      the longest profiled call, in nanoseconds
+ * @param exceptions    the number of calls that threw
+ */
+public record HandlerStats(String pluginName, String listenerClass, String methodName,
+                           Class<? extends Event> eventType, long invocations, long totalNanos,
+                           long maxNanos, long exceptions) {
+    /**
+     * Gets the average duration of a profiled call.
+     *
+     * @return the average duration, in nanoseconds, or 0 if the handler was not called
+     */
+    public long averageNanos() {
+        return invocations > 0 ? totalNanos / invocations : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s#%s(%s): %d calls, %.3f ms total, %.3f ms max, %d exceptions",
+                pluginName, listenerClass, methodName, eventType.getSimpleName(), invocations,
+                totalNanos / 1e6, maxNanos / 1e6, exceptions);
+    }
+}
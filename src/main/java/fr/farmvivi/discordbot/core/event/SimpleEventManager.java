@@ -8,22 +8,73 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Simple implementation of EventManager with explicit plugin management.
+ * <p>
+ * Handlers are kept as one immutable, priority-ordered array per event type.
+ * Registration builds a new array and publishes it (copy-on-write) under a lock,
+ * so firing an event is a single map lookup and an array loop, with no
+ * allocation, and never observes a half-updated handler list.
+ * <p>
+ * A handler declared for a supertype or an interface receives every event
+ * assignable to it. The merged handler list of each concrete event class is
+ * resolved when that class is first fired and cached until listeners change,
+ * so listening to a whole domain (e.g. every {@code AudioEvent}) costs nothing
+ * more per event than listening to a single type.
+ * <p>
+ * Async events are delivered by a fixed pool of workers, through a bounded
+ * queue per plugin owning handlers. Each plugin receives its handlers' share
+ * of an async event in order, on its own lane, so a slow plugin only delays
+ * itself; handlers of different plugins may run concurrently. A
+ * {@link Cancellable} event is the exception: its handlers run as one chain in
+ * priority order, on the lane of the plugin owning the first handler, so that
+ * a cancellation is seen by every later handler. With sharding
+ * enabled, {@link Shardable} events are spread over several lanes per plugin by
+ * key: a plugin sees the events of one guild in order, and the events of
+ * different guilds in parallel.
+ * <p>
+ * Batched and coalesced subscriptions are registered as {@code MONITOR}
+ * handlers that only append to a buffer; a flusher thread ends each window
+ * and the batch is delivered on the subscriber's async lane.
  */
 public class SimpleEventManager implements EventManager {
     private static final Logger logger = LoggerFactory.getLogger(SimpleEventManager.class);
+    private static final RegisteredListener[] NO_HANDLERS = new RegisteredListener[0];
+
+    /**
+     * Default maximum number of pending async deliveries per plugin.
+     */
+    public static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 1024;
 
     // Event type registry
     private final Map<Class<? extends Event>, EventTypeInfo> eventTypeRegistry = new ConcurrentHashMap<>();
     private final Map<Plugin, Set<Class<? extends Event>>> pluginEventTypes = new ConcurrentHashMap<>();
 
-    // Map: Event Type -> Priority -> List of RegisteredListeners
-    private final Map<Class<? extends Event>, Map<EventPriority, List<RegisteredListener>>> eventTypeMap = new ConcurrentHashMap<>();
+    // Map: Event Type -> RegisteredListeners sorted by priority (immutable, replaced on change)
+    private final Map<Class<? extends Event>, RegisteredListener[]> eventTypeMap = new ConcurrentHashMap<>();
+
+    // Map: Concrete event class -> handlers of the class and all its supertypes (cleared on change)
+    private final Map<Class<?>, RegisteredListener[]> resolvedHandlers = new ConcurrentHashMap<>();
+
+    // Map: Declared event type -> whether it, a supertype or a subtype has handlers (cleared on change)
+    private final Map<Class<?>, Boolean> listenedTypes = new ConcurrentHashMap<>();
+
+    // Guards every change to the handler arrays and listener maps
+    private final ReentrantLock registrationLock = new ReentrantLock();
+
+    // Registration order of handlers, to order handlers of the same priority across event types
+    private final AtomicLong handlerSequence = new AtomicLong();
 
     // Map: Plugin -> Set of Listeners owned by that plugin
     private final Map<Plugin, Set<Object>> pluginListenersMap = new ConcurrentHashMap<>();
@@ -37,13 +88,58 @@ public class SimpleEventManager implements EventManager {
     // Statistics
     private final AtomicInteger totalRegisteredHandlers = new AtomicInteger(0);
 
-    // Thread pool for async event handling
-    private final ExecutorService asyncExecutor = Executors.newCachedThreadPool(r -> {
-        Thread thread = new Thread(r, "EventManager-AsyncWorker");
+    // Per-handler profiling, switchable at runtime
+    private volatile boolean profilingEnabled = false;
+    private volatile long slowHandlerThresholdNanos = 0;
+
+    // Bounded per-plugin lanes for async event handling
+    private final AsyncEventDispatcher asyncDispatcher;
+
+    // Ends the windows of batched subscriptions
+    private final ScheduledExecutorService batchFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "EventManager-BatchFlusher");
         thread.setDaemon(true);
         return thread;
     });
 
+    /**
+     * Creates a new event manager with the default async settings: one worker per
+     * processor, no sharding, {@value #DEFAULT_ASYNC_QUEUE_CAPACITY} pending tasks
+     * per plugin, and the {@link AsyncOverflowPolicy#DROP} policy, so that a
+     * full queue never runs plugin handlers on the firing thread.
+     */
+    public SimpleEventManager() {
+        this(Runtime.getRuntime().availableProcessors(), 1, DEFAULT_ASYNC_QUEUE_CAPACITY,
+                AsyncOverflowPolicy.DROP);
+    }
+
+    /**
+     * Creates a new event manager.
+     *
+     * @param asyncWorkers       the number of threads delivering async events
+     * @param asyncShards        the number of parallel lanes per plugin for {@link Shardable} events
+     *                           (1 delivers every async event of a plugin in order)
+     * @param asyncQueueCapacity the maximum number of pending async deliveries per lane
+     * @param overflowPolicy     what to do when an async queue is full
+     */
+    public SimpleEventManager(int asyncWorkers, int asyncShards, int asyncQueueCapacity,
+                              AsyncOverflowPolicy overflowPolicy) {
+        if (asyncWorkers < 1) {
+            throw new IllegalArgumentException("Async worker count must be at least 1");
+        }
+        if (asyncShards < 1) {
+            throw new IllegalArgumentException("Async shard count must be at least 1");
+        }
+        if (asyncQueueCapacity < 1) {
+            throw new IllegalArgumentException("Async queue capacity must be at least 1");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy cannot be null");
+        }
+        this.asyncDispatcher = new AsyncEventDispatcher(asyncWorkers, asyncQueueCapacity, asyncShards, overflowPolicy,
+                pluginListenersMap::containsKey);
+    }
+
     @Override
     public boolean registerEventType(Class<? extends Event> eventType, Plugin plugin, String description) {
         if (eventType == null) {
@@ -98,6 +194,15 @@ public class SimpleEventManager implements EventManager {
 
         pluginEventTypes.remove(plugin);
 
+        // Do not keep the plugin's event classes reachable from the cache
+        registrationLock.lock();
+        try {
+            resolvedHandlers.clear();
+            listenedTypes.clear();
+        } finally {
+            registrationLock.unlock();
+        }
+
         logger.debug("Unregistered {} event types for plugin {}",
                 count, plugin.getName());
         return count;
@@ -135,17 +240,8 @@ public class SimpleEventManager implements EventManager {
             throw new IllegalArgumentException("Plugin cannot be null");
         }
 
-        // Check if listener is already registered
-        if (listenerOwnerMap.containsKey(listener)) {
-            logger.warn("Listener {} is already registered by plugin {}",
-                    listener.getClass().getName(), listenerOwnerMap.get(listener).getClass().getName());
-            return;
-        }
-
-        // Initialize the listener handlers set if not exists
+        // Find methods with @EventHandler annotation (outside the lock: invokers are generated here)
         Set<RegisteredListener> registeredHandlers = new HashSet<>();
-
-        // Find methods with @EventHandler annotation
         for (Method method : listener.getClass().getMethods()) {
             if (!method.isAnnotationPresent(EventHandler.class)) {
                 continue;
@@ -173,24 +269,35 @@ public class SimpleEventManager implements EventManager {
             EventPriority priority = annotation.priority();
             boolean ignoreCancelled = annotation.ignoreCancelled();
 
-            // Create a registered listener
-            RegisteredListener registeredListener = new RegisteredListener(
-                    listener, method, eventType, priority, ignoreCancelled, plugin);
+            // Generate a direct invoker once, so that dispatch does not go through reflection
+            EventExecutor executor;
+            try {
+                executor = EventExecutor.create(method);
+            } catch (IllegalAccessException | RuntimeException e) {
+                logger.warn("Method {} in {} has @EventHandler but cannot be invoked",
+                        method.getName(), listener.getClass().getName(), e);
+                continue;
+            }
 
-            // Add to the event type map
-            eventTypeMap.computeIfAbsent(eventType, k -> new EnumMap<>(EventPriority.class))
-                    .computeIfAbsent(priority, k -> new ArrayList<>())
-                    .add(registeredListener);
+            // Create a registered listener
+            registeredHandlers.add(new RegisteredListener(listener, method, executor, eventType,
+                    priority, ignoreCancelled, plugin, handlerSequence.incrementAndGet()));
+        }
 
-            // Add to the registered handlers
-            registeredHandlers.add(registeredListener);
+        if (registeredHandlers.isEmpty()) {
+            logger.warn("Listener {} has no @EventHandler methods", listener.getClass().getName());
+            return;
+        }
 
-            // Increment the counter
-            totalRegisteredHandlers.incrementAndGet();
+        if (!publishHandlers(listener, plugin, registeredHandlers)) {
+            return;
+        }
 
+        for (RegisteredListener registeredListener : registeredHandlers) {
+            Class<? extends Event> eventType = registeredListener.getEventType();
             logger.debug("Registered event handler: {}#{} in {} for event {} (owned by {})",
-                    method.getName(),
-                    priority,
+                    registeredListener.getMethod().getName(),
+                    registeredListener.getPriority(),
                     listener.getClass().getSimpleName(),
                     eventType.getSimpleName(),
                     plugin.getClass().getSimpleName());
@@ -205,8 +312,40 @@ public class SimpleEventManager implements EventManager {
             }
         }
 
-        // If any handlers were registered, track the listener
-        if (!registeredHandlers.isEmpty()) {
+        logger.info("Registered listener {} with {} event handlers (owned by {})",
+                listener.getClass().getSimpleName(),
+                registeredHandlers.size(),
+                plugin.getClass().getSimpleName());
+    }
+
+    /**
+     * Publishes the handlers of a listener and records its ownership.
+     *
+     * @param listener           the listener
+     * @param plugin             the plugin that owns the listener
+     * @param registeredHandlers the listener's handlers
+     * @return false if the listener was already registered
+     */
+    private boolean publishHandlers(Object listener, Plugin plugin, Set<RegisteredListener> registeredHandlers) {
+        registrationLock.lock();
+        try {
+            // Check if listener is already registered
+            Plugin owner = listenerOwnerMap.get(listener);
+            if (owner != null) {
+                logger.warn("Listener {} is already registered by plugin {}",
+                        listener.getClass().getName(), owner.getClass().getName());
+                return false;
+            }
+
+            // Publish the new handler arrays
+            for (RegisteredListener registeredListener : registeredHandlers) {
+                eventTypeMap.compute(registeredListener.getEventType(),
+                        (type, handlers) -> insertHandler(handlers, registeredListener));
+            }
+            resolvedHandlers.clear();
+            listenedTypes.clear();
+            totalRegisteredHandlers.addAndGet(registeredHandlers.size());
+
             // Store the registered handlers
             listenerHandlersMap.put(listener, registeredHandlers);
 
@@ -215,75 +354,113 @@ public class SimpleEventManager implements EventManager {
 
             // Add to the plugin listeners map
             pluginListenersMap.computeIfAbsent(plugin, k -> ConcurrentHashMap.newKeySet()).add(listener);
-
-            logger.info("Registered listener {} with {} event handlers (owned by {})",
-                    listener.getClass().getSimpleName(),
-                    registeredHandlers.size(),
-                    plugin.getClass().getSimpleName());
-        } else {
-            logger.warn("Listener {} has no @EventHandler methods", listener.getClass().getName());
+            return true;
+        } finally {
+            registrationLock.unlock();
         }
     }
 
     @Override
-    public boolean unregisterListener(Object listener) {
-        if (listener == null) {
-            return false;
+    public <T extends Event> Object subscribeBatched(Class<T> eventType, Plugin plugin, EventBatchOptions options,
+                                                     Consumer<List<T>> handler) {
+        return subscribe(eventType, plugin, options, null, handler);
+    }
+
+    @Override
+    public <T extends Event> Object subscribeCoalesced(Class<T> eventType, Plugin plugin, EventBatchOptions options,
+                                                       Function<? super T, ?> keyExtractor, Consumer<List<T>> handler) {
+        if (keyExtractor == null) {
+            throw new IllegalArgumentException("Key extractor cannot be null");
         }
+        return subscribe(eventType, plugin, options, keyExtractor, handler);
+    }
 
-        // Check if listener is registered
-        Set<RegisteredListener> handlers = listenerHandlersMap.get(listener);
-        if (handlers == null || handlers.isEmpty()) {
-            return false;
+    /**
+     * Registers a batcher as a monitor of an event type and schedules its window flushes.
+     *
+     * @param eventType    the event type
+     * @param plugin       the plugin that owns the subscription
+     * @param options      the batch window and size
+     * @param keyExtractor gives the key of an event, or null for plain batches
+     * @param handler      receives the batches
+     * @return the batcher, which is the subscription handle
+     */
+    private <T extends Event> Object subscribe(Class<T> eventType, Plugin plugin, EventBatchOptions options,
+                                               Function<? super T, ?> keyExtractor, Consumer<List<T>> handler) {
+        if (eventType == null || plugin == null || options == null || handler == null) {
+            throw new IllegalArgumentException("Event type, plugin, options and handler cannot be null");
         }
 
-        // Get the owning plugin
-        Object plugin = listenerOwnerMap.get(listener);
+        EventBatcher<T> batcher = new EventBatcher<>(eventType, plugin, options, keyExtractor, handler, asyncDispatcher);
+        // Collecting is a cheap append: it runs last, and only for events that were not cancelled
+        RegisteredListener registeredListener = new RegisteredListener(batcher, EventBatcher.COLLECT_METHOD,
+                (listener, event) -> ((EventBatcher<?>) listener).collect(event), eventType,
+                EventPriority.MONITOR, false, plugin, handlerSequence.incrementAndGet());
 
-        // Remove all registered handlers
-        for (RegisteredListener handler : handlers) {
-            // Get the event map
-            Map<EventPriority, List<RegisteredListener>> priorityMap = eventTypeMap.get(handler.getEventType());
-            if (priorityMap != null) {
-                // Get the priority list
-                List<RegisteredListener> priorityList = priorityMap.get(handler.getPriority());
-                if (priorityList != null) {
-                    // Remove the handler
-                    priorityList.remove(handler);
-
-                    // Decrement the counter
-                    totalRegisteredHandlers.decrementAndGet();
-
-                    // Clean up empty lists
-                    if (priorityList.isEmpty()) {
-                        priorityMap.remove(handler.getPriority());
-                    }
+        Set<RegisteredListener> registeredHandlers = new HashSet<>();
+        registeredHandlers.add(registeredListener);
+        publishHandlers(batcher, plugin, registeredHandlers);
 
-                    // Clean up empty maps
-                    if (priorityMap.isEmpty()) {
-                        eventTypeMap.remove(handler.getEventType());
-                    }
-                }
+        long windowMs = options.getWindowMs();
+        batcher.setFlushTask(batchFlusher.scheduleAtFixedRate(() -> {
+            try {
+                batcher.flush();
+            } catch (Throwable t) {
+                logger.error("Error flushing {} (owned by {})", batcher, plugin.getClass().getSimpleName(), t);
             }
+        }, windowMs, windowMs, TimeUnit.MILLISECONDS));
+
+        logger.info("Registered {} with a {} ms window (owned by {})",
+                batcher, windowMs, plugin.getClass().getSimpleName());
+        return batcher;
+    }
+
+    @Override
+    public boolean unregisterListener(Object listener) {
+        if (listener == null) {
+            return false;
         }
 
-        // Remove from the listener handlers map
-        listenerHandlersMap.remove(listener);
+        Set<RegisteredListener> handlers;
+        registrationLock.lock();
+        try {
+            // Check if listener is registered
+            handlers = listenerHandlersMap.remove(listener);
+            if (handlers == null || handlers.isEmpty()) {
+                return false;
+            }
+
+            // Publish the handler arrays without this listener's handlers
+            for (RegisteredListener handler : handlers) {
+                eventTypeMap.computeIfPresent(handler.getEventType(),
+                        (type, registered) -> removeHandler(registered, handler));
+            }
+            resolvedHandlers.clear();
+            listenedTypes.clear();
+            totalRegisteredHandlers.addAndGet(-handlers.size());
 
-        // Remove ownership
-        listenerOwnerMap.remove(listener);
+            // Remove ownership
+            Plugin plugin = listenerOwnerMap.remove(listener);
 
-        // Remove from the plugin listeners map
-        if (plugin != null) {
-            Set<Object> pluginListeners = pluginListenersMap.get(plugin);
-            if (pluginListeners != null) {
-                pluginListeners.remove(listener);
+            // A batched subscription stops collecting and flushing
+            if (listener instanceof EventBatcher<?> batcher) {
+                batcher.close();
+            }
 
-                // Clean up empty sets
-                if (pluginListeners.isEmpty()) {
-                    pluginListenersMap.remove(plugin);
+            // Remove from the plugin listeners map
+            if (plugin != null) {
+                Set<Object> pluginListeners = pluginListenersMap.get(plugin);
+                if (pluginListeners != null) {
+                    pluginListeners.remove(listener);
+
+                    // Clean up empty sets
+                    if (pluginListeners.isEmpty()) {
+                        pluginListenersMap.remove(plugin);
+                    }
                 }
             }
+        } finally {
+            registrationLock.unlock();
         }
 
         logger.info("Unregistered listener {} with {} handlers",
@@ -318,6 +495,13 @@ public class SimpleEventManager implements EventManager {
         // Make sure the plugin is removed from the map
         pluginListenersMap.remove(plugin);
 
+        // Async deliveries not started yet must not reach a disabled plugin
+        int discarded = asyncDispatcher.removeLanes(plugin);
+        if (discarded > 0) {
+            logger.debug("Discarded {} pending async events for plugin {}",
+                    discarded, plugin.getClass().getSimpleName());
+        }
+
         logger.info("Unregistered all {} listeners for plugin {}", count, plugin.getClass().getSimpleName());
 
         return count;
@@ -329,68 +513,168 @@ public class SimpleEventManager implements EventManager {
             throw new IllegalArgumentException("Event cannot be null");
         }
 
-        // Get the event type
-        Class<? extends Event> eventType = event.getClass();
-
-        // Get the priority map for this event type
-        Map<EventPriority, List<RegisteredListener>> priorityMap = eventTypeMap.get(eventType);
-        if (priorityMap == null || priorityMap.isEmpty()) {
+        // Get the handlers for this event class and its supertypes, already sorted by priority
+        RegisteredListener[] handlers = resolvedHandlers.get(event.getClass());
+        if (handlers == null) {
+            handlers = resolveHandlers(event.getClass());
+        }
+        if (handlers.length == 0) {
             return event;
         }
 
+        dispatch(event, handlers);
+        return event;
+    }
+
+    @Override
+    public <T extends Event> T fireEvent(Class<T> eventType, Supplier<? extends T> eventFactory) {
+        if (eventType == null || eventFactory == null) {
+            throw new IllegalArgumentException("Event type and factory cannot be null");
+        }
+
+        // Nobody listens to the type or to any subtype the factory could build: skip building the event
+        Boolean listened = listenedTypes.get(eventType);
+        if (listened == null) {
+            listened = resolveListened(eventType);
+        }
+        if (!listened) {
+            return null;
+        }
+
+        return fireEvent(eventFactory.get());
+    }
+
+    @Override
+    public void fireEventAsync(Event event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+
+        RegisteredListener[] handlers = resolvedHandlers.get(event.getClass());
+        if (handlers == null) {
+            handlers = resolveHandlers(event.getClass());
+        }
+        if (handlers.length == 0) {
+            return;
+        }
+
+        Object shardKey = event instanceof Shardable shardable ? shardable.getShardKey() : null;
+        Plugin plugin = handlers[0].getPlugin();
+        if (event instanceof Cancellable) {
+            // Cancellation must follow priority order across plugins: one chain, on the first handler's lane
+            submitAsync(plugin, shardKey, event, handlers);
+            return;
+        }
+
+        // One delivery per plugin, each on that plugin's lane
+        boolean singlePlugin = true;
+        for (RegisteredListener handler : handlers) {
+            if (handler.getPlugin() != plugin) {
+                singlePlugin = false;
+                break;
+            }
+        }
+        if (singlePlugin) {
+            // Common case: the resolved array is submitted as is
+            submitAsync(plugin, shardKey, event, handlers);
+            return;
+        }
+
+        Map<Plugin, List<RegisteredListener>> byPlugin = new LinkedHashMap<>();
+        for (RegisteredListener handler : handlers) {
+            byPlugin.computeIfAbsent(handler.getPlugin(), k -> new ArrayList<>()).add(handler);
+        }
+        for (Map.Entry<Plugin, List<RegisteredListener>> entry : byPlugin.entrySet()) {
+            submitAsync(entry.getKey(), shardKey, event, entry.getValue().toArray(NO_HANDLERS));
+        }
+    }
+
+    /**
+     * Queues the delivery of an event to one plugin's handlers.
+     *
+     * @param plugin   the plugin whose lane runs the handlers
+     * @param shardKey the event's shard key, or null
+     * @param event    the event
+     * @param handlers the handlers, sorted by priority
+     */
+    private void submitAsync(Plugin plugin, Object shardKey, Event event, RegisteredListener[] handlers) {
+        asyncDispatcher.submit(plugin, shardKey, () -> dispatch(event, handlers));
+    }
+
+    /**
+     * Calls handlers in order, honouring cancellation.
+     *
+     * @param event    the event
+     * @param handlers the handlers, sorted by priority
+     */
+    private void dispatch(Event event, RegisteredListener[] handlers) {
         // Check if event is cancellable
-        boolean isCancelled = event instanceof Cancellable && ((Cancellable) event).isCancelled();
+        Cancellable cancellable = event instanceof Cancellable c ? c : null;
+        boolean isCancelled = cancellable != null && cancellable.isCancelled();
+        boolean profile = profilingEnabled;
 
-        // Call handlers in order of priority
-        for (EventPriority priority : EventPriority.values()) {
-            List<RegisteredListener> handlers = priorityMap.get(priority);
-            if (handlers == null || handlers.isEmpty()) {
+        for (RegisteredListener handler : handlers) {
+            // Skip if event is cancelled and handler doesn't ignore cancelled events
+            if (isCancelled && !handler.isIgnoreCancelled()) {
                 continue;
             }
 
-            // Make a copy to avoid concurrent modification
-            List<RegisteredListener> handlersCopy = new ArrayList<>(handlers);
+            long start = profile ? System.nanoTime() : 0L;
+            try {
+                // Call the handler
+                handler.callEvent(event);
 
-            for (RegisteredListener handler : handlersCopy) {
-                // Skip if event is cancelled and handler doesn't ignore cancelled events
-                if (isCancelled && !handler.isIgnoreCancelled()) {
-                    continue;
+                // Update cancellation status if changed
+                if (cancellable != null) {
+                    isCancelled = cancellable.isCancelled();
                 }
+            } catch (Throwable t) {
+                handler.recordException();
+                logger.error("Error dispatching event {} to listener {} (owned by {})",
+                        event.getClass().getSimpleName(),
+                        handler.getListener().getClass().getSimpleName(),
+                        handler.getPlugin().getClass().getSimpleName(),
+                        t);
+            }
 
-                try {
-                    // Call the handler
-                    handler.callEvent(event);
-
-                    // Update cancellation status if changed
-                    if (event instanceof Cancellable) {
-                        isCancelled = ((Cancellable) event).isCancelled();
-                    }
-                } catch (Throwable t) {
-                    logger.error("Error dispatching event {} to listener {} (owned by {})",
-                            eventType.getSimpleName(),
-                            handler.getListener().getClass().getSimpleName(),
-                            handler.getPlugin().getClass().getSimpleName(),
-                            t);
-                }
+            if (profile) {
+                recordTiming(handler, event, System.nanoTime() - start);
             }
         }
+    }
 
-        return event;
+    /**
+     * Records the duration of a handler call and reports it if it is slow.
+     *
+     * @param handler      the handler
+     * @param event        the event
+     * @param elapsedNanos the duration of the call
+     */
+    private void recordTiming(RegisteredListener handler, Event event, long elapsedNanos) {
+        handler.recordInvocation(elapsedNanos);
+
+        long threshold = slowHandlerThresholdNanos;
+        if (threshold > 0 && elapsedNanos >= threshold) {
+            logger.warn("Slow event handler {}#{} took {} ms for event {} (owned by {})",
+                    handler.getListener().getClass().getSimpleName(),
+                    handler.getMethod().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    event.getClass().getSimpleName(),
+                    handler.getPlugin().getName());
+        }
     }
 
     @Override
-    public void fireEventAsync(Event event) {
-        if (event == null) {
-            throw new IllegalArgumentException("Event cannot be null");
+    public boolean hasListeners(Class<? extends Event> eventType) {
+        if (eventType == null) {
+            return false;
         }
 
-        asyncExecutor.submit(() -> {
-            try {
-                fireEvent(event);
-            } catch (Throwable t) {
-                logger.error("Error in async event dispatch for {}", event.getClass().getSimpleName(), t);
-            }
-        });
+        RegisteredListener[] handlers = resolvedHandlers.get(eventType);
+        if (handlers == null) {
+            handlers = resolveHandlers(eventType);
+        }
+        return handlers.length > 0;
     }
 
     @Override
@@ -425,6 +709,126 @@ public class SimpleEventManager implements EventManager {
         return listenerOwnerMap.containsKey(listener);
     }
 
+    /**
+     * Gets the number of async deliveries waiting in all plugin queues.
+     *
+     * @return the total async queue depth
+     */
+    public int getAsyncQueueDepth() {
+        return asyncDispatcher.getQueueDepth();
+    }
+
+    /**
+     * Gets the number of async deliveries waiting in each plugin's queue.
+     *
+     * @return a map of plugins to async queue depths
+     */
+    public Map<Plugin, Integer> getAsyncQueueDepths() {
+        return asyncDispatcher.getQueueDepths();
+    }
+
+    /**
+     * Gets the number of async deliveries submitted since startup (one per plugin and event).
+     *
+     * @return the number of submitted async deliveries
+     */
+    public long getAsyncSubmittedCount() {
+        return asyncDispatcher.getSubmittedCount();
+    }
+
+    /**
+     * Gets the number of async deliveries dropped because a plugin's queue was full.
+     *
+     * @return the number of rejected async deliveries
+     */
+    public long getAsyncRejectedCount() {
+        return asyncDispatcher.getRejectedCount();
+    }
+
+    /**
+     * Gets the number of async deliveries run synchronously by the caller because a plugin's queue was full.
+     *
+     * @return the number of async deliveries run by callers
+     */
+    public long getAsyncCallerRunCount() {
+        return asyncDispatcher.getCallerRunCount();
+    }
+
+    /**
+     * Enables or disables the timing of every handler call.
+     * Exceptions are counted whether or not profiling is enabled.
+     *
+     * @param enabled true to time handler calls
+     */
+    public void setProfilingEnabled(boolean enabled) {
+        this.profilingEnabled = enabled;
+        logger.info("Event handler profiling {}", enabled ? "enabled" : "disabled");
+    }
+
+    /**
+     * Checks if handler calls are timed.
+     *
+     * @return true if profiling is enabled
+     */
+    public boolean isProfilingEnabled() {
+        return profilingEnabled;
+    }
+
+    /**
+     * Sets the duration above which a profiled handler call is logged as slow.
+     *
+     * @param thresholdMs the threshold in milliseconds, or 0 to never log slow calls
+     */
+    public void setSlowHandlerThreshold(long thresholdMs) {
+        if (thresholdMs < 0) {
+            throw new IllegalArgumentException("Slow handler threshold cannot be negative");
+        }
+        this.slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * Gets the duration above which a profiled handler call is logged as slow.
+     *
+     * @return the threshold in milliseconds, or 0 if slow calls are not logged
+     */
+    public long getSlowHandlerThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(slowHandlerThresholdNanos);
+    }
+
+    /**
+     * Gets the registered handlers that cost the most, by cumulative profiled time.
+     *
+     * @param limit the maximum number of handlers to return
+     * @return the statistics of the costliest handlers, most expensive first
+     */
+    public List<HandlerStats> getTopHandlers(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<HandlerStats> stats = new ArrayList<>();
+        for (Set<RegisteredListener> handlers : listenerHandlersMap.values()) {
+            for (RegisteredListener handler : handlers) {
+                stats.add(handler.getStats());
+            }
+        }
+        stats.sort(Comparator.comparingLong(HandlerStats::totalNanos).reversed()
+                .thenComparing(Comparator.comparingLong(HandlerStats::exceptions).reversed()));
+
+        return stats.size() > limit ? new ArrayList<>(stats.subList(0, limit)) : stats;
+    }
+
+    /**
+     * Clears the profiling statistics of every registered handler.
+     */
+    public void resetProfiling() {
+        for (Set<RegisteredListener> handlers : listenerHandlersMap.values()) {
+            for (RegisteredListener handler : handlers) {
+                handler.resetStats();
+            }
+        }
+    }
+
     /**
      * Gets the total number of registered event handlers.
      *
@@ -435,7 +839,8 @@ public class SimpleEventManager implements EventManager {
     }
 
     /**
-     * Gets the number of registered event handlers for a specific event type.
+     * Gets the number of event handlers registered for exactly a specific event type.
+     * Handlers declared for its supertypes are not counted.
      *
      * @param eventType the event type
      * @return the number of registered event handlers for the event type
@@ -445,17 +850,8 @@ public class SimpleEventManager implements EventManager {
             return 0;
         }
 
-        Map<EventPriority, List<RegisteredListener>> priorityMap = eventTypeMap.get(eventType);
-        if (priorityMap == null) {
-            return 0;
-        }
-
-        int count = 0;
-        for (List<RegisteredListener> handlers : priorityMap.values()) {
-            count += handlers.size();
-        }
-
-        return count;
+        RegisteredListener[] handlers = eventTypeMap.get(eventType);
+        return handlers != null ? handlers.length : 0;
     }
 
     /**
@@ -466,14 +862,14 @@ public class SimpleEventManager implements EventManager {
      * @return a map of priorities to handlers for the event type
      */
     public Map<EventPriority, List<RegisteredListener>> getEventHandlers(Class<? extends Event> eventType) {
-        Map<EventPriority, List<RegisteredListener>> handlers = eventTypeMap.get(eventType);
+        RegisteredListener[] handlers = eventTypeMap.get(eventType);
         if (handlers == null) {
             return Collections.emptyMap();
         }
 
         Map<EventPriority, List<RegisteredListener>> result = new EnumMap<>(EventPriority.class);
-        for (Map.Entry<EventPriority, List<RegisteredListener>> entry : handlers.entrySet()) {
-            result.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        for (RegisteredListener handler : handlers) {
+            result.computeIfAbsent(handler.getPriority(), k -> new ArrayList<>()).add(handler);
         }
 
         return result;
@@ -487,14 +883,163 @@ public class SimpleEventManager implements EventManager {
     public Map<Class<? extends Event>, Integer> getHandlerCounts() {
         Map<Class<? extends Event>, Integer> result = new HashMap<>();
 
-        for (Map.Entry<Class<? extends Event>, Map<EventPriority, List<RegisteredListener>>> entry : eventTypeMap.entrySet()) {
-            int count = 0;
-            for (List<RegisteredListener> handlers : entry.getValue().values()) {
-                count += handlers.size();
+        for (Map.Entry<Class<? extends Event>, RegisteredListener[]> entry : eventTypeMap.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().length);
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves and caches the handlers receiving events of a given class.
+     * Runs under the registration lock so that a concurrent change cannot leave a
+     * stale list in the cache; this only happens the first time a class is fired.
+     *
+     * @param eventClass the concrete event class
+     * @return the handlers, sorted by priority then registration order
+     */
+    private RegisteredListener[] resolveHandlers(Class<?> eventClass) {
+        registrationLock.lock();
+        try {
+            return resolvedHandlers.computeIfAbsent(eventClass, this::mergeHandlers);
+        } finally {
+            registrationLock.unlock();
+        }
+    }
+
+    /**
+     * Resolves and caches whether an event built for a declared type could reach a handler.
+     * The factory may build a subtype, so handlers registered for subtypes count too.
+     *
+     * @param eventType the declared event type
+     * @return true if a handler is registered for the type, one of its supertypes or one of its subtypes
+     */
+    private boolean resolveListened(Class<?> eventType) {
+        registrationLock.lock();
+        try {
+            return listenedTypes.computeIfAbsent(eventType, type -> {
+                if (mergeHandlers(type).length > 0) {
+                    return true;
+                }
+                for (Map.Entry<Class<? extends Event>, RegisteredListener[]> entry : eventTypeMap.entrySet()) {
+                    if (entry.getValue().length > 0 && type.isAssignableFrom(entry.getKey())) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        } finally {
+            registrationLock.unlock();
+        }
+    }
+
+    /**
+     * Merges the handlers registered for an event class, its superclasses and its interfaces.
+     *
+     * @param eventClass the concrete event class
+     * @return the merged handlers, sorted by priority then registration order
+     */
+    private RegisteredListener[] mergeHandlers(Class<?> eventClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        collectSupertypes(eventClass, types);
+
+        List<RegisteredListener[]> sources = new ArrayList<>();
+        int count = 0;
+        for (Class<?> type : types) {
+            RegisteredListener[] handlers = eventTypeMap.get(type);
+            if (handlers != null) {
+                sources.add(handlers);
+                count += handlers.length;
+            }
+        }
+
+        if (sources.isEmpty()) {
+            return NO_HANDLERS;
+        }
+        if (sources.size() == 1) {
+            // Only the exact type (or a single supertype) is listened to: share its array
+            return sources.get(0);
+        }
+
+        RegisteredListener[] merged = new RegisteredListener[count];
+        int index = 0;
+        for (RegisteredListener[] handlers : sources) {
+            System.arraycopy(handlers, 0, merged, index, handlers.length);
+            index += handlers.length;
+        }
+        Arrays.sort(merged, Comparator.comparing(RegisteredListener::getPriority)
+                .thenComparingLong(RegisteredListener::getSequence));
+        return merged;
+    }
+
+    /**
+     * Collects a class, its superclasses and all the interfaces they implement.
+     *
+     * @param type  the class to start from
+     * @param types the set receiving the types
+     */
+    private static void collectSupertypes(Class<?> type, Set<Class<?>> types) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (!types.add(current)) {
+                continue;
+            }
+            for (Class<?> implemented : current.getInterfaces()) {
+                collectSupertypes(implemented, types);
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of a handler array with a new handler inserted after every
+     * handler of the same or a lower priority, keeping registration order within
+     * a priority.
+     *
+     * @param handlers the current handlers, or null if there are none
+     * @param handler  the handler to insert
+     * @return the new handler array
+     */
+    private static RegisteredListener[] insertHandler(RegisteredListener[] handlers, RegisteredListener handler) {
+        if (handlers == null) {
+            return new RegisteredListener[]{handler};
+        }
+
+        int index = handlers.length;
+        while (index > 0 && handlers[index - 1].getPriority().compareTo(handler.getPriority()) > 0) {
+            index--;
+        }
+
+        RegisteredListener[] result = new RegisteredListener[handlers.length + 1];
+        System.arraycopy(handlers, 0, result, 0, index);
+        result[index] = handler;
+        System.arraycopy(handlers, index, result, index + 1, handlers.length - index);
+        return result;
+    }
+
+    /**
+     * Returns a copy of a handler array without a given handler.
+     *
+     * @param handlers the current handlers
+     * @param handler  the handler to remove
+     * @return the new handler array, or null if no handler is left (removing the map entry)
+     */
+    private static RegisteredListener[] removeHandler(RegisteredListener[] handlers, RegisteredListener handler) {
+        int index = -1;
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] == handler) {
+                index = i;
+                break;
             }
-            result.put(entry.getKey(), count);
+        }
+        if (index < 0) {
+            return handlers;
+        }
+        if (handlers.length == 1) {
+            return null;
         }
 
+        RegisteredListener[] result = new RegisteredListener[handlers.length - 1];
+        System.arraycopy(handlers, 0, result, 0, index);
+        System.arraycopy(handlers, index + 1, result, index, handlers.length - index - 1);
         return result;
     }
 
@@ -502,7 +1047,8 @@ public class SimpleEventManager implements EventManager {
      * Shuts down the event manager, canceling any pending async events.
      */
     public void shutdown() {
-        asyncExecutor.shutdownNow();
+        batchFlusher.shutdownNow();
+        asyncDispatcher.shutdown();
     }
 
     /**
@@ -511,44 +1057,54 @@ public class SimpleEventManager implements EventManager {
     private static class RegisteredListener {
         private final Object listener;
         private final Method method;
+        private final EventExecutor executor;
         private final Class<? extends Event> eventType;
         private final EventPriority priority;
         private final boolean ignoreCancelled;
-        private final Object plugin;
+        private final Plugin plugin;
+        private final long sequence;
+
+        // Profiling statistics
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder exceptions = new LongAdder();
 
         /**
          * Creates a new registered event listener.
          *
          * @param listener        the listener
          * @param method          the method
+         * @param executor        the generated invoker for the method
          * @param eventType       the event type
          * @param priority        the priority
          * @param ignoreCancelled whether to ignore cancelled events
          * @param plugin          the plugin that registered the listener
+         * @param sequence        the registration order of the handler
          */
-        public RegisteredListener(Object listener, Method method, Class<? extends Event> eventType,
-                                  EventPriority priority, boolean ignoreCancelled, Object plugin) {
+        public RegisteredListener(Object listener, Method method, EventExecutor executor,
+                                  Class<? extends Event> eventType, EventPriority priority,
+                                  boolean ignoreCancelled, Plugin plugin, long sequence) {
             this.listener = listener;
             this.method = method;
+            this.executor = executor;
             this.eventType = eventType;
             this.priority = priority;
             this.ignoreCancelled = ignoreCancelled;
             this.plugin = plugin;
-
-            // Make the method accessible for faster invocation
-            method.setAccessible(true);
+            this.sequence = sequence;
         }
 
         /**
          * Calls the event listener.
+         * The event must be an instance of the listener's event type, which
+         * handler resolution already guarantees.
          *
          * @param event the event
-         * @throws Exception if there's an error calling the listener
+         * @throws Throwable anything thrown by the handler method
          */
-        public void callEvent(Event event) throws Exception {
-            if (eventType.isAssignableFrom(event.getClass())) {
-                method.invoke(listener, event);
-            }
+        public void callEvent(Event event) throws Throwable {
+            executor.execute(listener, event);
         }
 
         /**
@@ -601,10 +1157,60 @@ public class SimpleEventManager implements EventManager {
          *
          * @return the plugin
          */
-        public Object getPlugin() {
+        public Plugin getPlugin() {
             return plugin;
         }
 
+        /**
+         * Records a profiled call of the handler.
+         *
+         * @param elapsedNanos the duration of the call
+         */
+        public void recordInvocation(long elapsedNanos) {
+            invocations.increment();
+            totalNanos.add(elapsedNanos);
+            long max = maxNanos.get();
+            while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        /**
+         * Records a call of the handler that threw.
+         */
+        public void recordException() {
+            exceptions.increment();
+        }
+
+        /**
+         * Gets a snapshot of the handler's profiling statistics.
+         *
+         * @return the statistics
+         */
+        public HandlerStats getStats() {
+            return new HandlerStats(plugin.getName(), listener.getClass().getName(), method.getName(), eventType,
+                    invocations.sum(), totalNanos.sum(), maxNanos.get(), exceptions.sum());
+        }
+
+        /**
+         * Clears the handler's profiling statistics.
+         */
+        public void resetStats() {
+            invocations.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            exceptions.reset();
+        }
+
+        /**
+         * Gets the registration order of the handler.
+         *
+         * @return the registration sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -180,35 +180,13 @@ public class SimpleLanguageManager implements LanguageManager {
         // 1. Essayer dans la locale spécifiée dans le dossier runtime
         translation = getTranslationFromRuntime(namespace, locale, actualKey);
         if (translation != null) {
-            // If we have an event manager, fire a string retrieval event
-            if (eventManager != null) {
-                StringRetrievalEvent event = new StringRetrievalEvent(
-                        namespace, locale, actualKey, null, translation);
-                eventManager.fireEvent(event);
-
-                // If the event overrode the value, use that instead
-                if (event.isOverridden()) {
-                    return event.getValue();
-                }
-            }
-            return translation;
+            return fireRetrievalEvent(namespace, locale, actualKey, translation);
         }
 
         // 2. Essayer dans la locale spécifiée dans les ressources par défaut
         translation = getTranslationFromResources(namespace, locale, actualKey);
         if (translation != null) {
-            // If we have an event manager, fire a string retrieval event
-            if (eventManager != null) {
-                StringRetrievalEvent event = new StringRetrievalEvent(
-                        namespace, locale, actualKey, null, translation);
-                eventManager.fireEvent(event);
-
-                // If the event overrode the value, use that instead
-                if (event.isOverridden()) {
-                    return event.getValue();
-                }
-            }
-            return translation;
+            return fireRetrievalEvent(namespace, locale, actualKey, translation);
         }
 
         // 3. Si la locale n'est pas l'anglais, essayer dans la locale anglaise du dossier runtime
@@ -216,35 +194,13 @@ public class SimpleLanguageManager implements LanguageManager {
             Locale englishLocale = Locale.forLanguageTag("en-US");
             translation = getTranslationFromRuntime(namespace, englishLocale, actualKey);
             if (translation != null) {
-                // If we have an event manager, fire a string retrieval event
-                if (eventManager != null) {
-                    StringRetrievalEvent event = new StringRetrievalEvent(
-                            namespace, englishLocale, actualKey, null, translation);
-                    eventManager.fireEvent(event);
-
-                    // If the event overrode the value, use that instead
-                    if (event.isOverridden()) {
-                        return event.getValue();
-                    }
-                }
-                return translation;
+                return fireRetrievalEvent(namespace, englishLocale, actualKey, translation);
             }
 
             // 4. Essayer dans la locale anglaise des ressources par défaut
             translation = getTranslationFromResources(namespace, englishLocale, actualKey);
             if (translation != null) {
-                // If we have an event manager, fire a string retrieval event
-                if (eventManager != null) {
-                    StringRetrievalEvent event = new StringRetrievalEvent(
-                            namespace, englishLocale, actualKey, null, translation);
-                    eventManager.fireEvent(event);
-
-                    // If the event overrode the value, use that instead
-                    if (event.isOverridden()) {
-                        return event.getValue();
-                    }
-                }
-                return translation;
+                return fireRetrievalEvent(namespace, englishLocale, actualKey, translation);
             }
         }
 
@@ -252,35 +208,13 @@ public class SimpleLanguageManager implements LanguageManager {
         if (!locale.equals(defaultLocale)) {
             translation = getTranslationFromRuntime(namespace, defaultLocale, actualKey);
             if (translation != null) {
-                // If we have an event manager, fire a string retrieval event
-                if (eventManager != null) {
-                    StringRetrievalEvent event = new StringRetrievalEvent(
-                            namespace, defaultLocale, actualKey, null, translation);
-                    eventManager.fireEvent(event);
-
-                    // If the event overrode the value, use that instead
-                    if (event.isOverridden()) {
-                        return event.getValue();
-                    }
-                }
-                return translation;
+                return fireRetrievalEvent(namespace, defaultLocale, actualKey, translation);
             }
 
             // 6. Essayer dans la locale par défaut des ressources
             translation = getTranslationFromResources(namespace, defaultLocale, actualKey);
             if (translation != null) {
-                // If we have an event manager, fire a string retrieval event
-                if (eventManager != null) {
-                    StringRetrievalEvent event = new StringRetrievalEvent(
-                            namespace, defaultLocale, actualKey, null, translation);
-                    eventManager.fireEvent(event);
-
-                    // If the event overrode the value, use that instead
-                    if (event.isOverridden()) {
-                        return event.getValue();
-                    }
-                }
-                return translation;
+                return fireRetrievalEvent(namespace, defaultLocale, actualKey, translation);
             }
         }
 
@@ -288,19 +222,29 @@ public class SimpleLanguageManager implements LanguageManager {
         logger.debug("Translation not found for key: {} in locale: {} (namespace: {})",
                 actualKey, locale.toLanguageTag(), namespace);
 
-        // If we have an event manager, fire a string retrieval event - maybe someone can provide the string
-        if (eventManager != null) {
-            StringRetrievalEvent event = new StringRetrievalEvent(
-                    namespace, locale, actualKey, null, key);
-            eventManager.fireEvent(event);
+        // Fire a string retrieval event - maybe someone can provide the string
+        return fireRetrievalEvent(namespace, locale, actualKey, key);
+    }
 
-            // If the event overrode the value, use that instead
-            if (event.isOverridden()) {
-                return event.getValue();
-            }
+    /**
+     * Émet un événement de récupération de chaîne, s'il est écouté.
+     *
+     * @param namespace le namespace
+     * @param locale    la locale de la traduction trouvée
+     * @param key       la clé
+     * @param value     la valeur trouvée
+     * @return la valeur remplacée par un listener, ou la valeur trouvée
+     */
+    private String fireRetrievalEvent(String namespace, Locale locale, String key, String value) {
+        if (eventManager == null) {
+            return value;
         }
 
-        return key;
+        StringRetrievalEvent event = eventManager.fireEvent(StringRetrievalEvent.class,
+                () -> new StringRetrievalEvent(namespace, locale, key, null, value));
+
+        // If the event overrode the value, use that instead
+        return event != null && event.isOverridden() ? event.getValue() : value;
     }
 
     /**
@@ -359,12 +303,14 @@ public class SimpleLanguageManager implements LanguageManager {
                 actualKey = parts[1];
             }
 
-            StringRetrievalEvent event = new StringRetrievalEvent(
-                    namespace, locale, actualKey, args, value);
-            eventManager.fireEvent(event);
+            String eventNamespace = namespace;
+            String eventKey = actualKey;
+            String retrieved = value;
+            StringRetrievalEvent event = eventManager.fireEvent(StringRetrievalEvent.class,
+                    () -> new StringRetrievalEvent(eventNamespace, locale, eventKey, args, retrieved));
 
             // If the event overrode the value, use that instead
-            if (event.isOverridden()) {
+            if (event != null && event.isOverridden()) {
                 value = event.getValue();
             }
         }
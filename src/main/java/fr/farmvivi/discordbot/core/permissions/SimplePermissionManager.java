@@ -84,10 +84,10 @@ public class SimplePermissionManager implements PermissionManager {
         }
 
         // Fire event to allow interception
-        PermissionCheckEvent event = new PermissionCheckEvent(userId, null, permission, false);
-        eventManager.fireEvent(event);
+        PermissionCheckEvent event = eventManager.fireEvent(PermissionCheckEvent.class,
+                () -> new PermissionCheckEvent(userId, null, permission, false));
 
-        if (event.isCancelled()) {
+        if (event != null && event.isCancelled()) {
             return event.getResult();
         }
 
@@ -129,10 +129,10 @@ public class SimplePermissionManager implements PermissionManager {
         }
 
         // Fire event to allow interception
-        PermissionCheckEvent event = new PermissionCheckEvent(userId, guildId, permission, false);
-        eventManager.fireEvent(event);
+        PermissionCheckEvent event = eventManager.fireEvent(PermissionCheckEvent.class,
+                () -> new PermissionCheckEvent(userId, guildId, permission, false));
 
-        if (event.isCancelled()) {
+        if (event != null && event.isCancelled()) {
             return event.getResult();
         }
 
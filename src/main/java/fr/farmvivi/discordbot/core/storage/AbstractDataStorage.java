@@ -39,10 +39,10 @@ public abstract class AbstractDataStorage implements DataStorage {
     public <T> Optional<T> get(StorageKey key, Class<T> type) {
         // Fire pre-get event
         if (eventManager != null) {
-            StorageGetEvent event = new StorageGetEvent(key, type, null);
-            eventManager.fireEvent(event);
+            StorageGetEvent event = eventManager.fireEvent(StorageGetEvent.class,
+                    () -> new StorageGetEvent(key, type, null));
 
-            if (event.isCancelled()) {
+            if (event != null && event.isCancelled()) {
                 return Optional.ofNullable(type.cast(event.getValue()));
             }
         }
@@ -57,10 +57,10 @@ public abstract class AbstractDataStorage implements DataStorage {
 
             // Fire post-get event
             if (eventManager != null) {
-                StorageGetEvent event = new StorageGetEvent(key, type, value);
-                eventManager.fireEvent(event);
+                StorageGetEvent event = eventManager.fireEvent(StorageGetEvent.class,
+                        () -> new StorageGetEvent(key, type, value));
 
-                if (event.getValue() != value) {
+                if (event != null && event.getValue() != value) {
                     return Optional.ofNullable(type.cast(event.getValue()));
                 }
             }
@@ -76,10 +76,10 @@ public abstract class AbstractDataStorage implements DataStorage {
 
         // Fire post-get event
         if (eventManager != null && result.isPresent()) {
-            StorageGetEvent event = new StorageGetEvent(key, type, result.get());
-            eventManager.fireEvent(event);
+            StorageGetEvent event = eventManager.fireEvent(StorageGetEvent.class,
+                    () -> new StorageGetEvent(key, type, result.get()));
 
-            if (event.getValue() != result.get()) {
+            if (event != null && event.getValue() != result.get()) {
                 T newValue = type.cast(event.getValue());
                 scopeCache.put(keyName, newValue);
                 return Optional.ofNullable(newValue);
@@ -93,15 +93,18 @@ public abstract class AbstractDataStorage implements DataStorage {
     public <T> boolean set(StorageKey key, T value) {
         // Fire pre-set event
         if (eventManager != null) {
-            StorageSetEvent event = new StorageSetEvent(key, value);
-            eventManager.fireEvent(event);
+            T original = value;
+            StorageSetEvent event = eventManager.fireEvent(StorageSetEvent.class,
+                    () -> new StorageSetEvent(key, original));
 
-            if (event.isCancelled()) {
-                return false;
-            }
+            if (event != null) {
+                if (event.isCancelled()) {
+                    return false;
+                }
 
-            // Use potentially modified value
-            value = (T) event.getValue();
+                // Use potentially modified value
+                value = (T) event.getValue();
+            }
         }
 
         // Update cache
@@ -133,10 +136,10 @@ public abstract class AbstractDataStorage implements DataStorage {
     public boolean remove(StorageKey key) {
         // Fire pre-remove event
         if (eventManager != null) {
-            StorageRemoveEvent event = new StorageRemoveEvent(key);
-            eventManager.fireEvent(event);
+            StorageRemoveEvent event = eventManager.fireEvent(StorageRemoveEvent.class,
+                    () -> new StorageRemoveEvent(key));
 
-            if (event.isCancelled()) {
+            if (event != null && event.isCancelled()) {
                 return false;
             }
         }
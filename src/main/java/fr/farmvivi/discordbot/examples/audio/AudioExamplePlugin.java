@@ -1,9 +1,12 @@
 package fr.farmvivi.discordbot.examples.audio;
 
+import fr.farmvivi.discordbot.core.api.audio.AudioClip;
 import fr.farmvivi.discordbot.core.api.audio.events.AudioFrameMixedEvent;
 import fr.farmvivi.discordbot.core.api.event.EventHandler;
 import fr.farmvivi.discordbot.core.api.event.EventPriority;
 import fr.farmvivi.discordbot.core.api.plugin.AbstractPlugin;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorage;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
 import net.dv8tion.jda.api.audio.AudioReceiveHandler;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 import net.dv8tion.jda.api.audio.CombinedAudio;
@@ -13,9 +16,6 @@ import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceUpdateEvent;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,7 +25,7 @@ import java.util.Map;
  * et enregistre l'audio reçu dans un fichier.
  */
 public class AudioExamplePlugin extends AbstractPlugin {
-    private final Map<String, MySendHandler> sendHandlers = new HashMap<>();
+    private final Map<String, AudioSendHandler> sendHandlers = new HashMap<>();
     private final Map<String, MyReceiveHandler> receiveHandlers = new HashMap<>();
 
     @Override
@@ -38,21 +38,65 @@ public class AudioExamplePlugin extends AbstractPlugin {
         return "1.0.0";
     }
 
+    // Emplacement du son de bienvenue dans le stockage binaire
+    private static final String WELCOME_PATH = "audioexample/welcome.wav";
+
+    // Son de bienvenue, décodé une seule fois et partagé par toutes les guildes
+    private AudioClip welcomeClip;
+
     @Override
     public void onEnable() {
+        BinaryStorageKey welcomeKey = BinaryStorageKey.global(WELCOME_PATH);
+        migrateWelcomeSound(welcomeKey);
+        welcomeClip = audioService.loadClip(welcomeKey).orElse(null);
+        if (welcomeClip == null) {
+            logger.warn("Son de bienvenue introuvable dans le stockage binaire ({}), aucun son ne sera joué", WELCOME_PATH);
+        }
         logger.info("Plugin exemple audio activé !");
     }
 
+    /**
+     * Copie le son de bienvenue de son ancien emplacement (le dossier de données
+     * du plugin) vers le stockage binaire, s'il n'y est pas encore.
+     *
+     * @param welcomeKey la clé du son de bienvenue dans le stockage binaire
+     */
+    private void migrateWelcomeSound(BinaryStorageKey welcomeKey) {
+        File legacyFile = new File(getContext().getDataFolder(), "welcome.wav");
+        if (!legacyFile.isFile()) {
+            return;
+        }
+
+        BinaryStorage storage = binaryStorageManager != null ? binaryStorageManager.getStorage() : null;
+        if (storage == null) {
+            logger.warn("Stockage binaire indisponible : déplacez {} vers {} dans le stockage binaire",
+                    legacyFile.getPath(), WELCOME_PATH);
+            return;
+        }
+        if (storage.fileExists(welcomeKey)) {
+            return;
+        }
+
+        if (storage.saveFile(welcomeKey, legacyFile, false)) {
+            logger.info("Son de bienvenue migré de {} vers {} dans le stockage binaire",
+                    legacyFile.getPath(), WELCOME_PATH);
+        } else {
+            logger.warn("Impossible de migrer le son de bienvenue : déplacez {} vers {} dans le stockage binaire",
+                    legacyFile.getPath(), WELCOME_PATH);
+        }
+    }
+
     @Override
     public void onDisable() {
         // Le service AudioService gère automatiquement le nettoyage des connexions audio
         // lorsqu'un plugin est désactivé, mais on peut aussi le faire manuellement ici
 
-        // Ferme manuellement les handlers d'envoi
-        for (MySendHandler handler : sendHandlers.values()) {
-            handler.cleanup();
-        }
+        // Oublie les lecteurs et libère le clip partagé
         sendHandlers.clear();
+        if (welcomeClip != null) {
+            welcomeClip.release();
+            welcomeClip = null;
+        }
 
         // Ferme manuellement les handlers de réception
         for (MyReceiveHandler handler : receiveHandlers.values()) {
@@ -75,10 +119,9 @@ public class AudioExamplePlugin extends AbstractPlugin {
         String guildId = guild.getId();
 
         // Si on n'a pas déjà un handler pour cette guilde, on en crée un
-        if (!sendHandlers.containsKey(guildId)) {
-            // Crée le handler d'envoi audio
-            File audioFile = new File(getContext().getDataFolder(), "welcome.wav");
-            MySendHandler sendHandler = new MySendHandler(audioFile);
+        if (welcomeClip != null && !sendHandlers.containsKey(guildId)) {
+            // Crée un lecteur du clip partagé (aucune copie du son par guilde)
+            AudioSendHandler sendHandler = welcomeClip.createPlayer();
 
             // Crée le handler de réception audio
             File outputDir = new File(getContext().getDataFolder(), "recordings");
@@ -120,8 +163,7 @@ public class AudioExamplePlugin extends AbstractPlugin {
             // Désenregistre les handlers
             if (sendHandlers.containsKey(guildId)) {
                 audioService.deregisterSendHandler(guild, this);
-                MySendHandler handler = sendHandlers.remove(guildId);
-                handler.cleanup();
+                sendHandlers.remove(guildId);
             }
 
             if (receiveHandlers.containsKey(guildId)) {
@@ -155,68 +197,6 @@ public class AudioExamplePlugin extends AbstractPlugin {
         }
     }
 
-    /**
-     * Exemple d'un handler d'envoi audio qui lit un fichier audio.
-     */
-    private static class MySendHandler implements AudioSendHandler {
-        private final File audioFile;
-        private FileInputStream stream;
-        private byte[] buffer;
-        private int bufferIndex = 0;
-        private boolean done = false;
-
-        public MySendHandler(File audioFile) {
-            this.audioFile = audioFile;
-
-            try {
-                this.stream = new FileInputStream(audioFile);
-                this.buffer = new byte[stream.available()];
-                stream.read(buffer);
-                stream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-                done = true;
-            }
-        }
-
-        @Override
-        public boolean canProvide() {
-            return !done && bufferIndex < buffer.length;
-        }
-
-        @Override
-        public ByteBuffer provide20MsAudio() {
-            // Copie 20ms d'audio (960 échantillons * 2 octets * 2 canaux = 3840 octets)
-            int bytesToRead = Math.min(3840, buffer.length - bufferIndex);
-            byte[] audio = new byte[bytesToRead];
-            System.arraycopy(buffer, bufferIndex, audio, 0, bytesToRead);
-            bufferIndex += bytesToRead;
-
-            // Si on a atteint la fin du fichier
-            if (bufferIndex >= buffer.length) {
-                done = true;
-            }
-
-            return ByteBuffer.wrap(audio);
-        }
-
-        @Override
-        public boolean isOpus() {
-            // Notre exemple utilise du PCM, pas de l'Opus
-            return false;
-        }
-
-        public void cleanup() {
-            try {
-                if (stream != null) {
-                    stream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-    }
-
     /**
      * Exemple d'un handler de réception audio qui enregistre l'audio dans un fichier.
      */
@@ -0,0 +1,216 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioClip;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorage;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import net.dv8tion.jda.api.audio.AudioNatives;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour la classe AudioClipBank.
+ */
+public class AudioClipBankTest {
+    // Un clip d'une seconde en PCM 48kHz 16-bit stéréo
+    private static final int CLIP_SIZE = 192000;
+
+    private static final BinaryStorageKey KEY_A = BinaryStorageKey.global("sons/a.wav");
+    private static final BinaryStorageKey KEY_B = BinaryStorageKey.global("sons/b.wav");
+
+    private BinaryStorage mockStorage;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        mockStorage = Mockito.mock(BinaryStorage.class);
+
+        // Chaque lecture renvoie un nouveau flux sur le même WAV
+        byte[] wav = createWav((short) 1000);
+        when(mockStorage.getInputStream(any())).thenAnswer(invocation -> Optional.of(new ByteArrayInputStream(wav)));
+    }
+
+    @Test
+    public void testClipIsLoadedOnce() {
+        AudioClipBank bank = new AudioClipBank(mockStorage, CLIP_SIZE);
+
+        AudioClip first = bank.acquire(KEY_A).orElseThrow();
+        AudioClip second = bank.acquire(KEY_A).orElseThrow();
+
+        // Les deux guildes partagent le même clip, lu une seule fois
+        assertSame(first, second);
+        verify(mockStorage, times(1)).getInputStream(KEY_A);
+        assertEquals(CLIP_SIZE, first.getSizeBytes());
+        assertEquals(50, first.getFrameCount());
+        assertEquals(1000, first.getDurationMs());
+    }
+
+    @Test
+    public void testPlayerProvidesReadOnlyFrames() {
+        AudioClipBank bank = new AudioClipBank(mockStorage, CLIP_SIZE);
+        AudioClip clip = bank.acquire(KEY_A).orElseThrow();
+
+        AudioSendHandler player = clip.createPlayer();
+        assertFalse(player.isOpus());
+
+        int frames = 0;
+        while (player.canProvide()) {
+            ByteBuffer frame = player.provide20MsAudio();
+            assertTrue(frame.isReadOnly(), "Le frame doit être une vue en lecture seule");
+            assertEquals(3840, frame.remaining());
+            assertEquals(1000, frame.getShort(frame.position()), "L'échantillon doit être décodé en big-endian");
+            frames++;
+        }
+        assertEquals(50, frames);
+        assertNull(player.provide20MsAudio());
+
+        // Un autre lecteur repart du début
+        assertTrue(clip.createPlayer().canProvide());
+    }
+
+    @Test
+    public void testLastFrameIsPadded() {
+        // Un frame complet suivi de 100 octets non nuls
+        byte[] pcm = new byte[3840 + 100];
+        Arrays.fill(pcm, (byte) 1);
+        ClipPlayer player = new ClipPlayer(ByteBuffer.wrap(pcm).asReadOnlyBuffer());
+
+        assertEquals(3840, player.provide20MsAudio().remaining());
+
+        // Le dernier frame est complété par du silence jusqu'à un frame complet
+        ByteBuffer last = player.provide20MsAudio();
+        assertEquals(3840, last.remaining());
+        assertEquals(1, last.get(99));
+        assertEquals(0, last.get(100));
+        assertEquals(0, last.get(3839));
+        assertFalse(player.canProvide());
+        assertNull(player.provide20MsAudio());
+    }
+
+    @Test
+    public void testOpusPlayerProvidesPackets() {
+        // Trois paquets de tailles différentes stockés bout à bout
+        ByteBuffer data = ByteBuffer.wrap(new byte[]{1, 2, 2, 3, 3, 3}).asReadOnlyBuffer();
+        OpusClipPlayer player = new OpusClipPlayer(new OpusPackets(data, new int[]{0, 1, 3, 6}));
+        assertTrue(player.isOpus());
+
+        for (int size = 1; size <= 3; size++) {
+            assertTrue(player.canProvide());
+            ByteBuffer packet = player.provide20MsAudio();
+            assertEquals(size, packet.remaining());
+            assertEquals(size, packet.get(packet.position()));
+        }
+        assertFalse(player.canProvide());
+        assertNull(player.provide20MsAudio());
+    }
+
+    @Test
+    public void testClipIsEncodedOnce() {
+        assumeTrue(AudioNatives.ensureOpus(), "Bibliothèques natives Opus indisponibles");
+        AudioClipBank bank = new AudioClipBank(mockStorage, CLIP_SIZE * 2);
+        AudioClip clip = bank.acquire(KEY_A).orElseThrow();
+
+        AudioSendHandler first = clip.createOpusPlayer();
+        long cachedBytes = bank.getCachedBytes();
+        AudioSendHandler second = clip.createOpusPlayer();
+
+        // Les paquets sont encodés une seule fois et comptés dans le budget
+        assertTrue(first.isOpus());
+        assertTrue(second.isOpus());
+        assertTrue(cachedBytes > CLIP_SIZE);
+        assertEquals(cachedBytes, bank.getCachedBytes());
+
+        int packets = 0;
+        while (first.canProvide()) {
+            assertTrue(first.provide20MsAudio().hasRemaining());
+            packets++;
+        }
+        assertEquals(clip.getFrameCount(), packets);
+    }
+
+    @Test
+    public void testUnreferencedClipIsEvicted() {
+        AudioClipBank bank = new AudioClipBank(mockStorage, CLIP_SIZE);
+
+        AudioClip clipA = bank.acquire(KEY_A).orElseThrow();
+        clipA.release();
+        AudioClip clipB = bank.acquire(KEY_B).orElseThrow();
+
+        // Le budget ne permet qu'un clip : A n'est plus référencé et est évincé
+        assertEquals(1, bank.getClipCount());
+        assertEquals(CLIP_SIZE, bank.getCachedBytes());
+
+        // A est relu depuis le stockage
+        assertNotSame(clipA, bank.acquire(KEY_A).orElseThrow());
+        verify(mockStorage, times(2)).getInputStream(KEY_A);
+        clipB.release();
+    }
+
+    @Test
+    public void testReferencedClipIsNotEvicted() {
+        AudioClipBank bank = new AudioClipBank(mockStorage, 0);
+
+        AudioClip clip = bank.acquire(KEY_A).orElseThrow();
+
+        // Le budget est dépassé mais le clip est encore utilisé
+        assertEquals(1, bank.getClipCount());
+
+        clip.release();
+        assertEquals(0, bank.getClipCount());
+        assertEquals(0, bank.getCachedBytes());
+
+        // Le lecteur reste utilisable après l'éviction
+        assertTrue(clip.createPlayer().canProvide());
+    }
+
+    @Test
+    public void testReleaseWithoutReferenceThrows() {
+        AudioClipBank bank = new AudioClipBank(mockStorage, CLIP_SIZE);
+        AudioClip clip = bank.acquire(KEY_A).orElseThrow();
+
+        clip.release();
+        assertThrows(IllegalStateException.class, clip::release);
+    }
+
+    @Test
+    public void testMissingClip() {
+        when(mockStorage.getInputStream(KEY_B)).thenReturn(Optional.empty());
+        AudioClipBank bank = new AudioClipBank(mockStorage, CLIP_SIZE);
+
+        assertTrue(bank.acquire(KEY_B).isEmpty());
+        assertTrue(new AudioClipBank(null, CLIP_SIZE).acquire(KEY_A).isEmpty());
+    }
+
+    /**
+     * Crée un WAV d'une seconde en 48kHz mono little-endian, pour vérifier la conversion.
+     */
+    private static byte[] createWav(short sample) throws IOException {
+        AudioFormat format = new AudioFormat(48000f, 16, 1, true, false);
+        byte[] pcm = new byte[48000 * 2];
+        for (int i = 0; i < pcm.length; i += 2) {
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(pcm), format, 48000);
+        AudioSystem.write(stream, AudioFileFormat.Type.WAVE, output);
+        return output.toByteArray();
+    }
+}
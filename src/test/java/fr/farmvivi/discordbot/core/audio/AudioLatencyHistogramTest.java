@@ -0,0 +1,77 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la classe AudioLatencyHistogram.
+ */
+public class AudioLatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        AudioLatencyHistogram histogram = new AudioLatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getMaxMicros());
+        assertEquals(0, histogram.getPercentileMicros(99));
+    }
+
+    @Test
+    public void testPercentilesUseBucketUpperBounds() {
+        AudioLatencyHistogram histogram = new AudioLatencyHistogram();
+
+        // 99 appels de 10 µs et un appel lent de 5 ms
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10_000);
+        }
+        histogram.record(5_000_000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5000, histogram.getMaxMicros());
+        assertEquals(59, histogram.getMeanMicros());
+
+        // 10 µs tombe dans le seau [8, 16[ µs
+        assertEquals(15, histogram.getPercentileMicros(50));
+        assertEquals(15, histogram.getPercentileMicros(99));
+
+        // Le dernier percentile est plafonné au maximum observé
+        assertEquals(5000, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    public void testVeryLongLatencyIsKept() {
+        AudioLatencyHistogram histogram = new AudioLatencyHistogram();
+
+        // Au-delà du dernier seau, la latence est comptée dans celui-ci
+        histogram.record(10_000_000_000L);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxMicros());
+        assertEquals(10_000_000, histogram.getPercentileMicros(50));
+    }
+
+    @Test
+    public void testMergeAddsMeasurements() {
+        AudioLatencyHistogram first = new AudioLatencyHistogram();
+        AudioLatencyHistogram second = new AudioLatencyHistogram();
+
+        // Un histogramme par thread d'envoi, regroupés en fin de mesure
+        for (int i = 0; i < 99; i++) {
+            first.record(10_000);
+        }
+        second.record(5_000_000);
+        first.merge(second);
+
+        assertEquals(100, first.getCount());
+        assertEquals(5000, first.getMaxMicros());
+        assertEquals(59, first.getMeanMicros());
+        assertEquals(15, first.getPercentileMicros(99));
+        assertEquals(5000, first.getPercentileMicros(100));
+
+        // L'histogramme ajouté n'est pas modifié
+        assertEquals(1, second.getCount());
+    }
+}
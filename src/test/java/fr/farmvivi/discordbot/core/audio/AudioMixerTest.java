@@ -122,6 +122,32 @@ public class AudioMixerTest {
         assertEquals(maxValue, result.getShort(), "La valeur devrait être limitée à Short.MAX_VALUE");
     }
     
+    @Test
+    public void testClippingIsReported() {
+        ByteBuffer loud = ByteBuffer.allocate(2).order(ByteOrder.BIG_ENDIAN);
+        loud.putShort((short) 20000);
+        loud.flip();
+        
+        // Une seule source : aucun écrêtage
+        mixer.reset();
+        mixer.addSource(loud, 1.0f);
+        mixer.mix();
+        assertFalse(mixer.isClipped(), "Un frame dans la plage 16-bit ne devrait pas être écrêté");
+        assertEquals(20000, mixer.getPeak());
+        
+        // Deux sources : la somme dépasse la plage et la crête est plafonnée
+        mixer.reset();
+        mixer.addSource(loud, 1.0f);
+        mixer.addSource(loud, 1.0f);
+        mixer.mix();
+        assertTrue(mixer.isClipped(), "Le frame devrait être signalé comme écrêté");
+        assertEquals(Short.MAX_VALUE, mixer.getPeak());
+        
+        // La réinitialisation efface l'indicateur
+        mixer.reset();
+        assertFalse(mixer.isClipped());
+    }
+    
     @Test
     public void testNegativeHardClipping() {
         // Crée deux buffers avec des échantillons négatifs qui dépasseront la limite lorsque mixés
@@ -147,4 +173,141 @@ public class AudioMixerTest {
         // Vérifie que la valeur est limitée à la valeur minimale (hard clipping)
         assertEquals(minValue, result.getShort(), "La valeur devrait être limitée à Short.MIN_VALUE");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testSourcePositionUnchanged() {
+        // Le mixeur ne doit pas consommer le buffer de la source
+        ByteBuffer source = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+        source.putShort((short) 1000);
+        source.putShort((short) 2000);
+        source.flip();
+        
+        mixer.reset();
+        mixer.addSource(source, 1.0f);
+        mixer.mix();
+        
+        assertEquals(0, source.position(), "La position de la source ne devrait pas changer");
+        assertEquals(4, source.remaining(), "La source devrait rester entièrement lisible");
+    }
+    
+    @Test
+    public void testDirectBufferSource() {
+        // Un buffer direct (sans tableau sous-jacent) doit être décodé de la même façon
+        ByteBuffer source = ByteBuffer.allocateDirect(4).order(ByteOrder.LITTLE_ENDIAN);
+        source.put((byte) 0x03).put((byte) 0xE8); // 1000 en big-endian
+        source.put((byte) 0xF8).put((byte) 0x30); // -2000 en big-endian
+        source.flip();
+        
+        mixer.reset();
+        mixer.addSource(source, 1.0f);
+        
+        ByteBuffer result = mixer.mix();
+        assertNotNull(result, "Le résultat ne devrait pas être null");
+        assertEquals(1000, result.getShort(), "Le premier échantillon devrait être 1000");
+        assertEquals(-2000, result.getShort(), "Le deuxième échantillon devrait être -2000");
+    }
+    
+    @Test
+    public void testReadOnlyDirectSliceSource() {
+        // Tranche directe en lecture seule, comme celles de la banque de clips et du streaming
+        ByteBuffer clip = ByteBuffer.allocateDirect(8);
+        clip.putShort((short) 111).putShort((short) 1000).putShort((short) -2000).putShort((short) 222);
+        ByteBuffer source = clip.position(2).limit(6).slice().asReadOnlyBuffer();
+        assertFalse(source.hasArray());
+        
+        mixer.reset();
+        mixer.addSource(source, 0.5f);
+        
+        ByteBuffer result = mixer.mix();
+        assertNotNull(result, "Le résultat ne devrait pas être null");
+        assertEquals(500, result.getShort(), "Le premier échantillon devrait être 500");
+        assertEquals(-1000, result.getShort(), "Le deuxième échantillon devrait être -1000");
+        assertEquals(2000, AudioMixer.peak(source), "La crête de la tranche devrait être 2000");
+        
+        // Vue en lecture seule d'un tableau, avec une position non nulle, comme pour la diffusion
+        ByteBuffer broadcast = ByteBuffer.wrap(new byte[]{0x7F, 0x7F, 0x03, (byte) 0xE8}).asReadOnlyBuffer();
+        broadcast.position(2);
+        mixer.reset();
+        mixer.addSource(broadcast, 1.0f);
+        assertEquals(1000, mixer.mix().getShort(), "L'échantillon devrait être lu depuis la position");
+        assertEquals(1000, AudioMixer.peak(broadcast), "La crête devrait ignorer les octets avant la position");
+        assertEquals(2, broadcast.position(), "La position ne devrait pas être modifiée");
+    }
+    
+    @Test
+    public void testMixerReuseAcrossFrames() {
+        ByteBuffer source = ByteBuffer.allocate(2).order(ByteOrder.BIG_ENDIAN);
+        source.putShort((short) 1000);
+        source.flip();
+        
+        // Premier frame
+        mixer.reset();
+        mixer.addSource(source, 1.0f);
+        ByteBuffer first = mixer.mix();
+        assertEquals(1000, first.getShort(), "Le premier frame devrait contenir 1000");
+        
+        // Second frame : le buffer de sortie est réutilisé et l'accumulateur remis à zéro
+        mixer.reset();
+        mixer.addSource(source, 0.5f);
+        ByteBuffer second = mixer.mix();
+        assertSame(first, second, "Le buffer de sortie devrait être réutilisé");
+        assertEquals(500, second.getShort(), "Le second frame ne devrait pas cumuler le premier");
+    }
+    
+    @Test
+    public void testMutedSourceProducesSilence() {
+        ByteBuffer source = ByteBuffer.allocate(2).order(ByteOrder.BIG_ENDIAN);
+        source.putShort((short) 1000);
+        source.flip();
+        
+        // Une source à volume nul compte comme active et produit un frame silencieux
+        mixer.reset();
+        mixer.addSource(source, 0.0f);
+        
+        ByteBuffer result = mixer.mix();
+        assertNotNull(result, "Une source muette devrait tout de même produire un frame");
+        assertEquals(0, result.getShort(), "L'échantillon devrait être silencieux");
+    }
+    
+    @Test
+    public void testPeakDetection() {
+        ByteBuffer source = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+        source.putShort((short) 1000);
+        source.putShort((short) -3000);
+        source.flip();
+        
+        // La crête est calculée pendant le mixage, après application du volume
+        mixer.reset();
+        mixer.addSource(source, 0.5f);
+        mixer.mix();
+        assertEquals(1500, mixer.getPeak(), "La crête devrait être 1500");
+        
+        // Calcul direct sur un frame (mode bypass)
+        assertEquals(3000, AudioMixer.peak(source), "La crête du frame source devrait être 3000");
+        assertEquals(0, source.position(), "Le calcul de crête ne devrait pas consommer la source");
+    }
+    
+    @Test
+    public void testGainRamp() {
+        // Frame complet à amplitude constante
+        ByteBuffer source = ByteBuffer.allocate(3840).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 1920; i++) {
+            source.putShort((short) 10000);
+        }
+        source.flip();
+        
+        // Fondu de 1.0 à 0.0 sur le frame
+        mixer.reset();
+        mixer.addSource(source, 1.0f, 0.0f);
+        ByteBuffer result = mixer.mix();
+        
+        // Le premier échantillon est au volume de départ, les deux canaux ont le même gain
+        assertEquals(10000, result.getShort(0), "Le premier échantillon devrait être au volume de départ");
+        assertEquals(10000, result.getShort(2), "Le canal droit devrait avoir le même gain");
+        
+        // Le gain décroît progressivement au lieu d'un palier
+        short middle = result.getShort(1920);
+        assertTrue(middle > 4000 && middle < 6000, "Le milieu du frame devrait être autour de 5000");
+        assertTrue(result.getShort(3838) < 100, "La fin du frame devrait être proche du silence");
+    }
+}
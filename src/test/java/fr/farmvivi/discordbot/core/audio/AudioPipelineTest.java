@@ -0,0 +1,295 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioService;
+import fr.farmvivi.discordbot.core.api.event.EventManager;
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.managers.AudioManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour la classe AudioPipeline.
+ */
+public class AudioPipelineTest {
+    private static final int FRAME_SIZE = 3840;
+
+    private AudioPipeline pipeline;
+    private Plugin pluginA;
+    private Plugin pluginB;
+
+    @BeforeEach
+    public void setUp() {
+        Guild mockGuild = mock(Guild.class);
+        AudioManager mockAudioManager = mock(AudioManager.class);
+        when(mockGuild.getId()).thenReturn("123456789");
+        when(mockGuild.getName()).thenReturn("Test Guild");
+        when(mockGuild.getAudioManager()).thenReturn(mockAudioManager);
+
+        pluginA = mock(Plugin.class);
+        pluginB = mock(Plugin.class);
+        when(pluginA.getName()).thenReturn("PluginA");
+        when(pluginB.getName()).thenReturn("PluginB");
+
+        pipeline = new AudioPipeline(mockGuild, mock(EventManager.class));
+    }
+
+    @Test
+    public void testRegistrationIsSeenFromNextFrame() {
+        ToneSource sourceA = new ToneSource((short) 1000);
+        ToneSource sourceB = new ToneSource((short) 500);
+        pipeline.registerSendHandler(pluginA, sourceA, 100, 0);
+        provideFrame();
+
+        // La source enregistrée entre deux frames est lue dès le frame suivant
+        pipeline.registerSendHandler(pluginB, sourceB, 100, 0);
+        provideFrame();
+        assertEquals(2, sourceA.getProvidedCount());
+        assertEquals(1, sourceB.getProvidedCount());
+
+        // Une source désenregistrée n'est plus lue
+        pipeline.deregisterSendHandler(pluginB);
+        provideFrame();
+        assertEquals(3, sourceA.getProvidedCount());
+        assertEquals(1, sourceB.getProvidedCount());
+    }
+
+    @Test
+    public void testFramesSeeConsistentSnapshotDuringRegistrations() throws InterruptedException {
+        ToneSource steady = new ToneSource((short) 1000);
+        pipeline.registerSendHandler(pluginA, steady, 100, 0);
+
+        // Un autre thread enregistre et désenregistre une source en boucle pendant l'envoi
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger registrations = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread registrar = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    pipeline.registerSendHandler(pluginB, new ToneSource((short) 500), 100, 0);
+                    pipeline.deregisterSendHandler(pluginB);
+                    registrations.incrementAndGet();
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        registrar.start();
+
+        int frames = 2000;
+        try {
+            for (int i = 0; i < frames; i++) {
+                provideFrame();
+            }
+        } finally {
+            running.set(false);
+            registrar.join();
+        }
+
+        // Chaque frame a vu la source permanente une seule fois, quel que soit l'instantané
+        assertNull(failure.get());
+        assertTrue(registrations.get() > 0);
+        assertEquals(frames, steady.getProvidedCount());
+    }
+
+    @Test
+    public void testSilenceHangover() {
+        // Seuil de 100 et maintien de 3 frames
+        pipeline.setSilenceDetection(100, 60);
+        pipeline.registerSendHandler(pluginA,
+                new SequenceSource((short) 1000, (short) 0, (short) 0, (short) 0, (short) 0, (short) 0,
+                        (short) 1000, (short) 0), 100, 0);
+
+        // Le silence est encore envoyé pendant le maintien, puis suspendu jusqu'au retour du signal
+        assertFramesSent(true, true, true, true, false, false, true, true);
+    }
+
+    @Test
+    public void testSilenceHangoverWhenMixing() {
+        pipeline.setSilenceDetection(100, 60);
+        pipeline.registerSendHandler(pluginA,
+                new SequenceSource((short) 1000, (short) 0, (short) 0, (short) 0, (short) 0, (short) 0,
+                        (short) 1000, (short) 0), 100, 0);
+        // Une seconde source toujours silencieuse force le mixage
+        pipeline.registerSendHandler(pluginB, new ToneSource((short) 0), 100, 0);
+
+        assertFramesSent(true, true, true, true, false, false, true, true);
+    }
+
+    @Test
+    public void testMutedSourceIsSuppressedImmediately() {
+        ToneSource source = new ToneSource((short) 1000);
+        pipeline.setSilenceDetection(100, 60);
+        pipeline.registerSendHandler(pluginA, source, 0, 0);
+
+        // Le bypass n'applique pas le volume : rien n'est envoyé, pas même pendant le maintien
+        assertFramesSent(false, false, false, false, false);
+        assertEquals(5, source.getProvidedCount(), "La source muette devrait continuer d'avancer");
+
+        // De même sans détection de silence
+        pipeline.setSilenceDetection(AudioService.SILENCE_DETECTION_DISABLED, 0);
+        assertFramesSent(false);
+    }
+
+    @Test
+    public void testUnitySourcePassesThroughUnchanged() {
+        ToneSource source = new ToneSource((short) 1234);
+        pipeline.registerSendHandler(pluginA, source, 100, 0);
+        // La seconde source ne fournit rien : le pipeline est en mode mixage avec une seule source audible
+        pipeline.registerSendHandler(pluginB, new SequenceSource(), 100, 0);
+
+        ByteBuffer audio = pipeline.provide20MsAudio();
+        assertNotNull(audio);
+        assertEquals(ByteBuffer.wrap(source.frame), audio);
+        assertEquals(1, pipeline.getTelemetry().getBypassFrames());
+        assertEquals(0, pipeline.getTelemetry().getMixedFrames());
+    }
+
+    @Test
+    public void testTransitionFromOpusKeepsPcm() {
+        // Premier frame : le paquet de la seule source Opus est transmis tel quel
+        pipeline.registerSendHandler(pluginA, new OpusSource(1), 100, 0);
+        assertNotNull(pipeline.provide20MsAudio());
+        assertTrue(pipeline.isOpus());
+
+        // Frame suivant : le PCM d'une source atténuée est mixé dès le frame de transition
+        pipeline.registerSendHandler(pluginB, new ToneSource((short) 1000), 50, 0);
+        ByteBuffer audio = pipeline.provide20MsAudio();
+        assertNotNull(audio);
+        assertFalse(pipeline.isOpus());
+        assertEquals(FRAME_SIZE, audio.remaining());
+        assertEquals(500, audio.getShort(audio.position()));
+    }
+
+    @Test
+    public void testOpusSourceIsExcludedAtNonUnityGain() {
+        pipeline.registerSendHandler(pluginA, new OpusSource(1), 50, 0);
+        pipeline.registerSendHandler(pluginB, new ToneSource((short) 1000), 100, 0);
+
+        ByteBuffer audio = pipeline.provide20MsAudio();
+
+        // Seule la source PCM est mixée, le frame Opus est compté comme écarté
+        assertNotNull(audio);
+        assertFalse(pipeline.isOpus());
+        assertEquals(1000, audio.getShort(audio.position()));
+        assertEquals(1, pipeline.getTelemetry().getSkippedOpusFrames());
+        assertEquals(1, pipeline.getTelemetry().getMixedFrames());
+    }
+
+    /**
+     * Demande des frames au pipeline et vérifie lesquels sont envoyés.
+     *
+     * @param expected pour chaque frame, true s'il doit contenir de l'audio
+     */
+    private void assertFramesSent(boolean... expected) {
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(pipeline.canProvide());
+            ByteBuffer audio = pipeline.provide20MsAudio();
+            assertEquals(expected[i], audio != null, "Frame " + i);
+        }
+    }
+
+    /**
+     * Demande un frame complet au pipeline, comme le thread d'envoi de JDA.
+     */
+    private void provideFrame() {
+        assertTrue(pipeline.canProvide());
+        ByteBuffer audio = pipeline.provide20MsAudio();
+        assertNotNull(audio);
+        assertEquals(FRAME_SIZE, audio.remaining());
+    }
+
+    /**
+     * Source PCM fournissant un signal constant, qui compte les frames lus.
+     */
+    private static class ToneSource implements AudioSendHandler {
+        private final byte[] frame = new byte[FRAME_SIZE];
+        private final AtomicInteger providedCount = new AtomicInteger();
+
+        ToneSource(short sample) {
+            for (int i = 0; i < FRAME_SIZE; i += 2) {
+                frame[i] = (byte) (sample >> 8);
+                frame[i + 1] = (byte) sample;
+            }
+        }
+
+        @Override
+        public boolean canProvide() {
+            return true;
+        }
+
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            providedCount.incrementAndGet();
+            return ByteBuffer.wrap(frame);
+        }
+
+        int getProvidedCount() {
+            return providedCount.get();
+        }
+    }
+
+    /**
+     * Source PCM fournissant un frame constant par échantillon donné, puis plus rien.
+     */
+    private static class SequenceSource implements AudioSendHandler {
+        private final short[] samples;
+        private int index = 0;
+
+        SequenceSource(short... samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        public boolean canProvide() {
+            return index < samples.length;
+        }
+
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+            short sample = samples[index++];
+            while (frame.hasRemaining()) {
+                frame.putShort(sample);
+            }
+            return frame.flip();
+        }
+    }
+
+    /**
+     * Source Opus fournissant un nombre donné de paquets.
+     */
+    private static class OpusSource implements AudioSendHandler {
+        private final int packets;
+        private int provided = 0;
+
+        OpusSource(int packets) {
+            this.packets = packets;
+        }
+
+        @Override
+        public boolean canProvide() {
+            return provided < packets;
+        }
+
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            provided++;
+            return ByteBuffer.wrap(new byte[]{1, 2, 3});
+        }
+
+        @Override
+        public boolean isOpus() {
+            return true;
+        }
+    }
+}
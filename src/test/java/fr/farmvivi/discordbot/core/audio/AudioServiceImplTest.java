@@ -1,16 +1,34 @@
 package fr.farmvivi.discordbot.core.audio;
 
+import fr.farmvivi.discordbot.core.api.audio.AudioSampleEncoding;
+import fr.farmvivi.discordbot.core.api.audio.AudioService;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceFormat;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceTelemetry;
+import fr.farmvivi.discordbot.core.api.audio.AudioTelemetry;
+import fr.farmvivi.discordbot.core.api.audio.events.AudioFrameMixedEvent;
 import fr.farmvivi.discordbot.core.api.audio.events.AudioSendHandlerRegisteredEvent;
+import fr.farmvivi.discordbot.core.api.audio.events.AudioTelemetryEvent;
+import fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStartedEvent;
+import fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStoppedEvent;
 import fr.farmvivi.discordbot.core.api.event.EventManager;
 import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import net.dv8tion.jda.api.audio.AudioReceiveHandler;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
+import net.dv8tion.jda.api.audio.UserAudio;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 import net.dv8tion.jda.api.managers.AudioManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -23,6 +41,7 @@ public class AudioServiceImplTest {
     private Guild mockGuild;
     private Plugin mockPlugin;
     private AudioManager mockAudioManager;
+    private AudioChannelUnion mockChannel;
     private AudioSendHandler mockSendHandler;
     
     @BeforeEach
@@ -32,12 +51,14 @@ public class AudioServiceImplTest {
         mockGuild = Mockito.mock(Guild.class);
         mockPlugin = Mockito.mock(Plugin.class);
         mockAudioManager = Mockito.mock(AudioManager.class);
+        mockChannel = Mockito.mock(AudioChannelUnion.class);
         mockSendHandler = Mockito.mock(AudioSendHandler.class);
         
         // Configure les mocks
         when(mockGuild.getId()).thenReturn("123456789");
         when(mockGuild.getName()).thenReturn("Test Guild");
         when(mockGuild.getAudioManager()).thenReturn(mockAudioManager);
+        when(mockAudioManager.getConnectedChannel()).thenReturn(mockChannel);
         when(mockPlugin.getName()).thenReturn("TestPlugin");
         
         // Crée le service audio
@@ -145,4 +166,218 @@ public class AudioServiceImplTest {
         assertFalse(audioService.hasActiveSendHandler(mockGuild, mockPlugin));
         assertFalse(audioService.hasActiveSendHandler(mockGuild2, mockPlugin));
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testIdlePipelineIsDetachedAndResumedByPlugin() {
+        audioService.setGuildIdleTimeout(mockGuild, 60);
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 80, 50);
+        
+        // Avant le délai, le pipeline reste attaché
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.SECONDS.toNanos(30));
+        verify(mockAudioManager, never()).closeAudioConnection();
+        
+        // Après le délai, il se détache et quitte le salon vocal
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.SECONDS.toNanos(61));
+        verify(mockAudioManager).setSendingHandler(null);
+        verify(mockAudioManager).setReceivingHandler(null);
+        verify(mockAudioManager).closeAudioConnection();
+        assertTrue(audioService.hasActiveSendHandler(mockGuild, mockPlugin), "Le handler devrait rester enregistré");
+        
+        // Un appel du plugin le rattache au même salon
+        audioService.setVolume(mockGuild, mockPlugin, 60);
+        verify(mockAudioManager, times(2)).setSendingHandler(argThat(Objects::nonNull));
+        verify(mockAudioManager).openAudioConnection(mockChannel);
+    }
+    
+    @Test
+    public void testIdlePipelineWithoutChannelIsNotDetached() {
+        // JDA se reconnecte : aucun salon n'est connecté pour le moment
+        when(mockAudioManager.getConnectedChannel()).thenReturn(null);
+        
+        audioService.setGuildIdleTimeout(mockGuild, 60);
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 80, 50);
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.SECONDS.toNanos(61));
+        
+        // Le pipeline reste attaché : il ne saurait pas quel salon rejoindre au réveil
+        verify(mockAudioManager, never()).setSendingHandler(null);
+        verify(mockAudioManager, never()).closeAudioConnection();
+        
+        // Une fois le salon connecté, la mise en veille puis le réveil le rejoignent
+        when(mockAudioManager.getConnectedChannel()).thenReturn(mockChannel);
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.SECONDS.toNanos(61));
+        verify(mockAudioManager).closeAudioConnection();
+        audioService.setVolume(mockGuild, mockPlugin, 60);
+        verify(mockAudioManager).openAudioConnection(mockChannel);
+    }
+    
+    @Test
+    public void testDetachedPipelineResumesWhenSourceHasAudio() {
+        audioService.setGuildIdleTimeout(mockGuild, 60);
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 80, 50);
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.SECONDS.toNanos(61));
+        verify(mockAudioManager).setSendingHandler(null);
+        
+        // La source n'a toujours rien : le pipeline reste en veille
+        audioService.checkIdlePipelines(System.nanoTime());
+        verify(mockAudioManager, times(1)).setSendingHandler(argThat(Objects::nonNull));
+        
+        // La source a de nouveau de l'audio : le pipeline se rattache
+        when(mockSendHandler.canProvide()).thenReturn(true);
+        audioService.checkIdlePipelines(System.nanoTime());
+        verify(mockAudioManager, times(2)).setSendingHandler(argThat(Objects::nonNull));
+    }
+    
+    @Test
+    public void testIdleTimeoutIsDisabledByDefault() {
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 80, 50);
+        
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        
+        verify(mockAudioManager, never()).closeAudioConnection();
+    }
+    
+    @Test
+    public void testPluginIdleTimeout() {
+        audioService.setPluginIdleTimeout(mockPlugin, 10);
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 80, 50);
+        
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.SECONDS.toNanos(11));
+        verify(mockAudioManager).closeAudioConnection();
+        
+        // Un délai de guilde prend le pas sur celui du plugin
+        audioService.setVolume(mockGuild, mockPlugin, 60);
+        audioService.setGuildIdleTimeout(mockGuild, AudioService.IDLE_TIMEOUT_DISABLED);
+        audioService.checkIdlePipelines(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        verify(mockAudioManager, times(1)).closeAudioConnection();
+    }
+    
+    @Test
+    public void testTelemetryCountsFrames() {
+        when(mockSendHandler.canProvide()).thenReturn(true);
+        when(mockSendHandler.provide20MsAudio()).thenAnswer(invocation -> ByteBuffer.allocate(3840));
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 100, 50);
+        AudioSendHandler pipeline = capturePipeline();
+        
+        for (int i = 0; i < 3; i++) {
+            pipeline.canProvide();
+            pipeline.provide20MsAudio();
+        }
+        
+        // Une seule source transmise telle quelle ; les frames nuls sont silencieux
+        AudioTelemetry telemetry = audioService.getTelemetry(mockGuild).orElseThrow();
+        assertEquals("123456789", telemetry.getGuildId());
+        assertEquals(3, telemetry.getFramesProvided());
+        assertEquals(3, telemetry.getAudioFrames());
+        assertEquals(3, telemetry.getSilentFrames());
+        assertEquals(3, telemetry.getBypassFrames());
+        assertEquals(0.0, telemetry.getMixingRatio());
+        assertEquals(0, telemetry.getClippedFrames());
+        
+        assertEquals(1, telemetry.getSources().size());
+        AudioSourceTelemetry source = telemetry.getSources().get(0);
+        assertEquals("TestPlugin", source.getPluginName());
+        assertEquals(3, source.getProvidedFrames());
+        assertEquals(1, audioService.getAllTelemetry().size());
+    }
+    
+    @Test
+    public void testDeclaredFormatIsConverted() {
+        // Source mono 16 kHz : 320 échantillons par frame de 20 ms
+        when(mockSendHandler.canProvide()).thenReturn(true);
+        when(mockSendHandler.provide20MsAudio()).thenAnswer(invocation -> ByteBuffer.allocate(640));
+        AudioSourceFormat format = new AudioSourceFormat(16000, 1, AudioSampleEncoding.PCM_16_BIG_ENDIAN);
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 100, 50, format);
+        AudioSendHandler pipeline = capturePipeline();
+        
+        // Le pipeline transmet des frames au format de JDA
+        assertTrue(pipeline.canProvide());
+        ByteBuffer frame = pipeline.provide20MsAudio();
+        assertNotNull(frame);
+        assertEquals(3840, frame.remaining());
+        
+        assertThrows(IllegalArgumentException.class, () -> audioService.registerSendHandler(mockGuild, mockPlugin,
+                mockSendHandler, 100, 50, (AudioSourceFormat) null));
+    }
+    
+    @Test
+    public void testFrameMixedEventIsOptIn() {
+        when(mockSendHandler.canProvide()).thenReturn(true);
+        when(mockSendHandler.provide20MsAudio()).thenAnswer(invocation -> ByteBuffer.allocate(3840));
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 100, 50);
+        AudioSendHandler pipeline = capturePipeline();
+        
+        // Sans listener, l'événement par frame n'est pas émis
+        pipeline.provide20MsAudio();
+        verify(mockEventManager, never()).fireEvent(any(AudioFrameMixedEvent.class));
+        
+        // Avec un listener, il l'est à chaque frame
+        when(mockEventManager.hasListeners(AudioFrameMixedEvent.class)).thenReturn(true);
+        pipeline.provide20MsAudio();
+        verify(mockEventManager, times(1)).fireEvent(any(AudioFrameMixedEvent.class));
+    }
+    
+    @Test
+    public void testTelemetryExport() {
+        audioService.registerSendHandler(mockGuild, mockPlugin, mockSendHandler, 80, 50);
+        
+        // Sans listener, rien n'est émis
+        audioService.exportTelemetry();
+        verify(mockEventManager, never()).fireEventAsync(any(AudioTelemetryEvent.class));
+        
+        when(mockEventManager.hasListeners(AudioTelemetryEvent.class)).thenReturn(true);
+        audioService.exportTelemetry();
+        ArgumentCaptor<AudioTelemetryEvent> eventCaptor = ArgumentCaptor.forClass(AudioTelemetryEvent.class);
+        verify(mockEventManager).fireEventAsync(eventCaptor.capture());
+        assertEquals(mockGuild, eventCaptor.getValue().getGuild());
+        assertEquals("123456789", eventCaptor.getValue().getTelemetry().getGuildId());
+        
+        assertThrows(IllegalArgumentException.class, () -> audioService.setTelemetryExportInterval(-1));
+    }
+    
+    @Test
+    public void testVoiceActivityDetectionWithoutReceiveHandler() {
+        audioService.setVoiceActivityDetection(mockGuild, 1000, 100);
+        
+        // Le pipeline est créé et demande l'audio de chaque utilisateur à JDA
+        ArgumentCaptor<AudioReceiveHandler> handlerCaptor = ArgumentCaptor.forClass(AudioReceiveHandler.class);
+        verify(mockAudioManager).setReceivingHandler(handlerCaptor.capture());
+        AudioReceiveHandler pipeline = handlerCaptor.getValue();
+        assertTrue(pipeline.canReceiveUser());
+        
+        User user = Mockito.mock(User.class);
+        when(user.getIdLong()).thenReturn(42L);
+        short[] voice = new short[1920];
+        Arrays.fill(voice, (short) 2000);
+        pipeline.handleUserAudio(new UserAudio(user, voice));
+        pipeline.handleUserAudio(new UserAudio(user, voice));
+        verify(mockEventManager).fireEventAsync(any(UserSpeakingStartedEvent.class));
+        
+        // Sans paquet pendant le maintien, l'utilisateur cesse de parler
+        audioService.checkSpeakingUsers(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+        verify(mockEventManager).fireEventAsync(any(UserSpeakingStoppedEvent.class));
+        
+        // La désactivation libère le pipeline, qui n'a aucun handler
+        audioService.setVoiceActivityDetection(mockGuild, AudioService.VOICE_ACTIVITY_DISABLED, 0);
+        assertTrue(audioService.getTelemetry(mockGuild).isEmpty());
+        
+        assertThrows(IllegalArgumentException.class, () -> audioService.setVoiceActivityDetection(mockGuild, -2, 100));
+        assertThrows(IllegalArgumentException.class, () -> audioService.setVoiceActivityDetection(mockGuild, 1000, -1));
+    }
+    
+    @Test
+    public void testInvalidIdleTimeoutThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> audioService.setGuildIdleTimeout(mockGuild, -2));
+        assertThrows(IllegalArgumentException.class, () -> audioService.setPluginIdleTimeout(mockPlugin, -1));
+    }
+    
+    /**
+     * Obtient le pipeline transmis à JDA comme handler d'envoi.
+     *
+     * @return le pipeline de la guilde
+     */
+    private AudioSendHandler capturePipeline() {
+        ArgumentCaptor<AudioSendHandler> handlerCaptor = ArgumentCaptor.forClass(AudioSendHandler.class);
+        verify(mockAudioManager).setSendingHandler(handlerCaptor.capture());
+        return handlerCaptor.getValue();
+    }
+}
@@ -0,0 +1,116 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la classe BroadcastSource.
+ */
+public class BroadcastSourceTest {
+    
+    @Test
+    public void testFramesAreProducedOnceForAllSubscribers() {
+        CountingSendHandler source = new CountingSendHandler(100);
+        BroadcastSource broadcast = new BroadcastSource(source);
+        
+        // Produit les frames 0 à 2 sans thread de travail
+        for (int i = 0; i < 3; i++) {
+            broadcast.produce();
+        }
+        assertEquals(2, broadcast.getFrameClock());
+        
+        AudioSendHandler first = broadcast.subscribe();
+        AudioSendHandler second = broadcast.subscribe();
+        AudioSendHandler third = broadcast.subscribe();
+        
+        for (AudioSendHandler subscriber : new AudioSendHandler[]{first, second, third}) {
+            // Les abonnés démarrent un frame avant le frame courant
+            assertTrue(subscriber.canProvide(), "L'abonné devrait avoir de l'audio");
+            ByteBuffer frame = subscriber.provide20MsAudio();
+            assertTrue(frame.isReadOnly(), "Le frame diffusé ne devrait pas être modifiable");
+            assertEquals(3840, frame.remaining());
+            assertEquals(2, frame.getShort(frame.position()), "Tous les abonnés devraient lire le même frame");
+            assertFalse(subscriber.isOpus());
+        }
+        
+        assertEquals(3, source.provided, "Chaque frame ne devrait être demandé qu'une fois à la source");
+    }
+    
+    @Test
+    public void testSubscriberReadsFramesInOrder() {
+        CountingSendHandler source = new CountingSendHandler(100);
+        BroadcastSource broadcast = new BroadcastSource(source);
+        broadcast.produce();
+        AudioSendHandler subscriber = broadcast.subscribe();
+        
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, subscriber.provide20MsAudio().getShort(0), "Les frames devraient être lus dans l'ordre");
+            broadcast.produce();
+        }
+    }
+    
+    @Test
+    public void testLaggingSubscriberIsResynchronized() {
+        CountingSendHandler source = new CountingSendHandler(100);
+        BroadcastSource broadcast = new BroadcastSource(source);
+        broadcast.produce();
+        AudioSendHandler subscriber = broadcast.subscribe();
+        
+        // L'abonné ne lit rien pendant toute la durée de l'anneau
+        for (int i = 0; i < BroadcastSource.RING_SIZE; i++) {
+            broadcast.produce();
+        }
+        
+        // Il reprend un frame avant le frame courant
+        long latest = broadcast.getFrameClock();
+        assertEquals(latest, subscriber.provide20MsAudio().getShort(0));
+        assertEquals(latest + 1, subscriber.provide20MsAudio().getShort(0));
+        assertFalse(subscriber.canProvide());
+    }
+    
+    @Test
+    public void testSourceWithoutAudioAndClose() {
+        CountingSendHandler source = new CountingSendHandler(1);
+        BroadcastSource broadcast = new BroadcastSource(source);
+        AudioSendHandler subscriber = broadcast.subscribe();
+        
+        broadcast.produce();
+        broadcast.produce();
+        assertEquals(1, subscriber.provide20MsAudio().getShort(0));
+        
+        // La source n'a plus d'audio : le frame est vide
+        assertNull(subscriber.provide20MsAudio(), "Un frame sans audio ne devrait rien fournir");
+        
+        broadcast.close();
+        assertFalse(broadcast.isOpen());
+        assertFalse(subscriber.canProvide(), "Une diffusion fermée ne devrait plus fournir d'audio");
+    }
+    
+    /**
+     * Source de test qui fournit des frames numérotés.
+     */
+    private static class CountingSendHandler implements AudioSendHandler {
+        private final int frames;
+        private int provided = 0;
+        
+        CountingSendHandler(int frames) {
+            this.frames = frames;
+        }
+        
+        @Override
+        public boolean canProvide() {
+            return provided < frames;
+        }
+        
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            ByteBuffer frame = ByteBuffer.allocate(3840);
+            frame.putShort(0, (short) ++provided);
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioSampleEncoding;
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceFormat;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la classe FormatAdaptingSendHandler.
+ */
+public class FormatAdaptingSendHandlerTest {
+
+    @Test
+    public void testMonoLittleEndianIsUpmixed() {
+        AudioSourceFormat format = new AudioSourceFormat(48000, 1, AudioSampleEncoding.PCM_16_LITTLE_ENDIAN);
+        ByteBuffer input = ByteBuffer.allocate(1920).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 960; i++) {
+            input.putShort((short) (i * 10 - 4800));
+        }
+        input.flip();
+
+        FormatAdaptingSendHandler adapter = new FormatAdaptingSendHandler(new QueueSendHandler(input), format);
+        ByteBuffer output = adapter.provide20MsAudio();
+
+        assertNotNull(output);
+        assertEquals(3840, output.remaining());
+        for (int i = 0; i < 960; i++) {
+            short expected = (short) (i * 10 - 4800);
+            assertEquals(expected, output.getShort(i * 4), "Voie gauche incorrecte");
+            assertEquals(expected, output.getShort(i * 4 + 2), "Voie droite incorrecte");
+        }
+        assertFalse(adapter.canProvide());
+    }
+
+    @Test
+    public void testResamplingKeepsConstantSignal() {
+        // 24 kHz stéréo en flottants : 480 échantillons par frame de 20 ms
+        AudioSourceFormat format = new AudioSourceFormat(24000, 2, AudioSampleEncoding.PCM_FLOAT_LITTLE_ENDIAN);
+        QueueSendHandler source = new QueueSendHandler();
+        for (int frame = 0; frame < 3; frame++) {
+            ByteBuffer input = ByteBuffer.allocate(480 * 2 * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < 480; i++) {
+                input.putFloat(0.25f);
+                input.putFloat(-0.5f);
+            }
+            source.frames.add(input.flip());
+        }
+
+        FormatAdaptingSendHandler adapter = new FormatAdaptingSendHandler(source, format);
+        adapter.provide20MsAudio();
+        ByteBuffer output = adapter.provide20MsAudio();
+
+        // Une fois l'historique du filtre rempli, un signal continu traverse inchangé
+        assertEquals(3840, output.remaining());
+        for (int i = 0; i < 960; i++) {
+            assertEquals(8192, output.getShort(i * 4), 2, "Voie gauche incorrecte");
+            assertEquals(-16384, output.getShort(i * 4 + 2), 2, "Voie droite incorrecte");
+        }
+    }
+
+    @Test
+    public void testResamplingPreservesToneLevel() {
+        // Sinusoïde de 1 kHz à 8 kHz mono : 160 échantillons par frame
+        AudioSourceFormat format = new AudioSourceFormat(8000, 1, AudioSampleEncoding.PCM_16_BIG_ENDIAN);
+        QueueSendHandler source = new QueueSendHandler();
+        int sample = 0;
+        for (int frame = 0; frame < 10; frame++) {
+            ByteBuffer input = ByteBuffer.allocate(320);
+            for (int i = 0; i < 160; i++, sample++) {
+                input.putShort((short) Math.round(10000 * Math.sin(2 * Math.PI * 1000 * sample / 8000.0)));
+            }
+            source.frames.add(input.flip());
+        }
+
+        FormatAdaptingSendHandler adapter = new FormatAdaptingSendHandler(source, format);
+        int frames = 0;
+        double sumSquares = 0;
+        while (adapter.canProvide()) {
+            ByteBuffer output = adapter.provide20MsAudio();
+            assertEquals(3840, output.remaining());
+            if (++frames > 2 && frames < 10) {
+                for (int i = 0; i < 960; i++) {
+                    double value = output.getShort(i * 4);
+                    sumSquares += value * value;
+                }
+            }
+        }
+
+        // Autant de frames de 20 ms en sortie qu'en entrée
+        assertEquals(10, frames);
+        double rms = Math.sqrt(sumSquares / (7 * 960));
+        assertEquals(10000 / Math.sqrt(2), rms, 300, "Le niveau du signal devrait être conservé");
+    }
+
+    @Test
+    public void testOddSizedFramesAreRegrouped() {
+        // 44,1 kHz : 882 échantillons par frame de 20 ms, fournis par blocs de 441
+        AudioSourceFormat format = new AudioSourceFormat(44100, 2, AudioSampleEncoding.PCM_16_BIG_ENDIAN);
+        QueueSendHandler source = new QueueSendHandler();
+        for (int i = 0; i < 20; i++) {
+            source.frames.add(ByteBuffer.allocate(441 * 4));
+        }
+
+        FormatAdaptingSendHandler adapter = new FormatAdaptingSendHandler(source, format);
+        int frames = 0;
+        for (int calls = 0; calls < 50 && adapter.canProvide(); calls++) {
+            ByteBuffer output = adapter.provide20MsAudio();
+            if (output != null) {
+                assertEquals(3840, output.remaining());
+                frames++;
+            }
+        }
+
+        // 200 ms de source, le dernier frame étant complété par du silence une fois la source tarie
+        assertEquals(10, frames);
+        assertFalse(adapter.canProvide());
+    }
+
+    @Test
+    public void testRealTimeSourceIsNotPaddedMidStream() {
+        // Source à 44,1 kHz cadencée en temps réel, par blocs de 1024 échantillons (23,2 ms) :
+        // un bloc devient disponible dès que le temps écoulé le couvre
+        AudioSourceFormat format = new AudioSourceFormat(44100, 2, AudioSampleEncoding.PCM_16_BIG_ENDIAN);
+        PacedSendHandler source = new PacedSendHandler(1024, (short) 10000);
+        FormatAdaptingSendHandler adapter = new FormatAdaptingSendHandler(source, format);
+
+        int frames = 0;
+        int ticks = 500;
+        for (int tick = 0; tick < ticks; tick++) {
+            source.available = (tick + 1) * 882 / 1024 - source.provided;
+            ByteBuffer output = adapter.provide20MsAudio();
+            if (output == null) {
+                continue;
+            }
+            assertEquals(3840, output.remaining());
+            // Après le remplissage du filtre, aucun silence n'est inséré au milieu du flux
+            if (++frames > 2) {
+                for (int i = 0; i < 960; i++) {
+                    assertEquals(10000, output.getShort(i * 4), 2, "Silence inséré au frame " + frames);
+                }
+            }
+        }
+
+        // Autant de temps en sortie qu'en entrée, au bloc en attente près
+        assertTrue(frames >= ticks - 2, "Frames émis : " + frames);
+    }
+
+    @Test
+    public void testOpusPacketsArePassedThrough() {
+        ByteBuffer packet = ByteBuffer.wrap(new byte[]{(byte) 0xF8, (byte) 0xFF, (byte) 0xFE});
+        QueueSendHandler source = new QueueSendHandler(packet);
+        source.opus = true;
+
+        FormatAdaptingSendHandler adapter = new FormatAdaptingSendHandler(source,
+                new AudioSourceFormat(16000, 1, AudioSampleEncoding.PCM_16_BIG_ENDIAN));
+
+        assertSame(packet, adapter.provide20MsAudio());
+        assertTrue(adapter.isOpus());
+    }
+
+    @Test
+    public void testInvalidFormatThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AudioSourceFormat(44000, 2, AudioSampleEncoding.PCM_16_BIG_ENDIAN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AudioSourceFormat(48000, 3, AudioSampleEncoding.PCM_16_BIG_ENDIAN));
+        assertTrue(new AudioSourceFormat(48000, 2, AudioSampleEncoding.PCM_16_BIG_ENDIAN).isNative());
+    }
+
+    /**
+     * Source qui fournit un signal constant, par blocs, lorsque des blocs sont disponibles.
+     */
+    private static class PacedSendHandler implements AudioSendHandler {
+        private final ByteBuffer frame;
+        private int available = 0;
+        private int provided = 0;
+
+        PacedSendHandler(int samples, short value) {
+            frame = ByteBuffer.allocate(samples * 4);
+            while (frame.hasRemaining()) {
+                frame.putShort(value);
+            }
+            frame.flip();
+        }
+
+        @Override
+        public boolean canProvide() {
+            return available > 0;
+        }
+
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            available--;
+            provided++;
+            return frame.duplicate();
+        }
+    }
+
+    /**
+     * Source qui fournit une liste de frames prédéfinis.
+     */
+    private static class QueueSendHandler implements AudioSendHandler {
+        private final Queue<ByteBuffer> frames = new ArrayDeque<>();
+        private boolean opus = false;
+
+        QueueSendHandler(ByteBuffer... frames) {
+            for (ByteBuffer frame : frames) {
+                this.frames.add(frame);
+            }
+        }
+
+        @Override
+        public boolean canProvide() {
+            return !frames.isEmpty();
+        }
+
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            return frames.poll();
+        }
+
+        @Override
+        public boolean isOpus() {
+            return opus;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tomp2p.opuswrapper.Opus;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour la classe OpusClipEncoder.
+ */
+public class OpusClipEncoderTest {
+    // Code d'erreur OPUS_INTERNAL_ERROR
+    private static final int INTERNAL_ERROR = -3;
+
+    private Opus mockOpus;
+    private ByteBuffer pcm;
+
+    @BeforeEach
+    public void setUp() {
+        mockOpus = mock(Opus.class);
+        pcm = ByteBuffer.allocate(3840 * 2);
+    }
+
+    @Test
+    public void testNullEncoderIsRejected() {
+        // Pas de code d'erreur, mais aucun encodeur
+        when(mockOpus.opus_encoder_create(anyInt(), anyInt(), anyInt(), any())).thenReturn(null);
+
+        assertNull(OpusClipEncoder.encode(pcm, mockOpus));
+        verify(mockOpus, never()).opus_encode(any(), any(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    public void testEncoderErrorIsRejected() {
+        // Un encodeur est renvoyé malgré le code d'erreur : il doit être libéré
+        PointerByReference encoder = new PointerByReference();
+        when(mockOpus.opus_encoder_create(anyInt(), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            IntBuffer error = invocation.getArgument(3);
+            error.put(0, INTERNAL_ERROR);
+            return encoder;
+        });
+
+        assertNull(OpusClipEncoder.encode(pcm, mockOpus));
+        verify(mockOpus, never()).opus_encode(any(), any(), anyInt(), any(), anyInt());
+        verify(mockOpus).opus_encoder_destroy(encoder);
+    }
+
+    @Test
+    public void testClipIsEncodedFrameByFrame() {
+        PointerByReference encoder = new PointerByReference();
+        when(mockOpus.opus_encoder_create(anyInt(), anyInt(), anyInt(), any())).thenReturn(encoder);
+        when(mockOpus.opus_encode(any(), any(), anyInt(), any(), anyInt())).thenReturn(3);
+
+        OpusPackets packets = OpusClipEncoder.encode(pcm, mockOpus);
+
+        // Deux frames de 20 ms, un paquet de 3 octets chacun
+        assertNotNull(packets);
+        assertEquals(2, packets.getPacketCount());
+        verify(mockOpus, times(2)).opus_encode(any(), any(), anyInt(), any(), anyInt());
+        verify(mockOpus).opus_encoder_destroy(encoder);
+    }
+}
@@ -0,0 +1,149 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceOptions;
+import fr.farmvivi.discordbot.core.api.audio.UnderrunPolicy;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la classe PrefetchingSendHandler.
+ */
+public class PrefetchingSendHandlerTest {
+    private ScheduledExecutorService executor;
+    
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testFramesAreDeliveredInOrder() throws InterruptedException {
+        CountingSendHandler source = new CountingSendHandler(5);
+        PrefetchingSendHandler prefetcher = new PrefetchingSendHandler(source,
+                AudioSourceOptions.builder().prefetch(3).build());
+        prefetcher.start(executor);
+        
+        // Laisse le thread de travail remplir le tampon
+        waitForFrames(prefetcher, 3);
+        
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(prefetcher.canProvide(), "La source devrait avoir de l'audio");
+            ByteBuffer frame = prefetcher.provide20MsAudio();
+            assertNotNull(frame, "Le frame " + i + " ne devrait pas être null");
+            assertEquals(i, frame.getShort(), "Les frames devraient être délivrés dans l'ordre");
+            
+            // Laisse le temps au thread de travail de recharger
+            waitForFrames(prefetcher, Math.min(3, 5 - i));
+        }
+        
+        assertEquals(0, prefetcher.getUnderrunCount(), "Aucune sous-alimentation ne devrait être comptée");
+        prefetcher.stop();
+    }
+    
+    @Test
+    public void testUnderrunWithDropPolicy() {
+        CountingSendHandler source = new CountingSendHandler(1);
+        PrefetchingSendHandler prefetcher = new PrefetchingSendHandler(source,
+                AudioSourceOptions.builder().prefetch(2).underrunPolicy(UnderrunPolicy.DROP).build());
+        
+        // Sans thread de travail, le tampon reste vide
+        assertNull(prefetcher.provide20MsAudio(), "Une source en retard ne devrait rien fournir");
+        assertEquals(1, prefetcher.getUnderrunCount(), "La sous-alimentation devrait être comptée");
+        assertEquals(0, source.provided, "Le thread d'envoi ne devrait jamais appeler la source");
+    }
+    
+    @Test
+    public void testUnderrunWithSilencePolicy() {
+        CountingSendHandler source = new CountingSendHandler(1);
+        PrefetchingSendHandler prefetcher = new PrefetchingSendHandler(source,
+                AudioSourceOptions.builder().prefetch(2).underrunPolicy(UnderrunPolicy.SILENCE).build());
+        
+        ByteBuffer frame = prefetcher.provide20MsAudio();
+        assertNotNull(frame, "Une source en retard devrait fournir du silence");
+        assertEquals(3840, frame.remaining(), "Le silence devrait occuper un frame complet");
+        assertEquals(0, frame.getShort(), "Le frame devrait être silencieux");
+        assertEquals(1, prefetcher.getUnderrunCount(), "La sous-alimentation devrait être comptée");
+    }
+    
+    @Test
+    public void testSourcesShareFrameDeadline() {
+        AudioSourceOptions options = AudioSourceOptions.builder().prefetch(2).deadline(20).build();
+        PrefetchingSendHandler first = new PrefetchingSendHandler(new CountingSendHandler(1), options);
+        PrefetchingSendHandler second = new PrefetchingSendHandler(new CountingSendHandler(1), options);
+        
+        // Deux sources en retard lues pendant le même frame : seule la première attend
+        long frameStart = System.nanoTime();
+        assertNull(first.provide20MsAudio(frameStart), "Une source en retard ne devrait rien fournir");
+        assertNull(second.provide20MsAudio(frameStart), "Une source en retard ne devrait rien fournir");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - frameStart);
+        
+        assertTrue(elapsedMs >= 20, "La première source devrait attendre jusqu'à l'échéance");
+        assertTrue(elapsedMs < 35, "Les attentes ne devraient pas s'additionner (" + elapsedMs + " ms)");
+        assertEquals(1, first.getUnderrunCount(), "La sous-alimentation devrait être comptée");
+        assertEquals(1, second.getUnderrunCount(), "La sous-alimentation devrait être comptée");
+    }
+    
+    @Test
+    public void testElapsedDeadlineDoesNotWait() {
+        PrefetchingSendHandler prefetcher = new PrefetchingSendHandler(new CountingSendHandler(1),
+                AudioSourceOptions.builder().prefetch(2).deadline(20).build());
+        
+        // Le frame a commencé il y a plus longtemps que l'échéance
+        long start = System.nanoTime();
+        assertNull(prefetcher.provide20MsAudio(start - TimeUnit.MILLISECONDS.toNanos(20)));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertTrue(elapsedMs < 10, "Une échéance dépassée ne devrait pas faire attendre le thread d'envoi");
+        assertEquals(1, prefetcher.getUnderrunCount(), "La sous-alimentation devrait être comptée");
+    }
+    
+    @Test
+    public void testInvalidOptionsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> AudioSourceOptions.builder().prefetch(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> AudioSourceOptions.builder().deadline(100).build());
+    }
+    
+    private static void waitForFrames(PrefetchingSendHandler prefetcher, int frames) throws InterruptedException {
+        for (int i = 0; i < 200 && prefetcher.getBufferedFrames() < frames; i++) {
+            Thread.sleep(5);
+        }
+    }
+    
+    /**
+     * Source de test qui fournit des frames numérotés.
+     */
+    private static class CountingSendHandler implements AudioSendHandler {
+        private final int frames;
+        private volatile int provided = 0;
+        
+        CountingSendHandler(int frames) {
+            this.frames = frames;
+        }
+        
+        @Override
+        public boolean canProvide() {
+            return provided < frames;
+        }
+        
+        @Override
+        public ByteBuffer provide20MsAudio() {
+            ByteBuffer frame = ByteBuffer.allocate(3840);
+            frame.putShort(0, (short) ++provided);
+            return frame;
+        }
+    }
+}
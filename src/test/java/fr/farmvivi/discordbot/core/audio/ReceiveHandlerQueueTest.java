@@ -0,0 +1,185 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioReceiveOptions;
+import fr.farmvivi.discordbot.core.api.audio.ReceiveOverflowPolicy;
+import net.dv8tion.jda.api.audio.AudioReceiveHandler;
+import net.dv8tion.jda.api.audio.UserAudio;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la classe ReceiveHandlerQueue.
+ */
+public class ReceiveHandlerQueueTest {
+
+    @Test
+    public void testZeroCapacityDeliversOnCallerThread() {
+        RecordingReceiveHandler handler = new RecordingReceiveHandler();
+        List<Runnable> tasks = new ArrayList<>();
+        AudioReceiveOptions options = AudioReceiveOptions.builder().queueCapacity(0).build();
+        ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, options, tasks::add);
+
+        queue.submit(userAudio(1));
+
+        assertEquals(List.of(1), handler.received, "L'audio devrait être transmis directement");
+        assertTrue(tasks.isEmpty(), "Aucune tâche ne devrait être planifiée");
+    }
+
+    @Test
+    public void testDropNewestKeepsQueuedPackets() {
+        RecordingReceiveHandler handler = new RecordingReceiveHandler();
+        List<Runnable> tasks = new ArrayList<>();
+        AudioReceiveOptions options = AudioReceiveOptions.builder()
+                .queueCapacity(3)
+                .overflowPolicy(ReceiveOverflowPolicy.DROP_NEWEST)
+                .build();
+        ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, options, tasks::add);
+
+        // Le thread de travail ne tourne pas encore : la file se remplit
+        for (int i = 1; i <= 5; i++) {
+            queue.submit(userAudio(i));
+        }
+        assertTrue(handler.received.isEmpty(), "Le handler ne devrait pas être appelé par le thread de réception");
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(1, tasks.size(), "Une seule tâche de vidage devrait être planifiée");
+
+        tasks.get(0).run();
+        assertEquals(List.of(1, 2, 3), handler.received, "Les nouveaux paquets devraient être abandonnés");
+    }
+
+    @Test
+    public void testDropOldestKeepsLatestPackets() {
+        RecordingReceiveHandler handler = new RecordingReceiveHandler();
+        List<Runnable> tasks = new ArrayList<>();
+        AudioReceiveOptions options = AudioReceiveOptions.builder()
+                .queueCapacity(3)
+                .overflowPolicy(ReceiveOverflowPolicy.DROP_OLDEST)
+                .build();
+        ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, options, tasks::add);
+
+        for (int i = 1; i <= 5; i++) {
+            queue.submit(userAudio(i));
+        }
+        assertEquals(2, queue.getDroppedCount());
+
+        tasks.get(0).run();
+        assertEquals(List.of(3, 4, 5), handler.received, "Les paquets les plus anciens devraient être abandonnés");
+    }
+
+    @Test
+    public void testDrainYieldsWorkerThread() {
+        RecordingReceiveHandler handler = new RecordingReceiveHandler();
+        List<Runnable> tasks = new ArrayList<>();
+        ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, AudioReceiveOptions.DEFAULT, tasks::add);
+
+        for (int i = 1; i <= 60; i++) {
+            queue.submit(userAudio(i));
+        }
+
+        // Un tour de vidage rend le thread et replanifie la suite à la fin de la file de l'exécuteur
+        tasks.get(0).run();
+        assertEquals(50, handler.received.size(), "Un tour devrait traiter un nombre borné de paquets");
+        assertEquals(2, tasks.size(), "La suite du vidage devrait être replanifiée");
+
+        tasks.get(1).run();
+        assertEquals(60, handler.received.size());
+        int last = handler.received.get(59);
+        assertEquals(60, last, "L'ordre des paquets devrait être préservé");
+    }
+
+    @Test
+    public void testCapabilitiesAreReadAtRegistration() {
+        RecordingReceiveHandler handler = new RecordingReceiveHandler();
+        ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, AudioReceiveOptions.DEFAULT, null);
+
+        // Une modification ultérieure n'est pas prise en compte
+        handler.user = false;
+
+        assertTrue(queue.canReceiveUser());
+        assertFalse(queue.canReceiveCombined());
+        assertFalse(queue.canReceiveEncoded());
+        assertSame(handler, queue.getHandler());
+    }
+
+    @Test
+    public void testSlowHandlerDoesNotBlockReceiveThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        RecordingReceiveHandler handler = new RecordingReceiveHandler() {
+            @Override
+            public void handleUserAudio(UserAudio userAudio) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.handleUserAudio(userAudio);
+                done.countDown();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, AudioReceiveOptions.DEFAULT, executor);
+
+            // Le handler est bloqué, mais le dépôt des paquets rend la main immédiatement
+            for (int i = 1; i <= 10; i++) {
+                queue.submit(userAudio(i));
+            }
+
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS), "Tous les paquets devraient être traités");
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), handler.received, "L'ordre des paquets devrait être préservé");
+            assertEquals(0, queue.getDroppedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClosedQueueIgnoresAudio() {
+        RecordingReceiveHandler handler = new RecordingReceiveHandler();
+        List<Runnable> tasks = new ArrayList<>();
+        ReceiveHandlerQueue queue = new ReceiveHandlerQueue(handler, AudioReceiveOptions.DEFAULT, tasks::add);
+
+        queue.submit(userAudio(1));
+        queue.close();
+        queue.submit(userAudio(2));
+        tasks.forEach(Runnable::run);
+
+        assertTrue(handler.received.isEmpty(), "Aucun paquet ne devrait être transmis après la fermeture");
+    }
+
+    /**
+     * Crée un paquet d'audio utilisateur identifié par son premier échantillon.
+     */
+    private static UserAudio userAudio(int id) {
+        return new UserAudio(null, new short[]{(short) id});
+    }
+
+    /**
+     * Handler de test qui enregistre l'identifiant des paquets reçus.
+     */
+    private static class RecordingReceiveHandler implements AudioReceiveHandler {
+        final List<Integer> received = new ArrayList<>();
+        boolean user = true;
+
+        @Override
+        public boolean canReceiveUser() {
+            return user;
+        }
+
+        @Override
+        public void handleUserAudio(UserAudio userAudio) {
+            byte[] data = userAudio.getAudioData(1.0);
+            received.add((data[0] << 8) | (data[1] & 0xFF));
+        }
+    }
+}
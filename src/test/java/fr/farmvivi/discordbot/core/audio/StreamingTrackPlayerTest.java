@@ -0,0 +1,293 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorage;
+import fr.farmvivi.discordbot.core.api.storage.binary.BinaryStorageKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour la classe StreamingTrackPlayer.
+ */
+public class StreamingTrackPlayerTest {
+    private static final BinaryStorageKey KEY_A = BinaryStorageKey.global("musique/a.wav");
+    private static final BinaryStorageKey KEY_B = BinaryStorageKey.global("musique/b.wav");
+    private static final BinaryStorageKey KEY_MISSING = BinaryStorageKey.global("musique/absente.wav");
+
+    private BinaryStorage mockStorage;
+    private ExecutorService ioExecutor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        mockStorage = Mockito.mock(BinaryStorage.class);
+        ioExecutor = Executors.newCachedThreadPool();
+
+        // Chaque lecture renvoie un nouveau flux sur le WAV de la piste (une seconde)
+        byte[] wavA = createWav((short) 1000);
+        byte[] wavB = createWav((short) 2000);
+        when(mockStorage.getInputStream(KEY_A)).thenAnswer(invocation -> Optional.of(new ByteArrayInputStream(wavA)));
+        when(mockStorage.getInputStream(KEY_B)).thenAnswer(invocation -> Optional.of(new ByteArrayInputStream(wavB)));
+        when(mockStorage.getInputStream(KEY_MISSING)).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ioExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testTracksArePlayedInOrder() throws InterruptedException {
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 200);
+        assertFalse(player.canProvide());
+
+        player.queue(KEY_A);
+        player.queue(KEY_MISSING);
+        player.queue(KEY_B);
+
+        List<Short> samples = playAll(player);
+
+        // La piste absente est ignorée, les deux autres sont jouées entièrement
+        assertEquals(100, samples.size());
+        assertTrue(samples.subList(0, 50).stream().allMatch(sample -> sample == 1000));
+        assertTrue(samples.subList(50, 100).stream().allMatch(sample -> sample == 2000));
+        assertEquals(Optional.empty(), player.getCurrentTrack());
+        assertEquals(0, player.getQueueSize());
+        player.close();
+    }
+
+    @Test
+    public void testFramesAreReadOnlyAndBigEndian() throws InterruptedException {
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 200);
+        player.queue(KEY_A);
+        waitForFrames(player, 1);
+
+        assertTrue(player.canProvide());
+        assertFalse(player.isOpus());
+        ByteBuffer frame = player.provide20MsAudio();
+        assertTrue(frame.isReadOnly(), "Le frame doit être une vue en lecture seule");
+        assertTrue(frame.isDirect(), "L'anneau doit être hors tas");
+        assertEquals(3840, frame.remaining());
+        assertEquals(1000, frame.getShort(frame.position()), "L'échantillon doit être décodé en big-endian");
+        assertEquals(Optional.of(KEY_A), player.getCurrentTrack());
+        player.close();
+    }
+
+    @Test
+    public void testReadAheadIsBounded() throws InterruptedException {
+        // 100 ms d'avance : 5 frames décodés, pas plus
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 100);
+        player.queue(KEY_A);
+        waitForFrames(player, 5);
+        Thread.sleep(50);
+
+        assertEquals(5, player.getBufferedFrames());
+        verify(mockStorage, times(1)).getInputStream(KEY_A);
+        player.close();
+    }
+
+    @Test
+    public void testFullRingReleasesIoThread() throws InterruptedException {
+        // Un seul thread d'entrées/sorties pour deux lecteurs
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            StreamingTrackPlayer first = new StreamingTrackPlayer(mockStorage, singleThread, 200);
+            StreamingTrackPlayer second = new StreamingTrackPlayer(mockStorage, singleThread, 200);
+            first.queue(KEY_A);
+            second.queue(KEY_B);
+
+            // L'anneau plein du premier lecteur ne retient pas le thread : le second se remplit aussi
+            waitForFrames(first, 10);
+            waitForFrames(second, 10);
+            assertEquals(10, first.getBufferedFrames());
+            assertEquals(10, second.getBufferedFrames());
+
+            // Au-dessus de la moitié de l'anneau, le décodage reste suspendu
+            for (int i = 0; i < 4; i++) {
+                first.provide20MsAudio();
+            }
+            Thread.sleep(50);
+            assertEquals(6, first.getBufferedFrames());
+
+            // À la moitié, le thread d'envoi relance le décodage
+            first.provide20MsAudio();
+            waitForFrames(first, 10);
+            assertEquals(10, first.getBufferedFrames());
+            assertEquals(45, playAll(first).size());
+            assertEquals(50, playAll(second).size());
+            first.close();
+            second.close();
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSeekForwardAndBackward() throws InterruptedException {
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 200);
+        player.queue(KEY_A);
+        waitForFrames(player, 1);
+
+        // Vers l'avant : l'audio est sauté dans le flux ouvert
+        player.seek(500);
+        assertEquals(500, player.getPositionMs());
+        nextFrame(player);
+        assertEquals(500, player.getPositionMs());
+
+        // Vers l'arrière : la piste est rouverte
+        player.seek(200);
+        nextFrame(player);
+        assertEquals(200, player.getPositionMs());
+        verify(mockStorage, times(2)).getInputStream(KEY_A);
+
+        // Le reste de la piste est joué depuis la nouvelle position
+        assertEquals(39, playAll(player).size());
+        player.close();
+    }
+
+    @Test
+    public void testSkipAndStop() throws InterruptedException {
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 200);
+        player.queue(KEY_A);
+        player.queue(KEY_B);
+        waitForFrames(player, 1);
+        nextFrame(player);
+        assertEquals(Optional.of(KEY_A), player.getCurrentTrack());
+
+        // La piste suivante est jouée depuis le début
+        player.skip();
+        ByteBuffer frame = nextFrame(player);
+        assertEquals(2000, frame.getShort(frame.position()));
+        assertEquals(Optional.of(KEY_B), player.getCurrentTrack());
+        assertEquals(0, player.getPositionMs());
+
+        player.stop();
+        assertTrue(playAll(player).isEmpty(), "Plus aucun frame ne doit être joué après l'arrêt");
+        assertFalse(player.canProvide());
+        player.close();
+    }
+
+    @Test
+    public void testCommandsWhileNextTrackIsBuffered() throws InterruptedException {
+        // 1,5 s d'avance : la piste A est entièrement décodée et la piste B entamée
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 1500);
+        player.queue(KEY_A);
+        player.queue(KEY_B);
+        waitForFrames(player, 75);
+        nextFrame(player);
+        assertEquals(Optional.of(KEY_A), player.getCurrentTrack());
+
+        // Le déplacement s'applique à la piste jouée, pas à celle en cours de décodage
+        player.seek(900);
+        ByteBuffer frame = nextFrame(player);
+        assertEquals(1000, frame.getShort(frame.position()));
+        assertEquals(900, player.getPositionMs());
+
+        // La piste B est rejouée depuis le début après la fin de la piste A
+        List<Short> samples = playAll(player);
+        assertEquals(54, samples.size());
+        assertTrue(samples.subList(4, 54).stream().allMatch(sample -> sample == 2000));
+        player.close();
+    }
+
+    @Test
+    public void testPauseAndClose() throws InterruptedException {
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 200);
+        player.queue(KEY_A);
+        waitForFrames(player, 1);
+
+        player.pause();
+        assertTrue(player.isPaused());
+        assertFalse(player.canProvide(), "Un lecteur en pause ne fournit pas d'audio");
+
+        player.resume();
+        assertTrue(player.canProvide());
+
+        player.close();
+        assertFalse(player.isOpen());
+        assertFalse(player.canProvide());
+        assertThrows(IllegalStateException.class, () -> player.queue(KEY_B));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        StreamingTrackPlayer player = new StreamingTrackPlayer(mockStorage, ioExecutor, 200);
+        assertThrows(IllegalArgumentException.class, () -> player.queue(null));
+        assertThrows(IllegalArgumentException.class, () -> player.seek(-1));
+        player.close();
+    }
+
+    /**
+     * Joue le lecteur jusqu'à la fin, sans attendre l'horloge de 20 ms.
+     *
+     * @return le premier échantillon de chaque frame joué (hors silences de sous-alimentation)
+     */
+    private static List<Short> playAll(StreamingTrackPlayer player) throws InterruptedException {
+        List<Short> samples = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (player.canProvide()) {
+            assertTrue(System.currentTimeMillis() < deadline, "La lecture ne se termine pas");
+            if (player.getBufferedFrames() == 0) {
+                Thread.sleep(1);
+                continue;
+            }
+            ByteBuffer frame = player.provide20MsAudio();
+            if (frame.isDirect()) {
+                samples.add(frame.getShort(frame.position()));
+            }
+        }
+        return samples;
+    }
+
+    private static ByteBuffer nextFrame(StreamingTrackPlayer player) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (System.currentTimeMillis() < deadline) {
+            if (player.canProvide() && player.getBufferedFrames() > 0) {
+                ByteBuffer frame = player.provide20MsAudio();
+                if (frame.isDirect()) {
+                    return frame;
+                }
+            }
+            Thread.sleep(1);
+        }
+        return fail("Aucun frame décodé à temps");
+    }
+
+    private static void waitForFrames(StreamingTrackPlayer player, int frames) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (player.getBufferedFrames() < frames && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static byte[] createWav(short sample) throws IOException {
+        AudioFormat format = new AudioFormat(48000f, 16, 1, true, false);
+        byte[] pcm = new byte[48000 * 2];
+        for (int i = 0; i < pcm.length; i += 2) {
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(pcm), format, 48000);
+        AudioSystem.write(stream, AudioFileFormat.Type.WAVE, output);
+        return output.toByteArray();
+    }
+}
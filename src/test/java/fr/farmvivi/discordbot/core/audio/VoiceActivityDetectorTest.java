@@ -0,0 +1,167 @@
+package fr.farmvivi.discordbot.core.audio;
+
+import fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStartedEvent;
+import fr.farmvivi.discordbot.core.api.audio.events.UserSpeakingStoppedEvent;
+import fr.farmvivi.discordbot.core.api.event.Event;
+import fr.farmvivi.discordbot.core.api.event.EventManager;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour la classe VoiceActivityDetector.
+ */
+public class VoiceActivityDetectorTest {
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private EventManager eventManager;
+    private User user;
+    private VoiceActivityDetector detector;
+
+    @BeforeEach
+    public void setUp() {
+        eventManager = mock(EventManager.class);
+        user = mock(User.class);
+        when(user.getIdLong()).thenReturn(42L);
+
+        // Seuil de 1000, maintien de 100 ms (5 frames)
+        detector = new VoiceActivityDetector(mock(Guild.class), eventManager, 1000, 100);
+    }
+
+    @Test
+    public void testMeanAmplitude() {
+        // Échantillons 16-bit big-endian : 1000, -3000, 0, 2000
+        byte[] pcm = {0x03, (byte) 0xE8, (byte) 0xF4, 0x48, 0x00, 0x00, 0x07, (byte) 0xD0};
+
+        assertEquals(1500, VoiceActivityDetector.meanAmplitude(pcm));
+        assertEquals(0, VoiceActivityDetector.meanAmplitude(new byte[0]));
+    }
+
+    @Test
+    public void testSpeakingStartsAfterAttackFrames() {
+        detector.process(user, frame(2000), 0);
+        assertFalse(detector.isSpeaking(42L), "Un seul frame ne devrait pas suffire");
+
+        // Un frame isolé au-dessus du seuil est oublié
+        detector.process(user, frame(0), FRAME_NANOS);
+        detector.process(user, frame(2000), 2 * FRAME_NANOS);
+        assertFalse(detector.isSpeaking(42L));
+
+        detector.process(user, frame(2000), 3 * FRAME_NANOS);
+        assertTrue(detector.isSpeaking(42L));
+        verify(eventManager, times(1)).fireEventAsync(any(UserSpeakingStartedEvent.class));
+    }
+
+    @Test
+    public void testHysteresisKeepsSpeakingAboveReleaseThreshold() {
+        long now = startSpeaking();
+
+        // Sous le seuil mais au-dessus de la moitié : l'utilisateur parle toujours
+        for (int i = 0; i < 20; i++) {
+            now += FRAME_NANOS;
+            detector.process(user, frame(600), now);
+        }
+        assertTrue(detector.isSpeaking(42L));
+
+        // Sous la moitié du seuil plus longtemps que le maintien
+        for (int i = 0; i < 6; i++) {
+            now += FRAME_NANOS;
+            detector.process(user, frame(100), now);
+        }
+        assertFalse(detector.isSpeaking(42L));
+
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        verify(eventManager, times(2)).fireEventAsync(captor.capture());
+        List<Event> events = captor.getAllValues();
+        assertInstanceOf(UserSpeakingStartedEvent.class, events.get(0));
+        UserSpeakingStoppedEvent stopped = assertInstanceOf(UserSpeakingStoppedEvent.class, events.get(1));
+        assertSame(user, stopped.getUser());
+        // Du premier frame au dernier frame au-dessus du seuil de relâchement : 21 frames
+        assertEquals(420, stopped.getDurationMs());
+    }
+
+    @Test
+    public void testSpeakingExpiresWithoutPackets() {
+        long now = startSpeaking();
+
+        detector.expire(now + TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(detector.isSpeaking(42L), "Le maintien ne devrait pas être écoulé");
+
+        detector.expire(now + TimeUnit.MILLISECONDS.toNanos(150));
+        assertFalse(detector.isSpeaking(42L));
+        verify(eventManager, times(1)).fireEventAsync(any(UserSpeakingStoppedEvent.class));
+
+        // Un second passage n'émet rien
+        detector.expire(now + TimeUnit.MILLISECONDS.toNanos(300));
+        verify(eventManager, times(1)).fireEventAsync(any(UserSpeakingStoppedEvent.class));
+    }
+
+    @Test
+    public void testStopAllEndsSpeaking() {
+        startSpeaking();
+
+        detector.stopAll();
+
+        assertFalse(detector.isSpeaking(42L));
+        verify(eventManager, times(1)).fireEventAsync(any(UserSpeakingStoppedEvent.class));
+    }
+
+    @Test
+    public void testExpireRacingWithFramesKeepsEventsPaired() throws InterruptedException {
+        // Le thread de réception fait parler l'utilisateur pendant qu'un autre expire son état en boucle
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread expirer = new Thread(() -> {
+            while (running.get()) {
+                detector.expire(Long.MAX_VALUE);
+            }
+        });
+        expirer.start();
+
+        byte[] loud = frame(2000);
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                detector.process(user, loud, i * FRAME_NANOS);
+            }
+        } finally {
+            running.set(false);
+            expirer.join();
+        }
+        detector.stopAll();
+
+        // Chaque début de parole a sa fin : aucun état n'a été retiré sans émettre la sienne
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        verify(eventManager, atLeastOnce()).fireEventAsync(captor.capture());
+        long started = captor.getAllValues().stream().filter(UserSpeakingStartedEvent.class::isInstance).count();
+        long stopped = captor.getAllValues().stream().filter(UserSpeakingStoppedEvent.class::isInstance).count();
+        assertTrue(started > 0);
+        assertEquals(started, stopped);
+    }
+
+    // Fait parler l'utilisateur et renvoie l'instant du dernier frame
+    private long startSpeaking() {
+        detector.process(user, frame(2000), 0);
+        detector.process(user, frame(2000), FRAME_NANOS);
+        assertTrue(detector.isSpeaking(42L));
+        return FRAME_NANOS;
+    }
+
+    // Frame stéréo de 20 ms d'amplitude constante, signe alterné
+    private static byte[] frame(int amplitude) {
+        byte[] pcm = new byte[3840];
+        for (int i = 0; i < pcm.length / 2; i++) {
+            int sample = (i & 1) == 0 ? amplitude : -amplitude;
+            pcm[i * 2] = (byte) (sample >> 8);
+            pcm[i * 2 + 1] = (byte) sample;
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,490 @@
+package fr.farmvivi.discordbot.core.audio.simulation;
+
+import fr.farmvivi.discordbot.core.api.audio.AudioSourceOptions;
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import fr.farmvivi.discordbot.core.audio.AudioLatencyHistogram;
+import fr.farmvivi.discordbot.core.audio.AudioServiceImpl;
+import fr.farmvivi.discordbot.core.event.SimpleEventManager;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulateur de charge audio sans connexion Discord.
+ * <p>
+ * Crée N guildes factices portant chacune M sources synthétiques enregistrées
+ * auprès d'un vrai {@link AudioServiceImpl}, puis appelle le handler d'envoi de
+ * chaque guilde toutes les 20 ms comme la boucle d'envoi de JDA
+ * ({@code canProvide}, {@code provide20MsAudio}, {@code isOpus}), avec son
+ * rythme fixe recalé après 60 ms de retard. L'encodage Opus fait ensuite par
+ * JDA n'est pas simulé.
+ * <p>
+ * Mesures (après la période de chauffe) : délai entre l'échéance d'un frame et
+ * sa disponibilité, frames prêts après la fin de leur créneau, taux
+ * d'allocation et CPU des threads d'envoi, CPU du processus par guilde.
+ * <p>
+ * Lancement :
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=fr.farmvivi.discordbot.core.audio.simulation.AudioLoadSimulator \
+ *     -Dexec.args="--guilds=500 --sources=3 --duration=30000"
+ * </pre>
+ * Avec {@code --ramp=STEP}, le nombre de guildes augmente de STEP jusqu'à ce
+ * que la proportion d'échéances manquées dépasse {@code --max-miss} (0.1% par défaut).
+ */
+public final class AudioLoadSimulator {
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    // Retard au-delà duquel la boucle d'envoi de JDA abandonne son rythme
+    private static final long RESET_NANOS = TimeUnit.MILLISECONDS.toNanos(60);
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FIRST_GUILD_ID = 100_000_000_000_000_000L;
+
+    private final int guildCount;
+    private final int sourcesPerGuild;
+    private final int senderThreads;
+    private final long warmupMs;
+    private final long durationMs;
+    private final int prefetchFrames;
+    private final int talkFrames;
+    private final int pauseFrames;
+
+    private AudioLoadSimulator(Builder builder) {
+        this.guildCount = builder.guildCount;
+        this.sourcesPerGuild = builder.sourcesPerGuild;
+        this.senderThreads = builder.senderThreads;
+        this.warmupMs = builder.warmupMs;
+        this.durationMs = builder.durationMs;
+        this.prefetchFrames = builder.prefetchFrames;
+        this.talkFrames = builder.talkFrames;
+        this.pauseFrames = builder.pauseFrames;
+    }
+
+    /**
+     * Crée un nouveau builder de simulation.
+     *
+     * @return un nouveau builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Exécute la simulation.
+     *
+     * @return le rapport de la simulation
+     * @throws InterruptedException si le thread est interrompu pendant la simulation
+     */
+    public SimulationReport run() throws InterruptedException {
+        SimpleEventManager eventManager = new SimpleEventManager();
+        AudioServiceImpl audioService = new AudioServiceImpl(eventManager);
+
+        try {
+            List<SimulatedGuild> guilds = createGuilds(audioService);
+
+            // Une boucle par guilde comme le système d'envoi par défaut de JDA, sauf limite explicite
+            int threadCount = senderThreads > 0 ? Math.min(senderThreads, guildCount) : guildCount;
+            List<List<SimulatedGuild>> partitions = new ArrayList<>(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                partitions.add(new ArrayList<>());
+            }
+            for (int i = 0; i < guilds.size(); i++) {
+                partitions.get(i % threadCount).add(guilds.get(i));
+            }
+
+            long startNanos = System.nanoTime() + START_DELAY_NANOS;
+            long measureStartNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(warmupMs);
+            long endNanos = measureStartNanos + TimeUnit.MILLISECONDS.toNanos(durationMs);
+
+            SenderLoop[] loops = new SenderLoop[threadCount];
+            Thread[] threads = new Thread[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                loops[i] = new SenderLoop(partitions.get(i), startNanos, measureStartNanos, endNanos);
+                threads[i] = new Thread(loops[i], "Simulated-Sender-" + (i + 1));
+                threads[i].setDaemon(true);
+                threads[i].start();
+            }
+
+            parkUntil(measureStartNanos);
+            long processCpuStart = processCpuNanos();
+            parkUntil(endNanos);
+            long processCpuEnd = processCpuNanos();
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            AudioLatencyHistogram latencies = new AudioLatencyHistogram();
+            long audioFrames = 0;
+            long misses = 0;
+            long resets = 0;
+            long provideNanos = 0;
+            long cpuNanos = 0;
+            long allocatedBytes = 0;
+            for (SenderLoop loop : loops) {
+                latencies.merge(loop.latencies);
+                audioFrames += loop.audioFrames;
+                misses += loop.deadlineMisses;
+                resets += loop.scheduleResets;
+                provideNanos += loop.provideNanos;
+                cpuNanos += loop.cpuNanos;
+                allocatedBytes += loop.allocatedBytes;
+            }
+
+            return new SimulationReport(guildCount, sourcesPerGuild, threadCount, endNanos - measureStartNanos,
+                    latencies, audioFrames, misses, resets, provideNanos, cpuNanos, allocatedBytes,
+                    processCpuEnd - processCpuStart);
+        } finally {
+            audioService.shutdown();
+            eventManager.shutdown();
+        }
+    }
+
+    /**
+     * Crée les guildes et enregistre leurs sources synthétiques.
+     */
+    private List<SimulatedGuild> createGuilds(AudioServiceImpl audioService) {
+        Plugin[] plugins = new Plugin[sourcesPerGuild];
+        for (int s = 0; s < sourcesPerGuild; s++) {
+            plugins[s] = createPlugin("SimulatedPlugin-" + (s + 1));
+        }
+
+        AudioSourceOptions options = prefetchFrames > 0
+                ? AudioSourceOptions.builder().prefetch(prefetchFrames).build()
+                : AudioSourceOptions.DEFAULT;
+
+        List<SimulatedGuild> guilds = new ArrayList<>(guildCount);
+        for (int g = 0; g < guildCount; g++) {
+            SimulatedGuild guild = new SimulatedGuild(FIRST_GUILD_ID + g);
+            for (int s = 0; s < sourcesPerGuild; s++) {
+                AudioSendHandler source = new SyntheticSendHandler(talkFrames, pauseFrames, g * sourcesPerGuild + s);
+                audioService.registerSendHandler(guild.getGuild(), plugins[s], source, 100, 50, options);
+            }
+            guilds.add(guild);
+        }
+        return guilds;
+    }
+
+    /**
+     * Crée un plugin factice qui ne répond qu'à {@link Plugin#getName()}.
+     */
+    private static Plugin createPlugin(String name) {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static void parkUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    /**
+     * Boucle d'envoi simulée pour un groupe de guildes.
+     */
+    private static final class SenderLoop implements Runnable {
+        private final SimulatedGuild[] guilds;
+        private final long startNanos;
+        private final long measureStartNanos;
+        private final long endNanos;
+
+        private final AudioLatencyHistogram latencies = new AudioLatencyHistogram();
+        private long audioFrames;
+        private long deadlineMisses;
+        private long scheduleResets;
+        private long provideNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        // Empêche le JIT d'éliminer la lecture des frames
+        private long checksum;
+
+        SenderLoop(List<SimulatedGuild> guilds, long startNanos, long measureStartNanos, long endNanos) {
+            this.guilds = guilds.toArray(new SimulatedGuild[0]);
+            this.startNanos = startNanos;
+            this.measureStartNanos = measureStartNanos;
+            this.endNanos = endNanos;
+        }
+
+        @Override
+        public void run() {
+            java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+
+            boolean measuring = false;
+            long cpuStart = 0;
+            long allocatedStart = 0;
+            long scheduled = startNanos;
+
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= endNanos) {
+                    break;
+                }
+                if (!measuring && now >= measureStartNanos) {
+                    measuring = true;
+                    cpuStart = threads.getCurrentThreadCpuTime();
+                    allocatedStart = allocatedBytes(threads, threadId);
+                }
+                if (scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+                }
+
+                long deadline = scheduled + FRAME_NANOS;
+                for (SimulatedGuild guild : guilds) {
+                    long before = System.nanoTime();
+                    boolean audio = sendFrame(guild);
+                    long after = System.nanoTime();
+                    if (measuring) {
+                        latencies.record(after - scheduled);
+                        provideNanos += after - before;
+                        if (audio) {
+                            audioFrames++;
+                        }
+                        if (after > deadline) {
+                            deadlineMisses++;
+                        }
+                    }
+                }
+
+                // Comme JDA : rythme fixe, sauf après 60 ms de retard où il repart de maintenant
+                long finished = System.nanoTime();
+                if (finished < scheduled + RESET_NANOS) {
+                    scheduled += FRAME_NANOS;
+                } else {
+                    scheduled = finished;
+                    if (measuring) {
+                        scheduleResets++;
+                    }
+                }
+            }
+
+            if (measuring) {
+                cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+                allocatedBytes = allocatedBytes(threads, threadId) - allocatedStart;
+            }
+        }
+
+        /**
+         * Demande un frame au handler d'envoi de la guilde, comme le fournisseur de paquets de JDA.
+         *
+         * @return true si le frame contient de l'audio
+         */
+        private boolean sendFrame(SimulatedGuild guild) {
+            AudioSendHandler handler = guild.getSendingHandler();
+            if (handler == null || !handler.canProvide()) {
+                return false;
+            }
+            ByteBuffer audio = handler.provide20MsAudio();
+            if (audio == null || !audio.hasRemaining()) {
+                return false;
+            }
+            if (!handler.isOpus()) {
+                checksum += audio.get(audio.position());
+            }
+            return true;
+        }
+
+        private static long allocatedBytes(java.lang.management.ThreadMXBean threads, long threadId) {
+            if (threads instanceof com.sun.management.ThreadMXBean sunThreads
+                    && sunThreads.isThreadAllocatedMemorySupported()) {
+                return sunThreads.getThreadAllocatedBytes(threadId);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Point d'entrée en ligne de commande.
+     *
+     * @param args les options {@code --name=value}
+     * @throws InterruptedException si la simulation est interrompue
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Builder builder = builder();
+        int ramp = 0;
+        double maxMiss = 0.001;
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "guilds" -> builder.guilds(Integer.parseInt(value));
+                case "sources" -> builder.sourcesPerGuild(Integer.parseInt(value));
+                case "threads" -> builder.senderThreads(Integer.parseInt(value));
+                case "warmup" -> builder.warmupMs(Long.parseLong(value));
+                case "duration" -> builder.durationMs(Long.parseLong(value));
+                case "prefetch" -> builder.prefetch(Integer.parseInt(value));
+                case "talk" -> builder.speech(Integer.parseInt(value), builder.pauseFrames);
+                case "pause" -> builder.speech(builder.talkFrames, Integer.parseInt(value));
+                case "ramp" -> ramp = Integer.parseInt(value);
+                case "max-miss" -> maxMiss = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+
+        if (ramp <= 0) {
+            System.out.println(builder.build().run().format());
+            return;
+        }
+
+        // Augmente la charge jusqu'à ce que les frames commencent à glisser
+        int lastSustained = 0;
+        for (int guilds = builder.guildCount; ; guilds += ramp) {
+            SimulationReport report = builder.guilds(guilds).build().run();
+            System.out.println(report.format());
+            if (report.getDeadlineMissRatio() > maxMiss || report.getScheduleResets() > 0) {
+                break;
+            }
+            lastSustained = guilds;
+        }
+        System.out.println("Sustained guilds: " + lastSustained);
+    }
+
+    /**
+     * Builder pour le simulateur de charge.
+     */
+    public static final class Builder {
+        private int guildCount = 100;
+        private int sourcesPerGuild = 2;
+        private int senderThreads = 0;
+        private long warmupMs = 2000;
+        private long durationMs = 10000;
+        private int prefetchFrames = 0;
+        private int talkFrames = 1;
+        private int pauseFrames = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * Définit le nombre de guildes simulées.
+         *
+         * @param guildCount le nombre de guildes
+         * @return ce builder
+         */
+        public Builder guilds(int guildCount) {
+            this.guildCount = guildCount;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de sources par guilde (une par plugin simulé).
+         *
+         * @param sourcesPerGuild le nombre de sources
+         * @return ce builder
+         */
+        public Builder sourcesPerGuild(int sourcesPerGuild) {
+            this.sourcesPerGuild = sourcesPerGuild;
+            return this;
+        }
+
+        /**
+         * Définit le nombre de threads d'envoi.
+         *
+         * @param senderThreads le nombre de threads (0 = un par guilde, comme JDA par défaut)
+         * @return ce builder
+         */
+        public Builder senderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+            return this;
+        }
+
+        /**
+         * Définit la durée de chauffe, non mesurée.
+         *
+         * @param warmupMs la durée de chauffe en millisecondes
+         * @return ce builder
+         */
+        public Builder warmupMs(long warmupMs) {
+            this.warmupMs = warmupMs;
+            return this;
+        }
+
+        /**
+         * Définit la durée mesurée.
+         *
+         * @param durationMs la durée mesurée en millisecondes
+         * @return ce builder
+         */
+        public Builder durationMs(long durationMs) {
+            this.durationMs = durationMs;
+            return this;
+        }
+
+        /**
+         * Définit le préchargement des sources.
+         *
+         * @param prefetchFrames le nombre de frames préchargés (0 = aucun)
+         * @return ce builder
+         */
+        public Builder prefetch(int prefetchFrames) {
+            this.prefetchFrames = prefetchFrames;
+            return this;
+        }
+
+        /**
+         * Définit l'alternance parole/silence des sources.
+         *
+         * @param talkFrames  le nombre de frames de parole par cycle
+         * @param pauseFrames le nombre de frames de silence par cycle (0 = parole continue)
+         * @return ce builder
+         */
+        public Builder speech(int talkFrames, int pauseFrames) {
+            this.talkFrames = talkFrames;
+            this.pauseFrames = pauseFrames;
+            return this;
+        }
+
+        /**
+         * Construit le simulateur.
+         *
+         * @return le simulateur
+         * @throws IllegalArgumentException si les paramètres sont invalides
+         */
+        public AudioLoadSimulator build() {
+            if (guildCount <= 0 || sourcesPerGuild <= 0) {
+                throw new IllegalArgumentException("Guild and source counts must be positive");
+            }
+            if (senderThreads < 0 || warmupMs < 0 || durationMs <= 0) {
+                throw new IllegalArgumentException("Sender threads, warmup and duration must not be negative");
+            }
+            if (talkFrames <= 0 || pauseFrames < 0) {
+                throw new IllegalArgumentException("Talk frames must be positive and pause frames not negative");
+            }
+            return new AudioLoadSimulator(this);
+        }
+    }
+}
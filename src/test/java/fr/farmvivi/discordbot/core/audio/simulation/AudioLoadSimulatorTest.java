@@ -0,0 +1,47 @@
+package fr.farmvivi.discordbot.core.audio.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour le simulateur de charge audio.
+ * Les seuils de latence dépendent de la machine : seule la cohérence du rapport est vérifiée.
+ */
+public class AudioLoadSimulatorTest {
+
+    @Test
+    public void testSmallSimulationProducesReport() throws InterruptedException {
+        SimulationReport report = AudioLoadSimulator.builder()
+                .guilds(8)
+                .sourcesPerGuild(2)
+                .senderThreads(2)
+                .warmupMs(200)
+                .durationMs(1000)
+                .build()
+                .run();
+
+        // Environ 50 frames par seconde et par guilde
+        assertEquals(8, report.getGuildCount());
+        assertTrue(report.getFrameCount() >= 8 * 40, "Chaque guilde devrait recevoir des frames à 50 Hz");
+        assertEquals(report.getFrameCount(), report.getAudioFrameCount(), "Les sources parlent en continu");
+        assertTrue(report.getLatencyPercentileMicros(50) <= report.getLatencyPercentileMicros(99));
+        assertTrue(report.getLatencyPercentileMicros(99) <= report.getMaxLatencyMicros() + 100);
+        assertFalse(report.format().isEmpty());
+    }
+
+    @Test
+    public void testSilentPeriodsAreNotCountedAsAudio() throws InterruptedException {
+        SimulationReport report = AudioLoadSimulator.builder()
+                .guilds(2)
+                .sourcesPerGuild(1)
+                .warmupMs(100)
+                .durationMs(1000)
+                .speech(5, 20)
+                .build()
+                .run();
+
+        assertTrue(report.getAudioFrameCount() > 0, "Les sources devraient parler une partie du temps");
+        assertTrue(report.getAudioFrameCount() < report.getFrameCount(), "Les périodes de silence ne contiennent pas d'audio");
+    }
+}
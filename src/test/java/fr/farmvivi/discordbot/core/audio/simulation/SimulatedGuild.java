@@ -0,0 +1,114 @@
+package fr.farmvivi.discordbot.core.audio.simulation;
+
+import net.dv8tion.jda.api.audio.AudioReceiveHandler;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.managers.AudioManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Guilde factice pour la simulation de charge.
+ * <p>
+ * La guilde et son {@link AudioManager} ne répondent qu'aux méthodes utilisées
+ * par le service audio ; les handlers enregistrés sont conservés pour que la
+ * boucle d'envoi simulée les appelle comme le ferait JDA. Contrairement à un
+ * mock, aucun appel n'est enregistré : la mémoire reste stable sur une longue
+ * simulation. Réutilisée par les benchmarks JMH ({@code src/jmh/java}).
+ */
+public final class SimulatedGuild {
+    private final long id;
+    private final String name;
+    private final Guild guild;
+    private final AudioManager audioManager;
+
+    private volatile AudioSendHandler sendingHandler;
+    private volatile AudioReceiveHandler receivingHandler;
+
+    /**
+     * Crée une nouvelle guilde factice.
+     *
+     * @param id l'identifiant de la guilde
+     */
+    public SimulatedGuild(long id) {
+        this.id = id;
+        this.name = "Simulated Guild " + id;
+        this.guild = (Guild) Proxy.newProxyInstance(Guild.class.getClassLoader(),
+                new Class<?>[]{Guild.class}, (proxy, method, args) -> invokeGuild(proxy, method, args));
+        this.audioManager = (AudioManager) Proxy.newProxyInstance(AudioManager.class.getClassLoader(),
+                new Class<?>[]{AudioManager.class}, (proxy, method, args) -> invokeAudioManager(proxy, method, args));
+    }
+
+    /**
+     * Obtient la guilde JDA factice.
+     *
+     * @return la guilde
+     */
+    public Guild getGuild() {
+        return guild;
+    }
+
+    /**
+     * Obtient le handler d'envoi enregistré sur l'AudioManager de la guilde.
+     *
+     * @return le handler d'envoi, ou null
+     */
+    public AudioSendHandler getSendingHandler() {
+        return sendingHandler;
+    }
+
+    private Object invokeGuild(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getId":
+                return Long.toString(id);
+            case "getIdLong":
+                return id;
+            case "getName":
+                return name;
+            case "getAudioManager":
+                return audioManager;
+            default:
+                return invokeObject(proxy, method, args);
+        }
+    }
+
+    private Object invokeAudioManager(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "setSendingHandler":
+                sendingHandler = (AudioSendHandler) args[0];
+                return null;
+            case "getSendingHandler":
+                return sendingHandler;
+            case "setReceivingHandler":
+                receivingHandler = (AudioReceiveHandler) args[0];
+                return null;
+            case "getReceivingHandler":
+                return receivingHandler;
+            case "closeAudioConnection":
+            case "openAudioConnection":
+            case "getConnectedChannel":
+                return null;
+            case "isConnected":
+                return true;
+            case "getGuild":
+                return guild;
+            default:
+                return invokeObject(proxy, method, args);
+        }
+    }
+
+    private Object invokeObject(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return name;
+            default:
+                throw new UnsupportedOperationException("Not simulated: " + method.getDeclaringClass().getSimpleName()
+                        + "." + method.getName());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package fr.farmvivi.discordbot.core.audio.simulation;
+
+import fr.farmvivi.discordbot.core.audio.AudioLatencyHistogram;
+
+import java.util.Locale;
+
+/**
+ * Résultat d'une simulation de charge audio, mesuré après la période de chauffe.
+ */
+public final class SimulationReport {
+    private final int guildCount;
+    private final int sourcesPerGuild;
+    private final int senderThreads;
+    private final long measuredNanos;
+    private final AudioLatencyHistogram latencies;
+    private final long audioFrameCount;
+    private final long deadlineMisses;
+    private final long scheduleResets;
+    private final long provideNanos;
+    private final long senderCpuNanos;
+    private final long senderAllocatedBytes;
+    private final long processCpuNanos;
+
+    SimulationReport(int guildCount, int sourcesPerGuild, int senderThreads, long measuredNanos,
+                     AudioLatencyHistogram latencies, long audioFrameCount, long deadlineMisses, long scheduleResets,
+                     long provideNanos, long senderCpuNanos, long senderAllocatedBytes, long processCpuNanos) {
+        this.guildCount = guildCount;
+        this.sourcesPerGuild = sourcesPerGuild;
+        this.senderThreads = senderThreads;
+        this.measuredNanos = measuredNanos;
+        this.latencies = latencies;
+        this.audioFrameCount = audioFrameCount;
+        this.deadlineMisses = deadlineMisses;
+        this.scheduleResets = scheduleResets;
+        this.provideNanos = provideNanos;
+        this.senderCpuNanos = senderCpuNanos;
+        this.senderAllocatedBytes = senderAllocatedBytes;
+        this.processCpuNanos = processCpuNanos;
+    }
+
+    /**
+     * Obtient le nombre de guildes simulées.
+     *
+     * @return le nombre de guildes
+     */
+    public int getGuildCount() {
+        return guildCount;
+    }
+
+    /**
+     * Obtient le nombre de frames demandés aux pipelines.
+     *
+     * @return le nombre de frames
+     */
+    public long getFrameCount() {
+        return latencies.getCount();
+    }
+
+    /**
+     * Obtient le nombre de frames contenant de l'audio.
+     *
+     * @return le nombre de frames avec audio
+     */
+    public long getAudioFrameCount() {
+        return audioFrameCount;
+    }
+
+    /**
+     * Obtient un percentile du délai entre l'échéance d'un frame et sa disponibilité.
+     *
+     * @param percentile le percentile (0-100)
+     * @return le délai en microsecondes
+     */
+    public long getLatencyPercentileMicros(double percentile) {
+        return latencies.getPercentileMicros(percentile);
+    }
+
+    /**
+     * Obtient le délai maximum entre l'échéance d'un frame et sa disponibilité.
+     *
+     * @return le délai maximum en microsecondes
+     */
+    public long getMaxLatencyMicros() {
+        return latencies.getMaxMicros();
+    }
+
+    /**
+     * Obtient le nombre de frames prêts après la fin de leur créneau de 20 ms.
+     *
+     * @return le nombre d'échéances manquées
+     */
+    public long getDeadlineMisses() {
+        return deadlineMisses;
+    }
+
+    /**
+     * Obtient la proportion de frames prêts après la fin de leur créneau.
+     *
+     * @return la proportion d'échéances manquées (0-1)
+     */
+    public double getDeadlineMissRatio() {
+        long frames = getFrameCount();
+        return frames > 0 ? (double) deadlineMisses / frames : 0;
+    }
+
+    /**
+     * Obtient le nombre de fois où une boucle d'envoi, trop en retard, a abandonné son rythme.
+     *
+     * @return le nombre de recalages
+     */
+    public long getScheduleResets() {
+        return scheduleResets;
+    }
+
+    /**
+     * Obtient le taux d'allocation des threads d'envoi.
+     *
+     * @return les octets alloués par seconde
+     */
+    public double getAllocationRate() {
+        return senderAllocatedBytes / seconds();
+    }
+
+    /**
+     * Obtient la part d'un cœur consommée par guilde sur les threads d'envoi.
+     *
+     * @return le pourcentage d'un cœur par guilde
+     */
+    public double getSenderCpuPerGuild() {
+        return cpuPercentPerGuild(senderCpuNanos);
+    }
+
+    /**
+     * Obtient la part d'un cœur consommée par guilde pour tout le processus
+     * (threads d'envoi, threads de travail audio et ramasse-miettes).
+     *
+     * @return le pourcentage d'un cœur par guilde
+     */
+    public double getProcessCpuPerGuild() {
+        return cpuPercentPerGuild(processCpuNanos);
+    }
+
+    /**
+     * Formate le rapport pour la console.
+     *
+     * @return le rapport lisible
+     */
+    public String format() {
+        long frames = getFrameCount();
+        return String.format(Locale.ROOT,
+                "%d guilds x %d sources on %d sender threads, %.1f s measured%n"
+                        + "  frames:         %d (%d with audio)%n"
+                        + "  latency (us):   p50=%d p90=%d p99=%d p99.9=%d max=%d%n"
+                        + "  provide (us):   mean=%.1f%n"
+                        + "  deadline miss:  %d (%.3f%%), schedule resets: %d%n"
+                        + "  allocation:     %.1f KB/s on sender threads%n"
+                        + "  cpu per guild:  %.3f%% sender, %.3f%% process",
+                guildCount, sourcesPerGuild, senderThreads, seconds(),
+                frames, audioFrameCount,
+                getLatencyPercentileMicros(50), getLatencyPercentileMicros(90), getLatencyPercentileMicros(99),
+                getLatencyPercentileMicros(99.9), getMaxLatencyMicros(),
+                frames > 0 ? provideNanos / 1000.0 / frames : 0,
+                deadlineMisses, getDeadlineMissRatio() * 100, scheduleResets,
+                getAllocationRate() / 1024,
+                getSenderCpuPerGuild(), getProcessCpuPerGuild());
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    private double seconds() {
+        return measuredNanos / 1_000_000_000.0;
+    }
+
+    private double cpuPercentPerGuild(long cpuNanos) {
+        return guildCount > 0 ? cpuNanos * 100.0 / measuredNanos / guildCount : 0;
+    }
+}
@@ -0,0 +1,85 @@
+package fr.farmvivi.discordbot.core.audio.simulation;
+
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Source audio synthétique pour la simulation de charge.
+ * <p>
+ * Produit une tonalité PCM 48kHz 16-bit stéréo en copiant une fenêtre d'une
+ * table partagée dans un tampon réutilisé, à la manière d'un décodeur : le
+ * coût de la source reste faible et n'alloue pas. La source peut alterner
+ * des périodes de parole et de silence ({@link #canProvide()} à false).
+ */
+final class SyntheticSendHandler implements AudioSendHandler {
+    // 960 échantillons par canal = 20 ms à 48kHz
+    private static final int SAMPLES_PER_FRAME = 960;
+    private static final int FRAME_SIZE = SAMPLES_PER_FRAME * 4;
+
+    // Une seconde de tonalité à 440 Hz : un nombre entier de périodes, donc bouclable
+    private static final short[] TONE = new short[48000];
+
+    static {
+        for (int i = 0; i < TONE.length; i++) {
+            TONE[i] = (short) (Math.sin(2 * Math.PI * 440 * i / 48000.0) * 8000);
+        }
+    }
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(FRAME_SIZE);
+    private final int talkFrames;
+    private final int pauseFrames;
+
+    private int position;
+    private int cycleFrame;
+
+    /**
+     * Crée une nouvelle source synthétique.
+     *
+     * @param talkFrames  le nombre de frames de parole par cycle
+     * @param pauseFrames le nombre de frames de silence par cycle (0 = parle en continu)
+     * @param offset      le décalage de départ en frames, pour répartir les sources dans le cycle
+     */
+    SyntheticSendHandler(int talkFrames, int pauseFrames, int offset) {
+        this.talkFrames = talkFrames;
+        this.pauseFrames = pauseFrames;
+        int cycle = talkFrames + pauseFrames;
+        this.cycleFrame = cycle > 0 ? offset % cycle : 0;
+        this.position = (offset * SAMPLES_PER_FRAME) % TONE.length;
+    }
+
+    @Override
+    public boolean canProvide() {
+        if (pauseFrames == 0) {
+            return true;
+        }
+        boolean talking = cycleFrame < talkFrames;
+        if (!talking) {
+            // Une frame de silence s'écoule sans appel à provide20MsAudio
+            advanceCycle();
+        }
+        return talking;
+    }
+
+    @Override
+    public ByteBuffer provide20MsAudio() {
+        buffer.clear();
+        for (int i = 0; i < SAMPLES_PER_FRAME; i++) {
+            short sample = TONE[position];
+            buffer.putShort(sample);
+            buffer.putShort(sample);
+            if (++position == TONE.length) {
+                position = 0;
+            }
+        }
+        buffer.flip();
+        advanceCycle();
+        return buffer;
+    }
+
+    private void advanceCycle() {
+        if (++cycleFrame == talkFrames + pauseFrames) {
+            cycleFrame = 0;
+        }
+    }
+}
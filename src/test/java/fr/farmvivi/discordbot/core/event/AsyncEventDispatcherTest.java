@@ -0,0 +1,82 @@
+package fr.farmvivi.discordbot.core.event;
+
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour la classe AsyncEventDispatcher.
+ */
+public class AsyncEventDispatcherTest {
+    private final Set<Plugin> activePlugins = ConcurrentHashMap.newKeySet();
+    private AsyncEventDispatcher dispatcher;
+    private Plugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        plugin = Mockito.mock(Plugin.class);
+        when(plugin.getName()).thenReturn("TestPlugin");
+        activePlugins.add(plugin);
+        dispatcher = new AsyncEventDispatcher(2, 16, 1, AsyncOverflowPolicy.DROP, activePlugins::contains);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testRemovedLanesAreNotRecreated() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        dispatcher.submit(plugin, null, () -> {
+            entered.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        dispatcher.submit(plugin, null, ran::incrementAndGet);
+
+        // Déchargement : la tâche en attente est écartée
+        activePlugins.remove(plugin);
+        assertEquals(1, dispatcher.removeLanes(plugin));
+        release.countDown();
+
+        // Une tâche soumise après le déchargement ne recrée pas de file
+        dispatcher.submit(plugin, null, ran::incrementAndGet);
+        assertTrue(dispatcher.getQueueDepths().isEmpty());
+        Thread.sleep(50);
+        assertEquals(0, ran.get(), "Aucune tâche ne devrait atteindre un plugin déchargé");
+    }
+
+    @Test
+    public void testReloadedPluginGetsNewLanes() throws InterruptedException {
+        activePlugins.remove(plugin);
+        dispatcher.removeLanes(plugin);
+
+        // Le plugin rechargé enregistre de nouveau des listeners
+        activePlugins.add(plugin);
+        CountDownLatch ran = new CountDownLatch(1);
+        dispatcher.submit(plugin, null, ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,827 @@
+package fr.farmvivi.discordbot.core.event;
+
+import fr.farmvivi.discordbot.core.api.event.Cancellable;
+import fr.farmvivi.discordbot.core.api.event.Event;
+import fr.farmvivi.discordbot.core.api.event.EventBatchOptions;
+import fr.farmvivi.discordbot.core.api.event.EventHandler;
+import fr.farmvivi.discordbot.core.api.event.EventPriority;
+import fr.farmvivi.discordbot.core.api.event.Shardable;
+import fr.farmvivi.discordbot.core.api.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour la classe SimpleEventManager.
+ */
+public class SimpleEventManagerTest {
+    private SimpleEventManager eventManager;
+    private Plugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        eventManager = new SimpleEventManager();
+        plugin = Mockito.mock(Plugin.class);
+        when(plugin.getName()).thenReturn("TestPlugin");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventManager.shutdown();
+    }
+
+    @Test
+    public void testHandlersAreCalledInPriorityOrder() {
+        List<String> calls = new ArrayList<>();
+        eventManager.registerListener(new OrderedListener(calls), plugin);
+
+        eventManager.fireEvent(new TestEvent());
+
+        assertEquals(List.of("LOWEST", "NORMAL", "MONITOR"), calls);
+        assertEquals(3, eventManager.getHandlerCount(TestEvent.class));
+    }
+
+    @Test
+    public void testCancelledEventSkipsHandlers() {
+        List<String> calls = new ArrayList<>();
+        eventManager.registerListener(new CancellingListener(calls), plugin);
+
+        CancellableTestEvent event = eventManager.fireEvent(new CancellableTestEvent());
+
+        assertTrue(event.isCancelled());
+        assertEquals(List.of("cancel", "monitor"), calls,
+                "Seuls les handlers qui acceptent les événements annulés devraient être appelés");
+    }
+
+    @Test
+    public void testHandlerExceptionDoesNotStopDispatch() {
+        List<String> calls = new ArrayList<>();
+        eventManager.registerListener(new FailingListener(calls), plugin);
+
+        assertDoesNotThrow(() -> eventManager.fireEvent(new TestEvent()));
+        assertEquals(List.of("after"), calls);
+    }
+
+    @Test
+    public void testNonPublicListenerClass() {
+        PrivateListener listener = new PrivateListener();
+        eventManager.registerListener(listener, plugin);
+
+        eventManager.fireEvent(new TestEvent());
+        eventManager.fireEvent(new TestEvent());
+
+        assertEquals(2, listener.count);
+    }
+
+    @Test
+    public void testListenerFromIsolatedClassLoader() throws Exception {
+        // Comme un plugin : la classe du listener est définie par un autre chargeur de classes
+        ClassLoader loader = new IsolatingClassLoader(IsolatedListener.class.getName(), getClass().getClassLoader());
+        Class<?> listenerClass = loader.loadClass(IsolatedListener.class.getName());
+        assertNotSame(IsolatedListener.class, listenerClass);
+
+        Constructor<?> constructor = listenerClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object listener = constructor.newInstance();
+        eventManager.registerListener(listener, plugin);
+        eventManager.fireEvent(new TestEvent());
+
+        assertEquals(1, ((IntSupplier) listener).getAsInt());
+    }
+
+    @Test
+    public void testUnregisterListener() {
+        PrivateListener listener = new PrivateListener();
+        eventManager.registerListener(listener, plugin);
+
+        assertTrue(eventManager.hasListeners(TestEvent.class));
+        assertTrue(eventManager.unregisterListener(listener));
+        assertFalse(eventManager.hasListeners(TestEvent.class));
+
+        eventManager.fireEvent(new TestEvent());
+        assertEquals(0, listener.count);
+    }
+
+    @Test
+    public void testSupertypeHandlersReceiveSubclassEvents() {
+        List<String> calls = new ArrayList<>();
+        eventManager.registerListener(new HierarchyListener(calls), plugin);
+
+        eventManager.fireEvent(new ChildEvent());
+
+        // Fusionnés par priorité, quel que soit le type déclaré
+        assertEquals(List.of("child-low", "domain-normal", "child-high", "any-monitor"), calls);
+        assertTrue(eventManager.hasListeners(ChildEvent.class));
+        assertEquals(2, eventManager.getHandlerCount(ChildEvent.class));
+
+        calls.clear();
+        eventManager.fireEvent(new TestEvent());
+        assertEquals(List.of("any-monitor"), calls);
+    }
+
+    @Test
+    public void testResolvedHandlersAreInvalidated() {
+        List<String> calls = new ArrayList<>();
+        eventManager.fireEvent(new ChildEvent());
+        assertFalse(eventManager.hasListeners(ChildEvent.class));
+
+        // Le cache résolu au premier envoi ne doit pas masquer un nouveau listener
+        HierarchyListener listener = new HierarchyListener(calls);
+        eventManager.registerListener(listener, plugin);
+        assertTrue(eventManager.hasListeners(ChildEvent.class));
+        eventManager.fireEvent(new ChildEvent());
+        assertEquals(4, calls.size());
+
+        eventManager.unregisterListener(listener);
+        assertFalse(eventManager.hasListeners(ChildEvent.class));
+        eventManager.fireEvent(new ChildEvent());
+        assertEquals(4, calls.size());
+    }
+
+    @Test
+    public void testLazyEventIsOnlyBuiltWhenObserved() {
+        List<String> calls = new ArrayList<>();
+        AtomicInteger built = new AtomicInteger();
+
+        assertNull(eventManager.fireEvent(ChildEvent.class, () -> {
+            built.incrementAndGet();
+            return new ChildEvent();
+        }));
+        assertEquals(0, built.get(), "L'événement ne devrait pas être construit sans listener");
+
+        // Un listener d'un type parent suffit à déclencher la construction
+        eventManager.registerListener(new HierarchyListener(calls), plugin);
+        ChildEvent event = eventManager.fireEvent(ChildEvent.class, () -> {
+            built.incrementAndGet();
+            return new ChildEvent();
+        });
+        assertNotNull(event);
+        assertEquals(1, built.get());
+        assertEquals(4, calls.size());
+    }
+
+    @Test
+    public void testLazySubtypeEventReachesSubtypeListener() {
+        ChildListener listener = new ChildListener();
+        eventManager.registerListener(listener, plugin);
+        assertFalse(eventManager.hasListeners(DomainEvent.class));
+
+        // La fabrique déclarée pour le type parent construit un sous-type écouté
+        DomainEvent event = eventManager.fireEvent(DomainEvent.class, ChildEvent::new);
+        assertNotNull(event, "L'événement devrait être construit pour le listener du sous-type");
+        assertEquals(1, listener.count);
+
+        // Sans listener, ni le type déclaré ni ses sous-types ne déclenchent la construction
+        eventManager.unregisterListener(listener);
+        assertNull(eventManager.fireEvent(DomainEvent.class, ChildEvent::new));
+        assertEquals(1, listener.count);
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        int threads = 8;
+        int listenersPerThread = 50;
+        List<PrivateListener> listeners = new ArrayList<>();
+        for (int i = 0; i < threads * listenersPerThread; i++) {
+            listeners.add(new PrivateListener());
+        }
+
+        // Des enregistrements concurrents (rechargement de plugins) ne doivent perdre aucun handler
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<PrivateListener> slice = listeners.subList(t * listenersPerThread, (t + 1) * listenersPerThread);
+                futures.add(executor.submit(() -> {
+                    for (PrivateListener listener : slice) {
+                        eventManager.registerListener(listener, plugin);
+                        eventManager.fireEvent(new TestEvent());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * listenersPerThread, eventManager.getHandlerCount(TestEvent.class));
+        assertEquals(threads * listenersPerThread, eventManager.getTotalHandlerCount());
+
+        for (PrivateListener listener : listeners) {
+            listener.count = 0;
+        }
+        eventManager.fireEvent(new TestEvent());
+        for (PrivateListener listener : listeners) {
+            assertEquals(1, listener.count, "Chaque listener devrait être appelé une seule fois");
+        }
+    }
+
+    @Test
+    public void testSlowPluginDoesNotStarveOthers() throws Exception {
+        eventManager.shutdown();
+        eventManager = new SimpleEventManager(2, 1, 16, AsyncOverflowPolicy.CALLER_RUNS);
+        Plugin otherPlugin = Mockito.mock(Plugin.class);
+        when(otherPlugin.getName()).thenReturn("OtherPlugin");
+
+        BlockingListener slow = new BlockingListener();
+        CountingListener fast = new CountingListener(5);
+        eventManager.registerListener(slow, plugin);
+        eventManager.registerListener(fast, otherPlugin);
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                eventManager.fireEventAsync(new TestEvent());
+            }
+
+            // Le plugin lent occupe un seul worker : l'autre plugin reçoit tous ses événements
+            assertTrue(fast.received.await(5, TimeUnit.SECONDS), "Le plugin rapide ne devrait pas attendre le plugin lent");
+            assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+            int pending = eventManager.getAsyncQueueDepths().get(plugin);
+            assertEquals(4, pending);
+        } finally {
+            slow.release.countDown();
+        }
+    }
+
+    @Test
+    public void testDropPolicyRejectsOverflow() throws Exception {
+        eventManager.shutdown();
+        eventManager = new SimpleEventManager(1, 1, 1, AsyncOverflowPolicy.DROP);
+        BlockingListener slow = new BlockingListener();
+        eventManager.registerListener(slow, plugin);
+
+        try {
+            eventManager.fireEventAsync(new TestEvent());
+            assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+            // Un événement en attente, les suivants sont rejetés
+            eventManager.fireEventAsync(new TestEvent());
+            eventManager.fireEventAsync(new TestEvent());
+            eventManager.fireEventAsync(new TestEvent());
+
+            assertEquals(1, eventManager.getAsyncQueueDepth());
+            assertEquals(2, eventManager.getAsyncRejectedCount());
+            assertEquals(4, eventManager.getAsyncSubmittedCount());
+        } finally {
+            slow.release.countDown();
+        }
+    }
+
+    @Test
+    public void testDefaultPolicyDropsOverflow() throws Exception {
+        BlockingListener slow = new BlockingListener();
+        eventManager.registerListener(slow, plugin);
+
+        try {
+            eventManager.fireEventAsync(new TestEvent());
+            assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+            // La file pleine rejette l'événement au lieu d'appeler le handler sur le thread appelant
+            for (int i = 0; i <= SimpleEventManager.DEFAULT_ASYNC_QUEUE_CAPACITY; i++) {
+                eventManager.fireEventAsync(new TestEvent());
+            }
+
+            assertEquals(1, eventManager.getAsyncRejectedCount());
+            assertEquals(0, eventManager.getAsyncCallerRunCount());
+        } finally {
+            slow.release.countDown();
+        }
+    }
+
+    @Test
+    public void testCancellableAsyncEventFollowsPriorityAcrossPlugins() throws Exception {
+        eventManager.shutdown();
+        eventManager = new SimpleEventManager(4, 1, 64, AsyncOverflowPolicy.BLOCK);
+        Plugin otherPlugin = Mockito.mock(Plugin.class);
+        when(otherPlugin.getName()).thenReturn("OtherPlugin");
+
+        int events = 50;
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(events);
+        eventManager.registerListener(new CancellingListener(calls), plugin);
+        eventManager.registerListener(new CancelObserver(calls, done), otherPlugin);
+
+        for (int i = 0; i < events; i++) {
+            eventManager.fireEventAsync(new CancellableTestEvent());
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // L'annulation du premier plugin est vue par les handlers de l'autre plugin, dans l'ordre des priorités
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            expected.addAll(List.of("cancel", "monitor", "other-monitor"));
+        }
+        assertEquals(expected, calls);
+    }
+
+    @Test
+    public void testShardedEventsKeepOrderPerKey() throws Exception {
+        eventManager.shutdown();
+        eventManager = new SimpleEventManager(4, 4, 64, AsyncOverflowPolicy.BLOCK);
+        ShardListener listener = new ShardListener(400);
+        eventManager.registerListener(listener, plugin);
+
+        for (int i = 0; i < 400; i++) {
+            eventManager.fireEventAsync(new ShardedTestEvent(i % 8, i));
+        }
+
+        assertTrue(listener.received.await(5, TimeUnit.SECONDS));
+        for (int key = 0; key < 8; key++) {
+            List<Integer> sequence = listener.sequences.get(key);
+            assertEquals(50, sequence.size());
+            for (int i = 1; i < sequence.size(); i++) {
+                assertTrue(sequence.get(i - 1) < sequence.get(i), "Les événements d'une même clé devraient rester ordonnés");
+            }
+        }
+    }
+
+    @Test
+    public void testShardsAreDeliveredInParallel() throws Exception {
+        eventManager.shutdown();
+        eventManager = new SimpleEventManager(2, 2, 16, AsyncOverflowPolicy.CALLER_RUNS);
+        ShardListener listener = new ShardListener(1);
+        listener.blockedKey = 0;
+        eventManager.registerListener(listener, plugin);
+
+        try {
+            eventManager.fireEventAsync(new ShardedTestEvent(0, 0));
+            eventManager.fireEventAsync(new ShardedTestEvent(0, 1));
+            assertTrue(listener.blocked.await(5, TimeUnit.SECONDS));
+
+            // La clé 1 est sur un autre shard : elle n'attend pas la clé 0
+            eventManager.fireEventAsync(new ShardedTestEvent(1, 2));
+            assertTrue(listener.received.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(2), listener.sequences.get(1));
+        } finally {
+            listener.release.countDown();
+        }
+    }
+
+    @Test
+    public void testBatchedSubscriptionDeliversWindow() throws Exception {
+        BlockingQueue<List<ShardedTestEvent>> batches = new LinkedBlockingQueue<>();
+        eventManager.subscribeBatched(ShardedTestEvent.class, plugin,
+                EventBatchOptions.builder().window(50).build(), batches::add);
+
+        for (int i = 0; i < 5; i++) {
+            eventManager.fireEvent(new ShardedTestEvent(0, i));
+        }
+
+        List<ShardedTestEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch, "Le lot aurait dû être livré à la fin de la fenêtre");
+        assertEquals(5, batch.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, batch.get(i).sequence);
+        }
+    }
+
+    @Test
+    public void testBatchIsDeliveredWhenFull() throws Exception {
+        BlockingQueue<List<ShardedTestEvent>> batches = new LinkedBlockingQueue<>();
+        eventManager.subscribeBatched(ShardedTestEvent.class, plugin,
+                EventBatchOptions.builder().window(EventBatchOptions.MAX_WINDOW_MS).maxSize(3).build(), batches::add);
+
+        for (int i = 0; i < 7; i++) {
+            eventManager.fireEvent(new ShardedTestEvent(0, i));
+        }
+
+        // Deux lots complets sans attendre la fin de la fenêtre, le dernier événement reste en attente
+        assertEquals(3, batches.poll(5, TimeUnit.SECONDS).size());
+        assertEquals(3, batches.poll(5, TimeUnit.SECONDS).size());
+        assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCoalescedSubscriptionKeepsLastEventPerKey() throws Exception {
+        BlockingQueue<List<ShardedTestEvent>> batches = new LinkedBlockingQueue<>();
+        eventManager.subscribeCoalesced(ShardedTestEvent.class, plugin,
+                EventBatchOptions.builder().window(50).build(), event -> event.key, batches::add);
+
+        eventManager.fireEvent(new ShardedTestEvent(1, 0));
+        eventManager.fireEvent(new ShardedTestEvent(2, 1));
+        eventManager.fireEvent(new ShardedTestEvent(1, 2));
+        eventManager.fireEvent(new ShardedTestEvent(2, 3));
+        eventManager.fireEvent(new ShardedTestEvent(1, 4));
+
+        List<ShardedTestEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertEquals(2, batch.size());
+        assertEquals(4, batch.get(0).sequence, "La clé 1 devrait garder son dernier événement");
+        assertEquals(3, batch.get(1).sequence, "La clé 2 devrait garder son dernier événement");
+    }
+
+    @Test
+    public void testBatchesKeepFiringOrder() throws Exception {
+        eventManager.shutdown();
+        eventManager = new SimpleEventManager(4, 1, 64, AsyncOverflowPolicy.BLOCK);
+        int events = 5000;
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(events);
+        eventManager.subscribeBatched(ShardedTestEvent.class, plugin,
+                EventBatchOptions.builder().window(1).maxSize(7).build(), batch -> {
+                    for (ShardedTestEvent event : batch) {
+                        received.add(event.sequence);
+                        done.countDown();
+                    }
+                });
+
+        // Les lots pleins (thread appelant) et les fins de fenêtre (thread de vidage) s'entrecroisent
+        for (int i = 0; i < events; i++) {
+            eventManager.fireEvent(new ShardedTestEvent(0, i));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < events; i++) {
+            int sequence = received.get(i);
+            assertEquals(i, sequence, "Les lots devraient être livrés dans l'ordre des événements");
+        }
+    }
+
+    @Test
+    public void testFlushTaskOfClosedBatcherIsCancelled() {
+        EventBatcher<TestEvent> batcher = new EventBatcher<>(TestEvent.class, plugin, EventBatchOptions.DEFAULT,
+                null, batch -> {
+        }, null);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            // Désinscription avant la planification de la tâche de fin de fenêtre
+            batcher.close();
+            ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(batcher::flush, 1, 1, TimeUnit.HOURS);
+            batcher.setFlushTask(task);
+
+            assertTrue(task.isCancelled(), "La tâche d'un lot déjà fermé ne devrait pas rester planifiée");
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUnsubscribedBatchIsNotDelivered() throws Exception {
+        BlockingQueue<List<ShardedTestEvent>> batches = new LinkedBlockingQueue<>();
+        Object subscription = eventManager.subscribeBatched(ShardedTestEvent.class, plugin,
+                EventBatchOptions.builder().window(50).build(), batches::add);
+        assertTrue(eventManager.hasListeners(ShardedTestEvent.class));
+
+        eventManager.fireEvent(new ShardedTestEvent(0, 0));
+        assertTrue(eventManager.unregisterListener(subscription));
+        eventManager.fireEvent(new ShardedTestEvent(0, 1));
+
+        assertFalse(eventManager.hasListeners(ShardedTestEvent.class));
+        assertNull(batches.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testInvalidBatchOptionsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> EventBatchOptions.builder().window(0).build());
+        assertThrows(IllegalArgumentException.class, () -> EventBatchOptions.builder().maxSize(0).build());
+    }
+
+    @Test
+    public void testProfilingRanksCostlyHandlers() {
+        List<String> calls = new ArrayList<>();
+        eventManager.registerListener(new SlowListener(), plugin);
+        eventManager.registerListener(new FailingListener(calls), plugin);
+
+        // Sans profilage, seules les exceptions sont comptées
+        eventManager.fireEvent(new TestEvent());
+        assertTrue(eventManager.getTopHandlers(10).stream().allMatch(stats -> stats.invocations() == 0));
+
+        eventManager.setProfilingEnabled(true);
+        eventManager.setSlowHandlerThreshold(1);
+        eventManager.fireEvent(new TestEvent());
+        eventManager.fireEvent(new TestEvent());
+
+        List<HandlerStats> top = eventManager.getTopHandlers(2);
+        assertEquals(2, top.size());
+        assertEquals("onSlow", top.get(0).methodName());
+        assertEquals(2, top.get(0).invocations());
+        assertTrue(top.get(0).maxNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals("TestPlugin", top.get(0).pluginName());
+
+        HandlerStats failing = eventManager.getTopHandlers(10).stream()
+                .filter(stats -> stats.methodName().equals("onFail"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, failing.exceptions(), "Les exceptions devraient être comptées même sans profilage");
+
+        eventManager.resetProfiling();
+        assertTrue(eventManager.getTopHandlers(10).stream().allMatch(stats -> stats.totalNanos() == 0));
+        assertThrows(IllegalArgumentException.class, () -> eventManager.setSlowHandlerThreshold(-1));
+    }
+
+    @Test
+    public void testInvalidAsyncSettingsThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimpleEventManager(0, 1, 16, AsyncOverflowPolicy.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimpleEventManager(2, 0, 16, AsyncOverflowPolicy.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimpleEventManager(2, 1, 0, AsyncOverflowPolicy.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimpleEventManager(2, 1, 16, null));
+    }
+
+    public static class TestEvent implements Event {
+    }
+
+    public static class ShardedTestEvent implements Event, Shardable {
+        private final int key;
+        private final int sequence;
+
+        public ShardedTestEvent(int key, int sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public Object getShardKey() {
+            return key;
+        }
+    }
+
+    public abstract static class DomainEvent implements Event {
+    }
+
+    public static class ChildEvent extends DomainEvent {
+    }
+
+    public static class CancellableTestEvent implements Event, Cancellable {
+        private boolean cancelled = false;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+
+    public static class OrderedListener {
+        private final List<String> calls;
+
+        public OrderedListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onMonitor(TestEvent event) {
+            calls.add("MONITOR");
+        }
+
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onLowest(TestEvent event) {
+            calls.add("LOWEST");
+        }
+
+        @EventHandler
+        public void onNormal(TestEvent event) {
+            calls.add("NORMAL");
+        }
+    }
+
+    public static class CancellingListener {
+        private final List<String> calls;
+
+        public CancellingListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onCancel(CancellableTestEvent event) {
+            calls.add("cancel");
+            event.setCancelled(true);
+        }
+
+        @EventHandler
+        public void onNormal(CancellableTestEvent event) {
+            calls.add("normal");
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onMonitor(CancellableTestEvent event) {
+            calls.add("monitor");
+        }
+    }
+
+    public static class CancelObserver {
+        private final List<String> calls;
+        private final CountDownLatch done;
+
+        public CancelObserver(List<String> calls, CountDownLatch done) {
+            this.calls = calls;
+            this.done = done;
+        }
+
+        @EventHandler
+        public void onNormal(CancellableTestEvent event) {
+            calls.add("other-normal");
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onMonitor(CancellableTestEvent event) {
+            calls.add("other-monitor");
+            done.countDown();
+        }
+    }
+
+    public static class HierarchyListener {
+        private final List<String> calls;
+
+        public HierarchyListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onAny(Event event) {
+            calls.add("any-monitor");
+        }
+
+        @EventHandler
+        public void onDomain(DomainEvent event) {
+            calls.add("domain-normal");
+        }
+
+        @EventHandler(priority = EventPriority.HIGH)
+        public void onChildHigh(ChildEvent event) {
+            calls.add("child-high");
+        }
+
+        @EventHandler(priority = EventPriority.LOW)
+        public void onChildLow(ChildEvent event) {
+            calls.add("child-low");
+        }
+    }
+
+    public static class FailingListener {
+        private final List<String> calls;
+
+        public FailingListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @EventHandler(priority = EventPriority.LOW)
+        public void onFail(TestEvent event) {
+            throw new IllegalStateException("Erreur volontaire");
+        }
+
+        @EventHandler(priority = EventPriority.HIGH)
+        public void onAfter(TestEvent event) {
+            calls.add("after");
+        }
+    }
+
+    public static class SlowListener {
+        @EventHandler
+        public void onSlow(TestEvent event) throws InterruptedException {
+            Thread.sleep(20);
+        }
+    }
+
+    public static class BlockingListener {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @EventHandler
+        public void onEvent(TestEvent event) throws InterruptedException {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class CountingListener {
+        private final CountDownLatch received;
+
+        public CountingListener(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @EventHandler
+        public void onEvent(TestEvent event) {
+            received.countDown();
+        }
+    }
+
+    public static class ShardListener {
+        private final Map<Integer, List<Integer>> sequences = new ConcurrentHashMap<>();
+        private final CountDownLatch received;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private int blockedKey = -1;
+
+        public ShardListener(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @EventHandler
+        public void onEvent(ShardedTestEvent event) throws InterruptedException {
+            if (event.key == blockedKey) {
+                blocked.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return;
+            }
+            sequences.computeIfAbsent(event.key, k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.sequence);
+            received.countDown();
+        }
+    }
+
+    public static class ChildListener {
+        private int count = 0;
+
+        @EventHandler
+        public void onChild(ChildEvent event) {
+            count++;
+        }
+    }
+
+    private static class PrivateListener {
+        private int count = 0;
+
+        @EventHandler
+        public void onEvent(TestEvent event) {
+            count++;
+        }
+    }
+
+    /**
+     * Chargeur de classes qui redéfinit une classe donnée au lieu de la déléguer à son parent.
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+        private final String isolatedName;
+
+        IsolatingClassLoader(String isolatedName, ClassLoader parent) {
+            super(parent);
+            this.isolatedName = isolatedName;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(isolatedName)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                String resource = name.replace('.', '/') + ".class";
+                try (InputStream in = getParent().getResourceAsStream(resource)) {
+                    if (in == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+                    byte[] bytes = in.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
+
+/**
+ * Listener chargé par un chargeur de classes isolé. Classe de premier niveau :
+ * une classe imbriquée redéfinie ne serait plus cohérente avec sa classe englobante.
+ */
+class IsolatedListener implements IntSupplier {
+    private int count = 0;
+
+    @EventHandler
+    public int onEvent(SimpleEventManagerTest.TestEvent event) {
+        return ++count;
+    }
+
+    @Override
+    public int getAsInt() {
+        return count;
+    }
+}